@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.iab.openrtb.request.BidRequest;
 import com.iab.openrtb.request.Device;
 import com.iab.openrtb.request.Imp;
+import com.iab.openrtb.request.Regs;
 import com.iab.openrtb.request.Site;
 import com.iab.openrtb.request.User;
 import io.vertx.core.Future;
@@ -19,15 +20,18 @@ import io.vertx.ext.web.RoutingContext;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.exception.PreBidException;
 import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
 import org.prebid.server.proto.openrtb.ext.request.ExtPriceGranularity;
+import org.prebid.server.proto.openrtb.ext.request.ExtRegs;
 import org.prebid.server.proto.openrtb.ext.request.ExtRequestPrebid;
 import org.prebid.server.proto.openrtb.ext.request.ExtRequestTargeting;
 import org.prebid.server.proto.openrtb.ext.request.ExtSite;
+import org.prebid.server.proto.openrtb.ext.request.ExtUser;
 import org.prebid.server.util.HttpUtil;
 import org.prebid.server.validation.RequestValidator;
 import org.prebid.server.validation.model.ValidationResult;
@@ -98,7 +102,7 @@ public class AuctionRequestFactory {
      * Method determines {@link BidRequest} properties which were not set explicitly by the client, but can be
      * updated by values derived from headers and other request attributes.
      */
-    public Future<BidRequest> fromRequest(RoutingContext context) {
+    public Future<AuctionContext> fromRequest(RoutingContext context) {
         final BidRequest bidRequest;
         try {
             bidRequest = parseRequest(context);
@@ -109,21 +113,32 @@ public class AuctionRequestFactory {
         return storedRequestProcessor.processStoredRequests(bidRequest)
                 .map(resolvedBidRequest -> fillImplicitParameters(resolvedBidRequest, context, timeoutResolver))
                 .map(this::validateRequest)
-                .map(interstitialProcessor::process);
+                .map(auctionContext -> auctionContext.toBuilder()
+                        .bidRequest(interstitialProcessor.process(auctionContext.getBidRequest()))
+                        .build());
     }
 
 
+    /**
+     * Returns exception describing request which body exceeds max request size.
+     */
+    public InvalidRequestException requestTooLarge() {
+        return new InvalidRequestException(
+                String.format("Request size exceeded max size of %d bytes.", maxRequestSize));
+    }
+
     /**
      * Parses request body to bid request. Throws {@link InvalidRequestException} if body is empty, exceeds max
      * request size or couldn't be deserialized to {@link BidRequest}.
+     * <p>
+     * Body is decoded straight from the underlying bytes, without intermediate {@link String} representation.
      */
     private BidRequest parseRequest(RoutingContext context) {
         final Buffer body = context.getBody();
         if (body == null) {
             throw new InvalidRequestException("Incoming request has no body");
         } else if (body.length() > maxRequestSize) {
-            throw new InvalidRequestException(
-                    String.format("Request size exceeded max size of %d bytes.", maxRequestSize));
+            throw requestTooLarge();
         } else {
             try {
                 return Json.decodeValue(body, BidRequest.class);
@@ -136,8 +151,11 @@ public class AuctionRequestFactory {
     /**
      * If needed creates a new {@link BidRequest} which is a copy of original but with some fields set with values
      * derived from request parameters (headers, cookie etc.).
+     * <p>
+     * Returns {@link AuctionContext} holding resulting {@link BidRequest} and its extensions decoded only once.
      */
-    BidRequest fillImplicitParameters(BidRequest bidRequest, RoutingContext context, TimeoutResolver timeoutResolver) {
+    AuctionContext fillImplicitParameters(BidRequest bidRequest, RoutingContext context,
+                                          TimeoutResolver timeoutResolver) {
         final BidRequest result;
 
         final HttpServerRequest request = context.request();
@@ -150,8 +168,12 @@ public class AuctionRequestFactory {
         final Integer at = bidRequest.getAt();
         final boolean updateAt = at == null || at == 0;
         final ObjectNode ext = bidRequest.getExt();
-        final ObjectNode populatedExt = ext != null
-                ? populateBidRequestExtension(ext, ObjectUtils.defaultIfNull(populatedImps, imps))
+        final ExtBidRequest extBidRequest = ext != null ? parseExt(ext) : null;
+        final ExtBidRequest populatedExtBidRequest = extBidRequest != null
+                ? populateBidRequestExtension(extBidRequest, ObjectUtils.defaultIfNull(populatedImps, imps))
+                : null;
+        final ObjectNode populatedExt = populatedExtBidRequest != null
+                ? Json.mapper.valueToTree(populatedExtBidRequest)
                 : null;
         final boolean updateCurrency = CollectionUtils.isEmpty(bidRequest.getCur()) && adServerCurrency != null;
         final Long resolvedTmax = resolveTmax(bidRequest.getTmax(), timeoutResolver);
@@ -174,7 +196,57 @@ public class AuctionRequestFactory {
         } else {
             result = bidRequest;
         }
-        return result;
+
+        return AuctionContext.builder()
+                .bidRequest(result)
+                .extBidRequest(populatedExtBidRequest != null ? populatedExtBidRequest : extBidRequest)
+                .extUser(parseUserExt(result.getUser()))
+                .extRegs(parseRegsExt(result.getRegs()))
+                .build();
+    }
+
+    /**
+     * Decodes bidrequest.ext to {@link ExtBidRequest}. Throws {@link InvalidRequestException} if failed.
+     */
+    private static ExtBidRequest parseExt(ObjectNode ext) {
+        try {
+            return Json.mapper.treeToValue(ext, ExtBidRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidRequestException(String.format("Error decoding bidRequest.ext: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Decodes bidrequest.user.ext to {@link ExtUser} or returns null if not present.
+     * Throws {@link InvalidRequestException} if failed.
+     */
+    private static ExtUser parseUserExt(User user) {
+        final ObjectNode userExt = user != null ? user.getExt() : null;
+        if (userExt != null) {
+            try {
+                return Json.mapper.treeToValue(userExt, ExtUser.class);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRequestException(
+                        String.format("request.user.ext object is not valid: %s", e.getMessage()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decodes bidrequest.regs.ext to {@link ExtRegs} or returns null if not present.
+     * Throws {@link InvalidRequestException} if failed.
+     */
+    private static ExtRegs parseRegsExt(Regs regs) {
+        final ObjectNode regsExt = regs != null ? regs.getExt() : null;
+        if (regsExt != null) {
+            try {
+                return Json.mapper.treeToValue(regsExt, ExtRegs.class);
+            } catch (JsonProcessingException e) {
+                throw new InvalidRequestException(String.format("request.regs.ext is invalid: %s", e.getMessage()));
+            }
+        }
+        return null;
     }
 
     /**
@@ -275,14 +347,7 @@ public class AuctionRequestFactory {
     /**
      * Creates updated bidrequest.ext {@link ExtBidRequest} if required.
      */
-    private ObjectNode populateBidRequestExtension(ObjectNode ext, List<Imp> imps) {
-        final ExtBidRequest extBidRequest;
-        try {
-            extBidRequest = Json.mapper.treeToValue(ext, ExtBidRequest.class);
-        } catch (JsonProcessingException e) {
-            throw new InvalidRequestException(String.format("Error decoding bidRequest.ext: %s", e.getMessage()));
-        }
-
+    private ExtBidRequest populateBidRequestExtension(ExtBidRequest extBidRequest, List<Imp> imps) {
         final ExtRequestPrebid prebid = extBidRequest.getPrebid();
 
         final ExtRequestTargeting targeting = prebid != null ? prebid.getTargeting() : null;
@@ -306,13 +371,13 @@ public class AuctionRequestFactory {
         final Map<String, String> aliases = aliases(prebid, imps);
 
         if (extRequestTargeting != null || aliases != null) {
-            return Json.mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(
+            return ExtBidRequest.of(ExtRequestPrebid.of(
                     ObjectUtils.defaultIfNull(aliases, getIfNotNull(prebid, ExtRequestPrebid::getAliases)),
                     getIfNotNull(prebid, ExtRequestPrebid::getBidadjustmentfactors),
                     ObjectUtils.defaultIfNull(extRequestTargeting,
                             getIfNotNull(prebid, ExtRequestPrebid::getTargeting)),
                     getIfNotNull(prebid, ExtRequestPrebid::getStoredrequest),
-                    getIfNotNull(prebid, ExtRequestPrebid::getCache))));
+                    getIfNotNull(prebid, ExtRequestPrebid::getCache)));
         }
         return null;
     }
@@ -390,11 +455,11 @@ public class AuctionRequestFactory {
     /**
      * Performs thorough validation of fully constructed {@link BidRequest} that is going to be used to hold an auction.
      */
-    BidRequest validateRequest(BidRequest bidRequest) {
-        final ValidationResult validationResult = requestValidator.validate(bidRequest);
+    AuctionContext validateRequest(AuctionContext auctionContext) {
+        final ValidationResult validationResult = requestValidator.validate(auctionContext);
         if (validationResult.hasErrors()) {
             throw new InvalidRequestException(validationResult.getErrors());
         }
-        return bidRequest;
+        return auctionContext;
     }
 }
@@ -0,0 +1,179 @@
+package org.prebid.server.auction;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.vertx.core.Vertx;
+import org.prebid.server.execution.Timeout;
+import org.prebid.server.metric.Metrics;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plans time budget for each bidder in auction based on its recent response times.
+ * <p>
+ * Keeps rolling response time histogram per bidder (or per bidder and account if account level is enabled) and:
+ * <ul>
+ * <li>limits bidder {@link Timeout} by configured percentile of its response time, so auction doesn't wait for
+ * the slow tail longer than bidder usually needs</li>
+ * <li>tells to skip bidder at all if its median response time exceeds the time remaining for auction,
+ * since it's unlikely to answer in time</li>
+ * </ul>
+ * Until enough response times are collected for bidder, the auction {@link Timeout} is used as is.
+ * <p>
+ * Only response times of bidder calls made with the auction {@link Timeout} are recorded: calls limited by planned
+ * timeout are cut off at the planned budget, so their times would pull percentile down to the budget and it could
+ * never grow back. To keep estimates up to date, configured fraction of calls is made with the auction
+ * {@link Timeout} even if it could be limited.
+ * <p>
+ * Median and percentile are recomputed periodically rather than on each auction, since taking histogram snapshot
+ * copies and sorts all samples of the window. Number of tracked histograms is bounded, idle ones are expired.
+ */
+public class BidderTimeoutPlanner {
+
+    private static final double MEDIAN = 0.5;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double explorationRate;
+    private final int minSamples;
+    private final long windowSeconds;
+    private final boolean accountLevel;
+    private final long refreshPeriodMs;
+    private final Vertx vertx;
+    private final Metrics metrics;
+
+    private final Cache<String, ResponseTimes> responseTimes;
+
+    public BidderTimeoutPlanner(boolean enabled, double percentile, double explorationRate, int minSamples,
+                                long windowSeconds, boolean accountLevel, int maxEntries, long refreshPeriodMs,
+                                Vertx vertx, Metrics metrics) {
+        if (percentile <= 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be in range (0, 1]");
+        }
+        if (explorationRate < 0 || explorationRate > 1) {
+            throw new IllegalArgumentException("Exploration rate must be in range [0, 1]");
+        }
+        if (minSamples < 1 || windowSeconds < 1 || maxEntries < 1 || refreshPeriodMs < 1) {
+            throw new IllegalArgumentException(
+                    "Min samples, window seconds, max entries and refresh period must be positive");
+        }
+
+        this.enabled = enabled;
+        this.percentile = percentile;
+        this.explorationRate = explorationRate;
+        this.minSamples = minSamples;
+        this.windowSeconds = windowSeconds;
+        this.accountLevel = accountLevel;
+        this.refreshPeriodMs = refreshPeriodMs;
+        this.vertx = Objects.requireNonNull(vertx);
+        this.metrics = Objects.requireNonNull(metrics);
+
+        responseTimes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(windowSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Creates planner which doesn't change auction {@link Timeout} for any bidder.
+     */
+    public static BidderTimeoutPlanner disabled(Vertx vertx, Metrics metrics) {
+        return new BidderTimeoutPlanner(false, 1, 0, 1, 1, false, 1, 1, vertx, metrics);
+    }
+
+    /**
+     * Sets timer for periodic recomputing of response time estimates.
+     * <p>
+     * Must be called on Vertx event loop thread.
+     */
+    public void initialize() {
+        if (enabled) {
+            vertx.setPeriodic(refreshPeriodMs, ignored -> refresh());
+        }
+    }
+
+    /**
+     * Records bidder response time to be used for the further planning, unless bidder was requested with
+     * {@link Timeout} limited by this planner.
+     * <p>
+     * Response time is expected to be measured from the moment bidder was requested, not from auction start.
+     */
+    public void recordResponseTime(String bidder, String accountId, int responseTime, boolean timeoutLimited) {
+        if (enabled && !timeoutLimited) {
+            responseTimes.get(key(bidder, accountId), ignored -> new ResponseTimes(windowSeconds))
+                    .histogram.update(responseTime);
+        }
+    }
+
+    /**
+     * Returns {@link Timeout} bidder should be requested with or null if bidder should not be requested at all,
+     * because it's unlikely to respond within remaining time. The given {@link Timeout} itself is returned if it's
+     * not limited.
+     */
+    public Timeout plan(String bidder, String accountId, Timeout timeout) {
+        final ResponseTimes bidderResponseTimes = enabled ? responseTimes.getIfPresent(key(bidder, accountId)) : null;
+        final Estimates estimates = bidderResponseTimes != null ? bidderResponseTimes.estimates : null;
+        if (estimates == null) {
+            return timeout;
+        }
+
+        final long remaining = timeout.remaining();
+        if (estimates.median > remaining) {
+            metrics.updateAdapterBidsForfeitedMetric(bidder);
+            return null;
+        }
+
+        final long budget = estimates.percentile;
+        if (budget >= remaining || ThreadLocalRandom.current().nextDouble() < explorationRate) {
+            return timeout;
+        }
+
+        final long timeoutCut = remaining - budget;
+        metrics.updateAdapterTimeoutCutMetric(bidder, timeoutCut);
+        return timeout.minus(timeoutCut);
+    }
+
+    /**
+     * Recomputes median and percentile of all tracked response times.
+     */
+    void refresh() {
+        for (ResponseTimes bidderResponseTimes : responseTimes.asMap().values()) {
+            final Snapshot snapshot = bidderResponseTimes.histogram.getSnapshot();
+            bidderResponseTimes.estimates = snapshot.size() >= minSamples
+                    ? new Estimates(snapshot.getValue(MEDIAN), (long) Math.ceil(snapshot.getValue(percentile)))
+                    : null;
+        }
+    }
+
+    private String key(String bidder, String accountId) {
+        return accountLevel ? bidder + '.' + accountId : bidder;
+    }
+
+    private static class ResponseTimes {
+
+        private final Histogram histogram;
+
+        // null if not enough response times were recorded
+        private volatile Estimates estimates;
+
+        ResponseTimes(long windowSeconds) {
+            histogram = new Histogram(new SlidingTimeWindowArrayReservoir(windowSeconds, TimeUnit.SECONDS));
+        }
+    }
+
+    private static class Estimates {
+
+        private final double median;
+        private final long percentile;
+
+        Estimates(double median, long percentile) {
+            this.median = median;
+            this.percentile = percentile;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.prebid.server.auction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.iab.openrtb.request.BidRequest;
+import com.iab.openrtb.request.Imp;
+import org.apache.commons.collections4.CollectionUtils;
+import org.prebid.server.bidder.BidderCatalog;
+import org.prebid.server.bidder.model.BidderBid;
+import org.prebid.server.bidder.model.BidderSeatBid;
+import org.prebid.server.bidder.model.TrafficShapingRule;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.proto.openrtb.ext.response.BidType;
+
+import java.time.Clock;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suppresses requests to bidders which rarely bid for particular account and media type.
+ * <p>
+ * Tracks bid rate per bidder, account and media type with exponentially decaying counters. If bid rate of all
+ * media types requested from bidder is below configured minimum, only exploration share of requests is sent to it.
+ * Only responses completed without errors are counted, so bidder outage doesn't make it look like low-yield one.
+ * <p>
+ * Number of tracked bid rates is bounded, idle ones are expired, since accounts come from incoming requests.
+ * <p>
+ * Applies only to bidders having {@link TrafficShapingRule} configured.
+ */
+public class BidderTrafficShaper {
+
+    private final BidderCatalog bidderCatalog;
+    private final Metrics metrics;
+    private final Clock clock;
+
+    private final Cache<String, DecayingBidRate> bidRates;
+
+    public BidderTrafficShaper(int maxEntries, long idleSeconds, BidderCatalog bidderCatalog, Metrics metrics,
+                               Clock clock) {
+        if (maxEntries < 1 || idleSeconds < 1) {
+            throw new IllegalArgumentException("Max entries and idle seconds must be positive");
+        }
+
+        this.bidderCatalog = Objects.requireNonNull(bidderCatalog);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.clock = Objects.requireNonNull(clock);
+
+        bidRates = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idleSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Tells if given {@link BidRequest} should be sent to bidder.
+     */
+    public boolean shouldRequest(String bidder, String accountId, BidRequest bidRequest) {
+        final TrafficShapingRule rule = bidderCatalog.trafficShapingRuleByName(bidder);
+        if (rule == null) {
+            return true;
+        }
+
+        final long now = clock.millis();
+        for (BidType mediaType : mediaTypes(bidRequest.getImp())) {
+            final DecayingBidRate bidRate = bidRates.getIfPresent(key(bidder, accountId, mediaType));
+            if (bidRate == null || !bidRate.isLowYield(rule, now)) {
+                return true;
+            }
+        }
+
+        if (ThreadLocalRandom.current().nextDouble() < rule.getExplorationRate()) {
+            return true;
+        }
+
+        metrics.updateAdapterRequestSuppressedMetric(bidder);
+        return false;
+    }
+
+    /**
+     * Records if bidder responded with bids for each media type of sent {@link BidRequest}. Responses with errors
+     * (timeouts, transport errors, etc.) are not recorded.
+     */
+    public void recordResult(String bidder, String accountId, BidRequest bidRequest, BidderSeatBid seatBid) {
+        final TrafficShapingRule rule = bidderCatalog.trafficShapingRuleByName(bidder);
+        if (rule == null || CollectionUtils.isNotEmpty(seatBid.getErrors())) {
+            return;
+        }
+
+        final long now = clock.millis();
+        final Set<BidType> bidTypes = bidTypes(seatBid.getBids());
+        for (BidType mediaType : mediaTypes(bidRequest.getImp())) {
+            bidRates.get(key(bidder, accountId, mediaType), ignored -> new DecayingBidRate(now))
+                    .update(rule, now, bidTypes.contains(mediaType));
+        }
+    }
+
+    private static String key(String bidder, String accountId, BidType mediaType) {
+        return bidder + '.' + accountId + '.' + mediaType;
+    }
+
+    private static Set<BidType> mediaTypes(List<Imp> imps) {
+        final Set<BidType> mediaTypes = EnumSet.noneOf(BidType.class);
+        for (Imp imp : imps) {
+            if (imp.getBanner() != null) {
+                mediaTypes.add(BidType.banner);
+            }
+            if (imp.getVideo() != null) {
+                mediaTypes.add(BidType.video);
+            }
+            if (imp.getXNative() != null) {
+                mediaTypes.add(BidType.xNative);
+            }
+            if (imp.getAudio() != null) {
+                mediaTypes.add(BidType.audio);
+            }
+        }
+        return mediaTypes;
+    }
+
+    private static Set<BidType> bidTypes(List<BidderBid> bids) {
+        final Set<BidType> bidTypes = EnumSet.noneOf(BidType.class);
+        if (bids != null) {
+            for (BidderBid bid : bids) {
+                if (bid.getType() != null) {
+                    bidTypes.add(bid.getType());
+                }
+            }
+        }
+        return bidTypes;
+    }
+
+    /**
+     * Holds number of requests and responses with bids, both exponentially decaying with time.
+     */
+    private static class DecayingBidRate {
+
+        private double requests;
+        private double bids;
+        private long lastUpdated;
+
+        DecayingBidRate(long now) {
+            lastUpdated = now;
+        }
+
+        synchronized void update(TrafficShapingRule rule, long now, boolean gotBids) {
+            decay(rule, now);
+            requests++;
+            if (gotBids) {
+                bids++;
+            }
+        }
+
+        synchronized boolean isLowYield(TrafficShapingRule rule, long now) {
+            decay(rule, now);
+            return requests >= rule.getMinRequests() && bids / requests < rule.getMinBidRate();
+        }
+
+        private void decay(TrafficShapingRule rule, long now) {
+            final long elapsed = now - lastUpdated;
+            if (elapsed > 0) {
+                final double factor = Math.pow(0.5, elapsed / (rule.getHalfLifeSeconds() * 1000.0));
+                requests *= factor;
+                bids *= factor;
+                lastUpdated = now;
+            }
+        }
+    }
+}
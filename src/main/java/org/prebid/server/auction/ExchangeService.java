@@ -26,6 +26,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.auction.model.BidderRequest;
 import org.prebid.server.auction.model.BidderResponse;
 import org.prebid.server.auction.model.Tuple2;
@@ -76,6 +77,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -94,6 +96,7 @@ import java.util.stream.StreamSupport;
 public class ExchangeService {
 
     private static final String PREBID_EXT = "prebid";
+    private static final String BIDDER_EXT = "bidder";
     private static final String CACHE = "cache";
     private static final String DEFAULT_CURRENCY = "USD";
     private static final BigDecimal THOUSAND = BigDecimal.valueOf(1000);
@@ -108,6 +111,8 @@ public class ExchangeService {
     private final CurrencyConversionService currencyService;
     private final GdprService gdprService;
     private final EventsService eventsService;
+    private final BidderTimeoutPlanner bidderTimeoutPlanner;
+    private final BidderTrafficShaper bidderTrafficShaper;
     private final Metrics metrics;
     private final Clock clock;
     private final boolean useGeoLocation;
@@ -117,8 +122,9 @@ public class ExchangeService {
                            ResponseBidValidator responseBidValidator, CacheService cacheService,
                            BidResponsePostProcessor bidResponsePostProcessor,
                            CurrencyConversionService currencyService, GdprService gdprService,
-                           EventsService eventsService, Metrics metrics, Clock clock, boolean useGeoLocation,
-                           long expectedCacheTime) {
+                           EventsService eventsService, BidderTimeoutPlanner bidderTimeoutPlanner,
+                           BidderTrafficShaper bidderTrafficShaper, Metrics metrics, Clock clock,
+                           boolean useGeoLocation, long expectedCacheTime) {
         if (expectedCacheTime < 0) {
             throw new IllegalArgumentException("Expected cache time should be positive");
         }
@@ -130,6 +136,8 @@ public class ExchangeService {
         this.bidResponsePostProcessor = Objects.requireNonNull(bidResponsePostProcessor);
         this.gdprService = gdprService;
         this.eventsService = eventsService;
+        this.bidderTimeoutPlanner = Objects.requireNonNull(bidderTimeoutPlanner);
+        this.bidderTrafficShaper = Objects.requireNonNull(bidderTrafficShaper);
         this.metrics = Objects.requireNonNull(metrics);
         this.clock = Objects.requireNonNull(clock);
         this.useGeoLocation = useGeoLocation;
@@ -140,15 +148,10 @@ public class ExchangeService {
      * Runs an auction: delegates request to applicable bidders, gathers responses from them and constructs final
      * response containing returned bids and additional information in extensions.
      */
-    public Future<BidResponse> holdAuction(BidRequest bidRequest, UidsCookie uidsCookie, Timeout timeout,
+    public Future<BidResponse> holdAuction(AuctionContext auctionContext, UidsCookie uidsCookie, Timeout timeout,
                                            MetricsContext metricsContext, RoutingContext context) {
-        // extract ext from bid request
-        final ExtBidRequest requestExt;
-        try {
-            requestExt = requestExt(bidRequest);
-        } catch (PreBidException e) {
-            return Future.failedFuture(e);
-        }
+        final BidRequest bidRequest = auctionContext.getBidRequest();
+        final ExtBidRequest requestExt = auctionContext.getExtBidRequest();
 
         final Map<String, String> aliases = aliases(requestExt);
         final ExtRequestTargeting targeting = targeting(requestExt);
@@ -158,13 +161,14 @@ public class ExchangeService {
 
         final long startTime = clock.millis();
 
-        return extractBidderRequests(bidRequest, uidsCookie, aliases, timeout)
+        return extractBidderRequests(auctionContext, uidsCookie, aliases, timeout)
+                .map(bidderRequests -> shapeTraffic(bidderRequests, aliases, publisherId))
                 .map(bidderRequests ->
                         updateRequestMetric(bidderRequests, uidsCookie, aliases, publisherId, metricsContext))
                 .compose(bidderRequests -> CompositeFuture.join(bidderRequests.stream()
                         .map(bidderRequest -> requestBids(bidderRequest, startTime,
-                                auctionTimeout(timeout, cacheInfo.doCaching), aliases, bidAdjustments(requestExt),
-                                currencyRates(targeting)))
+                                auctionTimeout(timeout, cacheInfo.doCaching), publisherId, aliases,
+                                bidAdjustments(requestExt), currencyRates(targeting)))
                         .collect(Collectors.toList())))
                 // send all the requests to the bidders and gathers results
                 .map(CompositeFuture::<BidderResponse>list)
@@ -179,18 +183,6 @@ public class ExchangeService {
                         bidResponsePostProcessor.postProcess(context, uidsCookie, bidRequest, bidResponse));
     }
 
-    /**
-     * Extracts {@link ExtBidRequest} from bid request.
-     */
-    private static ExtBidRequest requestExt(BidRequest bidRequest) {
-        try {
-            return bidRequest.getExt() != null
-                    ? Json.mapper.treeToValue(bidRequest.getExt(), ExtBidRequest.class) : null;
-        } catch (JsonProcessingException e) {
-            throw new PreBidException(String.format("Error decoding bidRequest.ext: %s", e.getMessage()), e);
-        }
-    }
-
     /**
      * Extracts aliases from {@link ExtBidRequest}.
      */
@@ -260,9 +252,11 @@ public class ExchangeService {
      * NOTE: the return list will only contain entries for bidders that both have the extension field in at least one
      * {@link Imp}, and are known to {@link BidderCatalog} or aliases from {@link BidRequest}.ext.prebid.aliases.
      */
-    private Future<List<BidderRequest>> extractBidderRequests(BidRequest bidRequest, UidsCookie uidsCookie,
+    private Future<List<BidderRequest>> extractBidderRequests(AuctionContext auctionContext, UidsCookie uidsCookie,
                                                               Map<String, String> aliases,
                                                               Timeout timeout) {
+        final BidRequest bidRequest = auctionContext.getBidRequest();
+
         // sanity check: discard imps without extension
         final List<Imp> imps = bidRequest.getImp().stream()
                 .filter(imp -> imp.getExt() != null)
@@ -276,12 +270,11 @@ public class ExchangeService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        final User user = bidRequest.getUser();
-        final ExtUser extUser = extUser(user);
+        final ExtUser extUser = auctionContext.getExtUser();
         final Map<String, String> uidsBody = uidsFromBody(extUser);
 
         final ObjectNode userExtNode = removeBuyeruidsFromUserExtPrebid(extUser);
-        final ExtRegs extRegs = extRegs(bidRequest.getRegs());
+        final ExtRegs extRegs = auctionContext.getExtRegs();
 
         return getVendorsToGdprPermission(bidRequest, bidders, extUser, aliases, extRegs, timeout)
                 .map(vendorsToGdpr -> makeBidderRequests(bidders, bidRequest, uidsBody, uidsCookie,
@@ -325,6 +318,9 @@ public class ExchangeService {
      * the intended Bidder.
      * <p>
      * - bidrequest.user.buyeruid will be set to that Bidder's ID.
+     * <p>
+     * Parts of the request which are not changed for bidder are shared across all bidder requests, masked user, device
+     * and regs are created once per auction, so only per-bidder deltas are materialized.
      */
     private List<BidderRequest> makeBidderRequests(List<String> bidders, BidRequest bidRequest,
                                                    Map<String, String> uidsBody, UidsCookie uidsCookie,
@@ -337,24 +333,61 @@ public class ExchangeService {
                 .collect(Collectors.toMap(Function.identity(),
                         bidder -> isMaskingRequiredBidder(vendorsToGdpr, bidder, aliases, deviceLmt)));
 
+        final User user = bidRequest.getUser();
+        final Regs regs = bidRequest.getRegs();
+        final boolean maskingRequiredForAnyBidder = bidderToMaskingRequired.containsValue(true);
+        final User maskedUser = maskingRequiredForAnyBidder ? maskUser(user, userExtNode) : null;
+        final Device maskedDevice = maskingRequiredForAnyBidder ? maskDevice(device) : null;
+        final Regs maskedRegs = maskingRequiredForAnyBidder ? maskRegs(regs, extRegs) : null;
+
         final List<BidderRequest> bidderRequests = bidders.stream()
                 // for each bidder create a new request that is a copy of original request except buyerid and imp
                 // extensions
-                .map(bidder -> BidderRequest.of(bidder, bidRequest.toBuilder()
-                        .user(prepareUser(bidder, bidRequest, uidsBody, uidsCookie, userExtNode, aliases,
-                                bidderToMaskingRequired.get(bidder)))
-                        .device(prepareDevice(device, bidderToMaskingRequired.get(bidder)))
-                        .regs(prepareRegs(bidRequest.getRegs(), extRegs, bidderToMaskingRequired.get(bidder)))
-                        .imp(prepareImps(bidder, imps))
-                        .build()))
+                .map(bidder -> {
+                    final boolean maskingRequired = bidderToMaskingRequired.get(bidder);
+                    return BidderRequest.of(bidder, bidRequest.toBuilder()
+                            .user(maskingRequired
+                                    ? maskedUser
+                                    : prepareUser(bidder, user, uidsBody, uidsCookie, userExtNode, aliases))
+                            .device(maskingRequired ? maskedDevice : device)
+                            .regs(maskingRequired ? maskedRegs : regs)
+                            .imp(prepareImps(bidder, imps))
+                            .build());
+                })
                 .collect(Collectors.toList());
 
+        metrics.updateBidderRequestsAllocationMetric(countMaterializedObjects(bidRequest, bidderRequests));
+
         // randomize the list to make the auction more fair
         Collections.shuffle(bidderRequests);
 
         return bidderRequests;
     }
 
+    /**
+     * Counts objects created for the bidder requests, excluding the ones shared with original {@link BidRequest}
+     * or between bidder requests.
+     */
+    private static int countMaterializedObjects(BidRequest bidRequest, List<BidderRequest> bidderRequests) {
+        final Set<Object> materializedParts = Collections.newSetFromMap(new IdentityHashMap<>());
+        int count = 0;
+        for (BidderRequest bidderRequest : bidderRequests) {
+            final BidRequest bidderBidRequest = bidderRequest.getBidRequest();
+            // bid request itself, imps and their extensions
+            count += 1 + bidderBidRequest.getImp().size() * 2;
+            addIfMaterialized(materializedParts, bidderBidRequest.getUser(), bidRequest.getUser());
+            addIfMaterialized(materializedParts, bidderBidRequest.getDevice(), bidRequest.getDevice());
+            addIfMaterialized(materializedParts, bidderBidRequest.getRegs(), bidRequest.getRegs());
+        }
+        return count + materializedParts.size();
+    }
+
+    private static void addIfMaterialized(Set<Object> materializedParts, Object part, Object originalPart) {
+        if (part != null && part != originalPart) {
+            materializedParts.add(part);
+        }
+    }
+
     /**
      * Returns flag if masking is required for bidder.
      */
@@ -380,21 +413,6 @@ public class ExchangeService {
         return maskingRequired;
     }
 
-    /**
-     * Extracts {@link ExtRegs} from {@link Regs}.
-     */
-    private static ExtRegs extRegs(Regs regs) {
-        final ObjectNode regsExt = regs != null ? regs.getExt() : null;
-        if (regsExt != null) {
-            try {
-                return Json.mapper.treeToValue(regs.getExt(), ExtRegs.class);
-            } catch (JsonProcessingException e) {
-                throw new PreBidException(String.format("Error decoding bidRequest.regs.ext: %s", e.getMessage()), e);
-            }
-        }
-        return null;
-    }
-
     /**
      * Extracts pbs gdpr enforced vendor ids.
      */
@@ -411,21 +429,6 @@ public class ExchangeService {
         return StreamSupport.stream(iterable.spliterator(), false);
     }
 
-    /**
-     * Extracts {@link ExtUser} from {@link User} or returns null if not presents.
-     */
-    private static ExtUser extUser(User user) {
-        final ObjectNode userExt = user != null ? user.getExt() : null;
-        if (userExt != null) {
-            try {
-                return Json.mapper.treeToValue(userExt, ExtUser.class);
-            } catch (JsonProcessingException e) {
-                throw new PreBidException(String.format("Error decoding bidRequest.user.ext: %s", e.getMessage()), e);
-            }
-        }
-        return null;
-    }
-
     /**
      * Returns 'explicit' UIDs from request body.
      */
@@ -460,20 +463,8 @@ public class ExchangeService {
      * updatedUserExt are empty otherwise returns new {@link User} containing updatedUserExt and buyerUid
      * (which means request contains 'explicit' buyeruid in 'request.user.ext.buyerids' or uidsCookie).
      */
-    private User prepareUser(String bidder, BidRequest bidRequest, Map<String, String> uidsBody, UidsCookie uidsCookie,
-                             ObjectNode updatedUserExt, Map<String, String> aliases, boolean maskingRequired) {
-
-        final User user = bidRequest.getUser();
-        final User.UserBuilder builder = user != null ? user.toBuilder() : User.builder();
-
-        // clean buyeruid from user and user.ext.prebid
-        if (maskingRequired) {
-            return builder
-                    .buyeruid(null)
-                    .geo(user != null ? maskGeo(user.getGeo()) : null)
-                    .ext(updatedUserExt)
-                    .build();
-        }
+    private User prepareUser(String bidder, User user, Map<String, String> uidsBody, UidsCookie uidsCookie,
+                             ObjectNode updatedUserExt, Map<String, String> aliases) {
 
         final String resolvedBidder = resolveBidder(bidder, aliases);
         final String buyerUid = extractUid(uidsBody, uidsCookie, resolvedBidder);
@@ -482,6 +473,7 @@ public class ExchangeService {
             return user;
         }
 
+        final User.UserBuilder builder = user != null ? user.toBuilder() : User.builder();
         if (user == null || StringUtils.isBlank(user.getBuyeruid()) && StringUtils.isNotBlank(buyerUid)) {
             builder.buyeruid(buyerUid);
         }
@@ -492,30 +484,39 @@ public class ExchangeService {
     }
 
     /**
-     * Prepared device for each bidder depends on gdpr enabling.
+     * Returns {@link User} with cleaned buyeruid and masked geo for bidders required gdpr masking.
      */
-    private static Device prepareDevice(Device device, boolean maskingRequired) {
-        return device != null && maskingRequired
+    private static User maskUser(User user, ObjectNode updatedUserExt) {
+        final User.UserBuilder builder = user != null ? user.toBuilder() : User.builder();
+        return builder
+                .buyeruid(null)
+                .geo(user != null ? maskGeo(user.getGeo()) : null)
+                .ext(updatedUserExt)
+                .build();
+    }
+
+    /**
+     * Returns {@link Device} with suppressed information affected by gdpr.
+     */
+    private static Device maskDevice(Device device) {
+        return device != null
                 ? device.toBuilder().ip(maskIp(device.getIp(), '.')).ipv6(maskIp(device.getIpv6(), ':'))
                 .geo(maskGeo(device.getGeo()))
                 // suppress device information affected by gdpr
                 .ifa(null).macsha1(null).macmd5(null).dpidsha1(null).dpidmd5(null).didsha1(null).didmd5(null)
                 .build()
-                : device;
+                : null;
     }
 
     /**
      * Sets gdpr value 1, if bidder required gdpr masking, but gdpr value in regs extension is not defined.
      */
-    private static Regs prepareRegs(Regs regs, ExtRegs extRegs, boolean maskingRequired) {
-        if (maskingRequired) {
-            if (extRegs == null) {
-                return Regs.of(regs != null ? regs.getCoppa() : null, Json.mapper.valueToTree(ExtRegs.of(1)));
-            } else {
-                return Regs.of(regs.getCoppa(), Json.mapper.valueToTree(ExtRegs.of(1)));
-            }
+    private static Regs maskRegs(Regs regs, ExtRegs extRegs) {
+        if (extRegs == null) {
+            return Regs.of(regs != null ? regs.getCoppa() : null, Json.mapper.valueToTree(ExtRegs.of(1)));
+        } else {
+            return Regs.of(regs.getCoppa(), Json.mapper.valueToTree(ExtRegs.of(1)));
         }
-        return regs;
     }
 
     /**
@@ -551,8 +552,7 @@ public class ExchangeService {
                 // for each imp create a new imp with extension crafted to contain only "prebid" and
                 // bidder-specific extensions
                 .map(imp -> imp.toBuilder()
-                        .ext(Json.mapper.valueToTree(
-                                extractBidderExt(bidder, imp.getExt())))
+                        .ext(prepareImpExt(bidder, imp.getExt()))
                         .build())
                 .collect(Collectors.toList());
     }
@@ -567,6 +567,17 @@ public class ExchangeService {
                 : uidsCookie.uidFrom(bidderCatalog.usersyncerByName(bidder).getCookieFamilyName());
     }
 
+    /**
+     * Removes {@link BidderRequest}s which shouldn't be sent due to low bidder's bid rate.
+     */
+    private List<BidderRequest> shapeTraffic(List<BidderRequest> bidderRequests, Map<String, String> aliases,
+                                             String publisherId) {
+        return bidderRequests.stream()
+                .filter(bidderRequest -> bidderTrafficShaper.shouldRequest(
+                        resolveBidder(bidderRequest.getBidder(), aliases), publisherId, bidderRequest.getBidRequest()))
+                .collect(Collectors.toList());
+    }
+
     /**
      * Updates 'account.*.request', 'request' and 'no_cookie_requests' metrics for each {@link BidderRequest}
      */
@@ -664,29 +675,68 @@ public class ExchangeService {
      * Creates a new imp extension for particular bidder having:
      * <ul>
      * <li>"bidder" field populated with an imp.ext.{bidder} field value, not null</li>
-     * <li>"prebid" field populated with an imp.ext.prebid field value, may be null</li>
+     * <li>"prebid" field populated with an imp.ext.prebid field value, may be absent</li>
      * </ul>
+     * Field values are not copied but shared with original imp extension, so they must not be modified.
      */
-    private static ExtPrebid<JsonNode, JsonNode> extractBidderExt(String bidder, ObjectNode impExt) {
-        return ExtPrebid.of(impExt.get(PREBID_EXT), impExt.get(bidder));
+    private static ObjectNode prepareImpExt(String bidder, ObjectNode impExt) {
+        final ObjectNode bidderImpExt = Json.mapper.createObjectNode();
+        final JsonNode prebid = impExt.get(PREBID_EXT);
+        if (prebid != null) {
+            bidderImpExt.set(PREBID_EXT, prebid);
+        }
+        bidderImpExt.set(BIDDER_EXT, impExt.get(bidder));
+        return bidderImpExt;
     }
 
     /**
      * Passes the request to a corresponding bidder and wraps response in {@link BidderResponse} which also holds
      * recorded response time.
+     * <p>
+     * Bidder is requested with timeout planned by {@link BidderTimeoutPlanner}, or isn't requested at all if it's
+     * unlikely to respond in time.
      */
     private Future<BidderResponse> requestBids(BidderRequest bidderRequest, long startTime, Timeout timeout,
-                                               Map<String, String> aliases, Map<String, BigDecimal> bidAdjustments,
+                                               String publisherId, Map<String, String> aliases,
+                                               Map<String, BigDecimal> bidAdjustments,
                                                Map<String, Map<String, BigDecimal>> currencyConversionRates) {
         final String bidderName = bidderRequest.getBidder();
         final BigDecimal bidPriceAdjustmentFactor = bidAdjustments.get(bidderName);
         final String adServerCurrency = bidderRequest.getBidRequest().getCur().get(0);
-        final Bidder<?> bidder = bidderCatalog.bidderByName(resolveBidder(bidderName, aliases));
-        return httpBidderRequester.requestBids(bidder, bidderRequest.getBidRequest(), timeout)
+        final String resolvedBidderName = resolveBidder(bidderName, aliases);
+        final Bidder<?> bidder = bidderCatalog.bidderByName(resolvedBidderName);
+        final Timeout bidderTimeout = bidderTimeoutPlanner.plan(bidderName, publisherId, timeout);
+        if (bidderTimeout == null) {
+            return Future.succeededFuture(BidderResponse.of(bidderName, BidderSeatBid.of(Collections.emptyList(),
+                    Collections.emptyList(), Collections.singletonList(BidderError.forfeited(
+                            "Bidder is unlikely to respond within remaining time"))), 0));
+        }
+
+        final boolean timeoutLimited = bidderTimeout != timeout;
+        final long requestStartTime = clock.millis();
+        return httpBidderRequester.requestBids(bidder, resolvedBidderName, bidderRequest.getBidRequest(),
+                bidderTimeout)
                 .map(bidderSeatBid -> validateAndUpdateResponse(bidderSeatBid, bidderRequest.getBidRequest().getCur()))
                 .map(seat -> applyBidPriceChanges(seat, currencyConversionRates, adServerCurrency,
                         bidPriceAdjustmentFactor))
-                .map(result -> BidderResponse.of(bidderName, result, responseTime(startTime)));
+                .map(result -> toBidderResponse(bidderRequest, publisherId, aliases, result, startTime,
+                        requestStartTime, timeoutLimited));
+    }
+
+    /**
+     * Creates {@link BidderResponse} and records bidder result for traffic shaping and time passed since bidder
+     * was requested for further timeouts planning (time elapsed before is already subtracted from auction timeout).
+     */
+    private BidderResponse toBidderResponse(BidderRequest bidderRequest, String publisherId,
+                                            Map<String, String> aliases, BidderSeatBid seatBid, long startTime,
+                                            long requestStartTime, boolean timeoutLimited) {
+        final String bidderName = bidderRequest.getBidder();
+        final int responseTime = responseTime(startTime);
+        bidderTimeoutPlanner.recordResponseTime(bidderName, publisherId, responseTime(requestStartTime),
+                timeoutLimited);
+        bidderTrafficShaper.recordResult(resolveBidder(bidderName, aliases), publisherId,
+                bidderRequest.getBidRequest(), seatBid);
+        return BidderResponse.of(bidderName, seatBid, responseTime);
     }
 
     /**
@@ -824,6 +874,11 @@ public class ExchangeService {
      */
     private List<BidderResponse> updateMetricsFromResponses(List<BidderResponse> bidderResponses, String publisherId) {
         for (final BidderResponse bidderResponse : bidderResponses) {
+            if (isForfeited(bidderResponse)) {
+                // bidder was not requested, it is counted by bids_forfeited metric
+                continue;
+            }
+
             final String bidder = bidderResponse.getBidder();
 
             metrics.updateAdapterResponseTime(bidder, publisherId, bidderResponse.getResponseTime());
@@ -856,6 +911,11 @@ public class ExchangeService {
         return bidderResponses;
     }
 
+    private static boolean isForfeited(BidderResponse bidderResponse) {
+        return bidderResponse.getSeatBid().getErrors().stream()
+                .anyMatch(error -> error.getType() == BidderError.Type.forfeited);
+    }
+
     private static MetricName bidderErrorTypeToMetric(BidderError.Type errorType) {
         final MetricName errorMetric;
         switch (errorType) {
@@ -871,6 +931,9 @@ public class ExchangeService {
             case timeout:
                 errorMetric = MetricName.timeout;
                 break;
+            case response_too_large:
+                errorMetric = MetricName.responsetoolarge;
+                break;
             case generic:
             default:
                 errorMetric = MetricName.unknown_error;
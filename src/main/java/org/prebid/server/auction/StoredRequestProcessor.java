@@ -3,8 +3,7 @@ package org.prebid.server.auction;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.github.fge.jsonpatch.JsonPatchException;
-import com.github.fge.jsonpatch.mergepatch.JsonMergePatch;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.iab.openrtb.request.BidRequest;
 import com.iab.openrtb.request.Imp;
 import io.vertx.core.Future;
@@ -26,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -41,11 +41,24 @@ public class StoredRequestProcessor {
     private final TimeoutFactory timeoutFactory;
     private final long defaultTimeout;
 
+    /**
+     * Parsed stored data keyed by its JSON, so the same stored request is not parsed for every auction
+     * and updated stored request never matches outdated entry. Cached nodes are shared and must not be modified.
+     */
+    private final Map<String, JsonNode> parsedStoredData;
+
     public StoredRequestProcessor(ApplicationSettings applicationSettings, TimeoutFactory timeoutFactory,
-                                  long defaultTimeout) {
+                                  long defaultTimeout, int parsedCacheSize) {
+        if (parsedCacheSize < 0) {
+            throw new IllegalArgumentException("Parsed cache size must not be negative");
+        }
         this.applicationSettings = Objects.requireNonNull(applicationSettings);
         this.timeoutFactory = Objects.requireNonNull(timeoutFactory);
         this.defaultTimeout = defaultTimeout;
+        this.parsedStoredData = Caffeine.newBuilder()
+                .maximumSize(parsedCacheSize)
+                .<String, JsonNode>build()
+                .asMap();
     }
 
     /**
@@ -150,27 +163,65 @@ public class StoredRequestProcessor {
      */
     private <T> T merge(T originalObject, Map<String, String> storedData, String id, Class<T> classToCast) {
         final JsonNode originJsonNode = Json.mapper.valueToTree(originalObject);
-        final JsonNode storedRequestJsonNode;
-        try {
-            storedRequestJsonNode = Json.mapper.readTree(storedData.get(id));
-        } catch (IOException e) {
-            throw new InvalidRequestException(
-                    String.format("Can't parse Json for stored request with id %s", id));
-        }
+        final JsonNode storedRequestJsonNode = parseStoredData(storedData.get(id), id);
         try {
             // Http request fields have higher priority and will override fields from stored requests
             // in case they have different values
-            return Json.mapper.treeToValue(JsonMergePatch.fromJson(originJsonNode).apply(storedRequestJsonNode),
-                    classToCast);
-        } catch (JsonPatchException e) {
-            throw new InvalidRequestException(String.format(
-                    "Couldn't create merge patch from origin object node for id %s: %s", id, e.getMessage()));
+            return Json.mapper.treeToValue(mergePatch(storedRequestJsonNode, originJsonNode), classToCast);
         } catch (JsonProcessingException e) {
             throw new InvalidRequestException(
                     String.format("Can't convert merging result for id %s: %s", id, e.getMessage()));
         }
     }
 
+    /**
+     * Returns parsed stored data from cache or parses it and puts to cache.
+     */
+    private JsonNode parseStoredData(String json, String id) {
+        final JsonNode cachedNode = json != null ? parsedStoredData.get(json) : null;
+        if (cachedNode != null) {
+            return cachedNode;
+        }
+
+        final JsonNode node;
+        try {
+            node = Json.mapper.readTree(json);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidRequestException(
+                    String.format("Can't parse Json for stored request with id %s", id));
+        }
+        parsedStoredData.put(json, node);
+        return node;
+    }
+
+    /**
+     * Applies JSON merge patch (RFC 7386) to the target without modifying it. Only objects on patched paths are
+     * copied, untouched parts of the target are shared with the result, so patching a few fields of large stored
+     * request is cheap.
+     */
+    static JsonNode mergePatch(JsonNode target, JsonNode patch) {
+        if (!patch.isObject()) {
+            return patch;
+        }
+
+        final ObjectNode result = Json.mapper.createObjectNode();
+        if (target != null && target.isObject()) {
+            result.setAll((ObjectNode) target);
+        }
+
+        final Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            final Map.Entry<String, JsonNode> field = fields.next();
+            final JsonNode value = field.getValue();
+            if (value.isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), mergePatch(result.get(field.getKey()), value));
+            }
+        }
+        return result;
+    }
+
     /**
      * Maps object to its StoredRequestId if exists. If object's extension contains storedRequest field, expected that
      * it includes id too, in another case error about missed id in stored request will be added to error list.
@@ -0,0 +1,28 @@
+package org.prebid.server.auction.model;
+
+import com.iab.openrtb.request.BidRequest;
+import lombok.Builder;
+import lombok.Value;
+import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
+import org.prebid.server.proto.openrtb.ext.request.ExtRegs;
+import org.prebid.server.proto.openrtb.ext.request.ExtUser;
+
+/**
+ * Holds {@link BidRequest} along with its extensions decoded once per auction,
+ * so that following stages don't need to convert them from JSON tree again.
+ */
+@Builder(toBuilder = true)
+@Value
+public class AuctionContext {
+
+    BidRequest bidRequest;
+
+    /* Decoded bidrequest.ext, null if absent. */
+    ExtBidRequest extBidRequest;
+
+    /* Decoded bidrequest.user.ext, null if absent. */
+    ExtUser extUser;
+
+    /* Decoded bidrequest.regs.ext, null if absent. */
+    ExtRegs extRegs;
+}
@@ -0,0 +1,101 @@
+package org.prebid.server.bidder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.iab.openrtb.request.BidRequest;
+import com.iab.openrtb.request.Imp;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.Json;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Encodes {@link BidRequest}s made from the same bidder request and differing by impressions only
+ * (e.g. request per impression).
+ * <p>
+ * Everything except impressions of the bidder request is encoded once on creation and kept as a template,
+ * impressions of each encoded request are spliced into it. Request is encoded as a whole if any of its other fields
+ * is not the same object as in the bidder request. Fields are compared by reference only, so requests made
+ * with {@link BidRequest#toBuilder()} share the template unless these fields are replaced.
+ * The output is exactly the same as {@link Json#encode(Object)} produces.
+ */
+public class BidRequestTemplateEncoder {
+
+    private static final String IMP_PLACEHOLDER = "\"imp\":[]";
+
+    private final BidRequest templateRequest;
+    private final String templatePrefix;
+    private final String templateSuffix;
+
+    public BidRequestTemplateEncoder(BidRequest bidRequest) {
+        templateRequest = Objects.requireNonNull(bidRequest);
+
+        final String encodedRequest = Json.encode(bidRequest.toBuilder().imp(Collections.emptyList()).build());
+
+        // only "id" string field goes before "imp" in JSON, so the first match is always top-level "imp" field
+        final int placeholderIndex = encodedRequest.indexOf(IMP_PLACEHOLDER);
+        if (placeholderIndex != -1) {
+            final int impsStartIndex = placeholderIndex + IMP_PLACEHOLDER.length() - 1;
+            templatePrefix = encodedRequest.substring(0, impsStartIndex);
+            templateSuffix = encodedRequest.substring(impsStartIndex);
+        } else {
+            templatePrefix = null;
+            templateSuffix = null;
+        }
+    }
+
+    /**
+     * Encodes given {@link BidRequest} to JSON string.
+     */
+    public String encode(BidRequest bidRequest) {
+        final List<Imp> imps = bidRequest.getImp();
+        if (imps == null || templatePrefix == null || !sharesTemplate(bidRequest)) {
+            return Json.encode(bidRequest);
+        }
+
+        final StringBuilder result = new StringBuilder(templatePrefix);
+        for (int i = 0; i < imps.size(); i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(encodeImp(imps.get(i)));
+        }
+        return result.append(templateSuffix).toString();
+    }
+
+    /**
+     * Checks whether all fields of given {@link BidRequest} except impressions are the same objects
+     * as in template request.
+     */
+    private boolean sharesTemplate(BidRequest bidRequest) {
+        final BidRequest template = templateRequest;
+        return bidRequest.getId() == template.getId()
+                && bidRequest.getSite() == template.getSite()
+                && bidRequest.getApp() == template.getApp()
+                && bidRequest.getDevice() == template.getDevice()
+                && bidRequest.getUser() == template.getUser()
+                && bidRequest.getTest() == template.getTest()
+                && bidRequest.getAt() == template.getAt()
+                && bidRequest.getTmax() == template.getTmax()
+                && bidRequest.getWseat() == template.getWseat()
+                && bidRequest.getBseat() == template.getBseat()
+                && bidRequest.getAllimps() == template.getAllimps()
+                && bidRequest.getCur() == template.getCur()
+                && bidRequest.getWlang() == template.getWlang()
+                && bidRequest.getBcat() == template.getBcat()
+                && bidRequest.getBadv() == template.getBadv()
+                && bidRequest.getBapp() == template.getBapp()
+                && bidRequest.getSource() == template.getSource()
+                && bidRequest.getRegs() == template.getRegs()
+                && bidRequest.getExt() == template.getExt();
+    }
+
+    private static String encodeImp(Imp imp) {
+        try {
+            return Json.mapper.writeValueAsString(imp);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+    }
+}
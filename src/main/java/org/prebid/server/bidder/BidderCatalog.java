@@ -1,6 +1,8 @@
 package org.prebid.server.bidder;
 
+import org.prebid.server.bidder.model.TrafficShapingRule;
 import org.prebid.server.proto.response.BidderInfo;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -109,6 +111,32 @@ public class BidderCatalog {
         return bidderDeps != null ? bidderDeps.getBidderInfo() : null;
     }
 
+    /**
+     * Returns an endpoint of bidder registered by the given name or null if there is none or bidder is disabled.
+     */
+    public String endpointByName(String name) {
+        final BidderDeps bidderDeps = bidderDepsMap.get(name);
+        return bidderDeps != null ? bidderDeps.getEndpoint() : null;
+    }
+
+    /**
+     * Returns a {@link TrafficShapingRule} registered by the given name or null if there is none.
+     */
+    public TrafficShapingRule trafficShapingRuleByName(String name) {
+        final BidderDeps bidderDeps = bidderDepsMap.get(name);
+        return bidderDeps != null ? bidderDeps.getTrafficShapingRule() : null;
+    }
+
+    /**
+     * Returns a list of {@link HttpDestinationPolicy}s of all bidders having isolated HTTP connection pool.
+     */
+    public List<HttpDestinationPolicy> httpDestinationPolicies() {
+        return bidderDepsMap.values().stream()
+                .map(BidderDeps::getHttpDestinationPolicy)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
     /**
      * Returns an {@link Usersyncer} registered by the given name or null if there is none.
      * <p>
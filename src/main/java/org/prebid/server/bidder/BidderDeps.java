@@ -2,7 +2,9 @@ package org.prebid.server.bidder;
 
 import lombok.Builder;
 import lombok.Value;
+import org.prebid.server.bidder.model.TrafficShapingRule;
 import org.prebid.server.proto.response.BidderInfo;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
 
 import java.util.List;
 
@@ -41,6 +43,21 @@ public class BidderDeps {
      */
     BidderInfo bidderInfo;
 
+    /**
+     * Bidder's endpoint, null if bidder is disabled.
+     */
+    String endpoint;
+
+    /**
+     * Bidder's traffic shaping rule is used to suppress requests to bidder with low bid rate, null if not configured.
+     */
+    TrafficShapingRule trafficShapingRule;
+
+    /**
+     * Bidder's isolated HTTP connection pool policy, null if bidder shares common connection pool.
+     */
+    HttpDestinationPolicy httpDestinationPolicy;
+
     /**
      * Bidder's user syncer is used in {@link org.prebid.server.handler.CookieSyncHandler} handler and holds cookie
      * family name.
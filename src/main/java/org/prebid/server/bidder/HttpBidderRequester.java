@@ -19,6 +19,7 @@ import org.prebid.server.bidder.model.Result;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.proto.openrtb.ext.response.ExtHttpCall;
 import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.ResponseTooLargeException;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
 
 import java.util.ArrayList;
@@ -49,9 +50,10 @@ public class HttpBidderRequester {
     }
 
     /**
-     * Executes given request to a given bidder.
+     * Executes given request to a given bidder, HTTP requests are made on behalf of the given bidder name.
      */
-    public <T> Future<BidderSeatBid> requestBids(Bidder<T> bidder, BidRequest bidRequest, Timeout timeout) {
+    public <T> Future<BidderSeatBid> requestBids(Bidder<T> bidder, String bidderName, BidRequest bidRequest,
+                                                 Timeout timeout) {
         final Result<List<HttpRequest<T>>> httpRequestsWithErrors = bidder.makeHttpRequests(bidRequest);
 
         final List<BidderError> bidderErrors = httpRequestsWithErrors.getErrors();
@@ -60,7 +62,7 @@ public class HttpBidderRequester {
         return CollectionUtils.isEmpty(httpRequests)
                 ? emptyBidderSeatBidWithErrors(bidderErrors)
                 : CompositeFuture.join(httpRequests.stream()
-                .map(httpRequest -> doRequest(httpRequest, timeout))
+                .map(httpRequest -> doRequest(bidderName, httpRequest, timeout))
                 .collect(Collectors.toList()))
                 .map(httpRequestsResult ->
                         toBidderSeatBid(bidder, bidRequest, bidderErrors, httpRequestsResult.list()));
@@ -82,14 +84,14 @@ public class HttpBidderRequester {
     /**
      * Makes an HTTP request and returns {@link Future} that will be eventually completed with success or error result.
      */
-    private <T> Future<HttpCall<T>> doRequest(HttpRequest<T> httpRequest, Timeout timeout) {
+    private <T> Future<HttpCall<T>> doRequest(String bidderName, HttpRequest<T> httpRequest, Timeout timeout) {
         final long remainingTimeout = timeout.remaining();
         if (remainingTimeout <= 0) {
             return failResponse(new TimeoutException("Timeout has been exceeded"), httpRequest);
         }
 
-        return httpClient.request(httpRequest.getMethod(), httpRequest.getUri(), httpRequest.getHeaders(),
-                httpRequest.getBody(), remainingTimeout)
+        return httpClient.request(bidderName, httpRequest.getMethod(), httpRequest.getUri(),
+                httpRequest.getHeaders(), httpRequest.getBody(), remainingTimeout)
                 .compose(response -> processResponse(response, httpRequest))
                 .recover(exception -> failResponse(exception, httpRequest));
     }
@@ -99,10 +101,14 @@ public class HttpBidderRequester {
      */
     private static <T> Future<HttpCall<T>> failResponse(Throwable exception, HttpRequest<T> httpRequest) {
         logger.warn("Error occurred while sending HTTP request to a bidder url: {0}", exception, httpRequest.getUri());
-        final BidderError.Type errorType =
-                exception instanceof TimeoutException || exception instanceof ConnectTimeoutException
-                        ? BidderError.Type.timeout
-                        : BidderError.Type.generic;
+        final BidderError.Type errorType;
+        if (exception instanceof TimeoutException || exception instanceof ConnectTimeoutException) {
+            errorType = BidderError.Type.timeout;
+        } else if (exception instanceof ResponseTooLargeException) {
+            errorType = BidderError.Type.response_too_large;
+        } else {
+            errorType = BidderError.Type.generic;
+        }
 
         return Future.succeededFuture(
                 HttpCall.failure(httpRequest, BidderError.create(exception.getMessage(), errorType)));
@@ -115,7 +121,7 @@ public class HttpBidderRequester {
     private static <T> Future<HttpCall<T>> processResponse(HttpClientResponse response, HttpRequest<T> httpRequest) {
         final int statusCode = response.getStatusCode();
         return Future.succeededFuture(HttpCall.success(httpRequest,
-                HttpResponse.of(statusCode, response.getHeaders(), response.getBody()), errorOrNull(statusCode)));
+                HttpResponse.of(statusCode, response.getHeaders(), response.getBodyBuffer()), errorOrNull(statusCode)));
     }
 
     private static BidderError errorOrNull(int statusCode) {
@@ -15,6 +15,7 @@ import org.prebid.server.bidder.model.HttpRequest;
 import org.prebid.server.bidder.model.ImpWithExt;
 import org.prebid.server.bidder.model.Result;
 import org.prebid.server.exception.PreBidException;
+import org.prebid.server.json.JsonBufferDecoder;
 import org.prebid.server.proto.openrtb.ext.response.BidType;
 import org.prebid.server.util.HttpUtil;
 
@@ -24,6 +25,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public abstract class OpenrtbBidder<T> implements Bidder<BidRequest> {
@@ -135,18 +137,24 @@ public abstract class OpenrtbBidder<T> implements Bidder<BidRequest> {
     private List<HttpRequest<BidRequest>> createHttpRequests(BidRequest bidRequest, List<ImpWithExt<T>> impsWithExts) {
         switch (requestCreationStrategy) {
             case REQUEST_PER_IMP:
+                // requests differ by impression only, so the rest of request is encoded once
+                final Function<BidRequest, String> requestEncoder = impsWithExts.size() > 1
+                        ? new BidRequestTemplateEncoder(bidRequest)::encode
+                        : Json::encode;
                 return impsWithExts.stream()
-                        .map(impWithExt -> makeRequest(bidRequest, Collections.singletonList(impWithExt)))
+                        .map(impWithExt -> makeRequest(bidRequest, Collections.singletonList(impWithExt),
+                                requestEncoder))
                         .collect(Collectors.toList());
             case SINGLE_REQUEST:
-                return Collections.singletonList(makeRequest(bidRequest, impsWithExts));
+                return Collections.singletonList(makeRequest(bidRequest, impsWithExts, Json::encode));
             default:
                 throw new IllegalArgumentException(String.format("Invalid request creation strategy: %s",
                         requestCreationStrategy));
         }
     }
 
-    private HttpRequest<BidRequest> makeRequest(BidRequest bidRequest, List<ImpWithExt<T>> impsWithExts) {
+    private HttpRequest<BidRequest> makeRequest(BidRequest bidRequest, List<ImpWithExt<T>> impsWithExts,
+                                                Function<BidRequest, String> requestEncoder) {
         final BidRequest.BidRequestBuilder requestBuilder = bidRequest.toBuilder();
 
         requestBuilder.imp(impsWithExts.stream()
@@ -156,7 +164,7 @@ public abstract class OpenrtbBidder<T> implements Bidder<BidRequest> {
         modifyRequest(bidRequest, requestBuilder, impsWithExts);
 
         final BidRequest outgoingRequest = requestBuilder.build();
-        final String body = Json.encode(outgoingRequest);
+        final String body = requestEncoder.apply(outgoingRequest);
 
         return HttpRequest.<BidRequest>builder()
                 .method(HttpMethod.POST)
@@ -203,7 +211,8 @@ public abstract class OpenrtbBidder<T> implements Bidder<BidRequest> {
     @Override
     public final Result<List<BidderBid>> makeBids(HttpCall<BidRequest> httpCall, BidRequest bidRequest) {
         try {
-            final BidResponse bidResponse = Json.decodeValue(httpCall.getResponse().getBody(), BidResponse.class);
+            final BidResponse bidResponse =
+                    JsonBufferDecoder.decode(httpCall.getResponse().getBodyBuffer(), BidResponse.class);
             return Result.of(extractBids(httpCall.getRequest().getPayload(), bidResponse), Collections.emptyList());
         } catch (DecodeException | PreBidException e) {
             return Result.emptyWithError(BidderError.badServerResponse(e.getMessage()));
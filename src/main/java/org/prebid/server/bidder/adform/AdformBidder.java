@@ -11,6 +11,7 @@ import com.iab.openrtb.request.User;
 import com.iab.openrtb.response.Bid;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.ObjectUtils;
@@ -24,13 +25,13 @@ import org.prebid.server.bidder.model.HttpCall;
 import org.prebid.server.bidder.model.HttpRequest;
 import org.prebid.server.bidder.model.HttpResponse;
 import org.prebid.server.bidder.model.Result;
+import org.prebid.server.json.JsonBufferDecoder;
 import org.prebid.server.proto.openrtb.ext.ExtPrebid;
 import org.prebid.server.proto.openrtb.ext.request.ExtUser;
 import org.prebid.server.proto.openrtb.ext.request.adform.ExtImpAdform;
 import org.prebid.server.proto.openrtb.ext.response.BidType;
 import org.prebid.server.util.HttpUtil;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -51,6 +52,10 @@ public class AdformBidder implements Bidder<Void> {
             new TypeReference<ExtPrebid<?, ExtImpAdform>>() {
             };
 
+    private static final TypeReference<List<AdformBid>> ADFORM_BIDS_TYPE_REFERENCE =
+            new TypeReference<List<AdformBid>>() {
+            };
+
     private final String endpointUrl;
 
     public AdformBidder(String endpointUrl) {
@@ -120,9 +125,8 @@ public class AdformBidder implements Bidder<Void> {
 
         final List<AdformBid> adformBids;
         try {
-            adformBids = Json.mapper.readValue(httpResponse.getBody(),
-                    Json.mapper.getTypeFactory().constructCollectionType(List.class, AdformBid.class));
-        } catch (IOException e) {
+            adformBids = JsonBufferDecoder.decode(httpResponse.getBodyBuffer(), ADFORM_BIDS_TYPE_REFERENCE);
+        } catch (DecodeException e) {
             return Result.emptyWithError(BidderError.badServerResponse(e.getMessage()));
         }
         return Result.of(toBidderBid(adformBids, bidRequest.getImp()), Collections.emptyList());
@@ -37,6 +37,7 @@ import org.prebid.server.bidder.model.HttpRequest;
 import org.prebid.server.bidder.model.Result;
 import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.exception.PreBidException;
+import org.prebid.server.json.JsonBufferDecoder;
 import org.prebid.server.proto.openrtb.ext.ExtPrebid;
 import org.prebid.server.proto.openrtb.ext.request.beachfront.ExtImpBeachfront;
 import org.prebid.server.proto.openrtb.ext.response.BidType;
@@ -416,7 +417,7 @@ public class BeachfrontBidder implements Bidder<BeachfrontRequests> {
         final List<BidderError> errors = new ArrayList<>();
         final BidResponse bidResponse;
         try {
-            bidResponse = Json.decodeValue(httpCall.getResponse().getBody(), BidResponse.class);
+            bidResponse = JsonBufferDecoder.decode(httpCall.getResponse().getBodyBuffer(), BidResponse.class);
         } catch (DecodeException ex) {
             errors.add(BidderError.badServerResponse(ex.getMessage()));
             return makeErrorResponse(errors);
@@ -28,6 +28,7 @@ import org.prebid.server.bidder.model.HttpCall;
 import org.prebid.server.bidder.model.HttpRequest;
 import org.prebid.server.bidder.model.Result;
 import org.prebid.server.exception.PreBidException;
+import org.prebid.server.json.JsonBufferDecoder;
 import org.prebid.server.proto.openrtb.ext.request.consumable.ExtImpConsumable;
 import org.prebid.server.proto.openrtb.ext.response.BidType;
 import org.prebid.server.util.HttpUtil;
@@ -157,7 +158,8 @@ public class ConsumableBidder implements Bidder<ConsumableBidRequest> {
     public Result<List<BidderBid>> makeBids(HttpCall<ConsumableBidRequest> httpCall, BidRequest bidRequest) {
         final ConsumableBidResponse consumableResponse;
         try {
-            consumableResponse = Json.decodeValue(httpCall.getResponse().getBody(), ConsumableBidResponse.class);
+            consumableResponse =
+                    JsonBufferDecoder.decode(httpCall.getResponse().getBodyBuffer(), ConsumableBidResponse.class);
         } catch (DecodeException e) {
             return Result.emptyWithError(BidderError.badServerResponse(e.getMessage()));
         }
@@ -38,6 +38,10 @@ public class BidderError {
         return BidderError.of(message, Type.timeout);
     }
 
+    public static BidderError forfeited(String message) {
+        return BidderError.of(message, Type.forfeited);
+    }
+
     public enum Type {
         /**
          * Should be used when returning errors which are caused by bad input.
@@ -69,6 +73,18 @@ public class BidderError {
          */
         failed_to_request_bids(4),
 
+        /**
+         * Should be used when the external server response exceeded maximum size allowed for bidder and was aborted
+         * before being received entirely.
+         */
+        response_too_large(5),
+
+        /**
+         * Should be used when bidder was not requested at all because it was unlikely to respond within time
+         * remaining for auction.
+         */
+        forfeited(6),
+
         timeout(1),
         generic(999);
 
@@ -1,11 +1,15 @@
 package org.prebid.server.bidder.model;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 
 /**
  * Packages together information from the server's http response.
+ * <p>
+ * Body is kept as raw bytes, so bidders should decode it from {@link #getBodyBuffer()} with
+ * {@link org.prebid.server.json.JsonBufferDecoder} avoiding intermediate {@link String}.
  */
 @AllArgsConstructor(staticName = "of")
 @Value
@@ -15,5 +19,17 @@ public class HttpResponse {
 
     MultiMap headers;
 
-    String body;
+    Buffer bodyBuffer;
+
+    public static HttpResponse of(int statusCode, MultiMap headers, String body) {
+        return of(statusCode, headers, body != null ? Buffer.buffer(body) : null);
+    }
+
+    /**
+     * Returns body decoded to {@link String}. Decodes raw bytes on each call, so intended for debug output
+     * and bidders which can't process raw bytes.
+     */
+    public String getBody() {
+        return bodyBuffer != null ? bodyBuffer.toString() : null;
+    }
 }
@@ -0,0 +1,32 @@
+package org.prebid.server.bidder.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines when requests to bidder should be suppressed due to its low bid rate.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class TrafficShapingRule {
+
+    /**
+     * Bid rate (share of requests answered with bids) below which bidder is considered low-yield.
+     */
+    double minBidRate;
+
+    /**
+     * Share of requests still sent to low-yield bidder to detect bid rate changes.
+     */
+    double explorationRate;
+
+    /**
+     * Number of (decayed) requests needed before bid rate is taken into account.
+     */
+    int minRequests;
+
+    /**
+     * Period in seconds after which collected statistics loses half of its weight.
+     */
+    long halfLifeSeconds;
+}
@@ -0,0 +1,184 @@
+package org.prebid.server.cache;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import org.prebid.server.cache.proto.request.BidCacheRequest;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.cache.proto.response.BidCacheResponse;
+import org.prebid.server.cache.proto.response.CacheObject;
+import org.prebid.server.execution.Timeout;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.util.HttpUtil;
+import org.prebid.server.vertx.http.HttpClient;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Coalesces {@link PutObject}s of concurrent cache requests made on the same Vert.x event loop into single
+ * {@link BidCacheRequest} to Prebid Cache.
+ * <p>
+ * Batch is sent once it holds configured number of objects or once batching window passes, whichever comes first.
+ * Cache objects of response are split back to waiting requests, each of them fails on its own {@link Timeout}.
+ * Requests made outside of Vert.x context are sent as is.
+ */
+public class CacheRequestBatcher {
+
+    private static final String BATCH_CONTEXT_KEY = CacheRequestBatcher.class.getName();
+
+    private final Vertx vertx;
+    private final HttpClient httpClient;
+    private final String endpointUrl;
+    private final Metrics metrics;
+    private final Clock clock;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    public CacheRequestBatcher(Vertx vertx, HttpClient httpClient, String endpointUrl, Metrics metrics, Clock clock,
+                               long windowMs, int maxBatchSize) {
+        if (windowMs < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batching window and max batch size must be positive");
+        }
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.endpointUrl = Objects.requireNonNull(endpointUrl);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.clock = Objects.requireNonNull(clock);
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Adds {@link PutObject}s of the given {@link BidCacheRequest} to the batch of current event loop.
+     * <p>
+     * The returned {@link BidCacheResponse} holds cache objects for these {@link PutObject}s only.
+     */
+    public Future<BidCacheResponse> send(BidCacheRequest bidCacheRequest, Timeout timeout) {
+        final List<PutObject> puts = bidCacheRequest.getPuts();
+
+        final Context context = Vertx.currentContext();
+        if (context == null) {
+            return post(puts, timeout.remaining());
+        }
+
+        Batch batch = context.get(BATCH_CONTEXT_KEY);
+        if (batch != null && batch.size + puts.size() > maxBatchSize) {
+            flush(context, batch);
+            batch = null;
+        }
+        if (batch == null) {
+            batch = createBatch(context);
+        }
+
+        final long now = clock.millis();
+        final BatchEntry entry = new BatchEntry(puts, timeout, now);
+        entry.timerId = vertx.setTimer(Math.max(timeout.remaining(), 1L),
+                ignored -> entry.result.tryFail(new TimeoutException("Timeout has been exceeded")));
+        batch.add(entry);
+
+        // do not keep request waiting for the batch if its timeout expires earlier
+        if (batch.size >= maxBatchSize || timeout.remaining() <= batch.flushAt - now) {
+            flush(context, batch);
+        }
+
+        return entry.result;
+    }
+
+    private Batch createBatch(Context context) {
+        final Batch batch = new Batch(clock.millis() + windowMs);
+        batch.timerId = vertx.setTimer(windowMs, ignored -> flush(context, batch));
+        context.put(BATCH_CONTEXT_KEY, batch);
+        return batch;
+    }
+
+    /**
+     * Sends all {@link PutObject}s of the batch in single request with the longest timeout among batched requests.
+     */
+    private void flush(Context context, Batch batch) {
+        if (context.get(BATCH_CONTEXT_KEY) == batch) {
+            context.remove(BATCH_CONTEXT_KEY);
+        }
+        vertx.cancelTimer(batch.timerId);
+
+        final long startTime = clock.millis();
+        final List<PutObject> puts = new ArrayList<>(batch.size);
+        long timeoutMs = 0;
+        for (BatchEntry entry : batch.entries) {
+            metrics.updateCacheBatchWaitTimeMetric(startTime - entry.enqueuedAt);
+            puts.addAll(entry.puts);
+            timeoutMs = Math.max(timeoutMs, entry.timeout.remaining());
+        }
+        metrics.updateCacheBatchSizeMetric(puts.size());
+
+        if (timeoutMs <= 0) {
+            completeBatch(batch, Future.failedFuture(new TimeoutException("Timeout has been exceeded")));
+            return;
+        }
+
+        post(puts, timeoutMs).setHandler(result -> {
+            metrics.updateCacheBatchRequestTimeMetric(clock.millis() - startTime);
+            completeBatch(batch, result);
+        });
+    }
+
+    private Future<BidCacheResponse> post(List<PutObject> puts, long timeoutMs) {
+        return httpClient.post(endpointUrl, HttpUtil.headers(), Json.encode(BidCacheRequest.of(puts)), timeoutMs)
+                .compose(response -> CacheService.processResponse(response, puts.size()));
+    }
+
+    private void completeBatch(Batch batch, AsyncResult<BidCacheResponse> result) {
+        final List<CacheObject> responses = result.succeeded() ? result.result().getResponses() : null;
+
+        int offset = 0;
+        for (BatchEntry entry : batch.entries) {
+            vertx.cancelTimer(entry.timerId);
+
+            if (responses != null) {
+                final int size = entry.puts.size();
+                entry.result.tryComplete(BidCacheResponse.of(responses.subList(offset, offset + size)));
+                offset += size;
+            } else {
+                entry.result.tryFail(result.cause());
+            }
+        }
+    }
+
+    private static class Batch {
+
+        private final List<BatchEntry> entries = new ArrayList<>();
+        private final long flushAt;
+        private int size;
+        private long timerId;
+
+        Batch(long flushAt) {
+            this.flushAt = flushAt;
+        }
+
+        void add(BatchEntry entry) {
+            entries.add(entry);
+            size += entry.puts.size();
+        }
+    }
+
+    private static class BatchEntry {
+
+        private final Future<BidCacheResponse> result = Future.future();
+        private final List<PutObject> puts;
+        private final Timeout timeout;
+        private final long enqueuedAt;
+        private long timerId;
+
+        BatchEntry(List<PutObject> puts, Timeout timeout, long enqueuedAt) {
+            this.puts = puts;
+            this.timeout = timeout;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
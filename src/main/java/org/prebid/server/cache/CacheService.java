@@ -1,5 +1,6 @@
 package org.prebid.server.cache;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.TextNode;
 import com.iab.openrtb.request.Imp;
 import io.vertx.core.CompositeFuture;
@@ -33,12 +34,14 @@ import org.prebid.server.vertx.http.model.HttpClientResponse;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -58,14 +61,30 @@ public class CacheService {
     private final HttpClient httpClient;
     private final URL endpointUrl;
     private final String cachedAssetUrlTemplate;
+    private final CacheRequestBatcher cacheRequestBatcher;
+    private final CacheWriteBehindQueue cacheWriteBehindQueue;
+    private final OffHeapCacheStore offHeapCacheStore;
+    private final CreativeDeduplicator creativeDeduplicator;
 
+    /**
+     * Creates service sending cache requests through the given {@link CacheRequestBatcher}, null disables batching.
+     * OpenRTB bids are stored through the given {@link CacheWriteBehindQueue}, null disables write-behind,
+     * and in the given {@link OffHeapCacheStore}, null disables embedded cache.
+     * Repeated OpenRTB bids are skipped by the given {@link CreativeDeduplicator}, null disables deduplication.
+     */
     public CacheService(ApplicationSettings applicationSettings, CacheTtl mediaTypeCacheTtl, HttpClient httpClient,
-                        URL endpointUrl, String cachedAssetUrlTemplate) {
+                        URL endpointUrl, String cachedAssetUrlTemplate, CacheRequestBatcher cacheRequestBatcher,
+                        CacheWriteBehindQueue cacheWriteBehindQueue, OffHeapCacheStore offHeapCacheStore,
+                        CreativeDeduplicator creativeDeduplicator) {
         this.applicationSettings = Objects.requireNonNull(applicationSettings);
         this.mediaTypeCacheTtl = Objects.requireNonNull(mediaTypeCacheTtl);
         this.httpClient = Objects.requireNonNull(httpClient);
         this.endpointUrl = Objects.requireNonNull(endpointUrl);
         this.cachedAssetUrlTemplate = Objects.requireNonNull(cachedAssetUrlTemplate);
+        this.cacheRequestBatcher = cacheRequestBatcher;
+        this.cacheWriteBehindQueue = cacheWriteBehindQueue;
+        this.offHeapCacheStore = offHeapCacheStore;
+        this.creativeDeduplicator = creativeDeduplicator;
     }
 
     public String getEndpointHost() {
@@ -233,6 +252,8 @@ public class CacheService {
      * Stores XML cache objects for the given video {@link com.iab.openrtb.response.Bid}s in the cache.
      * <p>
      * The returned result will always have the number of elements equals to sum of sizes of bids and video bids.
+     * <p>
+     * If {@link CreativeDeduplicator} is configured, values stored before are not stored again.
      */
     private Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> doCacheOpenrtb(
             List<CacheBid> bids, List<CacheBid> videoBids, Timeout timeout) {
@@ -242,9 +263,106 @@ public class CacheService {
                 videoBids.stream().map(CacheService::createXmlPutObjectOpenrtb))
                 .collect(Collectors.toList());
 
+        final Future<List<String>> uuidsFuture = creativeDeduplicator != null
+                ? creativeDeduplicator.store(putObjects, objects -> storeOpenrtb(objects, timeout))
+                : storeOpenrtb(putObjects, timeout);
+
+        return uuidsFuture.map(uuids -> toResultMap(bids, videoBids, uuids));
+    }
+
+    /**
+     * Stores the given {@link PutObject}s and returns their UUIDs in the same order.
+     * <p>
+     * If {@link OffHeapCacheStore} is configured, values are stored in it with locally generated UUIDs.
+     * Otherwise, if {@link CacheWriteBehindQueue} is configured and has room for the values, the result is returned
+     * right away with locally generated UUIDs, while values are stored in the cache asynchronously.
+     * <p>
+     * Values are remembered by {@link CreativeDeduplicator} (if configured) once they are actually stored.
+     */
+    private Future<List<String>> storeOpenrtb(List<PutObject> putObjects, Timeout timeout) {
+        if (offHeapCacheStore != null && !putObjects.isEmpty()) {
+            final List<PutObject> keyedPutObjects = withGeneratedKeys(putObjects);
+            if (storeLocally(keyedPutObjects)) {
+                if (cacheWriteBehindQueue != null) {
+                    replicate(keyedPutObjects, timeout);
+                }
+                keyedPutObjects.forEach(this::rememberStored);
+                return Future.succeededFuture(keysOf(keyedPutObjects));
+            }
+        }
+
+        if (cacheWriteBehindQueue != null && !putObjects.isEmpty()) {
+            final List<PutObject> keyedPutObjects = withGeneratedKeys(putObjects);
+            if (cacheWriteBehindQueue.offer(keyedPutObjects, this::rememberStored)) {
+                return Future.succeededFuture(keysOf(keyedPutObjects));
+            }
+        }
+
         return makeRequest(BidCacheRequest.of(putObjects), putObjects.size(), timeout)
                 .map(bidCacheResponse -> toResponse(bidCacheResponse, CacheObject::getUuid))
-                .map(uuids -> toResultMap(bids, videoBids, uuids));
+                .map(uuids -> rememberStored(putObjects, uuids));
+    }
+
+    /**
+     * Replicates {@link PutObject}s stored in {@link OffHeapCacheStore} to Prebid Cache, so they are available
+     * there as well. If {@link CacheWriteBehindQueue} has no room for them, they are sent right away without
+     * waiting for result, failed replication is logged.
+     */
+    private void replicate(List<PutObject> keyedPutObjects, Timeout timeout) {
+        if (!cacheWriteBehindQueue.offer(keyedPutObjects)) {
+            makeRequest(BidCacheRequest.of(keyedPutObjects), keyedPutObjects.size(), timeout);
+        }
+    }
+
+    /**
+     * Remembers stored {@link PutObject} having key assigned by PBS for deduplication.
+     */
+    private void rememberStored(PutObject keyedPutObject) {
+        if (creativeDeduplicator != null) {
+            creativeDeduplicator.remember(keyedPutObject, keyedPutObject.getKey());
+        }
+    }
+
+    /**
+     * Remembers stored {@link PutObject}s with UUIDs assigned by cache for deduplication.
+     */
+    private List<String> rememberStored(List<PutObject> putObjects, List<String> uuids) {
+        if (creativeDeduplicator != null && putObjects.size() == uuids.size()) {
+            for (int i = 0; i < uuids.size(); i++) {
+                creativeDeduplicator.remember(putObjects.get(i), uuids.get(i));
+            }
+        }
+        return uuids;
+    }
+
+    /**
+     * Assigns random UUIDs as keys of {@link PutObject}s, so they can be referenced before they are stored.
+     */
+    private static List<PutObject> withGeneratedKeys(List<PutObject> putObjects) {
+        return putObjects.stream()
+                .map(putObject -> PutObject.of(putObject.getType(), putObject.getValue(), putObject.getExpiry(),
+                        UUID.randomUUID().toString()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> keysOf(List<PutObject> putObjects) {
+        return putObjects.stream().map(PutObject::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * Stores {@link PutObject}s in {@link OffHeapCacheStore}, returns false if any of them could not be stored.
+     */
+    private boolean storeLocally(List<PutObject> putObjects) {
+        for (PutObject putObject : putObjects) {
+            final JsonNode value = putObject.getValue();
+            final byte[] bytes = value.isTextual()
+                    ? value.asText().getBytes(StandardCharsets.UTF_8)
+                    : Json.encodeToBuffer(value).getBytes();
+            if (!offHeapCacheStore.put(putObject.getKey(), putObject.getType(), bytes, putObject.getExpiry())) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -260,6 +378,11 @@ public class CacheService {
             return failResponse(new TimeoutException("Timeout has been exceeded"));
         }
 
+        if (cacheRequestBatcher != null) {
+            return cacheRequestBatcher.send(bidCacheRequest, timeout)
+                    .recover(CacheService::failResponse);
+        }
+
         return httpClient.post(endpointUrl.toString(), HttpUtil.headers(), Json.encode(bidCacheRequest),
                 remainingTimeout)
                 .compose(response -> processResponse(response, bidCount))
@@ -279,7 +402,7 @@ public class CacheService {
      * and creates {@link Future} with {@link BidCacheResponse} from body content
      * or throws {@link PreBidException} in case of errors.
      */
-    private static Future<BidCacheResponse> processResponse(HttpClientResponse response, int bidCount) {
+    static Future<BidCacheResponse> processResponse(HttpClientResponse response, int bidCount) {
         final int statusCode = response.getStatusCode();
         if (statusCode != 200) {
             throw new PreBidException(String.format("HTTP status code %d", statusCode));
@@ -319,7 +442,7 @@ public class CacheService {
      * Makes JSON type {@link PutObject} from {@link com.iab.openrtb.response.Bid}. Used for OpenRTB auction request.
      */
     private static PutObject createJsonPutObjectOpenrtb(CacheBid cacheBid) {
-        return PutObject.of("json", Json.mapper.valueToTree(cacheBid.getBid()), cacheBid.getTtl());
+        return PutObject.of("json", Json.mapper.valueToTree(cacheBid.getBid()), cacheBid.getTtl(), null);
     }
 
     /**
@@ -331,9 +454,9 @@ public class CacheService {
                     + "<AdSystem>prebid.org wrapper</AdSystem>"
                     + "<VASTAdTagURI><![CDATA[" + cacheBid.getBid().getNurl() + "]]></VASTAdTagURI>"
                     + "<Impression></Impression><Creatives></Creatives>"
-                    + "</Wrapper></Ad></VAST>"), cacheBid.getTtl());
+                    + "</Wrapper></Ad></VAST>"), cacheBid.getTtl(), null);
         } else {
-            return PutObject.of("xml", new TextNode(cacheBid.getBid().getAdm()), cacheBid.getTtl());
+            return PutObject.of("xml", new TextNode(cacheBid.getBid().getAdm()), cacheBid.getTtl(), null);
         }
     }
 
@@ -443,7 +566,7 @@ public class CacheService {
      * Creates video {@link PutObject} from the given {@link Bid}. Used for legacy auction request.
      */
     private static PutObject videoPutObject(Bid bid) {
-        return PutObject.of("xml", new TextNode(bid.getAdm()), null);
+        return PutObject.of("xml", new TextNode(bid.getAdm()), null, null);
     }
 
     /**
@@ -452,6 +575,6 @@ public class CacheService {
     private static PutObject bannerPutObject(Bid bid) {
         return PutObject.of("json",
                 Json.mapper.valueToTree(BannerValue.of(bid.getAdm(), bid.getNurl(), bid.getWidth(), bid.getHeight())),
-                null);
+                null, null);
     }
 }
@@ -0,0 +1,170 @@
+package org.prebid.server.cache;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.json.Json;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.prebid.server.cache.proto.request.BidCacheRequest;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.util.HttpUtil;
+import org.prebid.server.vertx.http.HttpClient;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded queue of {@link PutObject}s written to Prebid Cache asynchronously.
+ * <p>
+ * Objects are expected to have keys assigned by PBS, so they can be referenced before they are actually stored.
+ * Queue is drained periodically in batches; failed objects are put back to the queue until retries are exhausted.
+ */
+public class CacheWriteBehindQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWriteBehindQueue.class);
+
+    private final Vertx vertx;
+    private final HttpClient httpClient;
+    private final String endpointUrl;
+    private final Metrics metrics;
+    private final Clock clock;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long timeoutMs;
+    private final int maxRetries;
+
+    private final BlockingQueue<PendingWrite> queue;
+
+    public CacheWriteBehindQueue(Vertx vertx, HttpClient httpClient, String endpointUrl, Metrics metrics, Clock clock,
+                                 int capacity, int batchSize, long flushIntervalMs, long timeoutMs, int maxRetries) {
+        if (capacity < 1 || batchSize < 1 || flushIntervalMs < 1 || timeoutMs < 1 || maxRetries < 0) {
+            throw new IllegalArgumentException("Capacity, batch size, flush interval and timeout must be positive, "
+                    + "max retries must not be negative");
+        }
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.endpointUrl = Objects.requireNonNull(endpointUrl);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.clock = Objects.requireNonNull(clock);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.timeoutMs = timeoutMs;
+        this.maxRetries = maxRetries;
+
+        queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Sets timer for periodic queue draining.
+     * <p>
+     * Must be called on Vertx event loop thread.
+     */
+    public void initialize() {
+        vertx.setPeriodic(flushIntervalMs, ignored -> flush());
+    }
+
+    /**
+     * Adds all given {@link PutObject}s to the queue or none of them if there is not enough room.
+     * <p>
+     * Returns false if objects were not added, so caller should store them some other way.
+     */
+    public boolean offer(List<PutObject> puts) {
+        return offer(puts, null);
+    }
+
+    /**
+     * Adds all given {@link PutObject}s to the queue or none of them if there is not enough room.
+     * <p>
+     * The given listener (if not null) is called for each object once it is stored in Prebid Cache, objects dropped
+     * after failed retries are not reported.
+     * <p>
+     * Returns false if objects were not added, so caller should store them some other way.
+     */
+    public boolean offer(List<PutObject> puts, Consumer<PutObject> storedListener) {
+        if (queue.remainingCapacity() < puts.size()) {
+            metrics.updateCacheWriteBehindRejectedMetric();
+            return false;
+        }
+
+        final long now = clock.millis();
+        for (PutObject put : puts) {
+            // queue could be filled concurrently after capacity check
+            if (!queue.offer(new PendingWrite(put, storedListener, now, 0))) {
+                metrics.updateCacheWriteBehindDroppedMetric();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sends objects queued by the moment of call to Prebid Cache in batches, so retried objects wait for next flush.
+     */
+    void flush() {
+        int remaining = queue.size();
+        metrics.updateCacheWriteBehindQueueDepthMetric(remaining);
+
+        while (remaining > 0) {
+            final List<PendingWrite> batch = new ArrayList<>(Math.min(batchSize, remaining));
+            queue.drainTo(batch, Math.min(batchSize, remaining));
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            remaining -= batch.size();
+            send(batch);
+        }
+    }
+
+    private void send(List<PendingWrite> batch) {
+        final List<PutObject> puts = batch.stream().map(pendingWrite -> pendingWrite.put).collect(Collectors.toList());
+
+        httpClient.post(endpointUrl, HttpUtil.headers(), Json.encode(BidCacheRequest.of(puts)), timeoutMs)
+                .compose(response -> CacheService.processResponse(response, puts.size()))
+                .setHandler(result -> {
+                    if (result.succeeded()) {
+                        final long now = clock.millis();
+                        batch.forEach(pendingWrite -> stored(pendingWrite, now));
+                    } else {
+                        logger.warn("Error occurred while writing to cache service", result.cause());
+                        batch.forEach(this::retry);
+                    }
+                });
+    }
+
+    private void stored(PendingWrite pendingWrite, long now) {
+        metrics.updateCacheWriteBehindLagMetric(now - pendingWrite.enqueuedAt);
+        if (pendingWrite.storedListener != null) {
+            pendingWrite.storedListener.accept(pendingWrite.put);
+        }
+    }
+
+    private void retry(PendingWrite pendingWrite) {
+        final int attempt = pendingWrite.attempt + 1;
+        if (attempt > maxRetries || !queue.offer(new PendingWrite(pendingWrite.put, pendingWrite.storedListener,
+                pendingWrite.enqueuedAt, attempt))) {
+            metrics.updateCacheWriteBehindDroppedMetric();
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final PutObject put;
+        private final Consumer<PutObject> storedListener;
+        private final long enqueuedAt;
+        private final int attempt;
+
+        PendingWrite(PutObject put, Consumer<PutObject> storedListener, long enqueuedAt, int attempt) {
+            this.put = put;
+            this.storedListener = storedListener;
+            this.enqueuedAt = enqueuedAt;
+            this.attempt = attempt;
+        }
+    }
+}
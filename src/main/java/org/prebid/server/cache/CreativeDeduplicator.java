@@ -0,0 +1,183 @@
+package org.prebid.server.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.vertx.core.Future;
+import io.vertx.core.json.Json;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.metric.Metrics;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Remembers UUIDs of values stored in Prebid Cache by their creative, so the same creative is not uploaded again
+ * while its cached copy is still valid.
+ * <p>
+ * Values are identified by type, TTL bucket (TTL rounded down to a power of two) and MD5 digest of the whole value.
+ * JSON bids are read by renderers as a whole (notification URLs, price), so they are reused only if all their fields
+ * match, while VAST XML values with the same creative share cached copy regardless of bids they came from.
+ * <p>
+ * Only UUIDs of values confirmed to be stored are remembered, see {@link #remember}. Remembered UUID is reused
+ * as long as at least the given minimum TTL is left for it in the cache. If values are kept in embedded
+ * {@link OffHeapCacheStore}, UUID is reused only while its value was not evicted from there.
+ */
+public class CreativeDeduplicator {
+
+    private final Metrics metrics;
+    private final int defaultTtlSeconds;
+    private final int minRemainingTtlSeconds;
+    private final OffHeapCacheStore offHeapCacheStore;
+
+    private final Cache<String, StoredValue> storedValues;
+
+    public CreativeDeduplicator(Metrics metrics, int maxEntries, int defaultTtlSeconds, int minRemainingTtlSeconds,
+                                OffHeapCacheStore offHeapCacheStore) {
+        if (maxEntries < 1 || defaultTtlSeconds < 1 || minRemainingTtlSeconds < 0) {
+            throw new IllegalArgumentException("Max entries and default TTL must be positive, "
+                    + "min remaining TTL must not be negative");
+        }
+
+        this.metrics = Objects.requireNonNull(metrics);
+        this.defaultTtlSeconds = defaultTtlSeconds;
+        this.minRemainingTtlSeconds = minRemainingTtlSeconds;
+        this.offHeapCacheStore = offHeapCacheStore;
+
+        storedValues = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new StoredValueExpiry())
+                .build();
+    }
+
+    /**
+     * Stores only those of the given {@link PutObject}s which were not stored before with the given function.
+     * <p>
+     * The returned result has UUIDs for all given objects in the same order, remembered ones are reused.
+     * Stored objects are not remembered by this method, storer is expected to {@link #remember} them once
+     * storing is confirmed.
+     */
+    public Future<List<String>> store(List<PutObject> putObjects,
+                                      Function<List<PutObject>, Future<List<String>>> storer) {
+        final List<String> uuids = new ArrayList<>(putObjects.size());
+        final List<PutObject> newPutObjects = new ArrayList<>();
+
+        for (PutObject putObject : putObjects) {
+            final String uuid = storedUuid(contentKey(putObject));
+            metrics.updateCacheDeduplicationMetric(uuid != null);
+
+            uuids.add(uuid);
+            if (uuid == null) {
+                newPutObjects.add(putObject);
+            }
+        }
+
+        if (newPutObjects.isEmpty()) {
+            return Future.succeededFuture(uuids);
+        }
+
+        return storer.apply(newPutObjects).map(newUuids -> {
+            final Iterator<String> newUuidsIterator = newUuids.iterator();
+            for (int i = 0; i < uuids.size() && newUuidsIterator.hasNext(); i++) {
+                if (uuids.get(i) == null) {
+                    uuids.set(i, newUuidsIterator.next());
+                }
+            }
+            return uuids;
+        });
+    }
+
+    /**
+     * Returns remembered UUID of value with the given content key or null if it is unknown or was evicted from
+     * embedded cache.
+     */
+    private String storedUuid(String contentKey) {
+        final StoredValue storedValue = storedValues.getIfPresent(contentKey);
+        if (storedValue == null) {
+            return null;
+        }
+
+        if (offHeapCacheStore != null && !offHeapCacheStore.contains(storedValue.getUuid())) {
+            storedValues.asMap().remove(contentKey, storedValue);
+            return null;
+        }
+        return storedValue.getUuid();
+    }
+
+    /**
+     * Remembers UUID of the given {@link PutObject} for reuse. Must be called only after storing of value
+     * is confirmed, so reused UUID always points to existing value.
+     */
+    public void remember(PutObject putObject, String uuid) {
+        final Integer ttl = putObject.getExpiry();
+        final long reusableSeconds = ttlSeconds(ttl) - minRemainingTtlSeconds;
+        if (uuid != null && reusableSeconds > 0) {
+            storedValues.put(contentKey(putObject), StoredValue.of(uuid, TimeUnit.SECONDS.toNanos(reusableSeconds)));
+        }
+    }
+
+    private int ttlSeconds(Integer ttl) {
+        return ttl != null && ttl > 0 ? ttl : defaultTtlSeconds;
+    }
+
+    private String contentKey(PutObject putObject) {
+        return putObject.getType() + ':' + Integer.highestOneBit(ttlSeconds(putObject.getExpiry())) + ':'
+                + Base64.getEncoder().encodeToString(md5().digest(content(putObject.getValue())));
+    }
+
+    private static byte[] content(JsonNode value) {
+        return value.isTextual()
+                ? value.asText().getBytes(StandardCharsets.UTF_8)
+                : Json.encodeToBuffer(value).getBytes();
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support MD5
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @AllArgsConstructor(staticName = "of")
+    @Value
+    private static class StoredValue {
+
+        String uuid;
+
+        long reusableNanos;
+    }
+
+    /**
+     * Expires remembered UUID when less than minimum TTL is left for it in the cache.
+     */
+    private static class StoredValueExpiry implements Expiry<String, StoredValue> {
+
+        @Override
+        public long expireAfterCreate(String key, StoredValue value, long currentTime) {
+            return value.getReusableNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, StoredValue value, long currentTime, long currentDuration) {
+            return value.getReusableNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, StoredValue value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.prebid.server.cache;
+
+import org.prebid.server.cache.model.CachedCreative;
+
+import java.nio.ByteBuffer;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Creative store keeping values off-heap in direct {@link ByteBuffer} slabs, so cached creatives put no pressure
+ * on garbage collector. Only index of keys stays on heap.
+ * <p>
+ * Slabs are written sequentially as a log: once all of them are full, the oldest slab is reused and all creatives
+ * stored in it are evicted. Creatives are also expired by TTL on reading.
+ */
+public class OffHeapCacheStore {
+
+    private final Clock clock;
+    private final int slabSize;
+    private final long defaultTtlMs;
+
+    private final Slab[] slabs;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private int currentSlab;
+    private int position;
+
+    public OffHeapCacheStore(Clock clock, long capacityBytes, int slabSizeBytes, int defaultTtlSeconds) {
+        if (slabSizeBytes < 1 || capacityBytes < slabSizeBytes || defaultTtlSeconds < 1) {
+            throw new IllegalArgumentException("Slab size and default TTL must be positive, "
+                    + "capacity must not be less than slab size");
+        }
+
+        this.clock = Objects.requireNonNull(clock);
+        this.slabSize = slabSizeBytes;
+        this.defaultTtlMs = defaultTtlSeconds * 1000L;
+
+        slabs = new Slab[Math.toIntExact(capacityBytes / slabSizeBytes)];
+        for (int i = 0; i < slabs.length; i++) {
+            slabs[i] = new Slab();
+        }
+        slabs[0].allocate(slabSize);
+    }
+
+    /**
+     * Stores creative by the given key for TTL in seconds or for default TTL if it is null.
+     * <p>
+     * Returns false if creative is too large to be stored.
+     */
+    public boolean put(String key, String type, byte[] value, Integer ttlSeconds) {
+        if (value.length > slabSize) {
+            return false;
+        }
+
+        final long ttlMs = ttlSeconds != null && ttlSeconds > 0 ? ttlSeconds * 1000L : defaultTtlMs;
+        final Location location;
+        synchronized (this) {
+            if (position + value.length > slabSize) {
+                recycleNextSlab();
+            }
+
+            final Slab slab = slabs[currentSlab];
+            final ByteBuffer buffer = slab.buffer.duplicate();
+            buffer.position(position);
+            buffer.put(value);
+
+            location = new Location(key, type, currentSlab, slab.generation, position, value.length,
+                    clock.millis() + ttlMs);
+            slab.locations.add(location);
+            position += value.length;
+        }
+
+        index.put(key, location);
+        return true;
+    }
+
+    /**
+     * Switches to the next slab, evicting all creatives stored in it before.
+     */
+    private void recycleNextSlab() {
+        currentSlab = (currentSlab + 1) % slabs.length;
+        position = 0;
+
+        final Slab slab = slabs[currentSlab];
+        slab.lock.writeLock().lock();
+        try {
+            slab.generation++;
+            slab.allocate(slabSize);
+        } finally {
+            slab.lock.writeLock().unlock();
+        }
+
+        for (Location location : slab.locations) {
+            index.remove(location.key, location);
+        }
+        slab.locations = new ArrayList<>();
+    }
+
+    /**
+     * Returns creative stored by the given key or null if it is missing or expired.
+     */
+    public CachedCreative get(String key) {
+        final Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+        if (location.expiresAt <= clock.millis()) {
+            index.remove(key, location);
+            return null;
+        }
+
+        final Slab slab = slabs[location.slab];
+        slab.lock.readLock().lock();
+        try {
+            // slab was reused since creative was stored
+            if (slab.generation != location.generation) {
+                return null;
+            }
+
+            final byte[] value = new byte[location.length];
+            final ByteBuffer buffer = slab.buffer.duplicate();
+            buffer.position(location.offset);
+            buffer.get(value);
+            return CachedCreative.of(location.type, value);
+        } finally {
+            slab.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns true if creative is stored by the given key and is not expired or evicted yet.
+     */
+    public boolean contains(String key) {
+        final Location location = index.get(key);
+        if (location == null || location.expiresAt <= clock.millis()) {
+            return false;
+        }
+
+        final Slab slab = slabs[location.slab];
+        slab.lock.readLock().lock();
+        try {
+            return slab.generation == location.generation;
+        } finally {
+            slab.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes creative stored by the given key. Space taken by it is reclaimed when its slab is reused.
+     */
+    public void remove(String key) {
+        index.remove(key);
+    }
+
+    /**
+     * Returns number of stored creatives, including expired ones not evicted yet.
+     */
+    public int size() {
+        return index.size();
+    }
+
+    private static class Slab {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // guarded by lock
+        private ByteBuffer buffer;
+        private int generation;
+
+        // guarded by store
+        private List<Location> locations = new ArrayList<>();
+
+        /**
+         * Allocates buffer on first use only, so unused capacity doesn't take memory.
+         */
+        void allocate(int size) {
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(size);
+            }
+        }
+    }
+
+    private static class Location {
+
+        private final String key;
+        private final String type;
+        private final int slab;
+        private final int generation;
+        private final int offset;
+        private final int length;
+        private final long expiresAt;
+
+        Location(String key, String type, int slab, int generation, int offset, int length, long expiresAt) {
+            this.key = key;
+            this.type = type;
+            this.slab = slab;
+            this.generation = generation;
+            this.offset = offset;
+            this.length = length;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.prebid.server.cache.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Creative stored in embedded cache
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class CachedCreative {
+
+    /**
+     * Type of the value, either "json" or "xml"
+     */
+    String type;
+
+    /**
+     * Value bytes in UTF-8
+     */
+    byte[] value;
+}
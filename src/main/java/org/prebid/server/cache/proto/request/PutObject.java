@@ -13,4 +13,9 @@ public class PutObject {
     JsonNode value;
 
     Integer expiry;
+
+    /**
+     * Cache key chosen by PBS, Prebid Cache generates one if not set.
+     */
+    String key;
 }
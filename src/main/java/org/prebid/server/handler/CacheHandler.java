@@ -0,0 +1,54 @@
+package org.prebid.server.handler;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+import org.apache.commons.lang3.StringUtils;
+import org.prebid.server.cache.OffHeapCacheStore;
+import org.prebid.server.cache.model.CachedCreative;
+
+import java.util.Objects;
+
+/**
+ * Serves creatives stored in {@link OffHeapCacheStore} the same way Prebid Cache does, so cached asset URLs
+ * may point to PBS itself.
+ */
+public class CacheHandler implements Handler<RoutingContext> {
+
+    private static final String UUID_PARAMETER = "uuid";
+    private static final String XML_TYPE = "xml";
+    private static final String APPLICATION_XML_CONTENT_TYPE = "application/xml";
+
+    private final OffHeapCacheStore offHeapCacheStore;
+
+    public CacheHandler(OffHeapCacheStore offHeapCacheStore) {
+        this.offHeapCacheStore = Objects.requireNonNull(offHeapCacheStore);
+    }
+
+    @Override
+    public void handle(RoutingContext context) {
+        final String uuid = context.request().getParam(UUID_PARAMETER);
+        if (StringUtils.isBlank(uuid)) {
+            context.response().setStatusCode(HttpResponseStatus.BAD_REQUEST.code())
+                    .end("Missing required parameter uuid");
+            return;
+        }
+
+        final CachedCreative creative = offHeapCacheStore.get(uuid);
+        if (creative == null) {
+            context.response().setStatusCode(HttpResponseStatus.NOT_FOUND.code())
+                    .end(String.format("No content stored for uuid=%s", uuid));
+            return;
+        }
+
+        final CharSequence contentType = Objects.equals(creative.getType(), XML_TYPE)
+                ? APPLICATION_XML_CONTENT_TYPE
+                : HttpHeaderValues.APPLICATION_JSON;
+        context.response()
+                .putHeader(HttpHeaders.CONTENT_TYPE, contentType)
+                .end(Buffer.buffer(creative.getValue()));
+    }
+}
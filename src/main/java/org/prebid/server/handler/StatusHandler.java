@@ -4,19 +4,29 @@ import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.commons.lang3.StringUtils;
+import org.prebid.server.settings.service.JdbcPeriodicRefreshService;
+
+import java.util.List;
+import java.util.Objects;
 
 public class StatusHandler implements Handler<RoutingContext> {
 
+    private static final String WARMING_UP_RESPONSE = "warming";
+
     private final String statusResponse;
+    private final List<JdbcPeriodicRefreshService> refreshServices;
 
-    public StatusHandler(String statusResponse) {
+    public StatusHandler(String statusResponse, List<JdbcPeriodicRefreshService> refreshServices) {
         this.statusResponse = statusResponse;
+        this.refreshServices = Objects.requireNonNull(refreshServices);
     }
 
     @Override
     public void handle(RoutingContext context) {
-        // Today, the app always considers itself ready to serve requests.
-        if (StringUtils.isEmpty(statusResponse)) {
+        // The app is not ready to serve requests until stored data is loaded into cache.
+        if (refreshServices.stream().anyMatch(JdbcPeriodicRefreshService::isWarmingUp)) {
+            context.response().setStatusCode(HttpResponseStatus.SERVICE_UNAVAILABLE.code()).end(WARMING_UP_RESPONSE);
+        } else if (StringUtils.isEmpty(statusResponse)) {
             context.response().setStatusCode(HttpResponseStatus.NO_CONTENT.code()).end();
         } else {
             context.response().end(statusResponse);
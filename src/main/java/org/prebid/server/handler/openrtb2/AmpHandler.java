@@ -26,6 +26,7 @@ import org.prebid.server.auction.AmpRequestFactory;
 import org.prebid.server.auction.AmpResponsePostProcessor;
 import org.prebid.server.auction.ExchangeService;
 import org.prebid.server.auction.TimeoutResolver;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.auction.model.Tuple2;
 import org.prebid.server.auction.model.Tuple3;
 import org.prebid.server.bidder.BidderCatalog;
@@ -35,6 +36,7 @@ import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.exception.PreBidException;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.json.JsonBufferEncoder;
 import org.prebid.server.metric.MetricName;
 import org.prebid.server.metric.Metrics;
 import org.prebid.server.metric.model.MetricsContext;
@@ -116,12 +118,14 @@ public class AmpHandler implements Handler<RoutingContext> {
                 .httpContext(HttpContext.from(context));
 
         ampRequestFactory.fromRequest(context)
-                .map(bidRequest -> addToEvent(bidRequest, ampEventBuilder::bidRequest, bidRequest))
-                .map(bidRequest -> updateAppAndNoCookieAndImpsRequestedMetrics(bidRequest, uidsCookie, isSafari))
-                .compose(bidRequest ->
-                        exchangeService.holdAuction(bidRequest, uidsCookie, timeout(bidRequest, startTime),
-                                METRICS_CONTEXT, context)
-                                .map(bidResponse -> Tuple2.of(bidRequest, bidResponse)))
+                .map(auctionContext -> addToEvent(auctionContext.getBidRequest(), ampEventBuilder::bidRequest,
+                        auctionContext))
+                .map(auctionContext -> updateAppAndNoCookieAndImpsRequestedMetrics(auctionContext, uidsCookie,
+                        isSafari))
+                .compose(auctionContext ->
+                        exchangeService.holdAuction(auctionContext, uidsCookie,
+                                timeout(auctionContext.getBidRequest(), startTime), METRICS_CONTEXT, context)
+                                .map(bidResponse -> Tuple2.of(auctionContext.getBidRequest(), bidResponse)))
                 .map((Tuple2<BidRequest, BidResponse> result) ->
                         addToEvent(result.getRight(), ampEventBuilder::bidResponse, result))
                 .map((Tuple2<BidRequest, BidResponse> result) -> Tuple3.of(result.getLeft(), result.getRight(),
@@ -138,11 +142,12 @@ public class AmpHandler implements Handler<RoutingContext> {
         return result;
     }
 
-    private BidRequest updateAppAndNoCookieAndImpsRequestedMetrics(BidRequest bidRequest, UidsCookie uidsCookie,
-                                                                   boolean isSafari) {
+    private AuctionContext updateAppAndNoCookieAndImpsRequestedMetrics(AuctionContext auctionContext,
+                                                                       UidsCookie uidsCookie, boolean isSafari) {
+        final BidRequest bidRequest = auctionContext.getBidRequest();
         metrics.updateAppAndNoCookieAndImpsRequestedMetrics(bidRequest.getApp() != null, uidsCookie.hasLiveUids(),
                 isSafari, bidRequest.getImp().size());
-        return bidRequest;
+        return auctionContext;
     }
 
     private Timeout timeout(BidRequest bidRequest, long startTime) {
@@ -269,7 +274,7 @@ public class AmpHandler implements Handler<RoutingContext> {
 
         if (responseResult.succeeded()) {
             context.response().putHeader(HttpUtil.CONTENT_TYPE_HEADER, HttpHeaderValues.APPLICATION_JSON);
-            context.response().end(Json.encode(responseResult.result()));
+            context.response().end(JsonBufferEncoder.encodeResponse(responseResult.result(), requestType, metrics));
 
             requestStatus = MetricName.ok;
             status = HttpResponseStatus.OK.code();
@@ -5,8 +5,8 @@ import com.iab.openrtb.response.BidResponse;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
 import io.vertx.core.Handler;
-import io.vertx.core.json.Json;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.web.RoutingContext;
@@ -16,12 +16,14 @@ import org.prebid.server.analytics.model.HttpContext;
 import org.prebid.server.auction.AuctionRequestFactory;
 import org.prebid.server.auction.ExchangeService;
 import org.prebid.server.auction.TimeoutResolver;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.auction.model.Tuple2;
 import org.prebid.server.cookie.UidsCookie;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.json.JsonBufferEncoder;
 import org.prebid.server.metric.MetricName;
 import org.prebid.server.metric.Metrics;
 import org.prebid.server.metric.model.MetricsContext;
@@ -77,28 +79,48 @@ public class AuctionHandler implements Handler<RoutingContext> {
                 .httpContext(HttpContext.from(context));
 
         auctionRequestFactory.fromRequest(context)
-                .map(bidRequest -> addToEvent(bidRequest, auctionEventBuilder::bidRequest, bidRequest))
-                .map(bidRequest -> updateAppAndNoCookieAndImpsRequestedMetrics(bidRequest, uidsCookie, isSafari))
-                .map(bidRequest -> Tuple2.of(bidRequest, toMetricsContext(bidRequest)))
-                .compose((Tuple2<BidRequest, MetricsContext> result) ->
-                        exchangeService.holdAuction(result.getLeft(), uidsCookie, timeout(result.getLeft(), startTime),
-                                result.getRight(), context)
+                .map(auctionContext -> addToEvent(auctionContext.getBidRequest(), auctionEventBuilder::bidRequest,
+                        auctionContext))
+                .map(auctionContext -> updateAppAndNoCookieAndImpsRequestedMetrics(auctionContext, uidsCookie,
+                        isSafari))
+                .map(auctionContext -> Tuple2.of(auctionContext, toMetricsContext(auctionContext.getBidRequest())))
+                .compose((Tuple2<AuctionContext, MetricsContext> result) ->
+                        exchangeService.holdAuction(result.getLeft(), uidsCookie,
+                                timeout(result.getLeft().getBidRequest(), startTime), result.getRight(), context)
                                 .map(bidResponse -> Tuple2.of(bidResponse, result.getRight())))
                 .map((Tuple2<BidResponse, MetricsContext> result) ->
                         addToEvent(result.getLeft(), auctionEventBuilder::bidResponse, result))
                 .setHandler(responseResult -> handleResult(responseResult, auctionEventBuilder, context, startTime));
     }
 
+    /**
+     * Handles failure of preceding route handlers: request which body exceeded max request size while being read
+     * is responded the same way as if its size was checked by {@link AuctionRequestFactory}, so it is counted
+     * as bad input and reported to analytics. Other failures are left to default failure handling.
+     */
+    public void handleFailure(RoutingContext context) {
+        if (context.statusCode() != HttpResponseStatus.REQUEST_ENTITY_TOO_LARGE.code()) {
+            context.next();
+            return;
+        }
+
+        final AuctionEvent.AuctionEventBuilder auctionEventBuilder = AuctionEvent.builder()
+                .httpContext(HttpContext.from(context));
+        handleResult(Future.failedFuture(auctionRequestFactory.requestTooLarge()), auctionEventBuilder, context,
+                clock.millis());
+    }
+
     private static <T, R> R addToEvent(T field, Consumer<T> consumer, R result) {
         consumer.accept(field);
         return result;
     }
 
-    private BidRequest updateAppAndNoCookieAndImpsRequestedMetrics(BidRequest bidRequest, UidsCookie uidsCookie,
-                                                                   boolean isSafari) {
+    private AuctionContext updateAppAndNoCookieAndImpsRequestedMetrics(AuctionContext auctionContext,
+                                                                       UidsCookie uidsCookie, boolean isSafari) {
+        final BidRequest bidRequest = auctionContext.getBidRequest();
         metrics.updateAppAndNoCookieAndImpsRequestedMetrics(bidRequest.getApp() != null, uidsCookie.hasLiveUids(),
                 isSafari, bidRequest.getImp().size());
-        return bidRequest;
+        return auctionContext;
     }
 
     private static MetricsContext toMetricsContext(BidRequest bidRequest) {
@@ -135,7 +157,7 @@ public class AuctionHandler implements Handler<RoutingContext> {
         if (responseSucceeded) {
             context.response()
                     .putHeader(HttpUtil.CONTENT_TYPE_HEADER, HttpHeaderValues.APPLICATION_JSON)
-                    .end(Json.encode(responseResult.result().getLeft()));
+                    .end(JsonBufferEncoder.encodeResponse(responseResult.result().getLeft(), requestType, metrics));
 
             requestStatus = MetricName.ok;
             status = HttpResponseStatus.OK.code();
@@ -0,0 +1,54 @@
+package org.prebid.server.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Deserializes objects from JSON reading UTF-8 bytes directly from {@link Buffer}.
+ * <p>
+ * In contrast to {@link Json#decodeValue(String, Class)} it avoids building intermediate {@link String} from
+ * received bytes, that matters for big responses (e.g. from bidders).
+ * <p>
+ * {@link Json#decodeValue(Buffer, Class)} reads bytes the same way, but its error message is formatted differently
+ * from {@link Json#decodeValue(String, Class)} one ("Failed to decode:" without space). Bidders report decoding
+ * errors to callers, so this class keeps them the same as when bidder responses were decoded from {@link String}.
+ */
+public final class JsonBufferDecoder {
+
+    private JsonBufferDecoder() {
+    }
+
+    /**
+     * Decodes given {@link Buffer} to object of given class. Throws {@link DecodeException} if buffer couldn't be
+     * deserialized.
+     */
+    public static <T> T decode(Buffer buffer, Class<T> clazz) {
+        try (InputStream inputStream = inputStream(buffer)) {
+            return Json.mapper.readValue(inputStream, clazz);
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes given {@link Buffer} to object of given type. Throws {@link DecodeException} if buffer couldn't be
+     * deserialized.
+     */
+    public static <T> T decode(Buffer buffer, TypeReference<T> typeReference) {
+        try (InputStream inputStream = inputStream(buffer)) {
+            return Json.mapper.readValue(inputStream, typeReference);
+        } catch (IOException e) {
+            throw new DecodeException("Failed to decode: " + e.getMessage());
+        }
+    }
+
+    private static InputStream inputStream(Buffer buffer) {
+        return new ByteBufInputStream(buffer.getByteBuf());
+    }
+}
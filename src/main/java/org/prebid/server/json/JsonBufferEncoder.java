@@ -0,0 +1,54 @@
+package org.prebid.server.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.Json;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Serializes objects to JSON writing UTF-8 bytes directly into {@link Buffer}.
+ * <p>
+ * In contrast to {@link Json#encode(Object)} it avoids building intermediate {@link String} which is then encoded
+ * to bytes once again by HTTP server, that matters for big responses (e.g. with debug info).
+ */
+public final class JsonBufferEncoder {
+
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private JsonBufferEncoder() {
+    }
+
+    /**
+     * Encodes given object to {@link Buffer}. Throws {@link EncodeException} if object couldn't be serialized.
+     */
+    public static Buffer encode(Object value) {
+        final ByteBuf byteBuf = Unpooled.buffer(INITIAL_CAPACITY);
+        try (JsonGenerator generator = Json.mapper.getFactory()
+                .createGenerator((OutputStream) new ByteBufOutputStream(byteBuf))) {
+            Json.mapper.writeValue(generator, value);
+        } catch (IOException e) {
+            throw new EncodeException("Failed to encode as JSON: " + e.getMessage());
+        }
+        return Buffer.buffer(byteBuf);
+    }
+
+    /**
+     * Encodes given response to {@link Buffer} and updates serialization time and response size metrics
+     * of the given request type.
+     */
+    public static Buffer encodeResponse(Object response, MetricName requestType, Metrics metrics) {
+        final long serializationStartTime = System.nanoTime();
+        final Buffer body = encode(response);
+        metrics.updateResponseSerializationMetrics(requestType, body.length(),
+                System.nanoTime() - serializationStartTime);
+        return body;
+    }
+}
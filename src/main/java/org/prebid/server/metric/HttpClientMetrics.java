@@ -0,0 +1,21 @@
+package org.prebid.server.metric;
+
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * HTTP client metrics support for particular destination (e.g. bidder).
+ */
+class HttpClientMetrics extends UpdatableMetrics {
+
+    HttpClientMetrics(MetricRegistry metricRegistry, CounterType counterType, String destination) {
+        super(Objects.requireNonNull(metricRegistry), Objects.requireNonNull(counterType),
+                nameCreator(Objects.requireNonNull(destination)));
+    }
+
+    private static Function<MetricName, String> nameCreator(String destination) {
+        return metricName -> String.format("httpclient.%s.%s", destination, metricName.toString());
+    }
+}
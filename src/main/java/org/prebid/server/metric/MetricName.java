@@ -8,10 +8,42 @@ public enum MetricName {
     db_circuitbreaker_opened,
     db_circuitbreaker_closed,
     db_query_time,
+    db_batch_size,
+    db_batch_wait_time,
 
     // http client
     httpclient_circuitbreaker_opened,
     httpclient_circuitbreaker_closed,
+    circuitbreaker_opened,
+    circuitbreaker_half_opened,
+    circuitbreaker_closed,
+    circuitbreaker_failure_rate,
+    circuitbreaker_slow_call_rate,
+
+    // prebid cache
+    cache_batch_size,
+    cache_batch_wait_time,
+    cache_batch_request_time,
+    cache_write_behind_queue_depth,
+    cache_write_behind_rejected,
+    cache_write_behind_dropped,
+    cache_write_behind_lag,
+    cache_dedup_hit,
+    cache_dedup_miss,
+
+    // settings
+    settings_lookup_issued,
+    settings_lookup_coalesced,
+    settings_file_reload_time,
+    settings_file_reloaded_files,
+    settings_file_reload_failed,
+    hit,
+    miss,
+    negative_hit,
+    refresh,
+    off_heap_hit,
+    eviction,
+    resident_bytes,
 
     // geo location
     geolocation_circuitbreaker_opened,
@@ -29,6 +61,18 @@ public enum MetricName {
     bids_received,
     adm_bids_received,
     nurl_bids_received,
+    response_size,
+    response_serialization_time,
+    bidder_request_objects,
+    timeout_cut,
+    bids_forfeited,
+    pool_active_connections,
+    pool_wait_queue_size,
+    pool_wait_time,
+    pool_rejected,
+    request_size,
+    compressed_request_size,
+    request_compression_time,
 
     // request types,
     openrtb2web("openrtb2-web"),
@@ -44,9 +88,11 @@ public enum MetricName {
     badserverresponse,
     failedtorequestbids,
     timeout,
+    responsetoolarge,
     unknown_error,
     err,
     networkerr,
+    suppressed,
 
     // cookie sync
     cookie_sync_requests,
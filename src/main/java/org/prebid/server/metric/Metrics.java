@@ -7,6 +7,7 @@ import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
@@ -19,12 +20,16 @@ public class Metrics extends UpdatableMetrics {
     private final Function<MetricName, RequestStatusMetrics> requestMetricsCreator;
     private final Function<String, AccountMetrics> accountMetricsCreator;
     private final Function<String, AdapterMetrics> adapterMetricsCreator;
+    private final Function<String, HttpClientMetrics> httpClientMetricsCreator;
+    private final Function<String, SettingsCacheMetrics> settingsCacheMetricsCreator;
     // not thread-safe maps are intentionally used here because it's harmless in this particular case - eventually
     // this all boils down to metrics lookup by underlying metric registry and that operation is guaranteed to be
     // thread-safe
     private final Map<MetricName, RequestStatusMetrics> requestMetrics;
     private final Map<String, AccountMetrics> accountMetrics;
     private final Map<String, AdapterMetrics> adapterMetrics;
+    private final Map<String, HttpClientMetrics> httpClientMetrics;
+    private final Map<String, SettingsCacheMetrics> settingsCacheMetrics;
     private final UserSyncMetrics userSyncMetrics;
     private final CookieSyncMetrics cookieSyncMetrics;
 
@@ -37,9 +42,13 @@ public class Metrics extends UpdatableMetrics {
         requestMetricsCreator = requestType -> new RequestStatusMetrics(metricRegistry, counterType, requestType);
         accountMetricsCreator = account -> new AccountMetrics(metricRegistry, counterType, account);
         adapterMetricsCreator = adapterType -> new AdapterMetrics(metricRegistry, counterType, adapterType);
+        httpClientMetricsCreator = destination -> new HttpClientMetrics(metricRegistry, counterType, destination);
+        settingsCacheMetricsCreator = cache -> new SettingsCacheMetrics(metricRegistry, counterType, cache);
         requestMetrics = new EnumMap<>(MetricName.class);
         accountMetrics = new HashMap<>();
         adapterMetrics = new HashMap<>();
+        httpClientMetrics = new HashMap<>();
+        settingsCacheMetrics = new HashMap<>();
         userSyncMetrics = new UserSyncMetrics(metricRegistry, counterType);
         cookieSyncMetrics = new CookieSyncMetrics(metricRegistry, counterType);
     }
@@ -56,6 +65,14 @@ public class Metrics extends UpdatableMetrics {
         return adapterMetrics.computeIfAbsent(adapterType, adapterMetricsCreator);
     }
 
+    HttpClientMetrics forHttpClientDestination(String destination) {
+        return httpClientMetrics.computeIfAbsent(destination, httpClientMetricsCreator);
+    }
+
+    SettingsCacheMetrics forSettingsCache(String cache) {
+        return settingsCacheMetrics.computeIfAbsent(cache, settingsCacheMetricsCreator);
+    }
+
     UserSyncMetrics userSync() {
         return userSyncMetrics;
     }
@@ -91,6 +108,16 @@ public class Metrics extends UpdatableMetrics {
         forRequestType(requestType).incCounter(requestStatus);
     }
 
+    public void updateResponseSerializationMetrics(MetricName requestType, int size, long nanos) {
+        final RequestStatusMetrics requestTypeMetrics = forRequestType(requestType);
+        requestTypeMetrics.updateHistogram(MetricName.response_size, size);
+        requestTypeMetrics.updateTimer(MetricName.response_serialization_time, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void updateBidderRequestsAllocationMetric(int objectsCount) {
+        updateHistogram(MetricName.bidder_request_objects, objectsCount);
+    }
+
     public void updateAccountRequestMetrics(String accountId, MetricName requestType) {
         final AccountMetricsVerbosityLevel verbosityLevel = accountMetricsVerbosity.forAccount(accountId);
         if (verbosityLevel.isAtLeast(AccountMetricsVerbosityLevel.basic)) {
@@ -123,6 +150,35 @@ public class Metrics extends UpdatableMetrics {
         }
     }
 
+    public void updateAdapterTimeoutCutMetric(String bidder, long millis) {
+        forAdapter(bidder).updateHistogram(MetricName.timeout_cut, millis);
+    }
+
+    public void updateAdapterBidsForfeitedMetric(String bidder) {
+        forAdapter(bidder).incCounter(MetricName.bids_forfeited);
+    }
+
+    public void updateAdapterConnectionPoolMetrics(String bidder, int activeConnections, int waitQueueSize) {
+        final AdapterMetrics adapterMetrics = forAdapter(bidder);
+        adapterMetrics.updateHistogram(MetricName.pool_active_connections, activeConnections);
+        adapterMetrics.updateHistogram(MetricName.pool_wait_queue_size, waitQueueSize);
+    }
+
+    public void updateAdapterConnectionWaitTimeMetric(String bidder, long millis) {
+        forAdapter(bidder).updateTimer(MetricName.pool_wait_time, millis);
+    }
+
+    public void updateAdapterConnectionPoolRejectedMetric(String bidder) {
+        forAdapter(bidder).incCounter(MetricName.pool_rejected);
+    }
+
+    public void updateAdapterRequestCompressionMetrics(String bidder, int size, int compressedSize, long nanos) {
+        final AdapterMetrics adapterMetrics = forAdapter(bidder);
+        adapterMetrics.updateHistogram(MetricName.request_size, size);
+        adapterMetrics.updateHistogram(MetricName.compressed_request_size, compressedSize);
+        adapterMetrics.updateTimer(MetricName.request_compression_time, nanos, TimeUnit.NANOSECONDS);
+    }
+
     public void updateAdapterRequestNobidMetrics(String bidder, String accountId) {
         forAdapter(bidder).request().incCounter(MetricName.nobid);
         if (accountMetricsVerbosity.forAccount(accountId).isAtLeast(AccountMetricsVerbosityLevel.detailed)) {
@@ -155,6 +211,10 @@ public class Metrics extends UpdatableMetrics {
         forAdapter(bidder).request().incCounter(errorMetric);
     }
 
+    public void updateAdapterRequestSuppressedMetric(String bidder) {
+        forAdapter(bidder).request().incCounter(MetricName.suppressed);
+    }
+
     public void updateUserSyncOptoutMetric() {
         userSync().incCounter(MetricName.opt_outs);
     }
@@ -199,6 +259,14 @@ public class Metrics extends UpdatableMetrics {
         updateTimer(MetricName.db_query_time, millis);
     }
 
+    public void updateDatabaseBatchSizeMetric(int lookupsCount) {
+        updateHistogram(MetricName.db_batch_size, lookupsCount);
+    }
+
+    public void updateDatabaseBatchWaitTimeMetric(long millis) {
+        updateTimer(MetricName.db_batch_wait_time, millis);
+    }
+
     public void updateDatabaseCircuitBreakerMetric(boolean opened) {
         if (opened) {
             incCounter(MetricName.db_circuitbreaker_opened);
@@ -207,14 +275,89 @@ public class Metrics extends UpdatableMetrics {
         }
     }
 
-    public void updateHttpClientCircuitBreakerMetric(boolean opened) {
+    public void updateHttpClientCircuitBreakerMetric(String destination, boolean opened) {
+        final HttpClientMetrics destinationMetrics = forHttpClientDestination(destination);
         if (opened) {
             incCounter(MetricName.httpclient_circuitbreaker_opened);
+            destinationMetrics.incCounter(MetricName.circuitbreaker_opened);
         } else {
             incCounter(MetricName.httpclient_circuitbreaker_closed);
+            destinationMetrics.incCounter(MetricName.circuitbreaker_closed);
+        }
+    }
+
+    public void updateHttpClientCircuitBreakerHalfOpenedMetric(String destination) {
+        forHttpClientDestination(destination).incCounter(MetricName.circuitbreaker_half_opened);
+    }
+
+    public void updateHttpClientCircuitBreakerWindowMetrics(String destination, int failureRatePercent,
+                                                            int slowCallRatePercent) {
+        final HttpClientMetrics destinationMetrics = forHttpClientDestination(destination);
+        destinationMetrics.updateHistogram(MetricName.circuitbreaker_failure_rate, failureRatePercent);
+        destinationMetrics.updateHistogram(MetricName.circuitbreaker_slow_call_rate, slowCallRatePercent);
+    }
+
+    public void updateCacheBatchSizeMetric(int objectsCount) {
+        updateHistogram(MetricName.cache_batch_size, objectsCount);
+    }
+
+    public void updateCacheBatchWaitTimeMetric(long millis) {
+        updateTimer(MetricName.cache_batch_wait_time, millis);
+    }
+
+    public void updateCacheBatchRequestTimeMetric(long millis) {
+        updateTimer(MetricName.cache_batch_request_time, millis);
+    }
+
+    public void updateCacheWriteBehindQueueDepthMetric(int objectsCount) {
+        updateHistogram(MetricName.cache_write_behind_queue_depth, objectsCount);
+    }
+
+    public void updateCacheWriteBehindRejectedMetric() {
+        incCounter(MetricName.cache_write_behind_rejected);
+    }
+
+    public void updateCacheWriteBehindDroppedMetric() {
+        incCounter(MetricName.cache_write_behind_dropped);
+    }
+
+    public void updateCacheWriteBehindLagMetric(long millis) {
+        updateTimer(MetricName.cache_write_behind_lag, millis);
+    }
+
+    public void updateCacheDeduplicationMetric(boolean hit) {
+        if (hit) {
+            incCounter(MetricName.cache_dedup_hit);
+        } else {
+            incCounter(MetricName.cache_dedup_miss);
+        }
+    }
+
+    public void updateSettingsLookupMetric(boolean coalesced) {
+        if (coalesced) {
+            incCounter(MetricName.settings_lookup_coalesced);
+        } else {
+            incCounter(MetricName.settings_lookup_issued);
         }
     }
 
+    public void updateSettingsFileReloadMetrics(long millis, int filesCount) {
+        updateTimer(MetricName.settings_file_reload_time, millis);
+        updateHistogram(MetricName.settings_file_reloaded_files, filesCount);
+    }
+
+    public void updateSettingsFileReloadFailedMetric() {
+        incCounter(MetricName.settings_file_reload_failed);
+    }
+
+    public void updateSettingsCacheMetric(String cache, MetricName metricName) {
+        forSettingsCache(cache).incCounter(metricName);
+    }
+
+    public void updateSettingsCacheResidentBytesMetric(String cache, long bytes) {
+        forSettingsCache(cache).updateHistogram(MetricName.resident_bytes, bytes);
+    }
+
     public void updateGeoLocationCircuitBreakerMetric(boolean opened) {
         if (opened) {
             incCounter(MetricName.geolocation_circuitbreaker_opened);
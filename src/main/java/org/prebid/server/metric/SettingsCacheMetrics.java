@@ -0,0 +1,21 @@
+package org.prebid.server.metric;
+
+import com.codahale.metrics.MetricRegistry;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Settings cache metrics support for particular cache (e.g. accounts).
+ */
+class SettingsCacheMetrics extends UpdatableMetrics {
+
+    SettingsCacheMetrics(MetricRegistry metricRegistry, CounterType counterType, String cache) {
+        super(Objects.requireNonNull(metricRegistry), Objects.requireNonNull(counterType),
+                nameCreator(Objects.requireNonNull(cache)));
+    }
+
+    private static Function<MetricName, String> nameCreator(String cache) {
+        return metricName -> String.format("settings.cache.%s.%s", cache, metricName.toString());
+    }
+}
@@ -1,41 +1,105 @@
 package org.prebid.server.settings;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.prebid.server.exception.PreBidException;
 import org.prebid.server.execution.Timeout;
+import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
 import org.prebid.server.settings.model.Account;
+import org.prebid.server.settings.model.CacheMemoryOptions;
 import org.prebid.server.settings.model.StoredDataResult;
 import org.prebid.server.settings.model.TriFunction;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.TimeoutException;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 /**
- * Adds caching functionality for {@link ApplicationSettings} implementation
+ * Adds caching functionality for {@link ApplicationSettings} implementation.
+ * <p>
+ * Concurrent cache misses for the same id share single lookup to delegate. Shared lookup is made with its own
+ * timeout rather than timeout of the caller started it, each caller waits for it within its own timeout.
+ * <p>
+ * Stale entries are served while being refreshed in background with the same lookup timeout, ids not found
+ * by delegate are remembered if negative caching is enabled.
+ * <p>
+ * Snapshot of this cache includes accounts and AdUnit configs only, stored data caches are snapshotted separately.
  */
-public class CachingApplicationSettings implements ApplicationSettings {
+public class CachingApplicationSettings implements ApplicationSettings, SnapshottableCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachingApplicationSettings.class);
+
+    private static final String ACCOUNT_SECTION = "account";
+    private static final String AD_UNIT_CONFIG_SECTION = "adunit_config";
+
+    private static final ValueCodec<Account> ACCOUNT_CODEC = new ValueCodec<Account>() {
+        @Override
+        public byte[] encode(Account account) {
+            return Json.encode(account).getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Account decode(byte[] bytes) {
+            return Json.decodeValue(new String(bytes, StandardCharsets.UTF_8), Account.class);
+        }
+    };
 
     private final ApplicationSettings delegate;
+    private final Vertx vertx;
+    private final TimeoutFactory timeoutFactory;
+    private final long lookupTimeoutMs;
+    private final Metrics metrics;
 
-    private final Map<String, Account> accountCache;
-    private final Map<String, String> adUnitConfigCache;
+    private final RefreshableCache<Account> accountCache;
+    private final RefreshableCache<String> adUnitConfigCache;
     private final SettingsCache cache;
     private final SettingsCache ampCache;
 
+    private final SingleFlight<Account> accountFlights;
+    private final SingleFlight<String> adUnitConfigFlights;
+    private final StoredDataFlights storedDataFlights;
+    private final StoredDataFlights ampStoredDataFlights;
+
     public CachingApplicationSettings(ApplicationSettings delegate, SettingsCache cache, SettingsCache ampCache,
-                                      int ttl, int size) {
-        if (ttl <= 0 || size <= 0) {
-            throw new IllegalArgumentException("ttl and size must be positive");
+                                      Vertx vertx, TimeoutFactory timeoutFactory, long lookupTimeoutMs,
+                                      Metrics metrics, int ttl, int staleTtl, int negativeTtl, int size,
+                                      CacheMemoryOptions memoryOptions) {
+        if (lookupTimeoutMs < 1) {
+            throw new IllegalArgumentException("Lookup timeout should be positive");
         }
+
         this.delegate = Objects.requireNonNull(delegate);
-        this.accountCache = SettingsCache.createCache(ttl, size);
-        this.adUnitConfigCache = SettingsCache.createCache(ttl, size);
+        this.vertx = Objects.requireNonNull(vertx);
+        this.timeoutFactory = Objects.requireNonNull(timeoutFactory);
+        this.lookupTimeoutMs = lookupTimeoutMs;
+        this.metrics = Objects.requireNonNull(metrics);
+        this.accountCache = new RefreshableCache<>("account", metrics, ACCOUNT_CODEC, ttl, staleTtl, negativeTtl,
+                size, memoryOptions);
+        this.adUnitConfigCache = new RefreshableCache<>("adunit_config", metrics, ValueCodec.STRING, ttl, staleTtl,
+                negativeTtl, size, memoryOptions);
         this.cache = Objects.requireNonNull(cache);
         this.ampCache = Objects.requireNonNull(ampCache);
+
+        this.accountFlights = new SingleFlight<>(metrics);
+        this.adUnitConfigFlights = new SingleFlight<>(metrics);
+        this.storedDataFlights = new StoredDataFlights(metrics, "stored_request", "stored_imp");
+        this.ampStoredDataFlights = new StoredDataFlights(metrics, "amp_stored_request", "amp_stored_imp");
     }
 
     /**
@@ -43,7 +107,8 @@ public class CachingApplicationSettings implements ApplicationSettings {
      */
     @Override
     public Future<Account> getAccountById(String accountId, Timeout timeout) {
-        return getFromCacheOrDelegate(accountCache, accountId, timeout, delegate::getAccountById);
+        return getFromCacheOrDelegate(accountCache, accountFlights, "account", accountId, timeout,
+                delegate::getAccountById);
     }
 
     /**
@@ -51,7 +116,8 @@ public class CachingApplicationSettings implements ApplicationSettings {
      */
     @Override
     public Future<String> getAdUnitConfigById(String adUnitConfigId, Timeout timeout) {
-        return getFromCacheOrDelegate(adUnitConfigCache, adUnitConfigId, timeout, delegate::getAdUnitConfigById);
+        return getFromCacheOrDelegate(adUnitConfigCache, adUnitConfigFlights, "adunit_config", adUnitConfigId,
+                timeout, delegate::getAdUnitConfigById);
     }
 
     /**
@@ -59,7 +125,7 @@ public class CachingApplicationSettings implements ApplicationSettings {
      */
     @Override
     public Future<StoredDataResult> getStoredData(Set<String> requestIds, Set<String> impIds, Timeout timeout) {
-        return getFromCacheOrDelegate(cache, requestIds, impIds, timeout, delegate::getStoredData);
+        return getFromCacheOrDelegate(cache, storedDataFlights, requestIds, impIds, timeout, delegate::getStoredData);
     }
 
     /**
@@ -67,25 +133,95 @@ public class CachingApplicationSettings implements ApplicationSettings {
      */
     @Override
     public Future<StoredDataResult> getAmpStoredData(Set<String> requestIds, Set<String> impIds, Timeout timeout) {
-        return getFromCacheOrDelegate(ampCache, requestIds, impIds, timeout, delegate::getAmpStoredData);
+        return getFromCacheOrDelegate(ampCache, ampStoredDataFlights, requestIds, impIds, timeout,
+                delegate::getAmpStoredData);
+    }
+
+    /**
+     * Removes the given accounts from cache, including ones remembered as not found.
+     */
+    public void invalidateAccounts(List<String> accountIds) {
+        accountCache.invalidateAll(accountIds);
+    }
+
+    /**
+     * Removes the given AdUnit configs from cache, including ones remembered as not found.
+     */
+    public void invalidateAdUnitConfigs(List<String> adUnitConfigIds) {
+        adUnitConfigCache.invalidateAll(adUnitConfigIds);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> snapshot() {
+        final Map<String, String> accounts = new HashMap<>();
+        accountCache.asMap().forEach((id, account) -> accounts.put(id, Json.encode(account)));
+
+        final Map<String, Map<String, String>> sections = new HashMap<>();
+        sections.put(ACCOUNT_SECTION, accounts);
+        sections.put(AD_UNIT_CONFIG_SECTION, adUnitConfigCache.asMap());
+        return sections;
     }
 
-    private static <T> Future<T> getFromCacheOrDelegate(Map<String, T> cache, String key, Timeout timeout,
-                                                        BiFunction<String, Timeout, Future<T>> retriever) {
-        final Future<T> result;
+    @Override
+    public void restore(Map<String, Map<String, String>> sections) {
+        final Map<String, Account> accounts = new HashMap<>();
+        sections.getOrDefault(ACCOUNT_SECTION, Collections.emptyMap()).forEach((id, json) -> {
+            try {
+                accounts.put(id, Json.decodeValue(json, Account.class));
+            } catch (DecodeException e) {
+                logger.warn("Cannot restore account with id {0} from snapshot: {1}", id, e.getMessage());
+            }
+        });
+        accountCache.putAll(accounts);
 
+        adUnitConfigCache.putAll(sections.getOrDefault(AD_UNIT_CONFIG_SECTION, Collections.emptyMap()));
+    }
+
+    /**
+     * Retrieves value from cache and starts its refresh in background if it is stale. In case of cache miss looks up
+     * value in delegate, unless the key was recently not found by delegate.
+     */
+    private <T> Future<T> getFromCacheOrDelegate(RefreshableCache<T> cache, SingleFlight<T> flights, String cacheName,
+                                                 String key, Timeout timeout,
+                                                 BiFunction<String, Timeout, Future<T>> retriever) {
         final T cachedValue = cache.get(key);
         if (cachedValue != null) {
-            result = Future.succeededFuture(cachedValue);
-        } else {
-            result = retriever.apply(key, timeout)
-                    .map(value -> {
-                        cache.put(key, value);
-                        return value;
-                    });
+            metrics.updateSettingsCacheMetric(cacheName, MetricName.hit);
+            if (cache.isStale(key) && flights.executeIfAbsent(key, () -> lookUp(cache, key, lookupTimeout(),
+                    retriever, false))) {
+                metrics.updateSettingsCacheMetric(cacheName, MetricName.refresh);
+            }
+            return Future.succeededFuture(cachedValue);
         }
 
-        return result;
+        if (cache.isNotFound(key)) {
+            metrics.updateSettingsCacheMetric(cacheName, MetricName.negative_hit);
+            return Future.failedFuture(new PreBidException("Not found"));
+        }
+
+        metrics.updateSettingsCacheMetric(cacheName, MetricName.miss);
+        return waitWithin(flights.execute(key, () -> lookUp(cache, key, lookupTimeout(), retriever, true)), timeout);
+    }
+
+    /**
+     * Looks up value in delegate and updates cache with it.
+     * <p>
+     * Delegate failed with {@link PreBidException} is considered as not found result (other exceptions are of system
+     * nature), key is remembered as not found if requested. Failed refresh leaves stale value in cache as is.
+     */
+    private static <T> Future<T> lookUp(RefreshableCache<T> cache, String key, Timeout timeout,
+                                        BiFunction<String, Timeout, Future<T>> retriever, boolean rememberNotFound) {
+        return retriever.apply(key, timeout)
+                .map(value -> {
+                    cache.put(key, value);
+                    return value;
+                })
+                .recover(exception -> {
+                    if (rememberNotFound && exception instanceof PreBidException) {
+                        cache.putNotFound(key);
+                    }
+                    return Future.failedFuture(exception);
+                });
     }
 
     /**
@@ -93,51 +229,256 @@ public class CachingApplicationSettings implements ApplicationSettings {
      * source, combines results and updates cache with missed stored request. In case when origin source returns Failed
      * {@link Future} propagates its result to caller. In successive call return {@link Future&lt;StoredDataResult&gt;}
      * with all found stored requests and error from origin source id call was made.
+     * <p>
+     * Absent ids already being looked up by concurrent calls are not looked up again, results of those lookups
+     * are used instead. Ids recently not found by origin source are not looked up too, stale ids are refreshed
+     * in background.
      */
-    private static Future<StoredDataResult> getFromCacheOrDelegate(
-            SettingsCache cache, Set<String> requestIds, Set<String> impIds, Timeout timeout,
-            TriFunction<Set<String>, Set<String>, Timeout, Future<StoredDataResult>> retriever) {
+    private Future<StoredDataResult> getFromCacheOrDelegate(
+            SettingsCache cache, StoredDataFlights flights, Set<String> requestIds, Set<String> impIds,
+            Timeout timeout, TriFunction<Set<String>, Set<String>, Timeout, Future<StoredDataResult>> retriever) {
 
-        final Map<String, String> requestCache = cache.getRequestCache();
-        final Map<String, String> impCache = cache.getImpCache();
+        final List<String> errors = new ArrayList<>();
 
         final Set<String> missedRequestIds = new HashSet<>();
-        final Map<String, String> storedIdToRequest = getFromCacheOrAddMissedIds(requestIds, requestCache,
-                missedRequestIds);
+        final Set<String> staleRequestIds = new HashSet<>();
+        final Map<String, String> storedIdToRequest = getFromCacheOrAddMissedIds(requestIds, cache.getRequestCache(),
+                flights.requestCacheName, "request", missedRequestIds, staleRequestIds, errors);
 
         final Set<String> missedImpIds = new HashSet<>();
-        final Map<String, String> storedIdToImp = getFromCacheOrAddMissedIds(impIds, impCache, missedImpIds);
+        final Set<String> staleImpIds = new HashSet<>();
+        final Map<String, String> storedIdToImp = getFromCacheOrAddMissedIds(impIds, cache.getImpCache(),
+                flights.impCacheName, "imp", missedImpIds, staleImpIds, errors);
+
+        refreshInBackground(cache, flights, staleRequestIds, staleImpIds, retriever);
 
         if (missedRequestIds.isEmpty() && missedImpIds.isEmpty()) {
-            return Future.succeededFuture(
-                    StoredDataResult.of(storedIdToRequest, storedIdToImp, Collections.emptyList()));
+            return Future.succeededFuture(StoredDataResult.of(storedIdToRequest, storedIdToImp, errors));
+        }
+
+        final Set<String> claimedRequestIds = new HashSet<>();
+        final Map<String, Future<StoredDataResult>> joinedRequests = new HashMap<>();
+        claimOrJoin(missedRequestIds, flights.requests, claimedRequestIds, joinedRequests);
+
+        final Set<String> claimedImpIds = new HashSet<>();
+        final Map<String, Future<StoredDataResult>> joinedImps = new HashMap<>();
+        claimOrJoin(missedImpIds, flights.imps, claimedImpIds, joinedImps);
+
+        // delegate call to original source for claimed ids and update cache with it
+        final Future<StoredDataResult> ownLookup = claimedRequestIds.isEmpty() && claimedImpIds.isEmpty()
+                ? Future.succeededFuture(StoredDataResult.of(Collections.emptyMap(), Collections.emptyMap(),
+                Collections.emptyList()))
+                : lookUp(cache, flights, claimedRequestIds, claimedImpIds, lookupTimeout(), retriever, true);
+
+        final List<Future> lookups = new ArrayList<>();
+        lookups.add(ownLookup);
+        lookups.addAll(joinedRequests.values());
+        lookups.addAll(joinedImps.values());
+
+        return waitWithin(CompositeFuture.all(lookups).map(ignored -> {
+            final StoredDataResult result = ownLookup.result();
+            errors.addAll(result.getErrors());
+
+            storedIdToRequest.putAll(result.getStoredIdToRequest());
+            addJoinedResults(joinedRequests, StoredDataResult::getStoredIdToRequest, "request", storedIdToRequest,
+                    errors);
+
+            storedIdToImp.putAll(result.getStoredIdToImp());
+            addJoinedResults(joinedImps, StoredDataResult::getStoredIdToImp, "imp", storedIdToImp, errors);
+
+            return StoredDataResult.of(storedIdToRequest, storedIdToImp, errors);
+        }), timeout);
+    }
+
+    /**
+     * Starts looking up stale ids in background, except ones already being looked up. Refresh is made with lookup
+     * timeout, so it doesn't depend on timeout of request found ids stale.
+     */
+    private void refreshInBackground(
+            SettingsCache cache, StoredDataFlights flights, Set<String> staleRequestIds, Set<String> staleImpIds,
+            TriFunction<Set<String>, Set<String>, Timeout, Future<StoredDataResult>> retriever) {
+
+        final Set<String> claimedRequestIds = claim(staleRequestIds, flights.requests, flights.requestCacheName);
+        final Set<String> claimedImpIds = claim(staleImpIds, flights.imps, flights.impCacheName);
+
+        if (!claimedRequestIds.isEmpty() || !claimedImpIds.isEmpty()) {
+            lookUp(cache, flights, claimedRequestIds, claimedImpIds, lookupTimeout(), retriever, false);
+        }
+    }
+
+    private Set<String> claim(Set<String> ids, SingleFlight<StoredDataResult> flights, String cacheName) {
+        final Set<String> claimedIds = new HashSet<>();
+        for (String id : ids) {
+            if (flights.claim(id)) {
+                claimedIds.add(id);
+                metrics.updateSettingsCacheMetric(cacheName, MetricName.refresh);
+            }
+        }
+        return claimedIds;
+    }
+
+    /**
+     * Looks up claimed ids in delegate and updates cache with found stored data, ids absent in result are remembered
+     * as not found if requested and delegate managed to look them up (didn't time out, etc.). Completes lookups
+     * of claimed ids afterwards.
+     */
+    private static Future<StoredDataResult> lookUp(
+            SettingsCache cache, StoredDataFlights flights, Set<String> requestIds, Set<String> impIds,
+            Timeout timeout, TriFunction<Set<String>, Set<String>, Timeout, Future<StoredDataResult>> retriever,
+            boolean rememberNotFound) {
+
+        Future<StoredDataResult> retrieved;
+        try {
+            retrieved = retriever.apply(requestIds, impIds, timeout);
+        } catch (RuntimeException e) {
+            retrieved = Future.failedFuture(e);
         }
 
-        // delegate call to original source for missed ids and update cache with it
-        return retriever.apply(missedRequestIds, missedImpIds, timeout).compose(result -> {
-            final Map<String, String> storedIdToRequestFromDelegate = result.getStoredIdToRequest();
-            final Map<String, String> storedIdToImpFromDelegate = result.getStoredIdToImp();
+        final Future<StoredDataResult> lookup = Future.future();
+        retrieved.setHandler(asyncResult -> {
+            if (asyncResult.succeeded()) {
+                final StoredDataResult result = asyncResult.result();
+                cache.save(result.getStoredIdToRequest(), result.getStoredIdToImp());
+                if (rememberNotFound && !result.isIncomplete()) {
+                    putNotFound(requestIds, result.getStoredIdToRequest(), cache.getRequestCache());
+                    putNotFound(impIds, result.getStoredIdToImp(), cache.getImpCache());
+                }
+            }
+            requestIds.forEach(id -> flights.requests.complete(id, asyncResult));
+            impIds.forEach(id -> flights.imps.complete(id, asyncResult));
+            lookup.handle(asyncResult);
+        });
+        return lookup;
+    }
+
+    /**
+     * Creates timeout for lookup shared by concurrent callers, so that it doesn't depend on timeout of any of them.
+     */
+    private Timeout lookupTimeout() {
+        return timeoutFactory.create(lookupTimeoutMs);
+    }
 
-            cache.save(storedIdToRequestFromDelegate, storedIdToImpFromDelegate);
+    /**
+     * Returns future failed with {@link TimeoutException} if the given lookup is not completed within caller's
+     * timeout. Lookup itself goes on, so that its result is cached and passed to other callers waiting for it.
+     */
+    private <T> Future<T> waitWithin(Future<T> lookup, Timeout timeout) {
+        if (lookup.isComplete()) {
+            return lookup;
+        }
 
-            storedIdToRequest.putAll(storedIdToRequestFromDelegate);
-            storedIdToImp.putAll(storedIdToImpFromDelegate);
+        final long remainingTimeout = timeout.remaining();
+        if (remainingTimeout <= 0) {
+            return Future.failedFuture(new TimeoutException("Timeout has been exceeded"));
+        }
 
-            return Future.succeededFuture(StoredDataResult.of(storedIdToRequest, storedIdToImp, result.getErrors()));
+        final Future<T> result = Future.future();
+        final long timerId = vertx.setTimer(remainingTimeout,
+                ignored -> result.tryFail(new TimeoutException("Timeout has been exceeded")));
+        lookup.setHandler(asyncResult -> {
+            vertx.cancelTimer(timerId);
+            if (asyncResult.succeeded()) {
+                result.tryComplete(asyncResult.result());
+            } else {
+                result.tryFail(asyncResult.cause());
+            }
         });
+        return result;
     }
 
-    private static Map<String, String> getFromCacheOrAddMissedIds(Set<String> ids, Map<String, String> cache,
-                                                                  Set<String> missedIds) {
+    private static void putNotFound(Set<String> ids, Map<String, String> storedIdToJson,
+                                    RefreshableCache<String> cache) {
+        for (String id : ids) {
+            if (!storedIdToJson.containsKey(id)) {
+                cache.putNotFound(id);
+            }
+        }
+    }
+
+    /**
+     * Claims ids which are not being looked up yet and joins lookups in flight for the rest of ids.
+     */
+    private static void claimOrJoin(Set<String> ids, SingleFlight<StoredDataResult> flights, Set<String> claimedIds,
+                                    Map<String, Future<StoredDataResult>> joinedLookups) {
+        for (String id : ids) {
+            while (true) {
+                if (flights.claim(id)) {
+                    claimedIds.add(id);
+                    break;
+                }
+
+                final Future<StoredDataResult> joined = flights.join(id);
+                if (joined != null) {
+                    joinedLookups.put(id, joined);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes stored data by ids from results of joined lookups, adds error for each id which was not found.
+     */
+    private static void addJoinedResults(Map<String, Future<StoredDataResult>> joinedLookups,
+                                         Function<StoredDataResult, Map<String, String>> storedDataExtractor,
+                                         String type, Map<String, String> storedIdToJson, List<String> errors) {
+        for (Map.Entry<String, Future<StoredDataResult>> joinedLookup : joinedLookups.entrySet()) {
+            final String id = joinedLookup.getKey();
+            final String json = storedDataExtractor.apply(joinedLookup.getValue().result()).get(id);
+            if (json != null) {
+                storedIdToJson.put(id, json);
+            } else {
+                errors.add(notFoundError(type, id));
+            }
+        }
+    }
+
+    /**
+     * Takes stored data by ids from cache. Collects absent ids to missed ones and stale ids to be refreshed,
+     * adds error for each id which was recently not found.
+     */
+    private Map<String, String> getFromCacheOrAddMissedIds(Set<String> ids, RefreshableCache<String> cache,
+                                                           String cacheName, String type, Set<String> missedIds,
+                                                           Set<String> staleIds, List<String> errors) {
         final Map<String, String> storedIdToJson = new HashMap<>(ids.size());
         for (String id : ids) {
             final String cachedValue = cache.get(id);
             if (cachedValue != null) {
+                metrics.updateSettingsCacheMetric(cacheName, MetricName.hit);
                 storedIdToJson.put(id, cachedValue);
+                if (cache.isStale(id)) {
+                    staleIds.add(id);
+                }
+            } else if (cache.isNotFound(id)) {
+                metrics.updateSettingsCacheMetric(cacheName, MetricName.negative_hit);
+                errors.add(notFoundError(type, id));
             } else {
+                metrics.updateSettingsCacheMetric(cacheName, MetricName.miss);
                 missedIds.add(id);
             }
         }
         return storedIdToJson;
     }
+
+    private static String notFoundError(String type, String id) {
+        return String.format("No stored %s found for id: %s", type, id);
+    }
+
+    /**
+     * Lookups in flight for stored requests and imps and names of their caches in metrics.
+     */
+    private static class StoredDataFlights {
+
+        private final SingleFlight<StoredDataResult> requests;
+        private final SingleFlight<StoredDataResult> imps;
+        private final String requestCacheName;
+        private final String impCacheName;
+
+        StoredDataFlights(Metrics metrics, String requestCacheName, String impCacheName) {
+            requests = new SingleFlight<>(metrics);
+            imps = new SingleFlight<>(metrics);
+            this.requestCacheName = requestCacheName;
+            this.impCacheName = impCacheName;
+        }
+    }
 }
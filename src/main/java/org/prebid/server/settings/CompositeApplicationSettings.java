@@ -150,7 +150,8 @@ public class CompositeApplicationSettings implements ApplicationSettings {
                     .compose(result -> Future.succeededFuture(StoredDataResult.of(
                             combineMaps(storedIdToRequest, result.getStoredIdToRequest()),
                             combineMaps(storedIdToImp, result.getStoredIdToImp()),
-                            result.getErrors())));
+                            result.getErrors(),
+                            result.isIncomplete())));
         }
 
         private static <T> Set<T> subtractSets(Set<T> set1, Set<T> set2) {
@@ -12,13 +12,16 @@ import org.prebid.server.execution.Timeout;
 import org.prebid.server.settings.model.Account;
 import org.prebid.server.settings.model.AdUnitConfig;
 import org.prebid.server.settings.model.SettingsFile;
+import org.prebid.server.settings.model.SettingsFilesReloadResult;
 import org.prebid.server.settings.model.StoredDataResult;
 import org.prebid.server.settings.model.StoredDataType;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -34,27 +37,28 @@ import java.util.stream.Stream;
  * <p>
  * Immediately loads stored request data from local files. These are stored in memory for low-latency reads.
  * This expects each file in the directory to be named "{config_id}.json".
+ * <p>
+ * Settings can be reloaded from changed files. All settings are kept in immutable snapshot replaced as a whole
+ * on reload, so readers are never blocked and never see partially reloaded settings.
  */
 public class FileApplicationSettings implements ApplicationSettings {
 
     private static final String JSON_SUFFIX = ".json";
 
-    private final Map<String, Account> accounts;
-    private final Map<String, String> configs;
-    private final Map<String, String> storedIdToRequest;
-    private final Map<String, String> storedIdToImp;
+    private final FileSystem fileSystem;
+    private final String settingsFileName;
+    private final String storedRequestsDir;
+    private final String storedImpsDir;
 
-    private FileApplicationSettings(SettingsFile settingsFile, Map<String, String> storedIdToRequest,
-                                    Map<String, String> storedIdToImp) {
-        accounts = toMap(settingsFile.getAccounts(),
-                Account::getId,
-                account -> Account.of(account.getId(), null, account.getBannerCacheTtl(), account.getVideoCacheTtl(),
-                        account.getEventsEnabled()));
-        configs = toMap(settingsFile.getConfigs(),
-                AdUnitConfig::getId,
-                config -> ObjectUtils.firstNonNull(config.getConfig(), StringUtils.EMPTY));
-        this.storedIdToRequest = Objects.requireNonNull(storedIdToRequest);
-        this.storedIdToImp = Objects.requireNonNull(storedIdToImp);
+    private volatile Snapshot snapshot;
+
+    private FileApplicationSettings(FileSystem fileSystem, String settingsFileName, String storedRequestsDir,
+                                    String storedImpsDir, Snapshot snapshot) {
+        this.fileSystem = fileSystem;
+        this.settingsFileName = settingsFileName;
+        this.storedRequestsDir = storedRequestsDir;
+        this.storedImpsDir = storedImpsDir;
+        this.snapshot = snapshot;
     }
 
     /**
@@ -68,20 +72,54 @@ public class FileApplicationSettings implements ApplicationSettings {
         Objects.requireNonNull(storedRequestsDir);
         Objects.requireNonNull(storedImpsDir);
 
-        return new FileApplicationSettings(
-                readSettingsFile(fileSystem, settingsFileName),
-                readStoredData(fileSystem, storedRequestsDir),
-                readStoredData(fileSystem, storedImpsDir));
+        final SettingsFile settingsFile = readSettingsFile(fileSystem, settingsFileName);
+        return new FileApplicationSettings(fileSystem, settingsFileName, storedRequestsDir, storedImpsDir,
+                new Snapshot(toAccounts(settingsFile), toConfigs(settingsFile),
+                        readStoredData(fileSystem, storedRequestsDir), readStoredData(fileSystem, storedImpsDir)));
+    }
+
+    /**
+     * Re-reads settings file if requested and the given stored request and imp files (names of files in their
+     * directories, null means all files of directory), then replaces current settings with reloaded ones.
+     * Stored data of files which no longer exist is removed. Returns number of files read along with ids of accounts,
+     * AdUnit configs and stored data changed by reload, so that caches in front of these settings can be invalidated.
+     * <p>
+     * Settings are left as is if any of files cannot be read or parsed.
+     * <p>
+     * Blocks calling thread, so must not be called on Vert.x event loop.
+     */
+    public synchronized SettingsFilesReloadResult reload(boolean reloadSettingsFile, Set<String> storedRequestFiles,
+                                                         Set<String> storedImpFiles) {
+        final Snapshot current = snapshot;
+
+        final SettingsFile settingsFile = reloadSettingsFile ? readSettingsFile(fileSystem, settingsFileName) : null;
+        final Map<String, String> storedIdToRequest =
+                updateStoredData(current.storedIdToRequest, storedRequestsDir, storedRequestFiles);
+        final Map<String, String> storedIdToImp = updateStoredData(current.storedIdToImp, storedImpsDir,
+                storedImpFiles);
+
+        final Map<String, Account> accounts = settingsFile != null ? toAccounts(settingsFile) : current.accounts;
+        final Map<String, String> configs = settingsFile != null ? toConfigs(settingsFile) : current.configs;
+        snapshot = new Snapshot(accounts, configs, storedIdToRequest, storedIdToImp);
+
+        return SettingsFilesReloadResult.of(
+                (reloadSettingsFile ? 1 : 0)
+                        + filesCount(storedRequestFiles, storedIdToRequest)
+                        + filesCount(storedImpFiles, storedIdToImp),
+                changedIds(current.accounts, accounts),
+                changedIds(current.configs, configs),
+                changedIds(current.storedIdToRequest, storedIdToRequest),
+                changedIds(current.storedIdToImp, storedIdToImp));
     }
 
     @Override
     public Future<Account> getAccountById(String accountId, Timeout timeout) {
-        return mapValueToFuture(accounts, accountId);
+        return mapValueToFuture(snapshot.accounts, accountId);
     }
 
     @Override
     public Future<String> getAdUnitConfigById(String adUnitConfigId, Timeout timeout) {
-        return mapValueToFuture(configs, adUnitConfigId);
+        return mapValueToFuture(snapshot.configs, adUnitConfigId);
     }
 
     /**
@@ -97,6 +135,10 @@ public class FileApplicationSettings implements ApplicationSettings {
             future = Future.succeededFuture(
                     StoredDataResult.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList()));
         } else {
+            final Snapshot current = snapshot;
+            final Map<String, String> storedIdToRequest = current.storedIdToRequest;
+            final Map<String, String> storedIdToImp = current.storedIdToImp;
+
             final List<String> requestErrors = errorsForMissedIds(requestIds, storedIdToRequest,
                     StoredDataType.request);
             final List<String> impErrors = errorsForMissedIds(impIds, storedIdToImp, StoredDataType.imp);
@@ -115,8 +157,23 @@ public class FileApplicationSettings implements ApplicationSettings {
         return getStoredData(requestIds, Collections.emptySet(), timeout);
     }
 
+    private static Map<String, Account> toAccounts(SettingsFile settingsFile) {
+        return toMap(settingsFile.getAccounts(),
+                Account::getId,
+                account -> Account.of(account.getId(), null, account.getBannerCacheTtl(), account.getVideoCacheTtl(),
+                        account.getEventsEnabled()));
+    }
+
+    private static Map<String, String> toConfigs(SettingsFile settingsFile) {
+        return toMap(settingsFile.getConfigs(),
+                AdUnitConfig::getId,
+                config -> ObjectUtils.firstNonNull(config.getConfig(), StringUtils.EMPTY));
+    }
+
     private static <T, K, U> Map<K, U> toMap(List<T> list, Function<T, K> keyMapper, Function<T, U> valueMapper) {
-        return list != null ? list.stream().collect(Collectors.toMap(keyMapper, valueMapper)) : Collections.emptyMap();
+        return list != null
+                ? Collections.unmodifiableMap(list.stream().collect(Collectors.toMap(keyMapper, valueMapper)))
+                : Collections.emptyMap();
     }
 
     /**
@@ -136,10 +193,63 @@ public class FileApplicationSettings implements ApplicationSettings {
      * without .json extension and value is file content.
      */
     private static Map<String, String> readStoredData(FileSystem fileSystem, String dir) {
-        return fileSystem.readDirBlocking(dir).stream()
+        return Collections.unmodifiableMap(fileSystem.readDirBlocking(dir).stream()
                 .filter(filepath -> filepath.endsWith(JSON_SUFFIX))
                 .collect(Collectors.toMap(filepath -> StringUtils.removeEnd(new File(filepath).getName(), JSON_SUFFIX),
-                        filename -> fileSystem.readFileBlocking(filename).toString()));
+                        filename -> fileSystem.readFileBlocking(filename).toString())));
+    }
+
+    /**
+     * Returns copy of the given stored data with content of the given files re-read, or stored data re-read from
+     * the whole directory if files are not specified.
+     */
+    private Map<String, String> updateStoredData(Map<String, String> storedIdToJson, String dir,
+                                                 Set<String> fileNames) {
+        if (fileNames == null) {
+            return readStoredData(fileSystem, dir);
+        }
+        if (fileNames.isEmpty()) {
+            return storedIdToJson;
+        }
+
+        final Map<String, String> updatedStoredIdToJson = new HashMap<>(storedIdToJson);
+        for (String fileName : fileNames) {
+            if (!fileName.endsWith(JSON_SUFFIX)) {
+                continue;
+            }
+
+            final String id = StringUtils.removeEnd(fileName, JSON_SUFFIX);
+            final String filepath = new File(dir, fileName).getPath();
+            if (fileSystem.existsBlocking(filepath)) {
+                updatedStoredIdToJson.put(id, fileSystem.readFileBlocking(filepath).toString());
+            } else {
+                updatedStoredIdToJson.remove(id);
+            }
+        }
+        return Collections.unmodifiableMap(updatedStoredIdToJson);
+    }
+
+    private static int filesCount(Set<String> fileNames, Map<String, String> storedIdToJson) {
+        return fileNames != null ? fileNames.size() : storedIdToJson.size();
+    }
+
+    private static <T> List<String> changedIds(Map<String, T> idToValue, Map<String, T> updatedIdToValue) {
+        if (idToValue == updatedIdToValue) {
+            return Collections.emptyList();
+        }
+
+        final List<String> changedIds = new ArrayList<>();
+        for (Map.Entry<String, T> entry : idToValue.entrySet()) {
+            if (!Objects.equals(entry.getValue(), updatedIdToValue.get(entry.getKey()))) {
+                changedIds.add(entry.getKey());
+            }
+        }
+        for (String id : updatedIdToValue.keySet()) {
+            if (!idToValue.containsKey(id)) {
+                changedIds.add(id);
+            }
+        }
+        return changedIds;
     }
 
     private static <T> Future<T> mapValueToFuture(Map<String, T> map, String key) {
@@ -162,4 +272,23 @@ public class FileApplicationSettings implements ApplicationSettings {
                 .map(id -> String.format("No stored %s found for id: %s", type, id))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Immutable state of settings.
+     */
+    private static class Snapshot {
+
+        private final Map<String, Account> accounts;
+        private final Map<String, String> configs;
+        private final Map<String, String> storedIdToRequest;
+        private final Map<String, String> storedIdToImp;
+
+        Snapshot(Map<String, Account> accounts, Map<String, String> configs, Map<String, String> storedIdToRequest,
+                 Map<String, String> storedIdToImp) {
+            this.accounts = accounts;
+            this.configs = configs;
+            this.storedIdToRequest = storedIdToRequest;
+            this.storedIdToImp = storedIdToImp;
+        }
+    }
 }
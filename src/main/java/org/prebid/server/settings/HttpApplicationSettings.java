@@ -166,7 +166,7 @@ public class HttpApplicationSettings implements ApplicationSettings {
                 String.format(errorMessageFormat, args));
 
         logger.info(error);
-        return StoredDataResult.of(Collections.emptyMap(), Collections.emptyMap(), Collections.singletonList(error));
+        return StoredDataResult.incomplete(Collections.singletonList(error));
     }
 
     private static StoredDataResult toStoredDataResult(Set<String> requestIds, Set<String> impIds,
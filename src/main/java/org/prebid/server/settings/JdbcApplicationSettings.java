@@ -14,7 +14,9 @@ import org.prebid.server.vertx.jdbc.JdbcClient;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
@@ -33,8 +35,13 @@ public class JdbcApplicationSettings implements ApplicationSettings {
 
     private static final String REQUEST_ID_PLACEHOLDER = "%REQUEST_ID_LIST%";
     private static final String IMP_ID_PLACEHOLDER = "%IMP_ID_LIST%";
+    private static final String ACCOUNT_ID_PLACEHOLDER = "%ACCOUNT_ID_LIST%";
+
+    private static final String SELECT_ACCOUNTS_QUERY = "SELECT uuid, price_granularity, banner_cache_ttl,"
+            + " video_cache_ttl, events_enabled FROM accounts_account where uuid IN (" + ACCOUNT_ID_PLACEHOLDER + ")";
 
     private final JdbcClient jdbcClient;
+    private final JdbcLookupBatcher lookupBatcher;
 
     /**
      * Query to select stored requests and imps by ids, for example:
@@ -60,8 +67,10 @@ public class JdbcApplicationSettings implements ApplicationSettings {
      */
     private final String selectAmpQuery;
 
-    public JdbcApplicationSettings(JdbcClient jdbcClient, String selectQuery, String selectAmpQuery) {
+    public JdbcApplicationSettings(JdbcClient jdbcClient, String selectQuery, String selectAmpQuery,
+                                   JdbcLookupBatcher lookupBatcher) {
         this.jdbcClient = Objects.requireNonNull(jdbcClient);
+        this.lookupBatcher = lookupBatcher;
         this.selectQuery = Objects.requireNonNull(selectQuery);
         this.selectAmpQuery = Objects.requireNonNull(selectAmpQuery);
     }
@@ -69,14 +78,23 @@ public class JdbcApplicationSettings implements ApplicationSettings {
     /**
      * Runs a process to get account by id from database
      * and returns {@link Future&lt;{@link Account}&gt;}.
+     * <p>
+     * Lookup is batched with lookups of other accounts if batching is enabled.
      */
     @Override
     public Future<Account> getAccountById(String accountId, Timeout timeout) {
+        if (lookupBatcher != null) {
+            return lookupBatcher.executeQuery(SELECT_ACCOUNTS_QUERY,
+                    Collections.singletonMap(ACCOUNT_ID_PLACEHOLDER, Collections.singleton(accountId)),
+                    result -> mapRowToModelOrError(result, accountId, JdbcApplicationSettings::toAccount),
+                    timeout)
+                    .compose(JdbcApplicationSettings::failedIfNull);
+        }
+
         return jdbcClient.executeQuery("SELECT uuid, price_granularity, banner_cache_ttl, video_cache_ttl,"
                         + " events_enabled FROM accounts_account where uuid = ? LIMIT 1",
                 Collections.singletonList(accountId),
-                result -> mapToModelOrError(result, row -> Account.of(row.getString(0), row.getString(1),
-                        row.getInteger(2), row.getInteger(3), row.getBoolean(4))),
+                result -> mapToModelOrError(result, JdbcApplicationSettings::toAccount),
                 timeout)
                 .compose(JdbcApplicationSettings::failedIfNull);
     }
@@ -106,6 +124,26 @@ public class JdbcApplicationSettings implements ApplicationSettings {
                 : null;
     }
 
+    /**
+     * Transforms the row of {@link ResultSet} with the given id in the first column to required object
+     * or returns null.
+     */
+    private static <T> T mapRowToModelOrError(ResultSet result, String id, Function<JsonArray, T> mapper) {
+        if (result != null && result.getResults() != null) {
+            for (JsonArray row : result.getResults()) {
+                if (id.equals(row.getString(0))) {
+                    return mapper.apply(row);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Account toAccount(JsonArray row) {
+        return Account.of(row.getString(0), row.getString(1), row.getInteger(2), row.getInteger(3),
+                row.getBoolean(4));
+    }
+
     /**
      * Returns succeeded {@link Future} if given value is not equal to NULL,
      * otherwise failed {@link Future} with {@link PreBidException}.
@@ -136,6 +174,8 @@ public class JdbcApplicationSettings implements ApplicationSettings {
 
     /**
      * Fetches stored requests from database for the given query.
+     * <p>
+     * Lookup is batched with lookups of other stored requests and imps if batching is enabled.
      */
     private Future<StoredDataResult> fetchStoredData(String query, Set<String> requestIds, Set<String> impIds,
                                                      Timeout timeout) {
@@ -144,6 +184,15 @@ public class JdbcApplicationSettings implements ApplicationSettings {
         if (CollectionUtils.isEmpty(requestIds) && CollectionUtils.isEmpty(impIds)) {
             future = Future.succeededFuture(
                     StoredDataResult.of(Collections.emptyMap(), Collections.emptyMap(), Collections.emptyList()));
+        } else if (lookupBatcher != null) {
+            final Map<String, Set<String>> placeholderToIds = new HashMap<>();
+            placeholderToIds.put(REQUEST_ID_PLACEHOLDER, requestIds);
+            placeholderToIds.put(IMP_ID_PLACEHOLDER, impIds);
+
+            future = lookupBatcher.executeQuery(query, placeholderToIds,
+                    result -> retainIds(JdbcStoredDataResultMapper.map(result, requestIds, impIds), requestIds,
+                            impIds),
+                    timeout);
         } else {
             final List<Object> idsQueryParameters = new ArrayList<>();
             IntStream.rangeClosed(1, StringUtils.countMatches(query, REQUEST_ID_PLACEHOLDER))
@@ -160,6 +209,24 @@ public class JdbcApplicationSettings implements ApplicationSettings {
         return future;
     }
 
+    /**
+     * Removes stored requests and imps looked up by other batched lookups from the given result, keeping it
+     * marked as incomplete if it is.
+     */
+    private static StoredDataResult retainIds(StoredDataResult result, Set<String> requestIds, Set<String> impIds) {
+        return StoredDataResult.of(
+                retainIds(result.getStoredIdToRequest(), requestIds),
+                retainIds(result.getStoredIdToImp(), impIds),
+                result.getErrors(),
+                result.isIncomplete());
+    }
+
+    private static Map<String, String> retainIds(Map<String, String> storedIdToJson, Set<String> ids) {
+        return storedIdToJson.entrySet().stream()
+                .filter(entry -> ids.contains(entry.getKey()))
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
     /**
      * Creates parametrized query from query and variable templates, by replacing templateVariable
      * with appropriate number of "?" placeholders.
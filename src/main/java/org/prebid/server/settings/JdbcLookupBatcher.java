@@ -0,0 +1,270 @@
+package org.prebid.server.settings;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.sql.ResultSet;
+import org.prebid.server.execution.Timeout;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.jdbc.JdbcClient;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Coalesces ids looked up by concurrent callers on the same Vert.x event loop with the same query into single
+ * database query.
+ * <p>
+ * Query has placeholders (like %REQUEST_ID_LIST%) replaced with lists of parameters. Lists are padded to one of a few
+ * fixed sizes (powers of two up to max batch size), so the database sees a small set of query texts and prepared
+ * statements can be reused.
+ * <p>
+ * Batch is sent once batching window passes or once any of its id lists reaches max batch size, whichever comes
+ * first. Each caller maps the whole result to its own ids and fails on its own {@link Timeout}.
+ * Lookups made outside of Vert.x context or having more ids than max batch size are sent as is.
+ */
+public class JdbcLookupBatcher {
+
+    private static final String BATCHES_CONTEXT_KEY = JdbcLookupBatcher.class.getName();
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile("%[A-Z_]+_LIST%");
+
+    private final Vertx vertx;
+    private final JdbcClient jdbcClient;
+    private final Metrics metrics;
+    private final Clock clock;
+    private final long windowMs;
+    private final int maxBatchSize;
+
+    public JdbcLookupBatcher(Vertx vertx, JdbcClient jdbcClient, Metrics metrics, Clock clock, long windowMs,
+                             int maxBatchSize) {
+        if (windowMs < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batching window and max batch size must be positive");
+        }
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.jdbcClient = Objects.requireNonNull(jdbcClient);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.clock = Objects.requireNonNull(clock);
+        this.windowMs = windowMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Adds the given ids to the batch of current event loop for the given query.
+     * <p>
+     * Mapper receives result of batched query, which may contain rows for ids of other callers.
+     */
+    public <T> Future<T> executeQuery(String query, Map<String, Set<String>> placeholderToIds,
+                                      Function<ResultSet, T> mapper, Timeout timeout) {
+        final Context context = Vertx.currentContext();
+        if (context == null || exceedsBatchSize(placeholderToIds)) {
+            return execute(query, placeholderToIds, mapper, timeout);
+        }
+
+        final Map<String, Batch> batches = batches(context);
+        Batch batch = batches.get(query);
+        if (batch != null && !batch.fits(placeholderToIds, maxBatchSize)) {
+            flush(context, batch);
+            batch = null;
+        }
+        if (batch == null) {
+            batch = createBatch(context, query);
+        }
+
+        final long now = clock.millis();
+        final BatchEntry<T> entry = new BatchEntry<>(mapper, timeout, now);
+        entry.timerId = vertx.setTimer(Math.max(timeout.remaining(), 1L),
+                ignored -> entry.result.tryFail(new TimeoutException("Timed out while executing SQL query")));
+        batch.add(entry, placeholderToIds);
+
+        // do not keep lookup waiting for the batch if its timeout expires earlier
+        if (batch.isFull(maxBatchSize) || timeout.remaining() <= batch.flushAt - now) {
+            flush(context, batch);
+        }
+
+        return entry.result;
+    }
+
+    private boolean exceedsBatchSize(Map<String, Set<String>> placeholderToIds) {
+        return placeholderToIds.values().stream().anyMatch(ids -> ids.size() > maxBatchSize);
+    }
+
+    private static Map<String, Batch> batches(Context context) {
+        Map<String, Batch> batches = context.get(BATCHES_CONTEXT_KEY);
+        if (batches == null) {
+            batches = new HashMap<>();
+            context.put(BATCHES_CONTEXT_KEY, batches);
+        }
+        return batches;
+    }
+
+    private Batch createBatch(Context context, String query) {
+        final Batch batch = new Batch(query, clock.millis() + windowMs);
+        batch.timerId = vertx.setTimer(windowMs, ignored -> flush(context, batch));
+        batches(context).put(query, batch);
+        return batch;
+    }
+
+    /**
+     * Sends ids of all batched lookups in single query with the longest timeout among them.
+     */
+    private void flush(Context context, Batch batch) {
+        batches(context).remove(batch.query, batch);
+        vertx.cancelTimer(batch.timerId);
+
+        final long startTime = clock.millis();
+        Timeout timeout = null;
+        for (BatchEntry<?> entry : batch.entries) {
+            metrics.updateDatabaseBatchWaitTimeMetric(startTime - entry.enqueuedAt);
+            if (timeout == null || entry.timeout.remaining() > timeout.remaining()) {
+                timeout = entry.timeout;
+            }
+        }
+        metrics.updateDatabaseBatchSizeMetric(batch.entries.size());
+
+        execute(batch.query, batch.placeholderToIds, Function.identity(), timeout)
+                .setHandler(result -> completeBatch(batch, result));
+    }
+
+    private void completeBatch(Batch batch, AsyncResult<ResultSet> result) {
+        for (BatchEntry<?> entry : batch.entries) {
+            vertx.cancelTimer(entry.timerId);
+            entry.complete(result);
+        }
+    }
+
+    private <T> Future<T> execute(String query, Map<String, ? extends Collection<String>> placeholderToIds,
+                                  Function<ResultSet, T> mapper, Timeout timeout) {
+        final Map<String, List<String>> placeholderToParams = new HashMap<>();
+        for (Map.Entry<String, ? extends Collection<String>> entry : placeholderToIds.entrySet()) {
+            placeholderToParams.put(entry.getKey(), padToBucket(entry.getValue()));
+        }
+
+        final List<Object> params = new ArrayList<>();
+        final StringBuffer parametrizedQuery = new StringBuffer();
+        final Matcher matcher = PLACEHOLDER_PATTERN.matcher(query);
+        while (matcher.find()) {
+            final List<String> placeholderParams =
+                    placeholderToParams.getOrDefault(matcher.group(), Collections.emptyList());
+            params.addAll(placeholderParams);
+            matcher.appendReplacement(parametrizedQuery, parameterHolders(placeholderParams.size()));
+        }
+        matcher.appendTail(parametrizedQuery);
+
+        return jdbcClient.executeQuery(parametrizedQuery.toString(), params, mapper, timeout);
+    }
+
+    /**
+     * Pads the given ids with repeated last one up to the nearest power of two, or max batch size if it is less.
+     */
+    private List<String> padToBucket(Collection<String> ids) {
+        final List<String> params = new ArrayList<>(ids);
+        if (params.isEmpty()) {
+            return params;
+        }
+
+        int bucketSize = 1;
+        while (bucketSize < params.size()) {
+            bucketSize <<= 1;
+        }
+        bucketSize = Math.max(Math.min(bucketSize, maxBatchSize), params.size());
+
+        final String lastId = params.get(params.size() - 1);
+        while (params.size() < bucketSize) {
+            params.add(lastId);
+        }
+        return params;
+    }
+
+    private static String parameterHolders(int paramsSize) {
+        return paramsSize == 0
+                ? "NULL"
+                : IntStream.range(0, paramsSize).mapToObj(i -> "?").collect(Collectors.joining(","));
+    }
+
+    private static class Batch {
+
+        private final String query;
+        private final long flushAt;
+        private final List<BatchEntry<?>> entries = new ArrayList<>();
+        private final Map<String, Set<String>> placeholderToIds = new HashMap<>();
+        private long timerId;
+
+        Batch(String query, long flushAt) {
+            this.query = query;
+            this.flushAt = flushAt;
+        }
+
+        boolean fits(Map<String, Set<String>> placeholderToIds, int maxBatchSize) {
+            for (Map.Entry<String, Set<String>> entry : placeholderToIds.entrySet()) {
+                final Set<String> batchIds = this.placeholderToIds.get(entry.getKey());
+                final int batchSize = batchIds != null ? batchIds.size() : 0;
+                if (batchSize + entry.getValue().size() > maxBatchSize) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(BatchEntry<?> entry, Map<String, Set<String>> placeholderToIds) {
+            entries.add(entry);
+            for (Map.Entry<String, Set<String>> placeholderIds : placeholderToIds.entrySet()) {
+                this.placeholderToIds.computeIfAbsent(placeholderIds.getKey(), ignored -> new LinkedHashSet<>())
+                        .addAll(placeholderIds.getValue());
+            }
+        }
+
+        boolean isFull(int maxBatchSize) {
+            return placeholderToIds.values().stream().anyMatch(ids -> ids.size() >= maxBatchSize);
+        }
+    }
+
+    private static class BatchEntry<T> {
+
+        private final Future<T> result = Future.future();
+        private final Function<ResultSet, T> mapper;
+        private final Timeout timeout;
+        private final long enqueuedAt;
+        private long timerId;
+
+        BatchEntry(Function<ResultSet, T> mapper, Timeout timeout, long enqueuedAt) {
+            this.mapper = mapper;
+            this.timeout = timeout;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        /**
+         * Fails only this entry if its mapper throws exception, so that other entries of the batch are completed.
+         */
+        void complete(AsyncResult<ResultSet> asyncResult) {
+            if (asyncResult.failed()) {
+                result.tryFail(asyncResult.cause());
+                return;
+            }
+
+            final T mappedResult;
+            try {
+                mappedResult = mapper.apply(asyncResult.result());
+            } catch (RuntimeException e) {
+                result.tryFail(e);
+                return;
+            }
+            result.tryComplete(mappedResult);
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package org.prebid.server.settings;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.prebid.server.cache.OffHeapCacheStore;
+import org.prebid.server.cache.model.CachedCreative;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.model.CacheMemoryOptions;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * In-memory LRU cache of settings by id.
+ * <p>
+ * Entry becomes stale after ttl, but can still be served during stale ttl while it is being refreshed.
+ * Ids not found in settings source can be remembered for negative ttl, so they are not looked up on each request.
+ * <p>
+ * Cache is bounded either by number of entries or by their estimated size in bytes. Values with encoded size above
+ * compression threshold are kept deflated and inflated on each read. Entries evicted because of the bound can be
+ * moved to off-heap store and are moved back on the next read, keeping the time they were written at, so they expire
+ * and become stale as if they were never evicted.
+ */
+class RefreshableCache<T> {
+
+    /**
+     * Estimated size of cache entry, key and value objects on heap, apart from key chars and value content.
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 120;
+    private static final int NOT_COMPRESSED = -1;
+    private static final int DEFLATE_BUFFER_SIZE = 4096;
+
+    private final String name;
+    private final Metrics metrics;
+    private final ValueCodec<T> codec;
+    private final Ticker ticker;
+    private final long ttlNanos;
+    private final long lifetimeNanos;
+    private final boolean staleEnabled;
+    private final int compressionThreshold;
+    private final OffHeapCacheStore offHeapStore;
+
+    private final Cache<String, CachedValue<T>> cache;
+    private final Policy.Eviction<String, CachedValue<T>> weightedEviction;
+    private final Map<String, Boolean> notFoundCache;
+
+    RefreshableCache(String name, Metrics metrics, ValueCodec<T> codec, int ttl, int staleTtl, int negativeTtl,
+                     int size, CacheMemoryOptions memoryOptions) {
+        this(name, metrics, codec, ttl, staleTtl, negativeTtl, size, memoryOptions, Ticker.systemTicker());
+    }
+
+    RefreshableCache(String name, Metrics metrics, ValueCodec<T> codec, int ttl, int staleTtl, int negativeTtl,
+                     int size, CacheMemoryOptions memoryOptions, Ticker ticker) {
+        if (ttl <= 0 || size <= 0) {
+            throw new IllegalArgumentException("ttl and size must be positive");
+        }
+        if (staleTtl < 0 || negativeTtl < 0) {
+            throw new IllegalArgumentException("stale ttl and negative ttl must not be negative");
+        }
+        if (memoryOptions.getMaxSizeBytes() < 0 || memoryOptions.getCompressionThresholdBytes() < 0) {
+            throw new IllegalArgumentException("max size in bytes and compression threshold must not be negative");
+        }
+
+        this.name = Objects.requireNonNull(name);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.codec = Objects.requireNonNull(codec);
+        this.ticker = Objects.requireNonNull(ticker);
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttl);
+        this.lifetimeNanos = TimeUnit.SECONDS.toNanos(ttl + staleTtl);
+        this.staleEnabled = staleTtl > 0;
+        this.compressionThreshold = memoryOptions.getCompressionThresholdBytes();
+        this.offHeapStore = memoryOptions.getOffHeapStore();
+
+        // maintenance is done by writing thread, so evicted entries are moved off-heap before write returns
+        final Caffeine<String, CachedValue<T>> builder = Caffeine.newBuilder()
+                .expireAfter(new WriteTimeExpiry())
+                .writer(new EvictionWriter())
+                .executor(Runnable::run)
+                .ticker(ticker);
+        cache = memoryOptions.getMaxSizeBytes() > 0
+                ? builder.maximumWeight(memoryOptions.getMaxSizeBytes()).weigher(this::weigh).build()
+                : builder.maximumSize(size).build();
+        weightedEviction = memoryOptions.getMaxSizeBytes() > 0
+                ? cache.policy().eviction().orElseThrow(IllegalStateException::new)
+                : null;
+
+        notFoundCache = negativeTtl > 0
+                ? Caffeine.newBuilder()
+                .expireAfterWrite(negativeTtl, TimeUnit.SECONDS)
+                .maximumSize(size)
+                .ticker(ticker)
+                .<String, Boolean>build()
+                .asMap()
+                : null;
+    }
+
+    T get(String id) {
+        final CachedValue<T> cachedValue = cache.getIfPresent(id);
+        if (cachedValue != null) {
+            return decode(cachedValue);
+        }
+        return offHeapStore != null ? getFromOffHeap(id) : null;
+    }
+
+    /**
+     * Moves entry back from off-heap store, unless newer value was put to cache meanwhile.
+     * <p>
+     * Off-heap copy is removed before writing to cache, so entry evicted again right away can be moved back to it.
+     */
+    private T getFromOffHeap(String id) {
+        final String offHeapKey = offHeapKey(id);
+        final CachedCreative offHeapValue = offHeapStore.get(offHeapKey);
+        if (offHeapValue == null) {
+            return null;
+        }
+
+        final CachedValue<T> cachedValue = fromBytes(offHeapValue.getValue());
+        if (remainingNanos(cachedValue, ticker.read()) <= 0) {
+            return null;
+        }
+
+        metrics.updateSettingsCacheMetric(name, MetricName.off_heap_hit);
+        offHeapStore.remove(offHeapKey);
+        final CachedValue<T> currentValue = cache.asMap().putIfAbsent(id, cachedValue);
+        return decode(currentValue != null ? currentValue : cachedValue);
+    }
+
+    /**
+     * Returns true if cached entry for the given id is older than ttl and should be refreshed.
+     */
+    boolean isStale(String id) {
+        if (!staleEnabled) {
+            return false;
+        }
+        final CachedValue<T> cachedValue = cache.getIfPresent(id);
+        return cachedValue != null && ticker.read() - cachedValue.writtenAt >= ttlNanos;
+    }
+
+    /**
+     * Returns true if the given id was recently not found in settings source.
+     */
+    boolean isNotFound(String id) {
+        return notFoundCache != null && notFoundCache.containsKey(id);
+    }
+
+    void put(String id, T value) {
+        removeFromOffHeap(id);
+        cache.put(id, toCachedValue(value, ticker.read()));
+        if (notFoundCache != null) {
+            notFoundCache.remove(id);
+        }
+        updateResidentBytesMetric();
+    }
+
+    void putAll(Map<String, T> idToValue) {
+        final long writtenAt = ticker.read();
+        final Map<String, CachedValue<T>> idToCachedValue = new HashMap<>(idToValue.size());
+        idToValue.forEach((id, value) -> idToCachedValue.put(id, toCachedValue(value, writtenAt)));
+
+        idToValue.keySet().forEach(this::removeFromOffHeap);
+        cache.putAll(idToCachedValue);
+        if (notFoundCache != null) {
+            notFoundCache.keySet().removeAll(idToValue.keySet());
+        }
+        updateResidentBytesMetric();
+    }
+
+    /**
+     * Removes entry for the given id and remembers it as not found if negative caching is enabled.
+     */
+    void putNotFound(String id) {
+        cache.invalidate(id);
+        removeFromOffHeap(id);
+        if (notFoundCache != null) {
+            notFoundCache.put(id, Boolean.TRUE);
+        }
+    }
+
+    void invalidateAll(Collection<String> ids) {
+        cache.invalidateAll(ids);
+        ids.forEach(this::removeFromOffHeap);
+        if (notFoundCache != null) {
+            notFoundCache.keySet().removeAll(ids);
+        }
+    }
+
+    /**
+     * Returns copy of entries kept on heap, entries moved off-heap are not included.
+     */
+    Map<String, T> asMap() {
+        final Map<String, T> idToValue = new HashMap<>();
+        cache.asMap().forEach((id, cachedValue) -> idToValue.put(id, decode(cachedValue)));
+        return idToValue;
+    }
+
+    private void updateResidentBytesMetric() {
+        if (weightedEviction != null) {
+            weightedEviction.weightedSize().ifPresent(size -> metrics.updateSettingsCacheResidentBytesMetric(name,
+                    size));
+        }
+    }
+
+    private int weigh(String id, CachedValue<T> cachedValue) {
+        final int valueSize = cachedValue.compressed != null
+                ? cachedValue.compressed.length
+                : codec.weigh(cachedValue.value);
+        return ENTRY_OVERHEAD_BYTES + id.length() * 2 + valueSize;
+    }
+
+    private long remainingNanos(CachedValue<T> cachedValue, long now) {
+        return Math.max(lifetimeNanos - (now - cachedValue.writtenAt), 0L);
+    }
+
+    private String offHeapKey(String id) {
+        return name + ':' + id;
+    }
+
+    private void removeFromOffHeap(String id) {
+        if (offHeapStore != null) {
+            offHeapStore.remove(offHeapKey(id));
+        }
+    }
+
+    /**
+     * Keeps value compressed if its encoded size reaches compression threshold and compression pays off.
+     */
+    private CachedValue<T> toCachedValue(T value, long writtenAt) {
+        if (compressionThreshold > 0) {
+            final byte[] bytes = codec.encode(value);
+            if (bytes.length >= compressionThreshold) {
+                final byte[] compressed = deflate(bytes);
+                if (compressed.length < bytes.length) {
+                    return new CachedValue<>(null, compressed, bytes.length, writtenAt);
+                }
+            }
+        }
+        return new CachedValue<>(value, null, NOT_COMPRESSED, writtenAt);
+    }
+
+    private T decode(CachedValue<T> cachedValue) {
+        return cachedValue.compressed != null
+                ? codec.decode(inflate(cachedValue.compressed, cachedValue.length))
+                : cachedValue.value;
+    }
+
+    /**
+     * Serializes entry for off-heap store as time it was written at, length of value if it is compressed (or -1)
+     * and value bytes.
+     */
+    private byte[] toBytes(CachedValue<T> cachedValue) {
+        final byte[] bytes = cachedValue.compressed != null ? cachedValue.compressed : codec.encode(cachedValue.value);
+        return ByteBuffer.allocate(Long.BYTES + Integer.BYTES + bytes.length)
+                .putLong(cachedValue.writtenAt)
+                .putInt(cachedValue.length)
+                .put(bytes)
+                .array();
+    }
+
+    private CachedValue<T> fromBytes(byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final long writtenAt = buffer.getLong();
+        final int length = buffer.getInt();
+        final byte[] valueBytes = new byte[buffer.remaining()];
+        buffer.get(valueBytes);
+
+        return length != NOT_COMPRESSED
+                ? new CachedValue<>(null, valueBytes, length, writtenAt)
+                : new CachedValue<>(codec.decode(valueBytes), null, NOT_COMPRESSED, writtenAt);
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            final ByteArrayOutputStream output = new ByteArrayOutputStream(bytes.length / 2);
+            final byte[] buffer = new byte[DEFLATE_BUFFER_SIZE];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed, int length) {
+        final Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+            while (offset < length && !inflater.finished()) {
+                final int inflated = inflater.inflate(bytes, offset, length - offset);
+                if (inflated == 0 && inflater.needsInput()) {
+                    break;
+                }
+                offset += inflated;
+            }
+            if (offset != length) {
+                throw new IllegalStateException(String.format("Compressed value is truncated: %d of %d bytes",
+                        offset, length));
+            }
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(String.format("Compressed value is corrupted: %s", e.getMessage()), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Value of cache entry, either as is or compressed, along with the time it was written at.
+     */
+    private static class CachedValue<T> {
+
+        private final T value;
+        private final byte[] compressed;
+        private final int length;
+        private final long writtenAt;
+
+        CachedValue(T value, byte[] compressed, int length, long writtenAt) {
+            this.value = value;
+            this.compressed = compressed;
+            this.length = length;
+            this.writtenAt = writtenAt;
+        }
+    }
+
+    /**
+     * Expires entries after ttl and stale ttl since they were written to cache for the first time.
+     */
+    private class WriteTimeExpiry implements Expiry<String, CachedValue<T>> {
+
+        @Override
+        public long expireAfterCreate(String id, CachedValue<T> cachedValue, long currentTime) {
+            return remainingNanos(cachedValue, currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, CachedValue<T> cachedValue, long currentTime,
+                                      long currentDuration) {
+            return remainingNanos(cachedValue, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, CachedValue<T> cachedValue, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Counts entries evicted because of cache bound and moves them to off-heap store if it is enabled.
+     * <p>
+     * Called atomically with removal of entry, so concurrent invalidation cannot be overwritten by evicted value.
+     */
+    private class EvictionWriter implements CacheWriter<String, CachedValue<T>> {
+
+        @Override
+        public void write(String id, CachedValue<T> cachedValue) {
+            // nothing to do
+        }
+
+        @Override
+        public void delete(String id, CachedValue<T> cachedValue, RemovalCause cause) {
+            if (cause != RemovalCause.SIZE) {
+                return;
+            }
+
+            metrics.updateSettingsCacheMetric(name, MetricName.eviction);
+            if (offHeapStore != null && cachedValue != null) {
+                final long remainingSeconds = TimeUnit.NANOSECONDS.toSeconds(
+                        remainingNanos(cachedValue, ticker.read()));
+                if (remainingSeconds > 0) {
+                    offHeapStore.put(offHeapKey(id), name, toBytes(cachedValue),
+                            (int) Math.min(remainingSeconds, Integer.MAX_VALUE));
+                }
+            }
+        }
+    }
+}
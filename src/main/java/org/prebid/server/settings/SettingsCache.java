@@ -1,40 +1,39 @@
 package org.prebid.server.settings;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.model.CacheMemoryOptions;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Just a simple wrapper over in-memory caches for requests and imps.
+ * <p>
+ * Caches are named in metrics by the given name followed by "_request" and "_imp".
  */
-public class SettingsCache implements CacheNotificationListener {
+public class SettingsCache implements CacheNotificationListener, SnapshottableCache {
 
-    private final Map<String, String> requestCache;
-    private final Map<String, String> impCache;
+    private static final String REQUEST_SECTION = "request";
+    private static final String IMP_SECTION = "imp";
 
-    public SettingsCache(int ttl, int size) {
-        if (ttl <= 0 || size <= 0) {
-            throw new IllegalArgumentException("ttl and size must be positive");
-        }
-        this.requestCache = createCache(ttl, size);
-        this.impCache = createCache(ttl, size);
-    }
+    private final RefreshableCache<String> requestCache;
+    private final RefreshableCache<String> impCache;
 
-    static <T> Map<String, T> createCache(int ttl, int size) {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(ttl, TimeUnit.SECONDS)
-                .maximumSize(size)
-                .<String, T>build()
-                .asMap();
+    public SettingsCache(String name, Metrics metrics, int ttl, int staleTtl, int negativeTtl, int size,
+                         CacheMemoryOptions memoryOptions) {
+        this.requestCache = new RefreshableCache<>(name + "_request", metrics, ValueCodec.STRING, ttl, staleTtl,
+                negativeTtl, size, memoryOptions);
+        this.impCache = new RefreshableCache<>(name + "_imp", metrics, ValueCodec.STRING, ttl, staleTtl,
+                negativeTtl, size, memoryOptions);
     }
 
-    Map<String, String> getRequestCache() {
+    RefreshableCache<String> getRequestCache() {
         return requestCache;
     }
 
-    Map<String, String> getImpCache() {
+    RefreshableCache<String> getImpCache() {
         return impCache;
     }
 
@@ -46,7 +45,21 @@ public class SettingsCache implements CacheNotificationListener {
 
     @Override
     public void invalidate(List<String> requests, List<String> imps) {
-        requestCache.keySet().removeAll(requests);
-        impCache.keySet().removeAll(imps);
+        requestCache.invalidateAll(requests);
+        impCache.invalidateAll(imps);
+    }
+
+    @Override
+    public Map<String, Map<String, String>> snapshot() {
+        final Map<String, Map<String, String>> sections = new HashMap<>();
+        sections.put(REQUEST_SECTION, requestCache.asMap());
+        sections.put(IMP_SECTION, impCache.asMap());
+        return sections;
+    }
+
+    @Override
+    public void restore(Map<String, Map<String, String>> sections) {
+        save(sections.getOrDefault(REQUEST_SECTION, Collections.emptyMap()),
+                sections.getOrDefault(IMP_SECTION, Collections.emptyMap()));
     }
 }
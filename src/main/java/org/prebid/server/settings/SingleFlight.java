@@ -0,0 +1,159 @@
+package org.prebid.server.settings;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.prebid.server.metric.Metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Shares single lookup among concurrent callers asking for the same key, so cache misses
+ * don't result in a lookup per caller.
+ * <p>
+ * Lookup may be completed on another event loop, so callers are notified on their own Vert.x context.
+ */
+class SingleFlight<T> {
+
+    private final Metrics metrics;
+
+    private final Map<String, Flight<T>> flights = new ConcurrentHashMap<>();
+
+    SingleFlight(Metrics metrics) {
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Returns result of lookup in flight for the given key or starts a new one with the given supplier.
+     */
+    Future<T> execute(String key, Supplier<Future<T>> lookup) {
+        while (true) {
+            if (claim(key)) {
+                final Future<T> result = Future.future();
+                start(lookup).setHandler(asyncResult -> {
+                    complete(key, asyncResult);
+                    result.handle(asyncResult);
+                });
+                return result;
+            }
+
+            final Future<T> joined = join(key);
+            if (joined != null) {
+                return joined;
+            }
+        }
+    }
+
+    /**
+     * Starts lookup with the given supplier unless lookup for the given key is already in flight.
+     * <p>
+     * Callers asking for the same key meanwhile join this lookup. Returns true if lookup was started.
+     */
+    boolean executeIfAbsent(String key, Supplier<Future<T>> lookup) {
+        final boolean claimed = claim(key);
+        if (claimed) {
+            start(lookup).setHandler(asyncResult -> complete(key, asyncResult));
+        }
+        return claimed;
+    }
+
+    /**
+     * Starts lookup for the claimed key, so that lookup failed synchronously is completed as well
+     * rather than left in flight forever.
+     */
+    private static <T> Future<T> start(Supplier<Future<T>> lookup) {
+        try {
+            return lookup.get();
+        } catch (RuntimeException e) {
+            return Future.failedFuture(e);
+        }
+    }
+
+    /**
+     * Marks the given key as being looked up by the caller, returns false if lookup for it is already in flight.
+     * <p>
+     * Caller must {@link #complete} claimed key after lookup is done.
+     */
+    boolean claim(String key) {
+        final boolean claimed = flights.putIfAbsent(key, new Flight<>()) == null;
+        if (claimed) {
+            metrics.updateSettingsLookupMetric(false);
+        }
+        return claimed;
+    }
+
+    /**
+     * Returns result of lookup in flight for the given key or null if there is no such lookup.
+     */
+    Future<T> join(String key) {
+        final Flight<T> flight = flights.get(key);
+        final Future<T> result = flight != null ? flight.join() : null;
+        if (result != null) {
+            metrics.updateSettingsLookupMetric(true);
+        }
+        return result;
+    }
+
+    /**
+     * Completes lookup for the given key and notifies callers joined it.
+     */
+    void complete(String key, AsyncResult<T> asyncResult) {
+        final Flight<T> flight = flights.remove(key);
+        if (flight != null) {
+            flight.complete(asyncResult);
+        }
+    }
+
+    private static class Flight<T> {
+
+        // guarded by this
+        private List<Waiter<T>> waiters = new ArrayList<>();
+
+        /**
+         * Returns null if flight is already completed.
+         */
+        synchronized Future<T> join() {
+            if (waiters == null) {
+                return null;
+            }
+
+            final Future<T> result = Future.future();
+            waiters.add(new Waiter<>(Vertx.currentContext(), result));
+            return result;
+        }
+
+        void complete(AsyncResult<T> asyncResult) {
+            final List<Waiter<T>> completedWaiters;
+            synchronized (this) {
+                completedWaiters = waiters;
+                waiters = null;
+            }
+
+            for (Waiter<T> waiter : completedWaiters) {
+                final Context context = waiter.context;
+                if (context == null || context == Vertx.currentContext()) {
+                    waiter.result.handle(asyncResult);
+                } else {
+                    context.runOnContext(ignored -> waiter.result.handle(asyncResult));
+                }
+            }
+        }
+    }
+
+    private static class Waiter<T> {
+
+        private final Context context;
+        private final Future<T> result;
+
+        Waiter(Context context, Future<T> result) {
+            this.context = context;
+            this.result = result;
+        }
+    }
+}
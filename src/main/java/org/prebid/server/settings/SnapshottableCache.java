@@ -0,0 +1,21 @@
+package org.prebid.server.settings;
+
+import java.util.Map;
+
+/**
+ * Cache which content can be saved to and restored from snapshot.
+ * <p>
+ * Content is represented as named sections of string keys and values.
+ */
+public interface SnapshottableCache {
+
+    /**
+     * Returns copy of cached entries by section name.
+     */
+    Map<String, Map<String, String>> snapshot();
+
+    /**
+     * Puts entries from snapshot sections to cache, unknown sections are ignored.
+     */
+    void restore(Map<String, Map<String, String>> sections);
+}
@@ -0,0 +1,41 @@
+package org.prebid.server.settings;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts values of {@link RefreshableCache} to bytes, so they can be compressed or moved off-heap,
+ * and estimates their size on heap.
+ */
+interface ValueCodec<T> {
+
+    ValueCodec<String> STRING = new ValueCodec<String>() {
+        @Override
+        public byte[] encode(String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * String keeps its chars in UTF-16.
+         */
+        @Override
+        public int weigh(String value) {
+            return value.length() * 2;
+        }
+    };
+
+    byte[] encode(T value);
+
+    T decode(byte[] bytes);
+
+    /**
+     * Returns estimated size of the given value on heap in bytes.
+     */
+    default int weigh(T value) {
+        return encode(value).length;
+    }
+}
@@ -77,7 +77,7 @@ public class JdbcStoredDataResultMapper {
                 }
             } catch (IndexOutOfBoundsException e) {
                 errors.add("Result set column number is less than expected");
-                return StoredDataResult.of(Collections.emptyMap(), Collections.emptyMap(), errors);
+                return StoredDataResult.incomplete(errors);
             }
 
             errors.addAll(errorsForMissedIds(requestIds, storedIdToRequest, StoredDataType.request));
@@ -0,0 +1,33 @@
+package org.prebid.server.settings.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import org.prebid.server.cache.OffHeapCacheStore;
+
+/**
+ * Options controlling memory footprint of settings caches
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class CacheMemoryOptions {
+
+    /**
+     * Options keeping caches bounded by number of entries, with no compression and no off-heap tier
+     */
+    public static final CacheMemoryOptions NONE = CacheMemoryOptions.of(0L, 0, null);
+
+    /**
+     * Max estimated size of each cache in bytes, zero means cache is bounded by number of entries
+     */
+    long maxSizeBytes;
+
+    /**
+     * Min size of encoded value in bytes to be kept compressed, zero disables compression
+     */
+    int compressionThresholdBytes;
+
+    /**
+     * Store entries evicted from caches are moved to, null disables off-heap tier
+     */
+    OffHeapCacheStore offHeapStore;
+}
@@ -0,0 +1,39 @@
+package org.prebid.server.settings.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Outcome of reloading changed settings files
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class SettingsFilesReloadResult {
+
+    /**
+     * Number of files read
+     */
+    int filesCount;
+
+    /**
+     * Ids of accounts added, changed or removed by reload
+     */
+    List<String> changedAccountIds;
+
+    /**
+     * Ids of AdUnit configs added, changed or removed by reload
+     */
+    List<String> changedAdUnitConfigIds;
+
+    /**
+     * Ids of stored requests added, changed or removed by reload
+     */
+    List<String> changedRequestIds;
+
+    /**
+     * Ids of stored imps added, changed or removed by reload
+     */
+    List<String> changedImpIds;
+}
@@ -1,12 +1,14 @@
 package org.prebid.server.settings.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
-@AllArgsConstructor(staticName = "of")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Value
 public class StoredDataResult {
 
@@ -15,4 +17,24 @@ public class StoredDataResult {
     Map<String, String> storedIdToImp;
 
     List<String> errors;
+
+    /**
+     * True if source failed to look up stored data (timed out, responded with error, etc.), so ids absent
+     * in this result are not necessarily absent in source.
+     */
+    boolean incomplete;
+
+    public static StoredDataResult of(Map<String, String> storedIdToRequest, Map<String, String> storedIdToImp,
+                                      List<String> errors) {
+        return new StoredDataResult(storedIdToRequest, storedIdToImp, errors, false);
+    }
+
+    public static StoredDataResult of(Map<String, String> storedIdToRequest, Map<String, String> storedIdToImp,
+                                      List<String> errors, boolean incomplete) {
+        return new StoredDataResult(storedIdToRequest, storedIdToImp, errors, incomplete);
+    }
+
+    public static StoredDataResult incomplete(List<String> errors) {
+        return new StoredDataResult(Collections.emptyMap(), Collections.emptyMap(), errors, true);
+    }
 }
@@ -0,0 +1,239 @@
+package org.prebid.server.settings.service;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.CacheNotificationListener;
+import org.prebid.server.settings.CachingApplicationSettings;
+import org.prebid.server.settings.FileApplicationSettings;
+import org.prebid.server.settings.model.SettingsFilesReloadResult;
+import org.prebid.server.vertx.CloseableAdapter;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Service that watches settings file and stored data directories of {@link FileApplicationSettings} and reloads
+ * changed files.
+ * <p>
+ * File system events are polled periodically on Vert.x event loop, so changes made within one period (like file
+ * written in several steps) are reloaded together. Only changed files are read, reading is done on worker thread.
+ * Next reload does not start until the previous one is finished, changes made meanwhile are collected for it.
+ * <p>
+ * Stored data files of failed reload are retried on the next check, while settings file is reloaded again only
+ * once it is changed, so broken settings file is not parsed over and over.
+ * <p>
+ * If some events were lost by file system (overflow), the whole directory is reloaded.
+ * <p>
+ * Accounts, AdUnit configs and stored data changed by reload are invalidated in the given caches, so they are
+ * looked up in reloaded settings right away rather than after cache entries expire.
+ */
+public class FileSettingsReloadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSettingsReloadService.class);
+
+    private static final String JSON_SUFFIX = ".json";
+
+    private final FileApplicationSettings fileApplicationSettings;
+    private final CachingApplicationSettings cachingApplicationSettings;
+    private final List<CacheNotificationListener> cacheNotificationListeners;
+    private final Path settingsFile;
+    private final Path storedRequestsDir;
+    private final Path storedImpsDir;
+    private final long checkPeriodMs;
+    private final Vertx vertx;
+    private final Metrics metrics;
+    private final Clock clock;
+
+    private WatchService watchService;
+
+    // pending changes, null set means all files of directory
+    private boolean settingsFileChanged;
+    private Set<String> changedRequestFiles = new HashSet<>();
+    private Set<String> changedImpFiles = new HashSet<>();
+    private boolean reloading;
+
+    /**
+     * Caching application settings may be null if in-memory cache is disabled.
+     */
+    public FileSettingsReloadService(FileApplicationSettings fileApplicationSettings,
+                                     CachingApplicationSettings cachingApplicationSettings,
+                                     List<CacheNotificationListener> cacheNotificationListeners,
+                                     String settingsFileName, String storedRequestsDir, String storedImpsDir,
+                                     long checkPeriodMs, Vertx vertx, Metrics metrics, Clock clock) {
+        if (checkPeriodMs <= 0) {
+            throw new IllegalArgumentException("Check period must be positive");
+        }
+
+        this.fileApplicationSettings = Objects.requireNonNull(fileApplicationSettings);
+        this.cachingApplicationSettings = cachingApplicationSettings;
+        this.cacheNotificationListeners = Objects.requireNonNull(cacheNotificationListeners);
+        this.settingsFile = toAbsolutePath(settingsFileName);
+        this.storedRequestsDir = toAbsolutePath(storedRequestsDir);
+        this.storedImpsDir = toAbsolutePath(storedImpsDir);
+        this.checkPeriodMs = checkPeriodMs;
+        this.vertx = Objects.requireNonNull(vertx);
+        this.metrics = Objects.requireNonNull(metrics);
+        this.clock = Objects.requireNonNull(clock);
+    }
+
+    private static Path toAbsolutePath(String path) {
+        return Paths.get(Objects.requireNonNull(path)).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Starts watching files, watching is stopped when Vert.x is closed.
+     * <p>
+     * Must be called on Vertx event loop thread.
+     */
+    public void initialize() {
+        final Set<Path> dirs = new LinkedHashSet<>();
+        dirs.add(settingsFile.getParent());
+        dirs.add(storedRequestsDir);
+        dirs.add(storedImpsDir);
+
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            for (Path dir : dirs) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(String.format("Cannot watch settings files in %s", dirs), e);
+        }
+
+        final long timerId = vertx.setPeriodic(checkPeriodMs, ignored -> checkForChanges());
+        vertx.getOrCreateContext().addCloseHook(new CloseableAdapter(() -> {
+            vertx.cancelTimer(timerId);
+            watchService.close();
+        }));
+    }
+
+    private void checkForChanges() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            final Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    addAllChanged(dir);
+                } else {
+                    addChanged(dir, ((Path) event.context()).getFileName().toString());
+                }
+            }
+
+            if (!key.reset()) {
+                logger.warn("Directory {0} is no longer accessible, its settings files are not watched", dir);
+            }
+        }
+
+        if (!reloading && hasChanges()) {
+            reload();
+        }
+    }
+
+    private void addChanged(Path dir, String fileName) {
+        if (dir.equals(settingsFile.getParent()) && fileName.equals(settingsFile.getFileName().toString())) {
+            settingsFileChanged = true;
+        }
+        if (fileName.endsWith(JSON_SUFFIX)) {
+            if (dir.equals(storedRequestsDir) && changedRequestFiles != null) {
+                changedRequestFiles.add(fileName);
+            }
+            if (dir.equals(storedImpsDir) && changedImpFiles != null) {
+                changedImpFiles.add(fileName);
+            }
+        }
+    }
+
+    private void addAllChanged(Path dir) {
+        if (dir.equals(settingsFile.getParent())) {
+            settingsFileChanged = true;
+        }
+        if (dir.equals(storedRequestsDir)) {
+            changedRequestFiles = null;
+        }
+        if (dir.equals(storedImpsDir)) {
+            changedImpFiles = null;
+        }
+    }
+
+    private boolean hasChanges() {
+        return settingsFileChanged
+                || changedRequestFiles == null || !changedRequestFiles.isEmpty()
+                || changedImpFiles == null || !changedImpFiles.isEmpty();
+    }
+
+    private void reload() {
+        final boolean reloadSettingsFile = settingsFileChanged;
+        final Set<String> requestFiles = changedRequestFiles;
+        final Set<String> impFiles = changedImpFiles;
+
+        settingsFileChanged = false;
+        changedRequestFiles = new HashSet<>();
+        changedImpFiles = new HashSet<>();
+        reloading = true;
+
+        final long startTime = clock.millis();
+        vertx.<SettingsFilesReloadResult>executeBlocking(
+                future -> future.complete(fileApplicationSettings.reload(reloadSettingsFile, requestFiles, impFiles)),
+                false,
+                result -> {
+                    reloading = false;
+                    if (result.succeeded()) {
+                        final SettingsFilesReloadResult reloadResult = result.result();
+                        invalidateChanged(reloadResult);
+                        metrics.updateSettingsFileReloadMetrics(clock.millis() - startTime,
+                                reloadResult.getFilesCount());
+                        logger.info("Reloaded {0} changed settings files", reloadResult.getFilesCount());
+                    } else {
+                        metrics.updateSettingsFileReloadFailedMetric();
+                        logger.warn("Cannot reload changed settings files, previous settings are kept",
+                                result.cause());
+                        changedRequestFiles = merge(changedRequestFiles, requestFiles);
+                        changedImpFiles = merge(changedImpFiles, impFiles);
+                    }
+                });
+    }
+
+    private void invalidateChanged(SettingsFilesReloadResult reloadResult) {
+        if (cachingApplicationSettings != null) {
+            final List<String> changedAccountIds = reloadResult.getChangedAccountIds();
+            if (!changedAccountIds.isEmpty()) {
+                cachingApplicationSettings.invalidateAccounts(changedAccountIds);
+            }
+            final List<String> changedAdUnitConfigIds = reloadResult.getChangedAdUnitConfigIds();
+            if (!changedAdUnitConfigIds.isEmpty()) {
+                cachingApplicationSettings.invalidateAdUnitConfigs(changedAdUnitConfigIds);
+            }
+        }
+
+        final List<String> changedRequestIds = reloadResult.getChangedRequestIds();
+        final List<String> changedImpIds = reloadResult.getChangedImpIds();
+        if (!changedRequestIds.isEmpty() || !changedImpIds.isEmpty()) {
+            for (CacheNotificationListener cacheNotificationListener : cacheNotificationListeners) {
+                cacheNotificationListener.invalidate(changedRequestIds, changedImpIds);
+            }
+        }
+    }
+
+    private static Set<String> merge(Set<String> fileNames, Set<String> otherFileNames) {
+        if (fileNames == null || otherFileNames == null) {
+            return null;
+        }
+        fileNames.addAll(otherFileNames);
+        return fileNames;
+    }
+}
@@ -80,12 +80,32 @@ public class HttpPeriodicRefreshService {
     }
 
     public void initialize() {
-        getAll();
+        initialize(null);
+    }
+
+    /**
+     * Starts refreshing of stored data. If time of last update is given (cache was restored from snapshot),
+     * only updates since that time are fetched instead of all stored data.
+     */
+    public void initialize(Instant lastUpdateTime) {
+        if (lastUpdateTime != null) {
+            setLastUpdateTime(lastUpdateTime);
+            refresh();
+        } else {
+            getAll();
+        }
         if (refreshPeriod > 0) {
             vertx.setPeriodic(refreshPeriod, aLong -> refresh());
         }
     }
 
+    /**
+     * Returns time stored data in cache is up to date with, or null if all stored data is not fetched yet.
+     */
+    public Instant getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+
     private void getAll() {
         httpClient.get(refreshUrl, timeout)
                 .map(HttpPeriodicRefreshService::processResponse)
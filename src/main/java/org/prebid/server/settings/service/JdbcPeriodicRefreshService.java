@@ -2,8 +2,10 @@ package org.prebid.server.settings.service;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.ext.sql.ResultSet;
 import org.apache.commons.lang3.StringUtils;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
@@ -12,6 +14,7 @@ import org.prebid.server.settings.mapper.JdbcStoredDataResultMapper;
 import org.prebid.server.settings.model.StoredDataResult;
 import org.prebid.server.vertx.jdbc.JdbcClient;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
@@ -36,11 +39,18 @@ import java.util.stream.Collectors;
  * If data is empty or the JSON "null", then the ID will be invalidated (e.g. a deletion).
  * If data is not empty, depending on TYPE, it should be put to corresponding map with ID as a key and DATA as value.
  * </p>
+ * <p>
+ * Initial query result is streamed and saved to the cache by chunks, so all stored data is never held in memory
+ * at once.
+ * Service is considered warming up until initial load is finished. Failed initial load is retried on the next
+ * refresh instead of fetching updates.
  */
 public class JdbcPeriodicRefreshService {
 
     private static final Logger logger = LoggerFactory.getLogger(JdbcPeriodicRefreshService.class);
 
+    private static final long PROGRESS_LOG_PERIOD = 100_000L;
+
     private final CacheNotificationListener cacheNotificationListener;
     private final Vertx vertx;
     private final JdbcClient jdbcClient;
@@ -69,11 +79,21 @@ public class JdbcPeriodicRefreshService {
     private final String updateQuery;
     private final TimeoutFactory timeoutFactory;
     private final long timeout;
+    private final int initChunkSize;
     private Instant lastUpdate;
+    private volatile boolean warmingUp;
+    private boolean loadingAll;
+    private long loadedRequests;
+    private long loadedImps;
 
     public JdbcPeriodicRefreshService(CacheNotificationListener cacheNotificationListener,
                                       Vertx vertx, JdbcClient jdbcClient, long refreshPeriod, String initQuery,
-                                      String updateQuery, TimeoutFactory timeoutFactory, long timeout) {
+                                      String updateQuery, TimeoutFactory timeoutFactory, long timeout,
+                                      int initChunkSize) {
+        if (initChunkSize <= 0) {
+            throw new IllegalArgumentException("Initial load chunk size must be positive");
+        }
+
         this.cacheNotificationListener = Objects.requireNonNull(cacheNotificationListener);
         this.vertx = Objects.requireNonNull(vertx);
         this.jdbcClient = Objects.requireNonNull(jdbcClient);
@@ -82,20 +102,79 @@ public class JdbcPeriodicRefreshService {
         this.updateQuery = Objects.requireNonNull(StringUtils.stripToNull(updateQuery));
         this.timeoutFactory = Objects.requireNonNull(timeoutFactory);
         this.timeout = timeout;
+        this.initChunkSize = initChunkSize;
     }
 
     public void initialize() {
-        getAll();
+        initialize(null);
+    }
+
+    /**
+     * Starts refreshing of stored data. If time of last update is given (cache was restored from snapshot),
+     * only updates since that time are fetched instead of initial load.
+     */
+    public void initialize(Instant lastUpdate) {
+        if (lastUpdate != null) {
+            setLastUpdate(lastUpdate);
+            refresh();
+        } else {
+            warmingUp = true;
+            getAll();
+        }
         if (refreshPeriod > 0) {
             vertx.setPeriodic(refreshPeriod, aLong -> refresh());
         }
     }
 
+    /**
+     * Returns true while initial load of stored data is in progress.
+     * <p>
+     * Failed initial load also ends warming up, since missing data is still fetched by settings on demand.
+     */
+    public boolean isWarmingUp() {
+        return warmingUp;
+    }
+
+    /**
+     * Returns time stored data in cache is up to date with, or null if initial load is not finished yet.
+     */
+    public Instant getLastUpdate() {
+        return lastUpdate;
+    }
+
     private void getAll() {
-        jdbcClient.executeQuery(initQuery, Collections.emptyList(), JdbcStoredDataResultMapper::map, createTimeout())
-                .map(this::save)
-                .map(ignored -> setLastUpdate(Instant.now()))
-                .recover(JdbcPeriodicRefreshService::failResponse);
+        final Instant startTime = Instant.now();
+        loadingAll = true;
+        loadedRequests = 0;
+        loadedImps = 0;
+
+        jdbcClient.executeStreamQuery(initQuery, Collections.emptyList(), initChunkSize, this::saveChunk,
+                createTimeout())
+                .map(ignored -> setLastUpdate(startTime))
+                .recover(JdbcPeriodicRefreshService::failResponse)
+                .setHandler(ignored -> finishLoadingAll(startTime));
+    }
+
+    private Future<Void> saveChunk(List<JsonArray> rows) {
+        final long loadedBefore = loadedRequests + loadedImps;
+
+        final StoredDataResult storedDataResult = JdbcStoredDataResultMapper.map(new ResultSet().setResults(rows));
+        save(storedDataResult);
+        loadedRequests += storedDataResult.getStoredIdToRequest().size();
+        loadedImps += storedDataResult.getStoredIdToImp().size();
+
+        if ((loadedRequests + loadedImps) / PROGRESS_LOG_PERIOD > loadedBefore / PROGRESS_LOG_PERIOD) {
+            logger.info("Loading stored data in progress: {0} stored requests and {1} stored imps saved",
+                    loadedRequests, loadedImps);
+        }
+        return Future.succeededFuture();
+    }
+
+    private void finishLoadingAll(Instant startTime) {
+        loadingAll = false;
+        warmingUp = false;
+        logger.info("Initial load of stored data finished in {0} ms: {1} stored requests and {2} stored imps saved",
+                Duration.between(startTime, Instant.now()).toMillis(), loadedRequests, loadedImps);
     }
 
     private Void save(StoredDataResult storedDataResult) {
@@ -114,6 +193,14 @@ public class JdbcPeriodicRefreshService {
     }
 
     private void refresh() {
+        // initial load is still in progress or has failed
+        if (lastUpdate == null) {
+            if (!loadingAll) {
+                getAll();
+            }
+            return;
+        }
+
         final Instant updateTime = Instant.now();
 
         jdbcClient.executeQuery(updateQuery, Collections.singletonList(Date.from(lastUpdate)),
@@ -0,0 +1,262 @@
+package org.prebid.server.settings.service;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import org.prebid.server.settings.SnapshottableCache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Service that periodically saves content of settings caches to local file and restores caches from it on startup,
+ * so restarted instance does not have to warm up caches by requests to settings sources.
+ * <p>
+ * Snapshot also keeps the time stored data in caches is up to date with (the earliest last update time of periodic
+ * refresh services), so refresh services can fetch only updates since that time after restore.
+ * <p>
+ * Snapshot file has the following binary layout (strings are written as length of UTF-8 bytes followed by them):
+ * <pre>
+ * int magic, int format version, long creation time (epoch ms), long update time (epoch ms or -1 if unknown),
+ * int number of caches, for each cache:
+ *     string cache name, int number of sections, for each section:
+ *         string section name, int number of entries, for each entry:
+ *             string key, string value
+ * </pre>
+ * Snapshot with unknown format or older than max age is ignored.
+ */
+public class SettingsCacheSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SettingsCacheSnapshotService.class);
+
+    private static final int MAGIC = 0x50425343;
+    private static final int FORMAT_VERSION = 1;
+    private static final long UNKNOWN_UPDATE_TIME = -1L;
+
+    private final Vertx vertx;
+    private final Path path;
+    private final long periodMs;
+    private final long maxAgeMs;
+    private final Clock clock;
+    private final Map<String, SnapshottableCache> caches;
+    private final List<Supplier<Instant>> updateTimeSuppliers;
+    private Instant restoredUpdateTime;
+
+    public SettingsCacheSnapshotService(Vertx vertx, String path, long periodMs, long maxAgeMs, Clock clock,
+                                        Map<String, SnapshottableCache> caches,
+                                        List<Supplier<Instant>> updateTimeSuppliers) {
+        if (periodMs <= 0 || maxAgeMs <= 0) {
+            throw new IllegalArgumentException("Snapshot period and max age must be positive");
+        }
+
+        this.vertx = Objects.requireNonNull(vertx);
+        this.path = Paths.get(Objects.requireNonNull(path));
+        this.periodMs = periodMs;
+        this.maxAgeMs = maxAgeMs;
+        this.clock = Objects.requireNonNull(clock);
+        this.caches = Objects.requireNonNull(caches);
+        this.updateTimeSuppliers = Objects.requireNonNull(updateTimeSuppliers);
+    }
+
+    /**
+     * Loads caches from snapshot file if it exists and can be trusted. Returns true if caches were restored.
+     * <p>
+     * Blocks calling thread, so should be called during application initialization before server starts accepting
+     * requests.
+     */
+    public boolean restore() {
+        if (!Files.isRegularFile(path)) {
+            logger.info("Settings cache snapshot {0} does not exist, caches will not be restored", path);
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                logger.warn("Settings cache snapshot {0} has unsupported format and will be ignored", path);
+                return false;
+            }
+
+            final long age = clock.millis() - buffer.getLong();
+            if (age < 0 || age > maxAgeMs) {
+                logger.info("Settings cache snapshot {0} is {1} ms old and will be ignored", path, age);
+                return false;
+            }
+
+            final long updateTime = buffer.getLong();
+            // read whole snapshot before restoring, so corrupted file does not leave caches partially restored
+            final Map<String, Map<String, Map<String, String>>> cacheToSections = readCaches(buffer);
+
+            int restoredEntries = 0;
+            for (Map.Entry<String, Map<String, Map<String, String>>> entry : cacheToSections.entrySet()) {
+                final SnapshottableCache cache = caches.get(entry.getKey());
+                if (cache != null) {
+                    cache.restore(entry.getValue());
+                    restoredEntries += entry.getValue().values().stream().mapToInt(Map::size).sum();
+                }
+            }
+
+            restoredUpdateTime = updateTime != UNKNOWN_UPDATE_TIME ? Instant.ofEpochMilli(updateTime) : null;
+            logger.info("Restored {0} settings cache entries from snapshot {1} made {2} ms ago", restoredEntries,
+                    path, age);
+            return true;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Cannot restore settings cache snapshot from {0}", e, path);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the time stored data in restored caches is up to date with, or null if caches were not restored or
+     * time is unknown.
+     */
+    public Instant getRestoredUpdateTime() {
+        return restoredUpdateTime;
+    }
+
+    /**
+     * Starts periodic saving of snapshot.
+     * <p>
+     * Must be called on Vertx event loop thread.
+     */
+    public void initialize() {
+        vertx.setPeriodic(periodMs, ignored -> save());
+    }
+
+    private void save() {
+        Instant updateTime = null;
+        for (Supplier<Instant> updateTimeSupplier : updateTimeSuppliers) {
+            final Instant lastUpdateTime = updateTimeSupplier.get();
+            if (lastUpdateTime == null) {
+                logger.debug("Stored data is not loaded yet, settings cache snapshot is postponed");
+                return;
+            }
+            if (updateTime == null || lastUpdateTime.isBefore(updateTime)) {
+                updateTime = lastUpdateTime;
+            }
+        }
+
+        final long snapshotUpdateTime = updateTime != null ? updateTime.toEpochMilli() : UNKNOWN_UPDATE_TIME;
+        vertx.<Void>executeBlocking(future -> write(snapshotUpdateTime, future), false, result -> {
+            if (result.failed()) {
+                logger.warn("Cannot save settings cache snapshot to {0}", result.cause(), path);
+            }
+        });
+    }
+
+    /**
+     * Writes snapshot to temporary file and replaces the previous one with it, so readers never see partially
+     * written snapshot.
+     */
+    private void write(long updateTime, Future<Void> future) {
+        final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            final Path directory = path.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(tempPath)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(FORMAT_VERSION);
+                output.writeLong(clock.millis());
+                output.writeLong(updateTime);
+                writeCaches(output);
+            }
+
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            future.complete();
+        } catch (IOException e) {
+            future.fail(e);
+        }
+    }
+
+    private void writeCaches(DataOutputStream output) throws IOException {
+        output.writeInt(caches.size());
+        for (Map.Entry<String, SnapshottableCache> cache : caches.entrySet()) {
+            writeString(output, cache.getKey());
+
+            final Map<String, Map<String, String>> sections = cache.getValue().snapshot();
+            output.writeInt(sections.size());
+            for (Map.Entry<String, Map<String, String>> section : sections.entrySet()) {
+                writeString(output, section.getKey());
+
+                output.writeInt(section.getValue().size());
+                for (Map.Entry<String, String> entry : section.getValue().entrySet()) {
+                    writeString(output, entry.getKey());
+                    writeString(output, entry.getValue());
+                }
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static Map<String, Map<String, Map<String, String>>> readCaches(ByteBuffer buffer) {
+        final int cachesCount = readCount(buffer);
+        final Map<String, Map<String, Map<String, String>>> cacheToSections = new HashMap<>(cachesCount);
+        for (int i = 0; i < cachesCount; i++) {
+            final String cacheName = readString(buffer);
+
+            final int sectionsCount = readCount(buffer);
+            final Map<String, Map<String, String>> sections = new HashMap<>(sectionsCount);
+            for (int j = 0; j < sectionsCount; j++) {
+                final String sectionName = readString(buffer);
+
+                final int entriesCount = readCount(buffer);
+                final Map<String, String> entries = new HashMap<>(entriesCount);
+                for (int k = 0; k < entriesCount; k++) {
+                    final String key = readString(buffer);
+                    entries.put(key, readString(buffer));
+                }
+                sections.put(sectionName, entries);
+            }
+            cacheToSections.put(cacheName, sections);
+        }
+        return cacheToSections;
+    }
+
+    private static int readCount(ByteBuffer buffer) {
+        final int count = buffer.getInt();
+        // each counted item takes at least 4 bytes
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IllegalArgumentException(String.format("Invalid number of snapshot items: %d", count));
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalArgumentException(String.format("Invalid snapshot string length: %d", length));
+        }
+
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -1,9 +1,13 @@
 package org.prebid.server.spring.config;
 
+import org.prebid.server.auction.BidderTimeoutPlanner;
+import org.prebid.server.cache.CacheWriteBehindQueue;
 import org.prebid.server.currency.CurrencyConversionService;
 import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.service.FileSettingsReloadService;
 import org.prebid.server.settings.service.HttpPeriodicRefreshService;
 import org.prebid.server.settings.service.JdbcPeriodicRefreshService;
+import org.prebid.server.settings.service.SettingsCacheSnapshotService;
 import org.prebid.server.vertx.ContextRunner;
 import org.prebid.server.vertx.http.HttpClient;
 import org.springframework.beans.factory.ObjectProvider;
@@ -13,6 +17,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 
+import java.time.Instant;
+
 /**
  * Some services are initialized after context is fully populated to overcome deadlock that may happen due to lazy
  * creation of {@link HttpClient} instances.
@@ -35,6 +41,12 @@ public class InitializationConfiguration {
     @Autowired
     private ObjectProvider<CurrencyConversionService> currencyConversionServiceProvider;
 
+    @Autowired
+    private BidderTimeoutPlanner bidderTimeoutPlanner;
+
+    @Autowired
+    private ObjectProvider<CacheWriteBehindQueue> cacheWriteBehindQueueProvider;
+
     @Autowired
     @Qualifier("httpPeriodicRefreshService")
     private ObjectProvider<HttpPeriodicRefreshService> httpPeriodicRefreshServiceProvider;
@@ -51,11 +63,18 @@ public class InitializationConfiguration {
     @Qualifier("ampJdbcPeriodicRefreshService")
     private ObjectProvider<JdbcPeriodicRefreshService> ampJdbcPeriodicRefreshServiceProvider;
 
+    @Autowired
+    private ObjectProvider<SettingsCacheSnapshotService> settingsCacheSnapshotServiceProvider;
+
+    @Autowired
+    private ObjectProvider<FileSettingsReloadService> fileSettingsReloadServiceProvider;
+
     @EventListener(ContextRefreshedEvent.class)
     public void initializeServices() {
 
         final CurrencyConversionService currencyConversionService =
                 currencyConversionServiceProvider.getIfAvailable();
+        final CacheWriteBehindQueue cacheWriteBehindQueue = cacheWriteBehindQueueProvider.getIfAvailable();
         final HttpPeriodicRefreshService httpPeriodicRefreshService =
                 httpPeriodicRefreshServiceProvider.getIfAvailable();
         final HttpPeriodicRefreshService ampHttpPeriodicRefreshService =
@@ -64,23 +83,45 @@ public class InitializationConfiguration {
                 jdbcPeriodicRefreshServiceProvider.getIfAvailable();
         final JdbcPeriodicRefreshService ampJdbcPeriodicRefreshService =
                 ampJdbcPeriodicRefreshServiceProvider.getIfAvailable();
+        final SettingsCacheSnapshotService settingsCacheSnapshotService =
+                settingsCacheSnapshotServiceProvider.getIfAvailable();
+        final FileSettingsReloadService fileSettingsReloadService = fileSettingsReloadServiceProvider.getIfAvailable();
+
+        // periodic refresh services fetch only updates since snapshot if caches were restored from it
+        final Instant storedDataUpdateTime = settingsCacheSnapshotService != null
+                ? settingsCacheSnapshotService.getRestoredUpdateTime()
+                : null;
 
         contextRunner.runOnServiceContext(future -> {
             if (currencyConversionService != null) {
                 currencyConversionService.initialize();
             }
 
+            bidderTimeoutPlanner.initialize();
+
+            if (cacheWriteBehindQueue != null) {
+                cacheWriteBehindQueue.initialize();
+            }
+
             if (httpPeriodicRefreshService != null) {
-                httpPeriodicRefreshService.initialize();
+                httpPeriodicRefreshService.initialize(storedDataUpdateTime);
             }
             if (ampHttpPeriodicRefreshService != null) {
-                ampHttpPeriodicRefreshService.initialize();
+                ampHttpPeriodicRefreshService.initialize(storedDataUpdateTime);
             }
             if (jdbcPeriodicRefreshService != null) {
-                jdbcPeriodicRefreshService.initialize();
+                jdbcPeriodicRefreshService.initialize(storedDataUpdateTime);
             }
             if (ampJdbcPeriodicRefreshService != null) {
-                ampJdbcPeriodicRefreshService.initialize();
+                ampJdbcPeriodicRefreshService.initialize(storedDataUpdateTime);
+            }
+
+            if (settingsCacheSnapshotService != null) {
+                settingsCacheSnapshotService.initialize();
+            }
+
+            if (fileSettingsReloadService != null) {
+                fileSettingsReloadService.initialize();
             }
 
             future.complete();
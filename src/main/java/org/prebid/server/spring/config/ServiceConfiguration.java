@@ -9,6 +9,8 @@ import org.prebid.server.auction.AmpRequestFactory;
 import org.prebid.server.auction.AmpResponsePostProcessor;
 import org.prebid.server.auction.AuctionRequestFactory;
 import org.prebid.server.auction.BidResponsePostProcessor;
+import org.prebid.server.auction.BidderTimeoutPlanner;
+import org.prebid.server.auction.BidderTrafficShaper;
 import org.prebid.server.auction.ExchangeService;
 import org.prebid.server.auction.ImplicitParametersExtractor;
 import org.prebid.server.auction.InterstitialProcessor;
@@ -19,7 +21,11 @@ import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.bidder.BidderDeps;
 import org.prebid.server.bidder.HttpAdapterConnector;
 import org.prebid.server.bidder.HttpBidderRequester;
+import org.prebid.server.cache.CacheRequestBatcher;
 import org.prebid.server.cache.CacheService;
+import org.prebid.server.cache.CacheWriteBehindQueue;
+import org.prebid.server.cache.CreativeDeduplicator;
+import org.prebid.server.cache.OffHeapCacheStore;
 import org.prebid.server.cache.model.CacheTtl;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.currency.CurrencyConversionService;
@@ -36,9 +42,12 @@ import org.prebid.server.settings.ApplicationSettings;
 import org.prebid.server.validation.BidderParamValidator;
 import org.prebid.server.validation.RequestValidator;
 import org.prebid.server.validation.ResponseBidValidator;
+import org.prebid.server.vertx.SlidingWindowCircuitBreaker;
 import org.prebid.server.vertx.http.BasicHttpClient;
 import org.prebid.server.vertx.http.CircuitBreakerSecuredHttpClient;
 import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.model.Http2Policy;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -49,9 +58,13 @@ import org.springframework.context.annotation.ScopedProxyMode;
 
 import javax.validation.constraints.Min;
 import java.io.IOException;
+import java.net.URL;
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 @Configuration
@@ -66,14 +79,78 @@ public class ServiceConfiguration {
             @Value("${cache.query}") String query,
             @Value("${cache.banner-ttl-seconds:#{null}}") Integer bannerCacheTtl,
             @Value("${cache.video-ttl-seconds:#{null}}") Integer videoCacheTtl,
-            HttpClient httpClient) {
+            @Value("${cache.batching.enabled}") boolean batchingEnabled,
+            @Value("${cache.batching.window-ms}") long batchingWindowMs,
+            @Value("${cache.batching.max-objects}") int batchingMaxObjects,
+            HttpClient httpClient,
+            Vertx vertx,
+            Metrics metrics,
+            Clock clock,
+            @Autowired(required = false) CacheWriteBehindQueue cacheWriteBehindQueue,
+            @Autowired(required = false) OffHeapCacheStore offHeapCacheStore,
+            @Autowired(required = false) CreativeDeduplicator creativeDeduplicator) {
+
+        final URL endpointUrl = CacheService.getCacheEndpointUrl(scheme, host, path);
+        final CacheRequestBatcher cacheRequestBatcher = batchingEnabled
+                ? new CacheRequestBatcher(vertx, httpClient, endpointUrl.toString(), metrics, clock, batchingWindowMs,
+                batchingMaxObjects)
+                : null;
 
         return new CacheService(
                 applicationSettings,
                 CacheTtl.of(bannerCacheTtl, videoCacheTtl),
                 httpClient,
-                CacheService.getCacheEndpointUrl(scheme, host, path),
-                CacheService.getCachedAssetUrlTemplate(scheme, host, path, query));
+                endpointUrl,
+                CacheService.getCachedAssetUrlTemplate(scheme, host, path, query),
+                cacheRequestBatcher,
+                cacheWriteBehindQueue,
+                offHeapCacheStore,
+                creativeDeduplicator);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.write-behind", name = "enabled", havingValue = "true")
+    CacheWriteBehindQueue cacheWriteBehindQueue(
+            @Value("${cache.scheme}") String scheme,
+            @Value("${cache.host}") String host,
+            @Value("${cache.path}") String path,
+            @Value("${cache.write-behind.queue-capacity}") int queueCapacity,
+            @Value("${cache.write-behind.batch-size}") int batchSize,
+            @Value("${cache.write-behind.flush-interval-ms}") long flushIntervalMs,
+            @Value("${cache.write-behind.timeout-ms}") long timeoutMs,
+            @Value("${cache.write-behind.max-retries}") int maxRetries,
+            HttpClient httpClient,
+            Vertx vertx,
+            Metrics metrics,
+            Clock clock) {
+
+        return new CacheWriteBehindQueue(vertx, httpClient,
+                CacheService.getCacheEndpointUrl(scheme, host, path).toString(), metrics, clock, queueCapacity,
+                batchSize, flushIntervalMs, timeoutMs, maxRetries);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.embedded", name = "enabled", havingValue = "true")
+    OffHeapCacheStore offHeapCacheStore(
+            @Value("${cache.embedded.capacity-bytes}") long capacityBytes,
+            @Value("${cache.embedded.slab-size-bytes}") int slabSizeBytes,
+            @Value("${cache.embedded.default-ttl-seconds}") int defaultTtlSeconds,
+            Clock clock) {
+
+        return new OffHeapCacheStore(clock, capacityBytes, slabSizeBytes, defaultTtlSeconds);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.deduplication", name = "enabled", havingValue = "true")
+    CreativeDeduplicator creativeDeduplicator(
+            @Value("${cache.deduplication.max-entries}") int maxEntries,
+            @Value("${cache.deduplication.default-ttl-seconds}") int defaultTtlSeconds,
+            @Value("${cache.deduplication.min-remaining-ttl-seconds}") int minRemainingTtlSeconds,
+            Metrics metrics,
+            @Autowired(required = false) OffHeapCacheStore offHeapCacheStore) {
+
+        return new CreativeDeduplicator(metrics, maxEntries, defaultTtlSeconds, minRemainingTtlSeconds,
+                offHeapCacheStore);
     }
 
     @Bean
@@ -160,12 +237,16 @@ public class ServiceConfiguration {
             matchIfMissing = true)
     BasicHttpClient basicHttpClient(
             Vertx vertx,
+            BidderCatalog bidderCatalog,
+            Metrics metrics,
+            @Autowired(required = false) HttpDestinationPolicy cacheHttpDestinationPolicy,
             @Value("${http-client.max-pool-size}") int maxPoolSize,
             @Value("${http-client.connect-timeout-ms}") int connectTimeoutMs,
             @Value("${http-client.use-compression}") boolean useCompression,
             @Value("${http-client.max-redirects}") int maxRedirects) {
 
-        return createBasicHttpClient(vertx, maxPoolSize, connectTimeoutMs, useCompression, maxRedirects);
+        return createBasicHttpClient(vertx, httpDestinationPolicies(bidderCatalog, cacheHttpDestinationPolicy), metrics,
+                maxPoolSize, connectTimeoutMs, useCompression, maxRedirects);
     }
 
     @Bean
@@ -173,22 +254,71 @@ public class ServiceConfiguration {
     @ConditionalOnProperty(prefix = "http-client.circuit-breaker", name = "enabled", havingValue = "true")
     CircuitBreakerSecuredHttpClient circuitBreakerSecuredHttpClient(
             Vertx vertx,
+            BidderCatalog bidderCatalog,
             Metrics metrics,
+            Clock clock,
+            @Autowired(required = false) HttpDestinationPolicy cacheHttpDestinationPolicy,
+            @Value("${cache.scheme}") String cacheScheme,
+            @Value("${cache.host}") String cacheHost,
+            @Value("${cache.path}") String cachePath,
             @Value("${http-client.max-pool-size}") int maxPoolSize,
             @Value("${http-client.connect-timeout-ms}") int connectTimeoutMs,
-            @Value("${http-client.circuit-breaker.opening-threshold}") int openingThreshold,
-            @Value("${http-client.circuit-breaker.opening-interval-ms}") long openingIntervalMs,
+            @Value("${http-client.circuit-breaker.window-size}") int windowSize,
+            @Value("${http-client.circuit-breaker.minimum-calls}") int minimumCalls,
+            @Value("${http-client.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+            @Value("${http-client.circuit-breaker.slow-call-duration-ms}") long slowCallDurationMs,
+            @Value("${http-client.circuit-breaker.slow-call-rate-threshold}") double slowCallRateThreshold,
             @Value("${http-client.circuit-breaker.closing-interval-ms}") long closingIntervalMs,
+            @Value("${http-client.circuit-breaker.half-open-max-calls}") int halfOpenMaxCalls,
             @Value("${http-client.use-compression}") boolean useCompression,
             @Value("${http-client.max-redirects}") int maxRedirects) {
 
-        final HttpClient httpClient = createBasicHttpClient(vertx, maxPoolSize, connectTimeoutMs, useCompression,
-                maxRedirects);
-        return new CircuitBreakerSecuredHttpClient(vertx, httpClient, metrics, openingThreshold, openingIntervalMs,
-                closingIntervalMs);
+        final HttpClient httpClient = createBasicHttpClient(vertx,
+                httpDestinationPolicies(bidderCatalog, cacheHttpDestinationPolicy), metrics, maxPoolSize,
+                connectTimeoutMs, useCompression, maxRedirects);
+
+        final Map<String, String> endpoints = new HashMap<>();
+        for (String bidder : bidderCatalog.names()) {
+            final String endpoint = bidderCatalog.endpointByName(bidder);
+            if (endpoint != null) {
+                endpoints.put(bidder, endpoint);
+            }
+        }
+        endpoints.put("cache", CacheService.getCacheEndpointUrl(cacheScheme, cacheHost, cachePath).toString());
+
+        return new CircuitBreakerSecuredHttpClient(httpClient, metrics, endpoints,
+                () -> new SlidingWindowCircuitBreaker(clock, windowSize, minimumCalls, failureRateThreshold,
+                        slowCallDurationMs, slowCallRateThreshold, closingIntervalMs, halfOpenMaxCalls));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.http2", name = "enabled", havingValue = "true")
+    HttpDestinationPolicy cacheHttpDestinationPolicy(
+            @Value("${cache.scheme}") String scheme,
+            @Value("${cache.host}") String host,
+            @Value("${cache.path}") String path,
+            @Value("${cache.http2.max-concurrent-streams}") int maxConcurrentStreams,
+            @Value("${cache.http2.max-connections}") int maxConnections,
+            @Value("${cache.http2.ping-interval-ms}") long pingIntervalMs,
+            @Value("${cache.http2.ping-timeout-ms}") long pingTimeoutMs) {
+
+        return HttpDestinationPolicy.of("cache", CacheService.getCacheEndpointUrl(scheme, host, path).toString(), null,
+                Http2Policy.of(maxConcurrentStreams, maxConnections, pingIntervalMs, pingTimeoutMs), null, null);
+    }
+
+    private static List<HttpDestinationPolicy> httpDestinationPolicies(
+            BidderCatalog bidderCatalog, HttpDestinationPolicy cacheHttpDestinationPolicy) {
+
+        final List<HttpDestinationPolicy> destinationPolicies = new ArrayList<>(
+                bidderCatalog.httpDestinationPolicies());
+        if (cacheHttpDestinationPolicy != null) {
+            destinationPolicies.add(cacheHttpDestinationPolicy);
+        }
+        return destinationPolicies;
     }
 
-    private static BasicHttpClient createBasicHttpClient(Vertx vertx, int maxPoolSize, int connectTimeoutMs,
+    private static BasicHttpClient createBasicHttpClient(Vertx vertx, List<HttpDestinationPolicy> destinationPolicies,
+                                                         Metrics metrics, int maxPoolSize, int connectTimeoutMs,
                                                          boolean useCompression, int maxRedirects) {
         final HttpClientOptions options = new HttpClientOptions()
                 .setMaxPoolSize(maxPoolSize)
@@ -197,7 +327,8 @@ public class ServiceConfiguration {
                 // Vert.x's HttpClientRequest needs this value to be 2 for redirections to be followed once,
                 // 3 for twice, and so on
                 .setMaxRedirects(maxRedirects + 1);
-        return new BasicHttpClient(vertx, vertx.createHttpClient(options));
+        return new BasicHttpClient(vertx, vertx.createHttpClient(options), destinationPolicies,
+                policy -> vertx.createHttpClient(BasicHttpClient.destinationOptions(options, policy)), metrics);
     }
 
     @Bean
@@ -299,23 +430,54 @@ public class ServiceConfiguration {
             GdprService gdprService,
             EventsService eventsService,
             BidResponsePostProcessor bidResponsePostProcessor,
+            BidderTimeoutPlanner bidderTimeoutPlanner,
+            BidderTrafficShaper bidderTrafficShaper,
             Metrics metrics,
             Clock clock,
             @Value("${gdpr.geolocation.enabled}") boolean useGeoLocation,
             @Value("${auction.cache.expected-request-time-ms}") long expectedCacheTimeMs) {
 
         return new ExchangeService(bidderCatalog, httpBidderRequester, responseBidValidator, cacheService,
-                bidResponsePostProcessor, currencyConversionService, gdprService, eventsService, metrics, clock,
-                useGeoLocation, expectedCacheTimeMs);
+                bidResponsePostProcessor, currencyConversionService, gdprService, eventsService, bidderTimeoutPlanner,
+                bidderTrafficShaper, metrics, clock, useGeoLocation, expectedCacheTimeMs);
+    }
+
+    @Bean
+    BidderTrafficShaper bidderTrafficShaper(
+            @Value("${auction.traffic-shaping.max-entries}") int maxEntries,
+            @Value("${auction.traffic-shaping.idle-seconds}") long idleSeconds,
+            BidderCatalog bidderCatalog,
+            Metrics metrics,
+            Clock clock) {
+
+        return new BidderTrafficShaper(maxEntries, idleSeconds, bidderCatalog, metrics, clock);
+    }
+
+    @Bean
+    BidderTimeoutPlanner bidderTimeoutPlanner(
+            @Value("${auction.adaptive-timeout.enabled}") boolean enabled,
+            @Value("${auction.adaptive-timeout.percentile}") double percentile,
+            @Value("${auction.adaptive-timeout.exploration-rate}") double explorationRate,
+            @Value("${auction.adaptive-timeout.min-samples}") int minSamples,
+            @Value("${auction.adaptive-timeout.window-seconds}") long windowSeconds,
+            @Value("${auction.adaptive-timeout.account-level}") boolean accountLevel,
+            @Value("${auction.adaptive-timeout.max-entries}") int maxEntries,
+            @Value("${auction.adaptive-timeout.refresh-period-ms}") long refreshPeriodMs,
+            Vertx vertx,
+            Metrics metrics) {
+
+        return new BidderTimeoutPlanner(enabled, percentile, explorationRate, minSamples, windowSeconds, accountLevel,
+                maxEntries, refreshPeriodMs, vertx, metrics);
     }
 
     @Bean
     StoredRequestProcessor storedRequestProcessor(
             @Value("${auction.stored-requests-timeout-ms}") long defaultTimeoutMs,
+            @Value("${auction.stored-requests-parsed-cache-size}") int parsedCacheSize,
             ApplicationSettings applicationSettings,
             TimeoutFactory timeoutFactory) {
 
-        return new StoredRequestProcessor(applicationSettings, timeoutFactory, defaultTimeoutMs);
+        return new StoredRequestProcessor(applicationSettings, timeoutFactory, defaultTimeoutMs, parsedCacheSize);
     }
 
     @Bean
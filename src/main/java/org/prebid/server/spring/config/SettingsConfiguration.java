@@ -8,22 +8,30 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.ObjectUtils;
+import org.prebid.server.cache.OffHeapCacheStore;
 import org.prebid.server.execution.TimeoutFactory;
 import org.prebid.server.metric.Metrics;
 import org.prebid.server.settings.ApplicationSettings;
+import org.prebid.server.settings.CacheNotificationListener;
 import org.prebid.server.settings.CachingApplicationSettings;
 import org.prebid.server.settings.CompositeApplicationSettings;
 import org.prebid.server.settings.FileApplicationSettings;
 import org.prebid.server.settings.HttpApplicationSettings;
 import org.prebid.server.settings.JdbcApplicationSettings;
+import org.prebid.server.settings.JdbcLookupBatcher;
 import org.prebid.server.settings.SettingsCache;
+import org.prebid.server.settings.SnapshottableCache;
+import org.prebid.server.settings.model.CacheMemoryOptions;
+import org.prebid.server.settings.service.FileSettingsReloadService;
 import org.prebid.server.settings.service.HttpPeriodicRefreshService;
 import org.prebid.server.settings.service.JdbcPeriodicRefreshService;
+import org.prebid.server.settings.service.SettingsCacheSnapshotService;
 import org.prebid.server.vertx.ContextRunner;
 import org.prebid.server.vertx.http.HttpClient;
 import org.prebid.server.vertx.jdbc.BasicJdbcClient;
 import org.prebid.server.vertx.jdbc.CircuitBreakerSecuredJdbcClient;
 import org.prebid.server.vertx.jdbc.JdbcClient;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,8 +47,13 @@ import javax.validation.constraints.Min;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -60,6 +73,32 @@ public class SettingsConfiguration {
 
             return FileApplicationSettings.create(fileSystem, settingsFileName, storedRequestsDir, storedImpsDir);
         }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "settings.filesystem.watch", name = "enabled", havingValue = "true")
+        FileSettingsReloadService fileSettingsReloadService(
+                FileApplicationSettings fileApplicationSettings,
+                @Value("${settings.filesystem.settings-filename}") String settingsFileName,
+                @Value("${settings.filesystem.stored-requests-dir}") String storedRequestsDir,
+                @Value("${settings.filesystem.stored-imps-dir}") String storedImpsDir,
+                @Value("${settings.filesystem.watch.check-period-ms}") long checkPeriodMs,
+                @Autowired(required = false) CachingApplicationSettings cachingApplicationSettings,
+                @Autowired(required = false) @Qualifier("settingsCache") SettingsCache settingsCache,
+                @Autowired(required = false) @Qualifier("ampSettingsCache") SettingsCache ampSettingsCache,
+                Vertx vertx,
+                Metrics metrics,
+                Clock clock) {
+
+            final List<CacheNotificationListener> cacheNotificationListeners =
+                    Stream.of(settingsCache,
+                            ampSettingsCache)
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList());
+
+            return new FileSettingsReloadService(fileApplicationSettings, cachingApplicationSettings,
+                    cacheNotificationListeners, settingsFileName, storedRequestsDir, storedImpsDir, checkPeriodMs,
+                    vertx, metrics, clock);
+        }
     }
 
     @Configuration
@@ -70,9 +109,20 @@ public class SettingsConfiguration {
         JdbcApplicationSettings jdbcApplicationSettings(
                 @Value("${settings.database.stored-requests-query}") String storedRequestsQuery,
                 @Value("${settings.database.amp-stored-requests-query}") String ampStoredRequestsQuery,
-                JdbcClient jdbcClient) {
-
-            return new JdbcApplicationSettings(jdbcClient, storedRequestsQuery, ampStoredRequestsQuery);
+                @Value("${settings.database.batching.enabled}") boolean batchingEnabled,
+                @Value("${settings.database.batching.window-ms}") long batchingWindowMs,
+                @Value("${settings.database.batching.max-ids}") int batchingMaxIds,
+                JdbcClient jdbcClient,
+                Vertx vertx,
+                Metrics metrics,
+                Clock clock) {
+
+            final JdbcLookupBatcher lookupBatcher = batchingEnabled
+                    ? new JdbcLookupBatcher(vertx, jdbcClient, metrics, clock, batchingWindowMs, batchingMaxIds)
+                    : null;
+
+            return new JdbcApplicationSettings(jdbcClient, storedRequestsQuery, ampStoredRequestsQuery,
+                    lookupBatcher);
         }
 
         @Bean
@@ -123,7 +173,8 @@ public class SettingsConfiguration {
                     .put("driver_class", storedRequestsDatabaseProperties.getType().jdbcDriver)
                     .put("initial_pool_size", storedRequestsDatabaseProperties.getPoolSize())
                     .put("min_pool_size", storedRequestsDatabaseProperties.getPoolSize())
-                    .put("max_pool_size", storedRequestsDatabaseProperties.getPoolSize()));
+                    .put("max_pool_size", storedRequestsDatabaseProperties.getPoolSize())
+                    .put("max_statements_per_connection", storedRequestsDatabaseProperties.getStatementCacheSize()));
         }
 
         @Component
@@ -149,6 +200,8 @@ public class SettingsConfiguration {
             private String user;
             @NotBlank
             private String password;
+            @Min(0)
+            private int statementCacheSize;
         }
 
         @AllArgsConstructor
@@ -222,6 +275,9 @@ public class SettingsConfiguration {
         @Value("${settings.in-memory-cache.jdbc-update.timeout}")
         long timeout;
 
+        @Value("${settings.in-memory-cache.jdbc-update.init-chunk-size:1000}")
+        int initChunkSize;
+
         @Autowired
         Vertx vertx;
 
@@ -238,7 +294,7 @@ public class SettingsConfiguration {
                 @Value("${settings.in-memory-cache.jdbc-update.update-query}") String updateQuery) {
 
             return new JdbcPeriodicRefreshService(settingsCache, vertx, jdbcClient, refreshPeriod,
-                    initQuery, updateQuery, timeoutFactory, timeout);
+                    initQuery, updateQuery, timeoutFactory, timeout, initChunkSize);
         }
 
         @Bean
@@ -248,7 +304,7 @@ public class SettingsConfiguration {
                 @Value("${settings.in-memory-cache.jdbc-update.amp-update-query}") String ampUpdateQuery) {
 
             return new JdbcPeriodicRefreshService(settingsCache, vertx, jdbcClient, refreshPeriod,
-                    ampInitQuery, ampUpdateQuery, timeoutFactory, timeout);
+                    ampInitQuery, ampUpdateQuery, timeoutFactory, timeout, initChunkSize);
         }
     }
 
@@ -284,24 +340,43 @@ public class SettingsConfiguration {
                 CompositeApplicationSettings compositeApplicationSettings,
                 ApplicationSettingsCacheProperties cacheProperties,
                 @Qualifier("settingsCache") SettingsCache cache,
-                @Qualifier("ampSettingsCache") SettingsCache ampCache) {
+                @Qualifier("ampSettingsCache") SettingsCache ampCache,
+                CacheMemoryOptions cacheMemoryOptions,
+                Vertx vertx,
+                TimeoutFactory timeoutFactory,
+                @Value("${auction.stored-requests-timeout-ms}") long lookupTimeoutMs,
+                Metrics metrics) {
 
             return new CachingApplicationSettings(
                     compositeApplicationSettings,
                     cache,
                     ampCache,
+                    vertx,
+                    timeoutFactory,
+                    lookupTimeoutMs,
+                    metrics,
                     cacheProperties.getTtlSeconds(),
-                    cacheProperties.getCacheSize());
+                    cacheProperties.getStaleTtlSeconds(),
+                    cacheProperties.getNegativeTtlSeconds(),
+                    cacheProperties.getCacheSize(),
+                    cacheMemoryOptions);
         }
     }
 
     @Configuration
     static class ApplicationSettingsConfiguration {
 
+        /**
+         * Caches are restored from snapshot here, so it is done before any consumer of application settings
+         * (and so HTTP server) is created.
+         */
         @Bean
         ApplicationSettings applicationSettings(
                 @Autowired(required = false) CachingApplicationSettings cachingApplicationSettings,
-                @Autowired(required = false) CompositeApplicationSettings compositeApplicationSettings) {
+                @Autowired(required = false) CompositeApplicationSettings compositeApplicationSettings,
+                ObjectProvider<SettingsCacheSnapshotService> settingsCacheSnapshotServiceProvider) {
+
+            settingsCacheSnapshotServiceProvider.ifAvailable(SettingsCacheSnapshotService::restore);
             return ObjectUtils.firstNonNull(cachingApplicationSettings, compositeApplicationSettings);
         }
     }
@@ -310,16 +385,77 @@ public class SettingsConfiguration {
     @ConditionalOnProperty(prefix = "settings.in-memory-cache", name = {"ttl-seconds", "cache-size"})
     static class CacheConfiguration {
 
+        /**
+         * Off-heap store is shared by all settings caches and is not exposed as a bean, so it is not mixed up with
+         * embedded creative cache store.
+         */
+        @Bean
+        CacheMemoryOptions cacheMemoryOptions(
+                ApplicationSettingsCacheProperties cacheProperties,
+                @Value("${settings.in-memory-cache.off-heap.capacity-bytes:0}") long offHeapCapacityBytes,
+                @Value("${settings.in-memory-cache.off-heap.slab-size-bytes:1048576}") int offHeapSlabSizeBytes,
+                Clock clock) {
+
+            final OffHeapCacheStore offHeapStore = offHeapCapacityBytes > 0
+                    ? new OffHeapCacheStore(clock, offHeapCapacityBytes, offHeapSlabSizeBytes,
+                    cacheProperties.getTtlSeconds() + cacheProperties.getStaleTtlSeconds())
+                    : null;
+
+            return CacheMemoryOptions.of(cacheProperties.getMaxSizeBytes(),
+                    cacheProperties.getCompressionThresholdBytes(), offHeapStore);
+        }
+
         @Bean
         @Qualifier("settingsCache")
-        SettingsCache settingsCache(ApplicationSettingsCacheProperties cacheProperties) {
-            return new SettingsCache(cacheProperties.getTtlSeconds(), cacheProperties.getCacheSize());
+        SettingsCache settingsCache(ApplicationSettingsCacheProperties cacheProperties,
+                                    CacheMemoryOptions cacheMemoryOptions, Metrics metrics) {
+            return new SettingsCache("stored", metrics, cacheProperties.getTtlSeconds(),
+                    cacheProperties.getStaleTtlSeconds(), cacheProperties.getNegativeTtlSeconds(),
+                    cacheProperties.getCacheSize(), cacheMemoryOptions);
         }
 
         @Bean
         @Qualifier("ampSettingsCache")
-        SettingsCache ampSettingsCache(ApplicationSettingsCacheProperties cacheProperties) {
-            return new SettingsCache(cacheProperties.getTtlSeconds(), cacheProperties.getCacheSize());
+        SettingsCache ampSettingsCache(ApplicationSettingsCacheProperties cacheProperties,
+                                       CacheMemoryOptions cacheMemoryOptions, Metrics metrics) {
+            return new SettingsCache("amp_stored", metrics, cacheProperties.getTtlSeconds(),
+                    cacheProperties.getStaleTtlSeconds(), cacheProperties.getNegativeTtlSeconds(),
+                    cacheProperties.getCacheSize(), cacheMemoryOptions);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "settings.in-memory-cache.snapshot", name = "enabled", havingValue = "true")
+    static class SettingsCacheSnapshotConfiguration {
+
+        @Bean
+        SettingsCacheSnapshotService settingsCacheSnapshotService(
+                @Value("${settings.in-memory-cache.snapshot.file-path}") String filePath,
+                @Value("${settings.in-memory-cache.snapshot.period-ms}") long periodMs,
+                @Value("${settings.in-memory-cache.snapshot.max-age-ms}") long maxAgeMs,
+                CachingApplicationSettings cachingApplicationSettings,
+                @Qualifier("settingsCache") SettingsCache settingsCache,
+                @Qualifier("ampSettingsCache") SettingsCache ampSettingsCache,
+                @Autowired(required = false) List<JdbcPeriodicRefreshService> jdbcPeriodicRefreshServices,
+                @Autowired(required = false) List<HttpPeriodicRefreshService> httpPeriodicRefreshServices,
+                Vertx vertx,
+                Clock clock) {
+
+            final Map<String, SnapshottableCache> caches = new LinkedHashMap<>();
+            caches.put("application_settings", cachingApplicationSettings);
+            caches.put("settings", settingsCache);
+            caches.put("amp_settings", ampSettingsCache);
+
+            final List<Supplier<Instant>> updateTimeSuppliers = new ArrayList<>();
+            if (jdbcPeriodicRefreshServices != null) {
+                jdbcPeriodicRefreshServices.forEach(service -> updateTimeSuppliers.add(service::getLastUpdate));
+            }
+            if (httpPeriodicRefreshServices != null) {
+                httpPeriodicRefreshServices.forEach(service -> updateTimeSuppliers.add(service::getLastUpdateTime));
+            }
+
+            return new SettingsCacheSnapshotService(vertx, filePath, periodMs, maxAgeMs, clock, caches,
+                    updateTimeSuppliers);
         }
     }
 
@@ -337,5 +473,13 @@ public class SettingsConfiguration {
         @NotNull
         @Min(1)
         private Integer cacheSize;
+        @Min(0)
+        private int staleTtlSeconds;
+        @Min(0)
+        private int negativeTtlSeconds;
+        @Min(0)
+        private long maxSizeBytes;
+        @Min(0)
+        private int compressionThresholdBytes;
     }
 }
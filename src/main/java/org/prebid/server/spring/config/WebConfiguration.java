@@ -14,6 +14,7 @@ import io.vertx.ext.web.handler.CorsHandler;
 import io.vertx.ext.web.handler.StaticHandler;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.apache.commons.lang3.ObjectUtils;
 import org.prebid.server.analytics.CompositeAnalyticsReporter;
 import org.prebid.server.auction.AmpRequestFactory;
 import org.prebid.server.auction.AmpResponsePostProcessor;
@@ -24,12 +25,14 @@ import org.prebid.server.auction.TimeoutResolver;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.bidder.HttpAdapterConnector;
 import org.prebid.server.cache.CacheService;
+import org.prebid.server.cache.OffHeapCacheStore;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.currency.CurrencyConversionService;
 import org.prebid.server.execution.TimeoutFactory;
 import org.prebid.server.gdpr.GdprService;
 import org.prebid.server.handler.AuctionHandler;
 import org.prebid.server.handler.BidderParamHandler;
+import org.prebid.server.handler.CacheHandler;
 import org.prebid.server.handler.CookieSyncHandler;
 import org.prebid.server.handler.CurrencyRatesHandler;
 import org.prebid.server.handler.ExceptionHandler;
@@ -48,6 +51,7 @@ import org.prebid.server.metric.Metrics;
 import org.prebid.server.optout.GoogleRecaptchaVerifier;
 import org.prebid.server.settings.ApplicationSettings;
 import org.prebid.server.settings.SettingsCache;
+import org.prebid.server.settings.service.JdbcPeriodicRefreshService;
 import org.prebid.server.util.HttpUtil;
 import org.prebid.server.validation.BidderParamValidator;
 import org.prebid.server.vertx.ContextRunner;
@@ -63,6 +67,7 @@ import javax.annotation.PostConstruct;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -151,10 +156,20 @@ public class WebConfiguration {
                   BiddersHandler biddersHandler,
                   BidderDetailsHandler bidderDetailsHandler,
                   NotificationEventHandler notificationEventHandler,
-                  StaticHandler staticHandler) {
+                  StaticHandler staticHandler,
+                  @Autowired(required = false) CacheHandler cacheHandler,
+                  @Value("${vertx.uploads-dir}") String uploadsDir,
+                  @Value("${auction.max-request-size}") int maxRequestSize) {
 
         final Router router = Router.router(vertx);
         router.route().handler(cookieHandler);
+        // auction body is limited while being read, so oversized requests are rejected without buffering them fully
+        router.post("/openrtb2/auction")
+                .handler(BodyHandler.create(uploadsDir)
+                        .setHandleFileUploads(false)
+                        .setPreallocateBodyBuffer(true)
+                        .setBodyLimit(maxRequestSize))
+                .failureHandler(openrtbAuctionHandler::handleFailure);
         router.route().handler(bodyHandler);
         router.route().handler(noCacheHandler);
         router.route().handler(corsHandler);
@@ -171,6 +186,9 @@ public class WebConfiguration {
         router.get("/info/bidders").handler(biddersHandler);
         router.get("/info/bidders/:bidderName").handler(bidderDetailsHandler);
         router.get("/event").handler(notificationEventHandler);
+        if (cacheHandler != null) {
+            router.get("/cache").handler(cacheHandler);
+        }
         router.get("/static/*").handler(staticHandler);
         router.get("/").handler(staticHandler); // serves index.html by default
 
@@ -252,8 +270,12 @@ public class WebConfiguration {
     }
 
     @Bean
-    StatusHandler statusHandler(@Value("${status-response:#{null}}") String statusResponse) {
-        return new StatusHandler(statusResponse);
+    StatusHandler statusHandler(
+            @Value("${status-response:#{null}}") String statusResponse,
+            @Autowired(required = false) List<JdbcPeriodicRefreshService> jdbcPeriodicRefreshServices) {
+
+        return new StatusHandler(statusResponse, ObjectUtils.defaultIfNull(jdbcPeriodicRefreshServices,
+                Collections.emptyList()));
     }
 
     @Bean
@@ -326,6 +348,12 @@ public class WebConfiguration {
         return NotificationEventHandler.create(compositeAnalyticsReporter);
     }
 
+    @Bean
+    @ConditionalOnProperty(prefix = "cache.embedded", name = "enabled", havingValue = "true")
+    CacheHandler cacheHandler(OffHeapCacheStore offHeapCacheStore) {
+        return new CacheHandler(offHeapCacheStore);
+    }
+
     @Bean
     StaticHandler staticHandler() {
         return StaticHandler.create("static").setCachingEnabled(false);
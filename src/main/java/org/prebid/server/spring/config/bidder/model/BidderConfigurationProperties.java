@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.Valid;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 import java.util.List;
@@ -33,4 +34,19 @@ public class BidderConfigurationProperties {
 
     @NotNull
     private UsersyncConfigurationProperties usersync;
+
+    @Valid
+    private TrafficShapingConfigurationProperties trafficShaping;
+
+    @Valid
+    private HttpPoolConfigurationProperties httpPool;
+
+    @Valid
+    private Http2ConfigurationProperties http2;
+
+    @Valid
+    private RequestCompressionConfigurationProperties requestCompression;
+
+    @Valid
+    private ResponseSizeLimitConfigurationProperties responseSizeLimit;
 }
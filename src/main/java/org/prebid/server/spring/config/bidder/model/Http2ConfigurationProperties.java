@@ -0,0 +1,33 @@
+package org.prebid.server.spring.config.bidder.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Validated
+@Data
+@NoArgsConstructor
+public class Http2ConfigurationProperties {
+
+    @NotNull
+    private Boolean enabled;
+
+    @NotNull
+    @Min(1)
+    private Integer maxConcurrentStreams;
+
+    @NotNull
+    @Min(1)
+    private Integer maxConnections;
+
+    @NotNull
+    @Min(0)
+    private Long pingIntervalMs;
+
+    @NotNull
+    @Min(1)
+    private Long pingTimeoutMs;
+}
@@ -0,0 +1,21 @@
+package org.prebid.server.spring.config.bidder.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Validated
+@Data
+@NoArgsConstructor
+public class ResponseSizeLimitConfigurationProperties {
+
+    @NotNull
+    private Boolean enabled;
+
+    @NotNull
+    @Min(1)
+    private Integer maxSizeBytes;
+}
@@ -0,0 +1,37 @@
+package org.prebid.server.spring.config.bidder.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Validated
+@Data
+@NoArgsConstructor
+public class TrafficShapingConfigurationProperties {
+
+    @NotNull
+    private Boolean enabled;
+
+    @NotNull
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private Double minBidRate;
+
+    @NotNull
+    @DecimalMin("0")
+    @DecimalMax("1")
+    private Double explorationRate;
+
+    @NotNull
+    @Min(1)
+    private Integer minRequests;
+
+    @NotNull
+    @Min(1)
+    private Long halfLifeSeconds;
+}
@@ -6,8 +6,19 @@ import org.prebid.server.bidder.BidderDeps;
 import org.prebid.server.bidder.DisabledAdapter;
 import org.prebid.server.bidder.DisabledBidder;
 import org.prebid.server.bidder.Usersyncer;
+import org.prebid.server.bidder.model.TrafficShapingRule;
 import org.prebid.server.proto.response.BidderInfo;
 import org.prebid.server.spring.config.bidder.model.BidderConfigurationProperties;
+import org.prebid.server.spring.config.bidder.model.Http2ConfigurationProperties;
+import org.prebid.server.spring.config.bidder.model.HttpPoolConfigurationProperties;
+import org.prebid.server.spring.config.bidder.model.RequestCompressionConfigurationProperties;
+import org.prebid.server.spring.config.bidder.model.ResponseSizeLimitConfigurationProperties;
+import org.prebid.server.spring.config.bidder.model.TrafficShapingConfigurationProperties;
+import org.prebid.server.vertx.http.model.Http2Policy;
+import org.prebid.server.vertx.http.model.HttpCompressionPolicy;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
+import org.prebid.server.vertx.http.model.HttpPoolPolicy;
+import org.prebid.server.vertx.http.model.HttpResponseLimitPolicy;
 
 import java.util.List;
 import java.util.function.Supplier;
@@ -23,6 +34,9 @@ public class BidderDepsAssembler {
     private List<String> deprecatedNames;
     private List<String> aliases;
     private BidderInfo bidderInfo;
+    private String endpoint;
+    private TrafficShapingRule trafficShapingRule;
+    private HttpDestinationPolicy httpDestinationPolicy;
     private Supplier<Usersyncer> usersyncerCreator;
     private Supplier<Bidder<?>> bidderCreator;
     private Supplier<Adapter<?, ?>> adapterCreator;
@@ -61,9 +75,60 @@ public class BidderDepsAssembler {
         enabled = configProperties.getEnabled();
         deprecatedNames = configProperties.getDeprecatedNames();
         aliases = configProperties.getAliases();
+        endpoint = configProperties.getEndpoint();
+        trafficShapingRule = trafficShapingRule(configProperties.getTrafficShaping());
+        httpDestinationPolicy = httpDestinationPolicy(configProperties.getEndpoint(),
+                httpPoolPolicy(configProperties.getHttpPool()), http2Policy(configProperties.getHttp2()),
+                httpCompressionPolicy(configProperties.getRequestCompression()),
+                httpResponseLimitPolicy(configProperties.getResponseSizeLimit()));
         return this;
     }
 
+    private static TrafficShapingRule trafficShapingRule(TrafficShapingConfigurationProperties trafficShaping) {
+        return trafficShaping != null && trafficShaping.getEnabled()
+                ? TrafficShapingRule.of(trafficShaping.getMinBidRate(), trafficShaping.getExplorationRate(),
+                trafficShaping.getMinRequests(), trafficShaping.getHalfLifeSeconds())
+                : null;
+    }
+
+    private HttpDestinationPolicy httpDestinationPolicy(String endpoint, HttpPoolPolicy pool, Http2Policy http2,
+                                                        HttpCompressionPolicy compression,
+                                                        HttpResponseLimitPolicy responseLimit) {
+        return pool != null || http2 != null || compression != null || responseLimit != null
+                ? HttpDestinationPolicy.of(bidderName, endpoint, pool, http2, compression, responseLimit)
+                : null;
+    }
+
+    private static HttpPoolPolicy httpPoolPolicy(HttpPoolConfigurationProperties httpPool) {
+        return httpPool != null && httpPool.getEnabled()
+                ? HttpPoolPolicy.of(httpPool.getMaxPoolSize(), httpPool.getMaxWaitQueueSize(),
+                httpPool.getIdleTimeoutSeconds(), httpPool.getMaxInFlightRequests())
+                : null;
+    }
+
+    private static Http2Policy http2Policy(Http2ConfigurationProperties http2) {
+        return http2 != null && http2.getEnabled()
+                ? Http2Policy.of(http2.getMaxConcurrentStreams(), http2.getMaxConnections(),
+                http2.getPingIntervalMs(), http2.getPingTimeoutMs())
+                : null;
+    }
+
+    private static HttpCompressionPolicy httpCompressionPolicy(
+            RequestCompressionConfigurationProperties requestCompression) {
+
+        return requestCompression != null && requestCompression.getEnabled()
+                ? HttpCompressionPolicy.of(requestCompression.getMinSizeBytes())
+                : null;
+    }
+
+    private static HttpResponseLimitPolicy httpResponseLimitPolicy(
+            ResponseSizeLimitConfigurationProperties responseSizeLimit) {
+
+        return responseSizeLimit != null && responseSizeLimit.getEnabled()
+                ? HttpResponseLimitPolicy.of(responseSizeLimit.getMaxSizeBytes())
+                : null;
+    }
+
     public BidderDeps assemble() {
         final Usersyncer usersyncer = enabled ? usersyncerCreator.get() : null;
 
@@ -78,6 +143,9 @@ public class BidderDepsAssembler {
                 .deprecatedNames(deprecatedNames)
                 .aliases(aliases)
                 .bidderInfo(bidderInfo)
+                .endpoint(enabled ? endpoint : null)
+                .trafficShapingRule(trafficShapingRule)
+                .httpDestinationPolicy(enabled ? httpDestinationPolicy : null)
                 .usersyncer(usersyncer)
                 .bidder(bidder)
                 .adapter(adapter)
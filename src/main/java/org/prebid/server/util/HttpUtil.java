@@ -147,6 +147,63 @@ public final class HttpUtil {
         }
     }
 
+    /**
+     * Returns lower-cased host and port part of given URL (without user info) or null if it cannot be determined.
+     * <p>
+     * In contrast to {@link #getDomainFromUrl(String)} doesn't parse URL entirely, so it's cheap enough to be called
+     * for every outgoing request.
+     */
+    public static String destinationKey(String url) {
+        final int schemeEnd = url != null ? url.indexOf("://") : -1;
+        if (schemeEnd == -1) {
+            return null;
+        }
+
+        final int authorityStart = schemeEnd + 3;
+        final int authorityEnd = indexOfAny(url, authorityStart, "/?#");
+        final int hostStart = hostStart(url, authorityStart, authorityEnd);
+        return hostStart < authorityEnd ? url.substring(hostStart, authorityEnd).toLowerCase() : null;
+    }
+
+    /**
+     * Returns endpoint of given URL: lower-cased scheme, host and port followed by path (without user info, query
+     * and fragment) or null if it cannot be determined.
+     * <p>
+     * As well as {@link #destinationKey(String)} is cheap enough to be called for every outgoing request.
+     */
+    public static String endpointKey(String url) {
+        final int schemeEnd = url != null ? url.indexOf("://") : -1;
+        if (schemeEnd == -1) {
+            return null;
+        }
+
+        final int authorityStart = schemeEnd + 3;
+        final int authorityEnd = indexOfAny(url, authorityStart, "/?#");
+        final int hostStart = hostStart(url, authorityStart, authorityEnd);
+        if (hostStart >= authorityEnd) {
+            return null;
+        }
+
+        final int pathEnd = indexOfAny(url, authorityEnd, "?#");
+        return url.substring(0, authorityStart).toLowerCase()
+                + url.substring(hostStart, authorityEnd).toLowerCase()
+                + url.substring(authorityEnd, pathEnd);
+    }
+
+    private static int indexOfAny(String url, int from, String chars) {
+        for (int i = from; i < url.length(); i++) {
+            if (chars.indexOf(url.charAt(i)) != -1) {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    private static int hostStart(String url, int authorityStart, int authorityEnd) {
+        final int userInfoEnd = url.lastIndexOf('@', authorityEnd - 1);
+        return userInfoEnd >= authorityStart ? userInfoEnd + 1 : authorityStart;
+    }
+
     public static Map<String, String> cookiesAsMap(RoutingContext context) {
         return context.cookies().stream()
                 .collect(Collectors.toMap(Cookie::getName, Cookie::getValue));
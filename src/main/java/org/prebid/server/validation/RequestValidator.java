@@ -17,11 +17,9 @@ import com.iab.openrtb.request.Imp;
 import com.iab.openrtb.request.Metric;
 import com.iab.openrtb.request.Native;
 import com.iab.openrtb.request.Pmp;
-import com.iab.openrtb.request.Regs;
 import com.iab.openrtb.request.Request;
 import com.iab.openrtb.request.Site;
 import com.iab.openrtb.request.TitleObject;
-import com.iab.openrtb.request.User;
 import com.iab.openrtb.request.Video;
 import com.iab.openrtb.request.VideoObject;
 import com.iab.openrtb.request.ntv.ContextSubType;
@@ -36,6 +34,7 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.proto.openrtb.ext.request.ExtApp;
 import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
@@ -89,10 +88,13 @@ public class RequestValidator {
     }
 
     /**
-     * Validates the {@link BidRequest} against a list of validation checks, however, reports only one problem
-     * at a time.
+     * Validates the {@link BidRequest} from {@link AuctionContext} against a list of validation checks, however,
+     * reports only one problem at a time.
+     * <p>
+     * Extensions already decoded to {@link AuctionContext} are reused rather than converted from JSON tree again.
      */
-    public ValidationResult validate(BidRequest bidRequest) {
+    public ValidationResult validate(AuctionContext auctionContext) {
+        final BidRequest bidRequest = auctionContext.getBidRequest();
         try {
             if (StringUtils.isBlank(bidRequest.getId())) {
                 throw new ValidationException("request missing required field: \"id\"");
@@ -104,7 +106,7 @@ public class RequestValidator {
 
             validateCur(bidRequest.getCur());
 
-            final ExtBidRequest extBidRequest = parseAndValidateExtBidRequest(bidRequest);
+            final ExtBidRequest extBidRequest = auctionContext.getExtBidRequest();
 
             final ExtRequestPrebid extRequestPrebid = extBidRequest != null ? extBidRequest.getPrebid() : null;
 
@@ -156,8 +158,8 @@ public class RequestValidator {
             validateSite(bidRequest.getSite());
             validateApp(bidRequest.getApp());
             validateDevice(bidRequest.getDevice());
-            validateUser(bidRequest.getUser(), aliases);
-            validateRegs(bidRequest.getRegs());
+            validateUser(auctionContext.getExtUser(), aliases);
+            validateRegs(auctionContext.getExtRegs());
         } catch (ValidationException ex) {
             return ValidationResult.error(ex.getMessage());
         }
@@ -261,18 +263,6 @@ public class RequestValidator {
         }
     }
 
-    private ExtBidRequest parseAndValidateExtBidRequest(BidRequest bidRequest) throws ValidationException {
-        ExtBidRequest extBidRequest = null;
-        if (bidRequest.getExt() != null) {
-            try {
-                extBidRequest = Json.mapper.treeToValue(bidRequest.getExt(), ExtBidRequest.class);
-            } catch (JsonProcessingException e) {
-                throw new ValidationException("request.ext is invalid: %s", e.getMessage());
-            }
-        }
-        return extBidRequest;
-    }
-
     /**
      * Validates aliases. Throws {@link ValidationException} in cases when alias points to invalid bidder or when alias
      * is equals to itself.
@@ -357,72 +347,60 @@ public class RequestValidator {
         }
     }
 
-    private void validateUser(User user, Map<String, String> aliases) throws ValidationException {
-        if (user != null && user.getExt() != null) {
-            try {
-                final ExtUser extUser = Json.mapper.treeToValue(user.getExt(), ExtUser.class);
-                final ExtUserDigiTrust digitrust = extUser.getDigitrust();
-                final ExtUserPrebid prebid = extUser.getPrebid();
-                final List<ExtUserTpId> tpid = extUser.getTpid();
+    private void validateUser(ExtUser extUser, Map<String, String> aliases) throws ValidationException {
+        if (extUser != null) {
+            final ExtUserDigiTrust digitrust = extUser.getDigitrust();
+            final ExtUserPrebid prebid = extUser.getPrebid();
+            final List<ExtUserTpId> tpid = extUser.getTpid();
 
-                if (digitrust != null && digitrust.getPref() != 0) {
-                    throw new ValidationException("request.user contains a digitrust object that is not valid");
-                }
+            if (digitrust != null && digitrust.getPref() != 0) {
+                throw new ValidationException("request.user contains a digitrust object that is not valid");
+            }
 
-                if (prebid != null) {
-                    final Map<String, String> buyerUids = prebid.getBuyeruids();
-                    if (MapUtils.isEmpty(buyerUids)) {
-                        throw new ValidationException("request.user.ext.prebid requires a \"buyeruids\" property "
-                                + "with at least one ID defined. If none exist, then request.user.ext.prebid"
-                                + " should not be defined");
-                    }
+            if (prebid != null) {
+                final Map<String, String> buyerUids = prebid.getBuyeruids();
+                if (MapUtils.isEmpty(buyerUids)) {
+                    throw new ValidationException("request.user.ext.prebid requires a \"buyeruids\" property "
+                            + "with at least one ID defined. If none exist, then request.user.ext.prebid"
+                            + " should not be defined");
+                }
 
-                    for (String bidder : buyerUids.keySet()) {
-                        if (isUnknownBidderOrAlias(bidder, aliases)) {
-                            throw new ValidationException("request.user.ext.%s is neither a known bidder "
-                                    + "name nor an alias in request.ext.prebid.aliases", bidder);
-                        }
+                for (String bidder : buyerUids.keySet()) {
+                    if (isUnknownBidderOrAlias(bidder, aliases)) {
+                        throw new ValidationException("request.user.ext.%s is neither a known bidder "
+                                + "name nor an alias in request.ext.prebid.aliases", bidder);
                     }
                 }
+            }
 
-                if (tpid != null) {
-                    if (tpid.isEmpty()) {
+            if (tpid != null) {
+                if (tpid.isEmpty()) {
+                    throw new ValidationException(
+                            "request.user.ext.tpid must contain at least one element or be undefined");
+                }
+                for (int index = 0; index < tpid.size(); index++) {
+                    final ExtUserTpId extUserTpId = tpid.get(index);
+                    if (StringUtils.isBlank(extUserTpId.getSource())) {
                         throw new ValidationException(
-                                "request.user.ext.tpid must contain at least one element or be undefined");
+                                "request.user.ext.tpid[%s].source missing required field: \"source\"", index);
                     }
-                    for (int index = 0; index < tpid.size(); index++) {
-                        final ExtUserTpId extUserTpId = tpid.get(index);
-                        if (StringUtils.isBlank(extUserTpId.getSource())) {
-                            throw new ValidationException(
-                                    "request.user.ext.tpid[%s].source missing required field: \"source\"", index);
-                        }
-                        if (StringUtils.isBlank(extUserTpId.getUid())) {
-                            throw new ValidationException(
-                                    "request.user.ext.tpid[%s].uid missing required field: \"uid\"", index);
-                        }
+                    if (StringUtils.isBlank(extUserTpId.getUid())) {
+                        throw new ValidationException(
+                                "request.user.ext.tpid[%s].uid missing required field: \"uid\"", index);
                     }
                 }
-            } catch (JsonProcessingException e) {
-                throw new ValidationException("request.user.ext object is not valid: %s", e.getMessage());
             }
         }
     }
 
     /**
-     * Validates {@link Regs}. Throws {@link ValidationException} in case if {@link ExtRegs} is present in
+     * Validates {@link ExtRegs}. Throws {@link ValidationException} in case if {@link ExtRegs} is present in
      * bidrequest.regs.ext and its gdpr value has different value to 0 or 1.
      */
-    private void validateRegs(Regs regs) throws ValidationException {
-        if (regs != null) {
-            try {
-                final ExtRegs extRegs = Json.mapper.treeToValue(regs.getExt(), ExtRegs.class);
-                final Integer gdpr = extRegs == null ? null : extRegs.getGdpr();
-                if (gdpr != null && (gdpr < 0 || gdpr > 1)) {
-                    throw new ValidationException("request.regs.ext.gdpr must be either 0 or 1");
-                }
-            } catch (JsonProcessingException e) {
-                throw new ValidationException("request.regs.ext is invalid: %s", e.getMessage());
-            }
+    private void validateRegs(ExtRegs extRegs) throws ValidationException {
+        final Integer gdpr = extRegs == null ? null : extRegs.getGdpr();
+        if (gdpr != null && (gdpr < 0 || gdpr > 1)) {
+            throw new ValidationException("request.regs.ext.gdpr must be either 0 or 1");
         }
     }
 
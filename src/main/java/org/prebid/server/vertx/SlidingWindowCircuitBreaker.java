@@ -0,0 +1,288 @@
+package org.prebid.server.vertx;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+import java.time.Clock;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free circuit breaker which decides on outcomes of the last calls kept in a ring buffer (sliding window).
+ * <p>
+ * The circuit is opened if either failure rate or slow call rate in the window reaches configured threshold
+ * (e.g. slow call rate threshold of 0.01 means the circuit opens once 99th percentile of call duration exceeds
+ * slow call duration). After opening interval the circuit becomes half-open and only limited number of trial calls
+ * are permitted: the circuit is closed if all of them succeed in time, otherwise it's opened again.
+ */
+public class SlidingWindowCircuitBreaker {
+
+    private static final String OPEN_CIRCUIT_MESSAGE = "open circuit";
+
+    private static final int RECORDED = 1;
+    private static final int FAILED = 2;
+    private static final int SLOW = 4;
+
+    private final Clock clock;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long slowCallDurationMs;
+    private final double slowCallRateThreshold;
+    private final long openingIntervalMs;
+    private final int halfOpenMaxCalls;
+
+    private final AtomicReference<State> state;
+
+    private Handler<Void> openHandler;
+    private Handler<Void> halfOpenHandler;
+    private Handler<Void> closeHandler;
+
+    public SlidingWindowCircuitBreaker(Clock clock, int windowSize, int minimumCalls, double failureRateThreshold,
+                                       long slowCallDurationMs, double slowCallRateThreshold,
+                                       long openingIntervalMs, int halfOpenMaxCalls) {
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Window size and minimum calls must be positive, "
+                    + "minimum calls must not exceed window size");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1
+                || slowCallRateThreshold <= 0 || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure and slow call rate thresholds must be in range (0, 1]");
+        }
+        if (halfOpenMaxCalls < 1) {
+            throw new IllegalArgumentException("Half-open max calls must be positive");
+        }
+
+        this.clock = Objects.requireNonNull(clock);
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationMs = slowCallDurationMs;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openingIntervalMs = openingIntervalMs;
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+
+        state = new AtomicReference<>(State.closed(windowSize));
+    }
+
+    /**
+     * Executes the given operation with the circuit breaker control.
+     */
+    public <T> Future<T> execute(Handler<Future<T>> command) {
+        final State permittedState = acquirePermission();
+        if (permittedState == null) {
+            return Future.failedFuture(new RuntimeException(OPEN_CIRCUIT_MESSAGE));
+        }
+
+        final long startTime = clock.millis();
+        final Future<T> result = Future.future();
+        final Future<T> commandFuture = Future.future();
+        commandFuture.setHandler(asyncResult -> {
+            onResult(permittedState, asyncResult.failed(), clock.millis() - startTime);
+            result.handle(asyncResult);
+        });
+
+        try {
+            command.handle(commandFuture);
+        } catch (RuntimeException e) {
+            commandFuture.tryFail(e);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the state call is permitted in or null if call is not permitted.
+     */
+    private State acquirePermission() {
+        while (true) {
+            final State current = state.get();
+            switch (current.type) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (clock.millis() - current.openedAt < openingIntervalMs) {
+                        return null;
+                    }
+                    if (state.compareAndSet(current, State.halfOpen(halfOpenMaxCalls))) {
+                        notifyHandler(halfOpenHandler);
+                    }
+                    break;
+                case HALF_OPEN:
+                    return current.trialPermits.getAndDecrement() > 0 ? current : null;
+                default:
+                    throw new IllegalStateException("Should never happen");
+            }
+        }
+    }
+
+    /**
+     * Records call outcome if circuit is still in the same state the call was permitted in.
+     */
+    private void onResult(State permittedState, boolean failed, long duration) {
+        if (state.get() != permittedState) {
+            return;
+        }
+
+        final boolean slow = duration >= slowCallDurationMs;
+        if (permittedState.type == StateType.HALF_OPEN) {
+            if (failed || slow) {
+                open(permittedState);
+            } else if (permittedState.trialSuccesses.incrementAndGet() >= halfOpenMaxCalls) {
+                close(permittedState);
+            }
+        } else if (permittedState.type == StateType.CLOSED) {
+            final Window window = permittedState.window;
+            window.record(failed, slow);
+
+            final int calls = window.calls.get();
+            if (calls >= minimumCalls && (window.failures.get() >= failureRateThreshold * calls
+                    || window.slowCalls.get() >= slowCallRateThreshold * calls)) {
+                open(permittedState);
+            }
+        }
+    }
+
+    private void open(State current) {
+        if (state.compareAndSet(current, State.open(clock.millis()))) {
+            notifyHandler(openHandler);
+        }
+    }
+
+    private void close(State current) {
+        if (state.compareAndSet(current, State.closed(windowSize))) {
+            notifyHandler(closeHandler);
+        }
+    }
+
+    private static void notifyHandler(Handler<Void> handler) {
+        if (handler != null) {
+            handler.handle(null);
+        }
+    }
+
+    /**
+     * Returns share of failed calls in the sliding window, 0 if circuit is not closed.
+     */
+    public double failureRate() {
+        final Window window = state.get().window;
+        return window != null ? window.rate(window.failures) : 0;
+    }
+
+    /**
+     * Returns share of slow calls in the sliding window, 0 if circuit is not closed.
+     */
+    public double slowCallRate() {
+        final Window window = state.get().window;
+        return window != null ? window.rate(window.slowCalls) : 0;
+    }
+
+    /**
+     * Tells if circuit is open, i.e. calls are not permitted.
+     */
+    public boolean isOpen() {
+        return state.get().type == StateType.OPEN;
+    }
+
+    /**
+     * Sets a {@link Handler} invoked when the circuit breaker state switches to open.
+     */
+    public SlidingWindowCircuitBreaker openHandler(Handler<Void> handler) {
+        openHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets a {@link Handler} invoked when the circuit breaker state switches to half-open.
+     */
+    public SlidingWindowCircuitBreaker halfOpenHandler(Handler<Void> handler) {
+        halfOpenHandler = handler;
+        return this;
+    }
+
+    /**
+     * Sets a {@link Handler} invoked when the circuit breaker state switches to close.
+     */
+    public SlidingWindowCircuitBreaker closeHandler(Handler<Void> handler) {
+        closeHandler = handler;
+        return this;
+    }
+
+    private enum StateType {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Immutable circuit state replaced as a whole on transition, so concurrent transitions are resolved with CAS.
+     */
+    private static class State {
+
+        private final StateType type;
+        private final Window window;
+        private final long openedAt;
+        private final AtomicInteger trialPermits;
+        private final AtomicInteger trialSuccesses;
+
+        private State(StateType type, Window window, long openedAt, AtomicInteger trialPermits,
+                      AtomicInteger trialSuccesses) {
+            this.type = type;
+            this.window = window;
+            this.openedAt = openedAt;
+            this.trialPermits = trialPermits;
+            this.trialSuccesses = trialSuccesses;
+        }
+
+        static State closed(int windowSize) {
+            return new State(StateType.CLOSED, new Window(windowSize), 0, null, null);
+        }
+
+        static State open(long openedAt) {
+            return new State(StateType.OPEN, null, openedAt, null, null);
+        }
+
+        static State halfOpen(int maxCalls) {
+            return new State(StateType.HALF_OPEN, null, 0, new AtomicInteger(maxCalls), new AtomicInteger());
+        }
+    }
+
+    /**
+     * Ring buffer of the last call outcomes with running totals, which are adjusted when outcome is overwritten.
+     */
+    private static class Window {
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger slowCalls = new AtomicInteger();
+
+        Window(int size) {
+            outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(boolean failed, boolean slow) {
+            final int outcome = RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+            final int index = Math.floorMod(cursor.getAndIncrement(), outcomes.length());
+            final int previous = outcomes.getAndSet(index, outcome);
+
+            if ((previous & RECORDED) == 0) {
+                calls.incrementAndGet();
+            }
+            adjust(failures, previous, outcome, FAILED);
+            adjust(slowCalls, previous, outcome, SLOW);
+        }
+
+        private static void adjust(AtomicInteger counter, int previous, int outcome, int flag) {
+            final int delta = (outcome & flag) / flag - (previous & flag) / flag;
+            if (delta != 0) {
+                counter.addAndGet(delta);
+            }
+        }
+
+        double rate(AtomicInteger counter) {
+            final int total = calls.get();
+            return total > 0 ? (double) counter.get() / total : 0;
+        }
+    }
+}
@@ -1,30 +1,168 @@
 package org.prebid.server.vertx.http;
 
+import io.netty.buffer.ByteBufUtil;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.ConnectionPoolTooBusyException;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.util.HttpUtil;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
+import org.prebid.server.vertx.http.model.Http2Policy;
+import org.prebid.server.vertx.http.model.HttpCompressionPolicy;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
+import org.prebid.server.vertx.http.model.HttpPoolPolicy;
+import org.prebid.server.vertx.http.model.HttpResponseLimitPolicy;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 /**
  * Simple wrapper around {@link HttpClient} with general functionality.
+ * <p>
+ * Requests to destinations having {@link HttpDestinationPolicy} are made through dedicated connection pools
+ * (bulkheads), so slow destination can't exhaust connections and wait queue shared by others. Such destinations
+ * may be requested over HTTP/2 multiplexing concurrent requests over few connections and with gzipped body.
+ * Response size from such destinations may be limited, so huge responses are aborted instead of being buffered.
  */
 public class BasicHttpClient implements HttpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(BasicHttpClient.class);
 
+    private static final int PING_DATA_LENGTH = 8;
+    private static final String GZIP = "gzip";
+
     private final Vertx vertx;
     private final io.vertx.core.http.HttpClient httpClient;
+    private final Map<String, Destination> destinations;
+    private final Metrics metrics;
 
     public BasicHttpClient(Vertx vertx, io.vertx.core.http.HttpClient httpClient) {
         this.vertx = Objects.requireNonNull(vertx);
         this.httpClient = Objects.requireNonNull(httpClient);
+        this.destinations = Collections.emptyMap();
+        this.metrics = null;
+    }
+
+    public BasicHttpClient(Vertx vertx, io.vertx.core.http.HttpClient httpClient,
+                           List<HttpDestinationPolicy> destinationPolicies,
+                           Function<HttpDestinationPolicy, io.vertx.core.http.HttpClient> destinationClientCreator,
+                           Metrics metrics) {
+        this.vertx = Objects.requireNonNull(vertx);
+        this.httpClient = Objects.requireNonNull(httpClient);
+        this.destinations = createDestinations(Objects.requireNonNull(destinationPolicies),
+                Objects.requireNonNull(destinationClientCreator));
+        this.metrics = Objects.requireNonNull(metrics);
+    }
+
+    /**
+     * Creates {@link HttpClientOptions} for destination from the given common ones.
+     * <p>
+     * If HTTP/2 is enabled for destination, it is negotiated with ALPN over TLS (if available) or with upgrade
+     * request over clear text, so HTTP/1.1 is still used if destination doesn't support HTTP/2.
+     */
+    public static HttpClientOptions destinationOptions(HttpClientOptions options, HttpDestinationPolicy policy) {
+        final HttpClientOptions destinationOptions = new HttpClientOptions(options);
+
+        final HttpPoolPolicy pool = policy.getPool();
+        if (pool != null) {
+            destinationOptions
+                    .setMaxPoolSize(pool.getMaxPoolSize())
+                    .setMaxWaitQueueSize(pool.getMaxWaitQueueSize())
+                    .setIdleTimeout(pool.getIdleTimeoutSeconds());
+        }
+
+        final Http2Policy http2 = policy.getHttp2();
+        if (http2 != null) {
+            destinationOptions
+                    .setProtocolVersion(HttpVersion.HTTP_2)
+                    .setHttp2ClearTextUpgrade(true)
+                    .setHttp2MultiplexingLimit(http2.getMaxConcurrentStreams())
+                    .setHttp2MaxPoolSize(http2.getMaxConnections());
+
+            if (JdkSSLEngineOptions.isAlpnAvailable()) {
+                destinationOptions.setUseAlpn(true);
+            } else {
+                logger.warn("ALPN is not available, HTTP/2 over TLS is not used for {0}", policy.getName());
+            }
+        }
+
+        return destinationOptions;
+    }
+
+    private Map<String, Destination> createDestinations(
+            List<HttpDestinationPolicy> destinationPolicies,
+            Function<HttpDestinationPolicy, io.vertx.core.http.HttpClient> destinationClientCreator) {
+
+        final Map<String, Destination> destinations = new HashMap<>();
+        for (HttpDestinationPolicy policy : destinationPolicies) {
+            final String key = HttpUtil.destinationKey(policy.getEndpoint());
+            if (key == null) {
+                logger.warn("Cannot resolve destination of {0} endpoint: {1}, connection pool is not isolated",
+                        policy.getName(), policy.getEndpoint());
+            } else if (destinations.containsKey(key)) {
+                logger.warn("Destination {0} of {1} is already served by {2} connection pool", key,
+                        policy.getName(), destinations.get(key).policy.getName());
+            } else {
+                final io.vertx.core.http.HttpClient destinationClient = destinationClientCreator.apply(policy);
+                final Http2Policy http2 = policy.getHttp2();
+                if (http2 != null && http2.getPingIntervalMs() > 0) {
+                    destinationClient.connectionHandler(connection -> keepAlive(connection, http2));
+                }
+                destinations.put(key, new Destination(policy, destinationClient));
+            }
+        }
+        return destinations;
+    }
+
+    /**
+     * Periodically sends PING frames over HTTP/2 connection and closes it if acknowledgement is not received in time.
+     */
+    private void keepAlive(HttpConnection connection, Http2Policy http2) {
+        final long timerId = vertx.setPeriodic(http2.getPingIntervalMs(),
+                id -> ping(connection, id, http2.getPingTimeoutMs()));
+        connection.closeHandler(ignored -> vertx.cancelTimer(timerId));
+    }
+
+    private void ping(HttpConnection connection, long timerId, long pingTimeoutMs) {
+        final long pingTimerId = vertx.setTimer(pingTimeoutMs, id -> closeConnection(connection, timerId,
+                String.format("PING is not acknowledged within %dms", pingTimeoutMs)));
+        try {
+            connection.ping(Buffer.buffer(new byte[PING_DATA_LENGTH]), result -> {
+                vertx.cancelTimer(pingTimerId);
+                if (result.failed()) {
+                    closeConnection(connection, timerId, result.cause().getMessage());
+                }
+            });
+        } catch (UnsupportedOperationException e) {
+            // destination doesn't support HTTP/2 and connection fell back to HTTP/1.x
+            vertx.cancelTimer(pingTimerId);
+            vertx.cancelTimer(timerId);
+        }
+    }
+
+    private void closeConnection(HttpConnection connection, long timerId, String reason) {
+        logger.warn("Closing HTTP/2 connection: {0}", reason);
+        vertx.cancelTimer(timerId);
+        connection.close();
     }
 
     @Override
@@ -35,29 +173,130 @@ public class BasicHttpClient implements HttpClient {
         if (timeoutMs <= 0) {
             failResponse(new TimeoutException("Timeout has been exceeded"), future);
         } else {
-            final HttpClientRequest httpClientRequest = httpClient.requestAbs(method, url);
+            final Destination destination = destinations.isEmpty()
+                    ? null
+                    : destinations.get(HttpUtil.destinationKey(url));
+            if (destination != null && destination.policy.getPool() != null) {
+                requestDestination(destination, method, url, headers, body, timeoutMs, future);
+            } else if (destination != null) {
+                doRequest(destination, method, url, headers, body, timeoutMs, future, null);
+            } else {
+                doRequest(null, method, url, headers, body, timeoutMs, future, null);
+            }
+        }
 
-            // Vert.x HttpClientRequest timeout doesn't aware of case when a part of the response body is received,
-            // but remaining part is delayed. So, overall request/response timeout is involved to fix it.
-            final long timerId = vertx.setTimer(timeoutMs, id -> handleTimeout(future, timeoutMs, httpClientRequest));
+        return future;
+    }
 
-            httpClientRequest
-                    .setFollowRedirects(true)
-                    .handler(response -> handleResponse(response, future, timerId))
-                    .exceptionHandler(exception -> failResponse(exception, future, timerId));
+    /**
+     * Makes request through destination connection pool, fails fast if destination is saturated.
+     */
+    private void requestDestination(Destination destination, HttpMethod method, String url, MultiMap headers,
+                                    String body, long timeoutMs, Future<HttpClientResponse> future) {
+        final String name = destination.policy.getName();
+        final int maxInFlightRequests = destination.policy.getPool().getMaxInFlightRequests();
+        final int inFlight = destination.inFlight.get();
+        final int waiting = destination.waiting.get();
+        metrics.updateAdapterConnectionPoolMetrics(name, inFlight - waiting, waiting);
+
+        if (inFlight >= maxInFlightRequests) {
+            metrics.updateAdapterConnectionPoolRejectedMetric(name);
+            failResponse(new ConnectionPoolTooBusyException(String.format(
+                    "Number of in-flight requests to %s exceeded %d", name, maxInFlightRequests)), future);
+            return;
+        }
 
-            if (headers != null) {
-                httpClientRequest.headers().addAll(headers);
+        destination.inFlight.incrementAndGet();
+        destination.waiting.incrementAndGet();
+
+        final long startTime = System.currentTimeMillis();
+        final Future<Void> connectionFuture = Future.future();
+        connectionFuture.setHandler(ignored -> destination.waiting.decrementAndGet());
+
+        final Future<HttpClientResponse> destinationFuture = Future.future();
+        destinationFuture.setHandler(result -> {
+            connectionFuture.tryComplete();
+            destination.inFlight.decrementAndGet();
+            if (result.failed() && result.cause() instanceof ConnectionPoolTooBusyException) {
+                metrics.updateAdapterConnectionPoolRejectedMetric(name);
             }
+            future.handle(result);
+        });
 
-            if (body != null) {
-                httpClientRequest.end(body);
-            } else {
-                httpClientRequest.end();
+        doRequest(destination, method, url, headers, body, timeoutMs, destinationFuture, version -> {
+            if (connectionFuture.tryComplete()) {
+                metrics.updateAdapterConnectionWaitTimeMetric(name, System.currentTimeMillis() - startTime);
+            }
+        });
+    }
+
+    /**
+     * Sends HTTP request to given destination or using common connection pool if destination is null.
+     * If connection handler is given, request head is sent separately to be notified when connection is obtained
+     * from pool.
+     */
+    private void doRequest(Destination destination, HttpMethod method, String url, MultiMap headers, String body,
+                           long timeoutMs, Future<HttpClientResponse> future, Handler<HttpVersion> connectionHandler) {
+        final io.vertx.core.http.HttpClient client = destination != null ? destination.httpClient : httpClient;
+        final HttpClientRequest httpClientRequest = client.requestAbs(method, url);
+
+        // Vert.x HttpClientRequest timeout doesn't aware of case when a part of the response body is received,
+        // but remaining part is delayed. So, overall request/response timeout is involved to fix it.
+        final long timerId = vertx.setTimer(timeoutMs, id -> handleTimeout(future, timeoutMs, httpClientRequest));
+
+        httpClientRequest
+                .setFollowRedirects(true)
+                .handler(response -> handleResponse(destination, response, future, timerId, httpClientRequest))
+                .exceptionHandler(exception -> failResponse(exception, future, timerId));
+
+        if (headers != null) {
+            httpClientRequest.headers().addAll(headers);
+        }
+
+        final Buffer compressedBody = destination != null ? compressBody(destination, body) : null;
+        if (compressedBody != null) {
+            httpClientRequest.putHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        final Buffer bodyBuffer = compressedBody == null && connectionHandler != null && body != null
+                ? Buffer.buffer(body)
+                : compressedBody;
+        if (connectionHandler != null) {
+            if (bodyBuffer != null) {
+                // head is sent before body, so its length should be known in advance
+                httpClientRequest.putHeader(HttpHeaders.CONTENT_LENGTH, String.valueOf(bodyBuffer.length()));
             }
+            httpClientRequest.sendHead(connectionHandler);
         }
 
-        return future;
+        if (bodyBuffer != null) {
+            httpClientRequest.end(bodyBuffer);
+        } else if (body != null) {
+            httpClientRequest.end(body);
+        } else {
+            httpClientRequest.end();
+        }
+    }
+
+    /**
+     * Returns gzipped request body if destination requires it and body is big enough, otherwise null.
+     */
+    private Buffer compressBody(Destination destination, String body) {
+        final HttpCompressionPolicy compression = destination.policy.getCompression();
+        if (compression == null || body == null) {
+            return null;
+        }
+
+        final int size = ByteBufUtil.utf8Bytes(body);
+        if (size < compression.getMinSizeBytes()) {
+            return null;
+        }
+
+        final long startTime = System.nanoTime();
+        final Buffer compressedBody = GzipCompressor.compress(body);
+        metrics.updateAdapterRequestCompressionMetrics(destination.policy.getName(), size, compressedBody.length(),
+                System.nanoTime() - startTime);
+        return compressedBody;
     }
 
     private void handleTimeout(Future<HttpClientResponse> future, long timeoutMs, HttpClientRequest httpClientRequest) {
@@ -70,14 +309,60 @@ public class BasicHttpClient implements HttpClient {
         }
     }
 
-    private void handleResponse(io.vertx.core.http.HttpClientResponse response,
-                                Future<HttpClientResponse> future, long timerId) {
+    private void handleResponse(Destination destination, io.vertx.core.http.HttpClientResponse response,
+                                Future<HttpClientResponse> future, long timerId,
+                                HttpClientRequest httpClientRequest) {
+        final HttpResponseLimitPolicy responseLimit = destination != null
+                ? destination.policy.getResponseLimit()
+                : null;
+        if (responseLimit != null) {
+            handleLimitedResponse(destination.policy.getName(), responseLimit.getMaxSizeBytes(), response, future,
+                    timerId, httpClientRequest);
+        } else {
+            response
+                    .bodyHandler(buffer -> successResponse(buffer, response, future, timerId))
+                    .exceptionHandler(exception -> failResponse(exception, future, timerId));
+        }
+    }
+
+    /**
+     * Receives response body chunk by chunk and aborts the request as soon as body exceeds given size, so it's not
+     * buffered entirely. Content-Length header (if present) is checked before any chunk is received.
+     */
+    private void handleLimitedResponse(String name, int maxSizeBytes, io.vertx.core.http.HttpClientResponse response,
+                                       Future<HttpClientResponse> future, long timerId,
+                                       HttpClientRequest httpClientRequest) {
+        final long contentLength = NumberUtils.toLong(response.getHeader(HttpHeaders.CONTENT_LENGTH), -1L);
+        if (contentLength > maxSizeBytes) {
+            abortResponse(name, maxSizeBytes, future, timerId, httpClientRequest);
+            return;
+        }
+
+        final LimitedBody body = new LimitedBody(maxSizeBytes);
         response
-                .bodyHandler(buffer -> successResponse(buffer.toString(), response, future, timerId))
+                .handler(chunk -> {
+                    if (!body.append(chunk) && !future.isComplete()) {
+                        abortResponse(name, maxSizeBytes, future, timerId, httpClientRequest);
+                    }
+                })
+                .endHandler(ignored -> {
+                    if (body.buffer != null) {
+                        successResponse(body.buffer, response, future, timerId);
+                    }
+                })
                 .exceptionHandler(exception -> failResponse(exception, future, timerId));
     }
 
-    private void successResponse(String body, io.vertx.core.http.HttpClientResponse response,
+    private void abortResponse(String name, int maxSizeBytes, Future<HttpClientResponse> future, long timerId,
+                               HttpClientRequest httpClientRequest) {
+        failResponse(new ResponseTooLargeException(
+                String.format("Response size from %s exceeded %d bytes", name, maxSizeBytes)), future, timerId);
+
+        // closes connection (or stream in case of HTTP/2), so the rest of response is not received
+        httpClientRequest.reset();
+    }
+
+    private void successResponse(Buffer body, io.vertx.core.http.HttpClientResponse response,
                                  Future<HttpClientResponse> future, long timerId) {
         vertx.cancelTimer(timerId);
 
@@ -95,4 +380,48 @@ public class BasicHttpClient implements HttpClient {
 
         future.tryFail(exception);
     }
+
+    /**
+     * Accumulates response body until it exceeds maximum size, after that received chunks are released.
+     */
+    private static class LimitedBody {
+
+        private final int maxSizeBytes;
+        private Buffer buffer = Buffer.buffer();
+
+        LimitedBody(int maxSizeBytes) {
+            this.maxSizeBytes = maxSizeBytes;
+        }
+
+        /**
+         * Appends given chunk to the body. Returns false if body exceeded maximum size.
+         */
+        boolean append(Buffer chunk) {
+            if (buffer == null) {
+                return false;
+            }
+            if (buffer.length() + chunk.length() > maxSizeBytes) {
+                buffer = null;
+                return false;
+            }
+            buffer.appendBuffer(chunk);
+            return true;
+        }
+    }
+
+    /**
+     * Holds destination connection pool and its state.
+     */
+    private static class Destination {
+
+        private final HttpDestinationPolicy policy;
+        private final io.vertx.core.http.HttpClient httpClient;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        Destination(HttpDestinationPolicy policy, io.vertx.core.http.HttpClient httpClient) {
+            this.policy = policy;
+            this.httpClient = httpClient;
+        }
+    }
 }
@@ -2,81 +2,148 @@ package org.prebid.server.vertx.http;
 
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
-import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
-import org.prebid.server.exception.PreBidException;
 import org.prebid.server.metric.Metrics;
-import org.prebid.server.vertx.CircuitBreaker;
+import org.prebid.server.util.HttpUtil;
+import org.prebid.server.vertx.SlidingWindowCircuitBreaker;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
 
-import java.net.MalformedURLException;
-import java.net.URL;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
 /**
  * Wrapper over {@link HttpClient} with circuit breaker functionality.
+ * <p>
+ * Circuit breakers are created in advance for known endpoints (e.g. bidders) and resolved by endpoint name given
+ * with request, or by exact URL of known endpoint for unnamed requests, so URL is not parsed per request. Known
+ * endpoints sharing the same URL (scheme, host, port and path) share circuit breaker named after all of them.
+ * Requests to all other endpoints share single fallback circuit breaker.
  */
 public class CircuitBreakerSecuredHttpClient implements HttpClient {
 
     private static final Logger logger = LoggerFactory.getLogger(CircuitBreakerSecuredHttpClient.class);
 
-    private final Function<String, CircuitBreaker> circuitBreakerCreator;
-    private final Map<String, CircuitBreaker> circuitBreakerByName = new ConcurrentHashMap<>();
+    private static final int PERCENT = 100;
+    private static final String FALLBACK_NAME = "unknown";
 
     private final HttpClient httpClient;
     private final Metrics metrics;
+    private final Supplier<SlidingWindowCircuitBreaker> circuitBreakerCreator;
 
-    public CircuitBreakerSecuredHttpClient(Vertx vertx, HttpClient httpClient, Metrics metrics,
-                                           int openingThreshold, long openingIntervalMs, long closingIntervalMs) {
-        circuitBreakerCreator = name -> new CircuitBreaker("http-client-circuit-breaker-" + name,
-                Objects.requireNonNull(vertx), openingThreshold, openingIntervalMs, closingIntervalMs)
-                .openHandler(ignored -> circuitOpened(name))
-                .halfOpenHandler(ignored -> circuitHalfOpened(name))
-                .closeHandler(ignored -> circuitClosed(name));
+    private final Map<String, NamedCircuitBreaker> circuitBreakerByName = new HashMap<>();
+    private final Map<String, NamedCircuitBreaker> circuitBreakerByUrl = new HashMap<>();
+    private final NamedCircuitBreaker fallbackCircuitBreaker;
 
+    /**
+     * Creates client with circuit breakers for given endpoints, where the key is a name (used in logs and metrics)
+     * and the value is an endpoint URL.
+     */
+    public CircuitBreakerSecuredHttpClient(HttpClient httpClient, Metrics metrics, Map<String, String> endpoints,
+                                           Supplier<SlidingWindowCircuitBreaker> circuitBreakerCreator) {
         this.httpClient = Objects.requireNonNull(httpClient);
         this.metrics = Objects.requireNonNull(metrics);
+        this.circuitBreakerCreator = Objects.requireNonNull(circuitBreakerCreator);
+
+        createCircuitBreakers(Objects.requireNonNull(endpoints));
+        fallbackCircuitBreaker = createCircuitBreaker(FALLBACK_NAME);
 
         logger.info("Initialized HTTP client with Circuit Breaker");
     }
 
+    private void createCircuitBreakers(Map<String, String> endpoints) {
+        final Map<String, Set<String>> namesByEndpoint = new HashMap<>();
+        for (Map.Entry<String, String> nameToEndpoint : endpoints.entrySet()) {
+            final String endpoint = HttpUtil.endpointKey(nameToEndpoint.getValue());
+            if (endpoint != null) {
+                namesByEndpoint.computeIfAbsent(endpoint, ignored -> new TreeSet<>()).add(nameToEndpoint.getKey());
+            }
+        }
+
+        final Map<String, NamedCircuitBreaker> circuitBreakerByEndpoint = new HashMap<>();
+        namesByEndpoint.forEach((endpoint, names) ->
+                circuitBreakerByEndpoint.put(endpoint, createCircuitBreaker(String.join(",", names))));
+
+        for (Map.Entry<String, String> nameToEndpoint : endpoints.entrySet()) {
+            final NamedCircuitBreaker namedBreaker =
+                    circuitBreakerByEndpoint.get(HttpUtil.endpointKey(nameToEndpoint.getValue()));
+            if (namedBreaker != null) {
+                circuitBreakerByName.put(nameToEndpoint.getKey(), namedBreaker);
+                circuitBreakerByUrl.put(nameToEndpoint.getValue(), namedBreaker);
+            }
+        }
+    }
+
+    private NamedCircuitBreaker createCircuitBreaker(String name) {
+        final SlidingWindowCircuitBreaker breaker = circuitBreakerCreator.get()
+                .openHandler(ignored -> circuitOpened(name))
+                .halfOpenHandler(ignored -> circuitHalfOpened(name))
+                .closeHandler(ignored -> circuitClosed(name));
+        return new NamedCircuitBreaker(name, breaker);
+    }
+
     private void circuitOpened(String name) {
         logger.warn("Http client request to {0} is failed, circuit opened.", name);
-        metrics.updateHttpClientCircuitBreakerMetric(true);
+        metrics.updateHttpClientCircuitBreakerMetric(name, true);
     }
 
     private void circuitHalfOpened(String name) {
         logger.warn("Http client request to {0} will try again, circuit half-opened.", name);
+        metrics.updateHttpClientCircuitBreakerHalfOpenedMetric(name);
     }
 
     private void circuitClosed(String name) {
         logger.warn("Http client request to {0} becomes succeeded, circuit closed.", name);
-        metrics.updateHttpClientCircuitBreakerMetric(false);
+        metrics.updateHttpClientCircuitBreakerMetric(name, false);
     }
 
     @Override
     public Future<HttpClientResponse> request(HttpMethod method, String url, MultiMap headers, String body,
                                               long timeoutMs) {
-        return circuitBreakerByName.computeIfAbsent(nameFrom(url), circuitBreakerCreator)
-                .execute(future -> httpClient.request(method, url, headers, body, timeoutMs).setHandler(future));
+        return request(circuitBreakerByUrl.getOrDefault(url, fallbackCircuitBreaker), method, url, headers, body,
+                timeoutMs);
+    }
+
+    @Override
+    public Future<HttpClientResponse> request(String endpointName, HttpMethod method, String url, MultiMap headers,
+                                              String body, long timeoutMs) {
+        final NamedCircuitBreaker namedBreaker = circuitBreakerByName.get(endpointName);
+        return namedBreaker != null
+                ? request(namedBreaker, method, url, headers, body, timeoutMs)
+                : request(method, url, headers, body, timeoutMs);
     }
 
-    private static String nameFrom(String urlAsString) {
-        final URL url = parseUrl(urlAsString);
-        return url.getProtocol() + "://" + url.getHost()
-                + (url.getPort() != -1 ? ":" + url.getPort() : "") + url.getPath();
+    private Future<HttpClientResponse> request(NamedCircuitBreaker namedBreaker, HttpMethod method, String url,
+                                               MultiMap headers, String body, long timeoutMs) {
+        return namedBreaker.breaker.execute(future -> httpClient.request(method, url, headers, body, timeoutMs)
+                .setHandler(result -> {
+                    future.handle(result);
+                    updateWindowMetrics(namedBreaker);
+                }));
     }
 
-    private static URL parseUrl(String url) {
-        try {
-            return new URL(url);
-        } catch (MalformedURLException e) {
-            throw new PreBidException(String.format("Invalid url: %s", url), e);
+    private void updateWindowMetrics(NamedCircuitBreaker namedBreaker) {
+        final SlidingWindowCircuitBreaker breaker = namedBreaker.breaker;
+        if (!breaker.isOpen()) {
+            metrics.updateHttpClientCircuitBreakerWindowMetrics(namedBreaker.name,
+                    (int) Math.round(breaker.failureRate() * PERCENT),
+                    (int) Math.round(breaker.slowCallRate() * PERCENT));
+        }
+    }
+
+    private static class NamedCircuitBreaker {
+
+        private final String name;
+        private final SlidingWindowCircuitBreaker breaker;
+
+        NamedCircuitBreaker(String name, SlidingWindowCircuitBreaker breaker) {
+            this.name = name;
+            this.breaker = breaker;
         }
     }
 }
@@ -0,0 +1,53 @@
+package org.prebid.server.vertx.http;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import org.prebid.server.exception.PreBidException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses strings with gzip.
+ * <p>
+ * Encoded string and compressed output are kept in pooled buffers, only the final compressed bytes are copied
+ * to the resulting {@link Buffer}, so compression doesn't produce intermediate garbage proportional to input size.
+ */
+public final class GzipCompressor {
+
+    private static final ByteBufAllocator ALLOCATOR = PooledByteBufAllocator.DEFAULT;
+
+    private static final int GZIP_BUFFER_SIZE = 8192;
+
+    private GzipCompressor() {
+    }
+
+    /**
+     * Compresses UTF-8 representation of given string with gzip.
+     */
+    public static Buffer compress(String value) {
+        final ByteBuf source = ALLOCATOR.heapBuffer(ByteBufUtil.utf8Bytes(value));
+        final ByteBuf target = ALLOCATOR.heapBuffer(GZIP_BUFFER_SIZE);
+        try {
+            ByteBufUtil.writeUtf8(source, value);
+
+            try (OutputStream gzip = new GZIPOutputStream(new ByteBufOutputStream(target), GZIP_BUFFER_SIZE)) {
+                source.readBytes(gzip, source.readableBytes());
+            }
+
+            final byte[] compressed = new byte[target.readableBytes()];
+            target.readBytes(compressed);
+            return Buffer.buffer(compressed);
+        } catch (IOException e) {
+            throw new PreBidException(String.format("Failed to compress: %s", e.getMessage()), e);
+        } finally {
+            source.release();
+            target.release();
+        }
+    }
+}
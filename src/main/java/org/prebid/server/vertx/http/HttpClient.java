@@ -12,6 +12,15 @@ public interface HttpClient {
 
     Future<HttpClientResponse> request(HttpMethod method, String url, MultiMap headers, String body, long timeoutMs);
 
+    /**
+     * Makes request to endpoint known by the given name (e.g. bidder), so implementations keeping state per endpoint
+     * can resolve it by name rather than by URL.
+     */
+    default Future<HttpClientResponse> request(String endpointName, HttpMethod method, String url, MultiMap headers,
+                                               String body, long timeoutMs) {
+        return request(method, url, headers, body, timeoutMs);
+    }
+
     default Future<HttpClientResponse> get(String url, MultiMap headers, long timeoutMs) {
         return request(HttpMethod.GET, url, headers, null, timeoutMs);
     }
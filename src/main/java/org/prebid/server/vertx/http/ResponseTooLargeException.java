@@ -0,0 +1,12 @@
+package org.prebid.server.vertx.http;
+
+/**
+ * Signals that HTTP response body exceeded maximum size allowed for destination and response was aborted.
+ */
+@SuppressWarnings("serial")
+public class ResponseTooLargeException extends RuntimeException {
+
+    public ResponseTooLargeException(String message) {
+        super(message);
+    }
+}
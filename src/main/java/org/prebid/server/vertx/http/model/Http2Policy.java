@@ -0,0 +1,32 @@
+package org.prebid.server.vertx.http.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines how HTTP/2 connections to particular destination are used.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class Http2Policy {
+
+    /**
+     * Maximum number of concurrent requests (streams) multiplexed over single connection.
+     */
+    int maxConcurrentStreams;
+
+    /**
+     * Maximum number of HTTP/2 connections to destination.
+     */
+    int maxConnections;
+
+    /**
+     * Period in milliseconds between PING frames checking connection liveness, 0 disables pinging.
+     */
+    long pingIntervalMs;
+
+    /**
+     * Period in milliseconds to wait for PING acknowledgement before connection is closed.
+     */
+    long pingTimeoutMs;
+}
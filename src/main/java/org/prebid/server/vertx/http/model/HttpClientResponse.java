@@ -1,6 +1,7 @@
 package org.prebid.server.vertx.http.model;
 
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import lombok.AllArgsConstructor;
 import lombok.Value;
 
@@ -8,6 +9,9 @@ import lombok.Value;
  * Holds Http client response data.
  * <p>
  * Should be created in "bodyHandler(...) after response has been read."
+ * <p>
+ * Body is kept as raw bytes, so it can be decoded from {@link #getBodyBuffer()} without intermediate
+ * {@link String}, {@link #getBody()} is left for callers which need text.
  */
 @AllArgsConstructor(staticName = "of")
 @Value
@@ -17,5 +21,17 @@ public class HttpClientResponse {
 
     MultiMap headers;
 
-    String body;
+    Buffer bodyBuffer;
+
+    public static HttpClientResponse of(int statusCode, MultiMap headers, String body) {
+        return of(statusCode, headers, body != null ? Buffer.buffer(body) : null);
+    }
+
+    /**
+     * Returns body decoded to {@link String}. Decodes raw bytes on each call, so {@link #getBodyBuffer()} should be
+     * preferred whenever possible.
+     */
+    public String getBody() {
+        return bodyBuffer != null ? bodyBuffer.toString() : null;
+    }
 }
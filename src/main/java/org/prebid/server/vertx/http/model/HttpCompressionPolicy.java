@@ -0,0 +1,17 @@
+package org.prebid.server.vertx.http.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines when HTTP request body sent to particular destination is compressed with gzip.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class HttpCompressionPolicy {
+
+    /**
+     * Minimum size of request body in bytes to be compressed, smaller bodies are sent as is.
+     */
+    int minSizeBytes;
+}
@@ -0,0 +1,43 @@
+package org.prebid.server.vertx.http.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines how HTTP requests to particular destination are made, i.e. through isolated connection pool (bulkhead),
+ * using HTTP/2, with compressed body and/or limited response size.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class HttpDestinationPolicy {
+
+    /**
+     * Destination name, used in metrics (e.g. bidder name).
+     */
+    String name;
+
+    /**
+     * Endpoint which host and port identify the destination.
+     */
+    String endpoint;
+
+    /**
+     * Isolated connection pool policy, null if pool settings are the same as for other destinations.
+     */
+    HttpPoolPolicy pool;
+
+    /**
+     * HTTP/2 policy, null if destination is requested over HTTP/1.1.
+     */
+    Http2Policy http2;
+
+    /**
+     * Request body compression policy, null if request body is sent as is.
+     */
+    HttpCompressionPolicy compression;
+
+    /**
+     * Response size limit policy, null if response size is not limited.
+     */
+    HttpResponseLimitPolicy responseLimit;
+}
@@ -0,0 +1,33 @@
+package org.prebid.server.vertx.http.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines isolated connection pool (bulkhead) used for HTTP requests to particular destination.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class HttpPoolPolicy {
+
+    /**
+     * Maximum number of connections to destination.
+     */
+    int maxPoolSize;
+
+    /**
+     * Maximum number of requests waiting for connection, requests above this limit fail immediately.
+     */
+    int maxWaitQueueSize;
+
+    /**
+     * Period in seconds after which idle connection is closed.
+     */
+    int idleTimeoutSeconds;
+
+    /**
+     * Maximum number of requests to destination being processed at the same time, requests above this limit
+     * fail immediately.
+     */
+    int maxInFlightRequests;
+}
@@ -0,0 +1,17 @@
+package org.prebid.server.vertx.http.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Defines maximum size of HTTP response body received from particular destination.
+ */
+@AllArgsConstructor(staticName = "of")
+@Value
+public class HttpResponseLimitPolicy {
+
+    /**
+     * Maximum size of response body in bytes, response is aborted as soon as it's exceeded.
+     */
+    int maxSizeBytes;
+}
@@ -9,10 +9,13 @@ import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.jdbc.JDBCClient;
 import io.vertx.ext.sql.ResultSet;
 import io.vertx.ext.sql.SQLConnection;
+import io.vertx.ext.sql.SQLOptions;
+import io.vertx.ext.sql.SQLRowStream;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.metric.Metrics;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.TimeoutException;
@@ -75,10 +78,32 @@ public class BasicJdbcClient implements JdbcClient {
         return queryResultFuture.map(mapper);
     }
 
+    @Override
+    public Future<Void> executeStreamQuery(String query, List<Object> params, int chunkSize,
+                                           Function<List<JsonArray>, Future<Void>> chunkHandler, Timeout timeout) {
+        final long remainingTimeout = timeout.remaining();
+        if (remainingTimeout <= 0) {
+            return Future.failedFuture(timeoutException());
+        }
+        final long startTime = clock.millis();
+        final Future<RowStreamReader> streamResultFuture = Future.future();
+
+        final long timerId = vertx.setTimer(remainingTimeout, id -> timedOutResult(streamResultFuture, startTime));
+
+        final Future<SQLConnection> connectionFuture = Future.future();
+        jdbcClient.getConnection(connectionFuture.completer());
+        connectionFuture
+                .recover(BasicJdbcClient::logConnectionError)
+                .compose(connection -> makeStreamQuery(connection, query, params, chunkSize))
+                .setHandler(result -> handleStreamResult(result, streamResultFuture, timerId, startTime));
+
+        return streamResultFuture.compose(reader -> reader.read(chunkHandler));
+    }
+
     /**
      * Fails result {@link Future} with timeout exception.
      */
-    private void timedOutResult(Future<ResultSet> queryResultFuture, long startTime) {
+    private void timedOutResult(Future<?> queryResultFuture, long startTime) {
         // no need for synchronization since timer is fired on the same event loop thread
         if (!queryResultFuture.isComplete()) {
             metrics.updateDatabaseQueryTimeMetric(clock.millis() - startTime);
@@ -104,6 +129,41 @@ public class BasicJdbcClient implements JdbcClient {
         return resultSetFuture;
     }
 
+    /**
+     * Opens stream of query result rows. Fetch size hints driver to not load all rows into memory at once.
+     */
+    private static Future<RowStreamReader> makeStreamQuery(SQLConnection connection, String query,
+                                                           List<Object> params, int chunkSize) {
+        final Future<RowStreamReader> readerFuture = Future.future();
+        connection.setOptions(new SQLOptions().setFetchSize(chunkSize));
+        connection.queryStreamWithParams(query, new JsonArray(params),
+                ar -> {
+                    if (ar.succeeded()) {
+                        readerFuture.complete(new RowStreamReader(connection, ar.result(), chunkSize));
+                    } else {
+                        connection.close();
+                        readerFuture.fail(ar.cause());
+                    }
+                });
+        return readerFuture;
+    }
+
+    /**
+     * Propagates opened result stream (or failure) to result {@link Future}.
+     */
+    private void handleStreamResult(AsyncResult<RowStreamReader> result, Future<RowStreamReader> streamResultFuture,
+                                    long timerId, long startTime) {
+        vertx.cancelTimer(timerId);
+
+        if (!streamResultFuture.isComplete()) {
+            metrics.updateDatabaseQueryTimeMetric(clock.millis() - startTime);
+            streamResultFuture.handle(result);
+        } else if (result.succeeded()) {
+            // stream was opened after timeout expired, nobody is going to read it
+            result.result().close();
+        }
+    }
+
     /**
      * Propagates responded {@link ResultSet} (or failure) to result {@link Future}.
      */
@@ -121,4 +181,77 @@ public class BasicJdbcClient implements JdbcClient {
     private static TimeoutException timeoutException() {
         return new TimeoutException("Timed out while executing SQL query");
     }
+
+    /**
+     * Reads rows from {@link SQLRowStream} by chunks, pausing the stream while chunk is being handled.
+     */
+    private static class RowStreamReader {
+
+        private final SQLConnection connection;
+        private final SQLRowStream stream;
+        private final int chunkSize;
+        private final Future<Void> result = Future.future();
+        private List<JsonArray> chunk;
+        private boolean paused;
+
+        RowStreamReader(SQLConnection connection, SQLRowStream stream, int chunkSize) {
+            this.connection = connection;
+            this.stream = stream;
+            this.chunkSize = chunkSize;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        Future<Void> read(Function<List<JsonArray>, Future<Void>> chunkHandler) {
+            stream
+                    .exceptionHandler(this::fail)
+                    .endHandler(ignored -> handleChunk(chunkHandler).setHandler(this::finish))
+                    .handler(row -> handleRow(row, chunkHandler));
+            return result;
+        }
+
+        private void handleRow(JsonArray row, Function<List<JsonArray>, Future<Void>> chunkHandler) {
+            chunk.add(row);
+            if (chunk.size() >= chunkSize && !paused) {
+                paused = true;
+                stream.pause();
+                handleChunk(chunkHandler).setHandler(chunkResult -> {
+                    if (chunkResult.succeeded()) {
+                        paused = false;
+                        stream.resume();
+                    } else {
+                        fail(chunkResult.cause());
+                    }
+                });
+            }
+        }
+
+        private Future<Void> handleChunk(Function<List<JsonArray>, Future<Void>> chunkHandler) {
+            if (chunk.isEmpty() || result.isComplete()) {
+                return Future.succeededFuture();
+            }
+
+            final List<JsonArray> rows = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            try {
+                return chunkHandler.apply(rows);
+            } catch (Exception e) {
+                return Future.failedFuture(e);
+            }
+        }
+
+        private void fail(Throwable exception) {
+            finish(Future.failedFuture(exception));
+        }
+
+        private void finish(AsyncResult<Void> asyncResult) {
+            if (!result.isComplete()) {
+                close();
+                result.handle(asyncResult);
+            }
+        }
+
+        void close() {
+            stream.close(ignored -> connection.close());
+        }
+    }
 }
@@ -2,6 +2,7 @@ package org.prebid.server.vertx.jdbc;
 
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.ext.sql.ResultSet;
@@ -58,4 +59,14 @@ public class CircuitBreakerSecuredJdbcClient implements JdbcClient {
                                       Timeout timeout) {
         return breaker.execute(future -> jdbcClient.executeQuery(query, params, mapper, timeout).setHandler(future));
     }
+
+    /**
+     * Stream query is not secured by circuit breaker since reading of big result can take longer than breaker allows
+     * for single operation. Such queries are expected to be rare (e.g. initial load of cache).
+     */
+    @Override
+    public Future<Void> executeStreamQuery(String query, List<Object> params, int chunkSize,
+                                           Function<List<JsonArray>, Future<Void>> chunkHandler, Timeout timeout) {
+        return jdbcClient.executeStreamQuery(query, params, chunkSize, chunkHandler, timeout);
+    }
 }
@@ -1,6 +1,7 @@
 package org.prebid.server.vertx.jdbc;
 
 import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
 import io.vertx.ext.sql.ResultSet;
 import org.prebid.server.execution.Timeout;
 
@@ -17,4 +18,13 @@ public interface JdbcClient {
      * object by provided mapper
      */
     <T> Future<T> executeQuery(String query, List<Object> params, Function<ResultSet, T> mapper, Timeout timeout);
+
+    /**
+     * Executes query with parameters and passes resulting rows to chunk handler by chunks of given size.
+     * Next rows are not read until {@link Future} returned by chunk handler is completed.
+     * <p>
+     * Timeout limits only the time of opening result stream, so reading of big result is not interrupted by it.
+     */
+    Future<Void> executeStreamQuery(String query, List<Object> params, int chunkSize,
+                                    Function<List<JsonArray>, Future<Void>> chunkHandler, Timeout timeout);
 }
@@ -21,6 +21,7 @@ import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.Answer;
 import org.prebid.server.VertxTest;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
 import org.prebid.server.proto.openrtb.ext.request.ExtGranularityRange;
@@ -84,7 +85,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(httpRequest.getParam("tag_id")).willReturn(null);
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         verifyZeroInteractions(storedRequestProcessor);
@@ -101,7 +102,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -118,7 +119,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -137,7 +138,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -153,7 +154,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -171,7 +172,7 @@ public class AmpRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -187,11 +188,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(builder -> builder.ext(extBidRequest),
                 Imp.builder().build());
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -214,11 +216,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequestWithExt(null, null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -244,11 +247,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithExt(
                 ExtRequestTargeting.of(mapper.createObjectNode().put("foo", "bar"), null, null, null), null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -272,11 +276,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithExt(
                 ExtRequestTargeting.of(mapper.createObjectNode().put("foo", "bar"), null, false, null), null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -295,11 +300,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithExt(
                 ExtRequestTargeting.of(null, null, false, null), null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -319,11 +325,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithExt(
                 ExtRequestTargeting.of(mapper.createObjectNode().put("foo", "bar"), null, null, false), null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -343,11 +350,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithExt(
                 ExtRequestTargeting.of(null, null, false, null), null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -369,16 +377,23 @@ public class AmpRequestFactoryTest extends VertxTest {
         return invocationOnMock -> invocationOnMock.getArguments()[0];
     }
 
+    private Answer<Object> answerWithAuctionContext() {
+        return invocationOnMock -> AuctionContext.builder()
+                .bidRequest((BidRequest) invocationOnMock.getArguments()[0])
+                .build();
+    }
+
     @Test
     public void shouldReturnBidRequestWithDefaultCachingIfStoredBidRequestExtHasNoCaching() {
         // given
         final BidRequest bidRequest = givenBidRequestWithExt(null, null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -397,11 +412,12 @@ public class AmpRequestFactoryTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequestWithExt(null, null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -435,11 +451,12 @@ public class AmpRequestFactoryTest extends VertxTest {
 
         final BidRequest bidRequest = givenBidRequestWithExt(null, null);
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -461,11 +478,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                 Imp.builder().build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -487,11 +505,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                 Imp.builder().build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -513,11 +532,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                 Imp.builder().build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.succeeded()).isTrue();
@@ -548,11 +568,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -583,11 +604,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -618,11 +640,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -652,11 +675,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -685,11 +709,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -715,11 +740,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -745,11 +771,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -777,11 +804,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -808,11 +836,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                         .build()))
                                 .build()).build());
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -840,11 +869,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -872,11 +902,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -904,11 +935,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -936,11 +968,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -972,11 +1005,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -1006,11 +1040,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                                 .build()).build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(singletonList(future.result()))
@@ -1032,11 +1067,12 @@ public class AmpRequestFactoryTest extends VertxTest {
                 Imp.builder().build());
 
         given(storedRequestProcessor.processAmpRequest(anyString())).willReturn(Future.succeededFuture(bidRequest));
-        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any())).willAnswer(answerWithFirstArgument());
+        given(auctionRequestFactory.fillImplicitParameters(any(), any(), any()))
+                .willAnswer(answerWithAuctionContext());
         given(auctionRequestFactory.validateRequest(any())).willAnswer(answerWithFirstArgument());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getTmax()).isEqualTo(1000L);
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import com.iab.openrtb.request.BidRequest;
 import com.iab.openrtb.request.Device;
 import com.iab.openrtb.request.Imp;
+import com.iab.openrtb.request.Regs;
 import com.iab.openrtb.request.Site;
 import com.iab.openrtb.request.User;
 import io.vertx.core.Future;
@@ -18,6 +19,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.prebid.server.VertxTest;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.exception.InvalidRequestException;
@@ -25,9 +27,11 @@ import org.prebid.server.exception.PreBidException;
 import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
 import org.prebid.server.proto.openrtb.ext.request.ExtGranularityRange;
 import org.prebid.server.proto.openrtb.ext.request.ExtPriceGranularity;
+import org.prebid.server.proto.openrtb.ext.request.ExtRegs;
 import org.prebid.server.proto.openrtb.ext.request.ExtRequestPrebid;
 import org.prebid.server.proto.openrtb.ext.request.ExtRequestTargeting;
 import org.prebid.server.proto.openrtb.ext.request.ExtSite;
+import org.prebid.server.proto.openrtb.ext.request.ExtUser;
 import org.prebid.server.validation.RequestValidator;
 import org.prebid.server.validation.model.ValidationResult;
 
@@ -35,9 +39,11 @@ import java.math.BigDecimal;
 import java.util.Map;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -84,7 +90,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(routingContext.getBody()).willReturn(null);
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -102,7 +108,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(routingContext.getBody()).willReturn(Buffer.buffer("body"));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -117,7 +123,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(routingContext.getBody()).willReturn(Buffer.buffer("body"));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -135,7 +141,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(uidsCookieService.parseHostCookie(any())).willReturn("userId");
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getSite()).isEqualTo(Site.builder()
@@ -155,7 +161,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(paramsExtractor.secureFrom(any())).willReturn(1);
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getImp()).extracting(Imp::getSecure).containsOnly(1);
@@ -168,7 +174,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(paramsExtractor.secureFrom(any())).willReturn(1);
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getImp()).extracting(Imp::getSecure).containsOnly(0);
@@ -182,7 +188,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(paramsExtractor.secureFrom(any())).willReturn(1);
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getImp()).extracting(Imp::getSecure).containsOnly(1, 0);
@@ -195,7 +201,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(paramsExtractor.secureFrom(any())).willReturn(0);
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getImp()).extracting(Imp::getSecure).containsNull();
@@ -220,7 +226,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(uidsCookieService.parseHostCookie(any())).willReturn("userId");
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest).isSameAs(bidRequest);
@@ -232,7 +238,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenValidBidRequest();
 
         // when
-        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result();
+        final BidRequest populatedBidRequest = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(populatedBidRequest.getSite())
@@ -248,7 +254,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getSite()).isEqualTo(
@@ -265,7 +271,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(paramsExtractor.domainFrom(anyString())).willThrow(new PreBidException("Couldn't derive domain"));
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getSite()).isEqualTo(
@@ -281,7 +287,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenImplicitParams("http://anotherexample.com", "anotherexample.com", "192.168.244.2", "UnitTest2");
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getSite()).isEqualTo(
@@ -299,7 +305,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenImplicitParams("http://anotherexample.com", "anotherexample.com", "192.168.244.2", "UnitTest2");
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getSite()).isEqualTo(
@@ -315,7 +321,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getSite()).isEqualTo(
@@ -331,7 +337,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(uidsCookieService.parseHostCookie(any())).willReturn(null);
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getUser()).isNull();
@@ -343,7 +349,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenBidRequest(BidRequest.builder().at(0).build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getAt()).isEqualTo(1);
@@ -355,7 +361,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenBidRequest(BidRequest.builder().at(null).build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getAt()).isEqualTo(1);
@@ -367,7 +373,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenBidRequest(BidRequest.builder().cur(null).build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getCur()).isEqualTo(singletonList("USD"));
@@ -379,7 +385,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         givenBidRequest(BidRequest.builder().build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
         assertThat(result.getTmax()).isEqualTo(2000L);
@@ -395,7 +401,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
 
@@ -420,7 +426,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -439,7 +445,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
 
@@ -465,7 +471,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
 
@@ -490,7 +496,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
                 .build());
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
 
@@ -528,7 +534,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(bidderCatalog.nameByAlias("configScopedBidderAlias")).willReturn("bidder2");
 
         // when
-        final BidRequest result = factory.fromRequest(routingContext).result();
+        final BidRequest result = factory.fromRequest(routingContext).result().getBidRequest();
 
         // then
 
@@ -553,10 +559,11 @@ public class AuctionRequestFactoryTest extends VertxTest {
         given(storedRequestProcessor.processStoredRequests(any())).willReturn(Future.succeededFuture(
                 BidRequest.builder().build()));
 
-        given(requestValidator.validate(any())).willReturn(new ValidationResult(asList("error1", "error2")));
+        given(requestValidator.validate(any(AuctionContext.class)))
+                .willReturn(new ValidationResult(asList("error1", "error2")));
 
         // when
-        final Future<BidRequest> future = factory.fromRequest(routingContext);
+        final Future<BidRequest> future = factory.fromRequest(routingContext).map(AuctionContext::getBidRequest);
 
         // then
         assertThat(future.failed()).isTrue();
@@ -564,6 +571,77 @@ public class AuctionRequestFactoryTest extends VertxTest {
         assertThat(((InvalidRequestException) future.cause()).getMessages()).containsOnly("error1", "error2");
     }
 
+    @Test
+    public void shouldReturnAuctionContextWithDecodedExtensions() {
+        // given
+        givenBidRequest(BidRequest.builder()
+                .imp(emptyList())
+                .ext(mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(singletonMap("alias", "bidder"),
+                        null, null, null, null))))
+                .user(User.builder().ext(mapper.valueToTree(ExtUser.of(null, "consent", null, null))).build())
+                .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1))))
+                .build());
+
+        // when
+        final AuctionContext auctionContext = factory.fromRequest(routingContext).result();
+
+        // then
+        assertThat(auctionContext.getExtBidRequest().getPrebid().getAliases()).containsOnly(entry("alias", "bidder"));
+        assertThat(auctionContext.getExtUser().getConsent()).isEqualTo("consent");
+        assertThat(auctionContext.getExtRegs().getGdpr()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnFailedFutureIfExtCouldNotBeParsed() {
+        // given
+        givenBidRequest(BidRequest.builder()
+                .ext((ObjectNode) mapper.createObjectNode().set("prebid", new TextNode("invalid")))
+                .build());
+
+        // when
+        final Future<AuctionContext> future = factory.fromRequest(routingContext);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(InvalidRequestException.class);
+        assertThat(((InvalidRequestException) future.cause()).getMessages()).hasSize(1)
+                .element(0).asString().startsWith("Error decoding bidRequest.ext:");
+    }
+
+    @Test
+    public void shouldReturnFailedFutureIfUserExtCouldNotBeParsed() {
+        // given
+        givenBidRequest(BidRequest.builder()
+                .user(User.builder().ext(mapper.createObjectNode().put("tpid", "invalid")).build())
+                .build());
+
+        // when
+        final Future<AuctionContext> future = factory.fromRequest(routingContext);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(InvalidRequestException.class);
+        assertThat(((InvalidRequestException) future.cause()).getMessages()).hasSize(1)
+                .element(0).asString().startsWith("request.user.ext object is not valid:");
+    }
+
+    @Test
+    public void shouldReturnFailedFutureIfRegsExtCouldNotBeParsed() {
+        // given
+        givenBidRequest(BidRequest.builder()
+                .regs(Regs.of(null, mapper.createObjectNode().put("gdpr", "invalid")))
+                .build());
+
+        // when
+        final Future<AuctionContext> future = factory.fromRequest(routingContext);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(InvalidRequestException.class);
+        assertThat(((InvalidRequestException) future.cause()).getMessages()).hasSize(1)
+                .element(0).asString().startsWith("request.regs.ext is invalid:");
+    }
+
     private void givenImplicitParams(String referer, String domain, String ip, String ua) {
         given(paramsExtractor.refererFrom(any())).willReturn(referer);
         given(paramsExtractor.domainFrom(anyString())).willReturn(domain);
@@ -576,7 +654,7 @@ public class AuctionRequestFactoryTest extends VertxTest {
 
         given(storedRequestProcessor.processStoredRequests(any())).willReturn(Future.succeededFuture(bidRequest));
 
-        given(requestValidator.validate(any())).willReturn(ValidationResult.success());
+        given(requestValidator.validate(any(AuctionContext.class))).willReturn(ValidationResult.success());
     }
 
     private void givenValidBidRequest() {
@@ -0,0 +1,228 @@
+package org.prebid.server.auction;
+
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.execution.Timeout;
+import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.Metrics;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BidderTimeoutPlannerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Metrics metrics;
+
+    private Timeout timeout;
+
+    private BidderTimeoutPlanner bidderTimeoutPlanner;
+
+    @Before
+    public void setUp() {
+        timeout = new TimeoutFactory(Clock.fixed(Instant.now(), ZoneId.systemDefault())).create(500);
+
+        bidderTimeoutPlanner = new BidderTimeoutPlanner(true, 0.99, 0, 3, 60, false, 100, 1000, vertx, metrics);
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidPercentile() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new BidderTimeoutPlanner(true, 1.5, 0, 3, 60, false, 100, 1000, vertx, metrics));
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidExplorationRate() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new BidderTimeoutPlanner(true, 0.99, 1.5, 3, 60, false, 100, 1000, vertx, metrics));
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositiveMinSamples() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new BidderTimeoutPlanner(true, 0.99, 0, 0, 60, false, 100, 1000, vertx, metrics));
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositiveMaxEntries() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new BidderTimeoutPlanner(true, 0.99, 0, 3, 60, false, 0, 1000, vertx, metrics));
+    }
+
+    @Test
+    public void initializeShouldSetPeriodicRefresh() {
+        // when
+        bidderTimeoutPlanner.initialize();
+
+        // then
+        verify(vertx).setPeriodic(eq(1000L), any());
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutIfResponseTimesWereNotRefreshedYet() {
+        // given
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 100, false);
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 150, false);
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 200, false);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutIfNoResponseTimesRecorded() {
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutIfNotEnoughResponseTimesRecorded() {
+        // given
+        givenResponseTimes("bidder", "accountId", 100, 100);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutIfDisabled() {
+        // given
+        bidderTimeoutPlanner = BidderTimeoutPlanner.disabled(vertx, metrics);
+        givenResponseTimes("bidder", "accountId", 100, 100, 100);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    @Test
+    public void planShouldReturnTimeoutLimitedByResponseTimePercentile() {
+        // given
+        givenResponseTimes("bidder", "accountId", 100, 150, 200);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result.remaining()).isEqualTo(200);
+        verify(metrics).updateAdapterTimeoutCutMetric(eq("bidder"), eq(300L));
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutForExplorationCalls() {
+        // given
+        bidderTimeoutPlanner = new BidderTimeoutPlanner(true, 0.99, 1, 3, 60, false, 100, 1000, vertx, metrics);
+        givenResponseTimes("bidder", "accountId", 100, 150, 200);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+        verify(metrics, never()).updateAdapterTimeoutCutMetric(anyString(), anyLong());
+    }
+
+    @Test
+    public void planShouldIgnoreResponseTimesOfCallsWithLimitedTimeout() {
+        // given
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 100, true);
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 150, true);
+        bidderTimeoutPlanner.recordResponseTime("bidder", "accountId", 200, true);
+        bidderTimeoutPlanner.refresh();
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    @Test
+    public void planShouldReturnSameTimeoutIfResponseTimePercentileExceedsRemainingTime() {
+        // given
+        givenResponseTimes("bidder", "accountId", 100, 150, 600);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+        verify(metrics, never()).updateAdapterTimeoutCutMetric(anyString(), anyLong());
+    }
+
+    @Test
+    public void planShouldReturnNullIfMedianResponseTimeExceedsRemainingTime() {
+        // given
+        givenResponseTimes("bidder", "accountId", 600, 700, 800);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId", timeout);
+
+        // then
+        assertThat(result).isNull();
+        verify(metrics).updateAdapterBidsForfeitedMetric(eq("bidder"));
+    }
+
+    @Test
+    public void planShouldUseResponseTimesOfBidderFromAnyAccountIfAccountLevelDisabled() {
+        // given
+        givenResponseTimes("bidder", "accountId1", 100, 150, 200);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId2", timeout);
+
+        // then
+        assertThat(result.remaining()).isEqualTo(200);
+    }
+
+    @Test
+    public void planShouldUseResponseTimesOfBidderForSameAccountOnlyIfAccountLevelEnabled() {
+        // given
+        bidderTimeoutPlanner = new BidderTimeoutPlanner(true, 0.99, 0, 3, 60, true, 100, 1000, vertx, metrics);
+        givenResponseTimes("bidder", "accountId1", 100, 150, 200);
+
+        // when
+        final Timeout result = bidderTimeoutPlanner.plan("bidder", "accountId2", timeout);
+
+        // then
+        assertThat(result).isSameAs(timeout);
+    }
+
+    private void givenResponseTimes(String bidder, String accountId, int... responseTimes) {
+        for (int responseTime : responseTimes) {
+            bidderTimeoutPlanner.recordResponseTime(bidder, accountId, responseTime, false);
+        }
+        bidderTimeoutPlanner.refresh();
+    }
+}
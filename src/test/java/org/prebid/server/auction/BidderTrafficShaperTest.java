@@ -0,0 +1,189 @@
+package org.prebid.server.auction;
+
+import com.iab.openrtb.request.Banner;
+import com.iab.openrtb.request.BidRequest;
+import com.iab.openrtb.request.Imp;
+import com.iab.openrtb.request.Video;
+import com.iab.openrtb.response.Bid;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.bidder.BidderCatalog;
+import org.prebid.server.bidder.model.BidderBid;
+import org.prebid.server.bidder.model.BidderError;
+import org.prebid.server.bidder.model.BidderSeatBid;
+import org.prebid.server.bidder.model.TrafficShapingRule;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.proto.openrtb.ext.response.BidType;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BidderTrafficShaperTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private BidderCatalog bidderCatalog;
+    @Mock
+    private Metrics metrics;
+    @Mock
+    private Clock clock;
+
+    private BidderTrafficShaper bidderTrafficShaper;
+
+    @Before
+    public void setUp() {
+        given(clock.millis()).willReturn(Instant.now().toEpochMilli());
+        given(bidderCatalog.trafficShapingRuleByName(anyString())).willReturn(TrafficShapingRule.of(0.1, 0, 3, 60));
+
+        bidderTrafficShaper = new BidderTrafficShaper(100, 3600, bidderCatalog, metrics, clock);
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositiveMaxEntries() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new BidderTrafficShaper(0, 3600, bidderCatalog, metrics, clock));
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfNoRuleConfiguredForBidder() {
+        // given
+        given(bidderCatalog.trafficShapingRuleByName(anyString())).willReturn(null);
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfNoStatisticsCollected() {
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfNotEnoughRequestsRecorded() {
+        // given
+        givenResults("bidder", "accountId", givenBannerRequest(), emptyList(), 2);
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnFalseAndUpdateMetricIfBidRateIsBelowMinimum() {
+        // given
+        givenResults("bidder", "accountId", givenBannerRequest(), emptyList(), 3);
+
+        // when
+        final boolean result = bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest());
+
+        // then
+        assertThat(result).isFalse();
+        verify(metrics).updateAdapterRequestSuppressedMetric("bidder");
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfBidRateIsAboveMinimum() {
+        // given
+        givenResults("bidder", "accountId", givenBannerRequest(), singletonList(BidType.banner), 3);
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueForOtherAccount() {
+        // given
+        givenResults("bidder", "accountId1", givenBannerRequest(), emptyList(), 3);
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId2", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfAnyOfRequestedMediaTypesIsNotLowYield() {
+        // given
+        givenResults("bidder", "accountId", givenBannerRequest(), emptyList(), 3);
+
+        final BidRequest bidRequest = BidRequest.builder()
+                .imp(asList(Imp.builder().banner(Banner.builder().build()).build(),
+                        Imp.builder().video(Video.builder().build()).build()))
+                .build();
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", bidRequest)).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfExplorationRateIsFull() {
+        // given
+        given(bidderCatalog.trafficShapingRuleByName(anyString())).willReturn(TrafficShapingRule.of(0.1, 1, 3, 60));
+        givenResults("bidder", "accountId", givenBannerRequest(), emptyList(), 3);
+
+        // when
+        final boolean result = bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest());
+
+        // then
+        assertThat(result).isTrue();
+        verify(metrics, never()).updateAdapterRequestSuppressedMetric(anyString());
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfOnlyResponsesWithErrorsWereRecorded() {
+        // given
+        final BidderSeatBid seatBid = BidderSeatBid.of(emptyList(), emptyList(),
+                singletonList(BidderError.timeout("Timeout")));
+        for (int i = 0; i < 3; i++) {
+            bidderTrafficShaper.recordResult("bidder", "accountId", givenBannerRequest(), seatBid);
+        }
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    @Test
+    public void shouldRequestShouldReturnTrueIfStatisticsDecayedBelowMinRequests() {
+        // given
+        final long now = Instant.now().toEpochMilli();
+        given(clock.millis()).willReturn(now, now, now, now + 60_000L);
+        givenResults("bidder", "accountId", givenBannerRequest(), emptyList(), 3);
+
+        // when and then
+        assertThat(bidderTrafficShaper.shouldRequest("bidder", "accountId", givenBannerRequest())).isTrue();
+    }
+
+    private void givenResults(String bidder, String accountId, BidRequest bidRequest, List<BidType> bidTypes,
+                              int times) {
+        final BidderSeatBid seatBid = BidderSeatBid.of(bidTypes.stream()
+                        .map(bidType -> BidderBid.of(Bid.builder().build(), bidType, null))
+                        .collect(Collectors.toList()),
+                emptyList(), emptyList());
+        for (int i = 0; i < times; i++) {
+            bidderTrafficShaper.recordResult(bidder, accountId, bidRequest, seatBid);
+        }
+    }
+
+    private static BidRequest givenBannerRequest() {
+        return BidRequest.builder()
+                .imp(singletonList(Imp.builder().banner(Banner.builder().build()).build()))
+                .build();
+    }
+}
@@ -31,6 +31,7 @@ import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.prebid.server.VertxTest;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.Bidder;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.bidder.HttpBidderRequester;
@@ -85,6 +86,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 
 import static java.math.BigDecimal.TEN;
@@ -100,6 +102,7 @@ import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.entry;
 import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
@@ -110,6 +113,7 @@ import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -135,6 +139,10 @@ public class ExchangeServiceTest extends VertxTest {
     @Mock
     private Usersyncer usersyncer;
     @Mock
+    private BidderTimeoutPlanner bidderTimeoutPlanner;
+    @Mock
+    private BidderTrafficShaper bidderTrafficShaper;
+    @Mock
     private Metrics metrics;
     @Mock
     private UidsCookie uidsCookie;
@@ -168,12 +176,16 @@ public class ExchangeServiceTest extends VertxTest {
 
         given(eventsService.isEventsEnabled(any(), any())).willReturn(Future.succeededFuture(false));
 
+        given(bidderTimeoutPlanner.plan(any(), any(), any())).willAnswer(inv -> inv.getArgument(2));
+        given(bidderTrafficShaper.shouldRequest(any(), any(), any())).willReturn(true);
+
         clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
         timeout = new TimeoutFactory(clock).create(500);
         metricsContext = MetricsContext.of(MetricName.openrtb2web);
 
         exchangeService = new ExchangeService(bidderCatalog, httpBidderRequester, responseBidValidator, cacheService,
-                bidResponsePostProcessor, currencyService, gdprService, eventsService, metrics, clock, false, 0);
+                bidResponsePostProcessor, currencyService, gdprService, eventsService, bidderTimeoutPlanner,
+                bidderTrafficShaper, metrics, clock, false, 0);
     }
 
     @Test
@@ -181,7 +193,7 @@ public class ExchangeServiceTest extends VertxTest {
         assertThatIllegalArgumentException().isThrownBy(
                 () -> new ExchangeService(bidderCatalog, httpBidderRequester, responseBidValidator, cacheService,
                         bidResponsePostProcessor, currencyService, gdprService,
-                        eventsService, metrics, clock, false, -1));
+                        eventsService, bidderTimeoutPlanner, bidderTrafficShaper, metrics, clock, false, -1));
     }
 
     @Test
@@ -191,7 +203,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         verifyZeroInteractions(bidderCatalog);
@@ -208,7 +220,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         verify(bidderCatalog).isValidName(eq("invalid"));
@@ -231,7 +243,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getExt()).isEqualTo(mapper.valueToTree(ExtBidResponse.of(null,
@@ -249,7 +261,7 @@ public class ExchangeServiceTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("someBidder", 1)));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final BidRequest capturedBidRequest = captureBidRequest();
@@ -271,7 +283,7 @@ public class ExchangeServiceTest extends VertxTest {
                 builder -> builder.id("requestId").tmax(500L));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final BidRequest capturedBidRequest = captureBidRequest();
@@ -302,18 +314,18 @@ public class ExchangeServiceTest extends VertxTest {
                 givenImp(singletonMap("bidder1", 3), identity())));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequest1Captor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder1), bidRequest1Captor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder1), any(), bidRequest1Captor.capture(), any());
         final BidRequest capturedBidRequest1 = bidRequest1Captor.getValue();
         assertThat(capturedBidRequest1.getImp()).hasSize(2)
                 .extracting(imp -> imp.getExt().get("bidder").asInt())
                 .containsOnly(1, 3);
 
         final ArgumentCaptor<BidRequest> bidRequest2Captor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder2), bidRequest2Captor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder2), any(), bidRequest2Captor.capture(), any());
         final BidRequest capturedBidRequest2 = bidRequest2Captor.getValue();
         assertThat(capturedBidRequest2.getImp()).hasSize(1)
                 .element(0).returns(2, imp -> imp.getExt().get("bidder").asInt());
@@ -350,11 +362,11 @@ public class ExchangeServiceTest extends VertxTest {
                                 .build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         final BidRequest capturedBidRequest = bidRequestCaptor.getValue();
         assertThat(capturedBidRequest.getUser()).isEqualTo(User.builder().buyeruid(null)
                 .ext(mapper.valueToTree(ExtUser.of(null, null, null, null)))
@@ -383,11 +395,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         final BidRequest capturedBidRequest = bidRequestCaptor.getValue();
         assertThat(capturedBidRequest.getUser()).isEqualTo(User.builder().buyeruid("uidval")
                 .ext(mapper.valueToTree(ExtUser.of(null, null, null, null))).build());
@@ -404,7 +416,7 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, null))); // no ext
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
@@ -442,11 +454,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         final BidRequest capturedBidRequest = bidRequestCaptor.getValue();
         assertThat(capturedBidRequest.getUser()).isEqualTo(User.builder().buyeruid("uidval")
                 .ext(mapper.valueToTree(ExtUser.of(null, null, null, null))).build());
@@ -478,11 +490,11 @@ public class ExchangeServiceTest extends VertxTest {
                                 singletonMap("bidderAlias", "someBidder"), null, null, null, null)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         final BidRequest capturedBidRequest = bidRequestCaptor.getValue();
         assertThat(capturedBidRequest.getUser()).isEqualTo(User.builder().buyeruid(null)
                 .ext(mapper.valueToTree(ExtUser.of(null, null, null, null))).build());
@@ -517,11 +529,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester, times(3)).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester, times(3)).requestBids(any(), any(), bidRequestCaptor.capture(), any());
         verify(metrics).updateGdprMaskedMetric(eq("bidder3"));
         assertThat(bidRequestCaptor.getAllValues())
                 .extracting(BidRequest::getUser)
@@ -543,11 +555,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(any(), any(), bidRequestCaptor.capture(), any());
 
         assertThat(bidRequestCaptor.getAllValues())
                 .extracting(BidRequest::getUser)
@@ -570,11 +582,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(any(), any(), bidRequestCaptor.capture(), any());
 
         assertThat(bidRequestCaptor.getAllValues())
                 .extracting(BidRequest::getUser)
@@ -595,11 +607,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .user(User.builder().buyeruid("to_be_masked").build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(any(), any(), bidRequestCaptor.capture(), any());
 
         assertThat(bidRequestCaptor.getAllValues())
                 .extracting(BidRequest::getUser)
@@ -607,6 +619,46 @@ public class ExchangeServiceTest extends VertxTest {
                 .containsNull();
     }
 
+    @Test
+    public void shouldShareMaskedPartsAcrossBidderRequestsAndUpdateAllocationMetric() {
+        // given
+        final Bidder<?> bidder1 = mock(Bidder.class);
+        final Bidder<?> bidder2 = mock(Bidder.class);
+        givenBidder("bidder1", bidder1, givenEmptySeatBid());
+        givenBidder("bidder2", bidder2, givenEmptySeatBid());
+        given(bidderCatalog.bidderInfoByName(anyString())).willReturn(givenBidderInfo(1, true));
+        given(gdprService.resultByVendor(any(), any(), any(), any(), any()))
+                .willReturn(Future.succeededFuture(GdprResponse.of(true, singletonMap(1, true), null)));
+
+        final BidRequest bidRequest = givenBidRequest(asList(
+                givenImp(doubleMap("bidder1", 1, "bidder2", 2), identity()),
+                givenImp(singletonMap("bidder1", 3), identity())),
+                bidRequestBuilder -> bidRequestBuilder
+                        .site(Site.builder().page("http://www.example.com").build())
+                        .device(Device.builder().ip("192.168.0.1").lmt(1).build())
+                        .user(User.builder().buyeruid("to_be_masked").build()));
+
+        // when
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
+
+        // then
+        final ArgumentCaptor<BidRequest> bidRequest1Captor = ArgumentCaptor.forClass(BidRequest.class);
+        verify(httpBidderRequester).requestBids(same(bidder1), any(), bidRequest1Captor.capture(), any());
+        final ArgumentCaptor<BidRequest> bidRequest2Captor = ArgumentCaptor.forClass(BidRequest.class);
+        verify(httpBidderRequester).requestBids(same(bidder2), any(), bidRequest2Captor.capture(), any());
+
+        final BidRequest capturedBidRequest1 = bidRequest1Captor.getValue();
+        final BidRequest capturedBidRequest2 = bidRequest2Captor.getValue();
+        assertThat(capturedBidRequest1.getSite()).isSameAs(bidRequest.getSite());
+        assertThat(capturedBidRequest1.getDevice()).isSameAs(capturedBidRequest2.getDevice())
+                .isNotSameAs(bidRequest.getDevice());
+        assertThat(capturedBidRequest1.getUser()).isSameAs(capturedBidRequest2.getUser());
+        assertThat(capturedBidRequest1.getRegs()).isSameAs(capturedBidRequest2.getRegs());
+
+        // 2 bid requests, 3 imps with extensions, masked user, device and regs
+        verify(metrics).updateBidderRequestsAllocationMetric(eq(11));
+    }
+
     @Test
     public void shouldNotApplyGdprMaskingIfDeviceLmtIsZero() {
         // given
@@ -620,11 +672,11 @@ public class ExchangeServiceTest extends VertxTest {
                         .user(User.builder().buyeruid("should_not_be_masked").build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(any(), any(), bidRequestCaptor.capture(), any());
 
         assertThat(bidRequestCaptor.getAllValues())
                 .extracting(BidRequest::getUser)
@@ -646,29 +698,13 @@ public class ExchangeServiceTest extends VertxTest {
                         .regs(Regs.of(null, mapper.valueToTree(ExtRegs.of(1)))));
 
         // when
-        final Future<?> result = exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        final Future<?> result = exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         assertThat(result.failed()).isTrue();
         assertThat(result.cause()).hasMessage("The gdpr param must be either 0 or 1, given: -1");
     }
 
-    @Test
-    public void shouldThrowPrebidExceptionIfExtRegsCannotBeParsed() {
-        // given
-        final Bidder<?> bidder = mock(Bidder.class);
-        givenBidder("someBidder", bidder, givenEmptySeatBid());
-
-        final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("someBidder", 1)),
-                bidRequestBuilder -> bidRequestBuilder
-                        .regs(Regs.of(null, mapper.createObjectNode().put("gdpr", "invalid"))));
-
-        // when and then
-        assertThatThrownBy(() -> exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null))
-                .isExactlyInstanceOf(PreBidException.class)
-                .hasMessageStartingWith("Error decoding bidRequest.regs.ext:");
-    }
-
     @Test
     public void shouldExtractRequestByAliasForCorrectBidder() {
         // given
@@ -681,16 +717,112 @@ public class ExchangeServiceTest extends VertxTest {
                         singletonMap("bidderAlias", "bidder"), null, null, null, null)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         assertThat(bidRequestCaptor.getValue().getImp()).hasSize(1)
                 .extracting(imp -> imp.getExt().get("bidder").asInt())
                 .contains(1);
     }
 
+    @Test
+    public void shouldRequestBidderWithTimeoutPlannedByBidderTimeoutPlanner() {
+        // given
+        final Bidder<?> bidder = mock(Bidder.class);
+        givenBidder("bidder", bidder, givenEmptySeatBid());
+
+        final Timeout plannedTimeout = timeout.minus(100);
+        given(bidderTimeoutPlanner.plan(any(), any(), any())).willReturn(plannedTimeout);
+
+        final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("bidder", 1)));
+
+        // when
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
+
+        // then
+        verify(bidderTimeoutPlanner).plan(eq("bidder"), eq(""), same(timeout));
+        verify(httpBidderRequester).requestBids(same(bidder), eq("bidder"), any(), same(plannedTimeout));
+        verify(bidderTimeoutPlanner).recordResponseTime(eq("bidder"), eq(""), anyInt(), eq(true));
+    }
+
+    @Test
+    public void shouldRecordForTimeoutPlanningOnlyTimePassedSinceBidderWasRequested() throws JsonProcessingException {
+        // given
+        final AtomicLong now = new AtomicLong(1000L);
+        final Clock movingClock = mock(Clock.class);
+        given(movingClock.millis()).willAnswer(invocation -> now.get());
+
+        exchangeService = new ExchangeService(bidderCatalog, httpBidderRequester, responseBidValidator, cacheService,
+                bidResponsePostProcessor, currencyService, gdprService, eventsService, bidderTimeoutPlanner,
+                bidderTrafficShaper, metrics, movingClock, false, 0);
+
+        final Bidder<?> bidder = mock(Bidder.class);
+        givenBidder("bidder", bidder, givenEmptySeatBid());
+        given(bidderTimeoutPlanner.plan(any(), any(), any())).willAnswer(invocation -> {
+            now.addAndGet(50L); // time spent before bidder is requested
+            return invocation.getArgument(2);
+        });
+        given(httpBidderRequester.requestBids(same(bidder), any(), any(), any())).willAnswer(invocation -> {
+            now.addAndGet(100L);
+            return Future.succeededFuture(givenEmptySeatBid());
+        });
+
+        final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("bidder", 1)));
+
+        // when
+        final BidResponse bidResponse = exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie,
+                timeout, metricsContext, null).result();
+
+        // then
+        verify(bidderTimeoutPlanner).recordResponseTime(eq("bidder"), eq(""), eq(100), eq(false));
+        final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
+        assertThat(ext.getResponsetimemillis()).containsEntry("bidder", 150);
+    }
+
+    @Test
+    public void shouldNotRequestBidderIfBidderTimeoutPlannerForfeitedIt() {
+        // given
+        final Bidder<?> bidder = mock(Bidder.class);
+        givenBidder("bidder", bidder, givenEmptySeatBid());
+
+        given(bidderTimeoutPlanner.plan(any(), any(), any())).willReturn(null);
+
+        final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("bidder", 1)));
+
+        // when
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
+
+        // then
+        verify(httpBidderRequester, never()).requestBids(any(), any(), any(), any());
+        verify(bidderTimeoutPlanner, never()).recordResponseTime(any(), any(), anyInt(), anyBoolean());
+        verify(metrics, never()).updateAdapterRequestErrorMetric(any(), any());
+        verify(metrics, never()).updateAdapterRequestNobidMetrics(any(), any());
+    }
+
+    @Test
+    public void shouldNotRequestBidderIfBidderTrafficShaperSuppressedIt() {
+        // given
+        final Bidder<?> bidder1 = mock(Bidder.class);
+        final Bidder<?> bidder2 = mock(Bidder.class);
+        givenBidder("bidder1", bidder1, givenEmptySeatBid());
+        givenBidder("bidder2", bidder2, givenEmptySeatBid());
+
+        given(bidderTrafficShaper.shouldRequest(eq("bidder1"), any(), any())).willReturn(false);
+
+        final BidRequest bidRequest = givenBidRequest(givenSingleImp(doubleMap("bidder1", 1, "bidder2", 2)));
+
+        // when
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
+
+        // then
+        verify(httpBidderRequester, never()).requestBids(same(bidder1), any(), any(), any());
+        verify(httpBidderRequester).requestBids(same(bidder2), any(), any(), any());
+        verify(bidderTrafficShaper).recordResult(eq("bidder2"), eq(""), any(), any());
+        verify(bidderTrafficShaper, never()).recordResult(eq("bidder1"), any(), any(), any());
+    }
+
     @Test
     public void shouldExtractMultipleRequestsForTheSameBidderIfAliasesWasUsed() {
         // given
@@ -703,11 +835,11 @@ public class ExchangeServiceTest extends VertxTest {
                         singletonMap("bidderAlias", "bidder"), null, null, null, null)))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester, times(2)).requestBids(same(bidder), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester, times(2)).requestBids(same(bidder), any(), bidRequestCaptor.capture(), any());
         final List<BidRequest> capturedBidRequests = bidRequestCaptor.getAllValues();
 
         assertThat(capturedBidRequests).hasSize(2)
@@ -722,7 +854,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse).returns(2, BidResponse::getNbr);
@@ -737,7 +869,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).isEmpty();
@@ -757,7 +889,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(1).element(0).isEqualTo(SeatBid.builder()
@@ -782,7 +914,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(1).element(0).isEqualTo(SeatBid.builder()
@@ -799,7 +931,7 @@ public class ExchangeServiceTest extends VertxTest {
     @Test
     public void shouldReturnMultipleSeatBids() {
         // given
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(asList(
                         givenBid(Bid.builder().price(BigDecimal.ONE).build()),
                         givenBid(Bid.builder().price(BigDecimal.ONE).build())))))
@@ -810,7 +942,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(2)
@@ -822,15 +954,17 @@ public class ExchangeServiceTest extends VertxTest {
         // given
         given(bidderCatalog.isValidName("bidder")).willReturn(true);
 
-        given(httpBidderRequester.requestBids(any(), eq(givenBidRequest(givenSingleImp(singletonMap("bidder", 1)),
-                builder -> builder.ext(mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(
-                        singletonMap("bidderAlias", "bidder"), null, null, null, null)))))), any()))
+        given(httpBidderRequester.requestBids(any(), any(),
+                eq(givenBidRequest(givenSingleImp(singletonMap("bidder", 1)),
+                        builder -> builder.ext(mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(
+                                singletonMap("bidderAlias", "bidder"), null, null, null, null)))))), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(singletonList(
                         givenBid(Bid.builder().price(BigDecimal.ONE).build())))));
 
-        given(httpBidderRequester.requestBids(any(), eq(givenBidRequest(givenSingleImp(singletonMap("bidder", 2)),
-                builder -> builder.ext(mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(
-                        singletonMap("bidderAlias", "bidder"), null, null, null, null)))))), any()))
+        given(httpBidderRequester.requestBids(any(), any(),
+                eq(givenBidRequest(givenSingleImp(singletonMap("bidder", 2)),
+                        builder -> builder.ext(mapper.valueToTree(ExtBidRequest.of(ExtRequestPrebid.of(
+                                singletonMap("bidderAlias", "bidder"), null, null, null, null)))))), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(singletonList(
                         givenBid(Bid.builder().price(BigDecimal.ONE).build())))));
 
@@ -840,10 +974,10 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
-        verify(httpBidderRequester, times(2)).requestBids(any(), any(), any());
+        verify(httpBidderRequester, times(2)).requestBids(any(), any(), any(), any());
         assertThat(bidResponse.getSeatbid()).hasSize(2)
                 .extracting(seatBid -> seatBid.getBid().size()).containsOnly(1, 1);
     }
@@ -863,7 +997,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -911,7 +1045,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -956,29 +1090,13 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
         assertThat(ext.getDebug()).isNull();
     }
 
-    @Test
-    public void shouldReturnErrorIfRequestExtCouldNotBeParsed() {
-        // given
-        final BidRequest bidRequest = givenBidRequest(emptyList(),
-                builder -> builder.ext(mapper.valueToTree(singletonMap("prebid", 1))));
-
-        // when
-        final Future<BidResponse> result =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
-
-        // then
-        assertThat(result.failed()).isTrue();
-        assertThat(result.cause()).isInstanceOf(PreBidException.class)
-                .hasMessageStartingWith("Error decoding bidRequest.ext: ");
-    }
-
     @Test
     public void shouldTolerateNullRequestExtPrebid() {
         // given
@@ -990,7 +1108,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1009,7 +1127,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1038,7 +1156,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -1074,7 +1192,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1111,7 +1229,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1150,7 +1268,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1182,7 +1300,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1223,7 +1341,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1257,7 +1375,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1294,7 +1412,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1329,7 +1447,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1359,7 +1477,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1387,7 +1505,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -1412,7 +1530,7 @@ public class ExchangeServiceTest extends VertxTest {
                 builder -> builder.user(user));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final BidRequest capturedBidRequest = captureBidRequest();
@@ -1433,7 +1551,7 @@ public class ExchangeServiceTest extends VertxTest {
                         ExtUser.of(ExtUserPrebid.of(uids), null, null, null))).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final User capturedBidRequestUser = captureBidRequest().getUser();
@@ -1455,7 +1573,7 @@ public class ExchangeServiceTest extends VertxTest {
                         ExtUser.of(ExtUserPrebid.of(uids), null, null, null))).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final User capturedBidRequestUser = captureBidRequest().getUser();
@@ -1473,7 +1591,7 @@ public class ExchangeServiceTest extends VertxTest {
                 builder -> builder.user(User.builder().id("userId").build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final BidRequest capturedBidRequest = captureBidRequest();
@@ -1490,7 +1608,7 @@ public class ExchangeServiceTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("someBidder", 1)));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         final BidRequest capturedBidRequest = captureBidRequest();
@@ -1505,17 +1623,18 @@ public class ExchangeServiceTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("someBidder", 1)));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
-        verify(httpBidderRequester).requestBids(any(), any(), same(timeout));
+        verify(httpBidderRequester).requestBids(any(), any(), any(), same(timeout));
     }
 
     @Test
     public void shouldPassReducedGlobalTimeoutToConnectorAndOriginalToCacheServiceIfCachingIsRequested() {
         // given
         exchangeService = new ExchangeService(bidderCatalog, httpBidderRequester, responseBidValidator, cacheService,
-                bidResponsePostProcessor, currencyService, gdprService, eventsService, metrics, clock, false, 100);
+                bidResponsePostProcessor, currencyService, gdprService, eventsService, bidderTimeoutPlanner,
+                bidderTrafficShaper, metrics, clock, false, 100);
 
         final Bid bid = Bid.builder().id("bidId1").impid("impId1").price(BigDecimal.valueOf(5.67)).build();
         givenBidder(givenSeatBid(singletonList(givenBid(bid))));
@@ -1533,11 +1652,11 @@ public class ExchangeServiceTest extends VertxTest {
                         ExtRequestPrebidCache.of(ExtRequestPrebidCacheBids.of(null, null), null))))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ArgumentCaptor<Timeout> timeoutCaptor = ArgumentCaptor.forClass(Timeout.class);
-        verify(httpBidderRequester).requestBids(any(), any(), timeoutCaptor.capture());
+        verify(httpBidderRequester).requestBids(any(), any(), any(), timeoutCaptor.capture());
         assertThat(timeoutCaptor.getValue().remaining()).isEqualTo(400L);
         verify(cacheService).cacheBidsOpenrtb(anyList(), anyList(), any(), any(), same(timeout));
     }
@@ -1567,7 +1686,7 @@ public class ExchangeServiceTest extends VertxTest {
                                         ExtRequestPrebidCache.of(ExtRequestPrebidCacheBids.of(null, null), null))))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(cacheService).cacheBidsOpenrtb(
@@ -1598,7 +1717,7 @@ public class ExchangeServiceTest extends VertxTest {
                                         ExtRequestPrebidCache.of(ExtRequestPrebidCacheBids.of(null, null), null))))));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(cacheService).cacheBidsOpenrtb(argThat(bids -> bids.contains(bid1)), eq(singletonList(imp1)),
@@ -1619,7 +1738,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -1643,7 +1762,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -1666,7 +1785,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid).isEmpty();
@@ -1691,7 +1810,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -1716,7 +1835,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -1745,7 +1864,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(0);
@@ -1760,7 +1879,7 @@ public class ExchangeServiceTest extends VertxTest {
         // given
         given(bidderCatalog.isValidName(anyString())).willReturn(true);
 
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(asList(
                         BidderBid.of(Bid.builder().price(TEN).build(), BidType.banner, "EUR"),
                         BidderBid.of(Bid.builder().price(TEN).build(), BidType.banner, "USD")))));
@@ -1770,7 +1889,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
 
         // then
@@ -1803,7 +1922,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(1).element(0).isEqualTo(SeatBid.builder()
@@ -1843,7 +1962,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(1).element(0).isEqualTo(SeatBid.builder()
@@ -1876,7 +1995,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).hasSize(1).element(0).isEqualTo(SeatBid.builder()
@@ -1897,7 +2016,7 @@ public class ExchangeServiceTest extends VertxTest {
         // given
         given(bidderCatalog.isValidName(anyString())).willReturn(true);
 
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(singletonList(
                         givenBid(Bid.builder().price(TEN).build())))));
 
@@ -1905,7 +2024,7 @@ public class ExchangeServiceTest extends VertxTest {
                 builder -> builder.site(Site.builder().publisher(Publisher.builder().id("accountId").build()).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(metrics).updateAccountRequestMetrics(eq("accountId"), eq(MetricName.openrtb2web));
@@ -1920,14 +2039,14 @@ public class ExchangeServiceTest extends VertxTest {
     public void shouldUseEmptyStringIfPublisherIdIsNull() {
         // given
         given(bidderCatalog.isValidName(anyString())).willReturn(true);
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(singletonList(
                         givenBid(Bid.builder().price(TEN).build())))));
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("somebidder", 1)),
                 builder -> builder.site(Site.builder().publisher(Publisher.builder().build()).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(metrics).updateAccountRequestMetrics(eq(""), eq(MetricName.openrtb2web));
@@ -1936,14 +2055,14 @@ public class ExchangeServiceTest extends VertxTest {
     @Test
     public void shouldIncrementNoBidRequestsMetric() {
         // given
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(givenSeatBid(emptyList())));
 
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("somebidder", 1)),
                 builder -> builder.app(App.builder().publisher(Publisher.builder().id("accountId").build()).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(metrics).updateAdapterRequestNobidMetrics(eq("somebidder"), eq("accountId"));
@@ -1952,7 +2071,7 @@ public class ExchangeServiceTest extends VertxTest {
     @Test
     public void shouldIncrementGotBidsAndErrorMetricsIfBidderReturnsBidAndDifferentErrors() {
         // given
-        given(httpBidderRequester.requestBids(any(), any(), any()))
+        given(httpBidderRequester.requestBids(any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidderSeatBid.of(
                         singletonList(givenBid(Bid.builder().price(TEN).build())),
                         emptyList(),
@@ -1963,13 +2082,14 @@ public class ExchangeServiceTest extends VertxTest {
                                 BidderError.badServerResponse("rubicon error"),
                                 BidderError.failedToRequestBids("rubicon failed to request bids"),
                                 BidderError.timeout("timeout error"),
+                                BidderError.of("response too large error", BidderError.Type.response_too_large),
                                 BidderError.generic("timeout error")))));
 
         final BidRequest bidRequest = givenBidRequest(givenSingleImp(singletonMap("somebidder", 1)),
                 builder -> builder.site(Site.builder().publisher(Publisher.builder().id("accountId").build()).build()));
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(metrics).updateAdapterRequestGotbidsMetrics(eq("somebidder"), eq("accountId"));
@@ -1977,6 +2097,7 @@ public class ExchangeServiceTest extends VertxTest {
         verify(metrics).updateAdapterRequestErrorMetric(eq("somebidder"), eq(MetricName.badserverresponse));
         verify(metrics).updateAdapterRequestErrorMetric(eq("somebidder"), eq(MetricName.failedtorequestbids));
         verify(metrics).updateAdapterRequestErrorMetric(eq("somebidder"), eq(MetricName.timeout));
+        verify(metrics).updateAdapterRequestErrorMetric(eq("somebidder"), eq(MetricName.responsetoolarge));
         verify(metrics).updateAdapterRequestErrorMetric(eq("somebidder"), eq(MetricName.unknown_error));
     }
 
@@ -1986,7 +2107,7 @@ public class ExchangeServiceTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(emptyList());
 
         // when
-        exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null);
+        exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null);
 
         // then
         verify(bidResponsePostProcessor).postProcess(any(), same(uidsCookie), same(bidRequest), any());
@@ -2005,7 +2126,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -2026,7 +2147,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid())
@@ -2054,7 +2175,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         assertThat(bidResponse.getSeatbid()).flatExtracting(SeatBid::getBid)
@@ -2084,7 +2205,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -2105,7 +2226,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -2125,7 +2246,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -2152,7 +2273,7 @@ public class ExchangeServiceTest extends VertxTest {
 
         // when
         final BidResponse bidResponse =
-                exchangeService.holdAuction(bidRequest, uidsCookie, timeout, metricsContext, null).result();
+                exchangeService.holdAuction(givenAuctionContext(bidRequest), uidsCookie, timeout, metricsContext, null).result();
 
         // then
         final ExtBidResponse ext = mapper.treeToValue(bidResponse.getExt(), ExtBidResponse.class);
@@ -2161,7 +2282,7 @@ public class ExchangeServiceTest extends VertxTest {
 
     private BidRequest captureBidRequest() {
         final ArgumentCaptor<BidRequest> bidRequestCaptor = ArgumentCaptor.forClass(BidRequest.class);
-        verify(httpBidderRequester).requestBids(any(), bidRequestCaptor.capture(), any());
+        verify(httpBidderRequester).requestBids(any(), any(), bidRequestCaptor.capture(), any());
         return bidRequestCaptor.getValue();
     }
 
@@ -2174,6 +2295,22 @@ public class ExchangeServiceTest extends VertxTest {
         return givenBidRequest(imp, identity());
     }
 
+    private static AuctionContext givenAuctionContext(BidRequest bidRequest) {
+        final ObjectNode ext = bidRequest.getExt();
+        final ObjectNode userExt = bidRequest.getUser() != null ? bidRequest.getUser().getExt() : null;
+        final ObjectNode regsExt = bidRequest.getRegs() != null ? bidRequest.getRegs().getExt() : null;
+        try {
+            return AuctionContext.builder()
+                    .bidRequest(bidRequest)
+                    .extBidRequest(ext != null ? mapper.treeToValue(ext, ExtBidRequest.class) : null)
+                    .extUser(userExt != null ? mapper.treeToValue(userExt, ExtUser.class) : null)
+                    .extRegs(regsExt != null ? mapper.treeToValue(regsExt, ExtRegs.class) : null)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     private static <T> Imp givenImp(T ext, Function<ImpBuilder, ImpBuilder> impBuilderCustomizer) {
         return impBuilderCustomizer.apply(Imp.builder().ext(mapper.valueToTree(ext))).build();
     }
@@ -2184,13 +2321,14 @@ public class ExchangeServiceTest extends VertxTest {
 
     private void givenBidder(BidderSeatBid response) {
         given(bidderCatalog.isValidName(anyString())).willReturn(true);
-        given(httpBidderRequester.requestBids(any(), any(), any())).willReturn(Future.succeededFuture(response));
+        given(httpBidderRequester.requestBids(any(), any(), any(), any())).willReturn(Future.succeededFuture(response));
     }
 
     private void givenBidder(String bidderName, Bidder<?> bidder, BidderSeatBid response) {
         given(bidderCatalog.isValidName(eq(bidderName))).willReturn(true);
         doReturn(bidder).when(bidderCatalog).bidderByName(eq(bidderName));
-        given(httpBidderRequester.requestBids(same(bidder), any(), any())).willReturn(Future.succeededFuture(response));
+        given(httpBidderRequester.requestBids(same(bidder), any(), any(), any()))
+                .willReturn(Future.succeededFuture(response));
     }
 
     private static BidderSeatBid givenSeatBid(List<BidderBid> bids) {
@@ -1,5 +1,6 @@
 package org.prebid.server.auction;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.iab.openrtb.request.Banner;
 import com.iab.openrtb.request.BidRequest;
@@ -62,7 +63,7 @@ public class StoredRequestProcessorTest extends VertxTest {
     @Before
     public void setUp() {
         final TimeoutFactory timeoutFactory = new TimeoutFactory(Clock.fixed(Instant.now(), ZoneId.systemDefault()));
-        storedRequestProcessor = new StoredRequestProcessor(applicationSettings, timeoutFactory, DEFAULT_TIMEOUT);
+        storedRequestProcessor = new StoredRequestProcessor(applicationSettings, timeoutFactory, DEFAULT_TIMEOUT, 100);
     }
 
     @Test
@@ -155,6 +156,49 @@ public class StoredRequestProcessorTest extends VertxTest {
                 .build());
     }
 
+    @Test
+    public void shouldNotModifyCachedStoredRequestWhileMerging() throws IOException {
+        // given
+        final String storedRequestBidRequestJson = mapper.writeValueAsString(BidRequest.builder()
+                .id("test-request-id")
+                .tmax(1000L)
+                .build());
+
+        given(applicationSettings.getStoredData(anySet(), anySet(), any()))
+                .willReturn(Future.succeededFuture(
+                        StoredDataResult.of(singletonMap("123", storedRequestBidRequestJson), emptyMap(),
+                                emptyList())));
+
+        final ObjectNode ext = Json.mapper.valueToTree(
+                ExtBidRequest.of(ExtRequestPrebid.of(null, null, null, ExtStoredRequest.of("123"), null)));
+
+        // when
+        storedRequestProcessor.processStoredRequests(givenBidRequest(builder -> builder.ext(ext).tmax(500L)));
+        final Future<BidRequest> bidRequestFuture = storedRequestProcessor.processStoredRequests(
+                givenBidRequest(builder -> builder.ext(ext)));
+
+        // then
+        assertThat(bidRequestFuture.result()).isEqualTo(BidRequest.builder()
+                .id("test-request-id")
+                .tmax(1000L)
+                .ext(ext)
+                .build());
+    }
+
+    @Test
+    public void mergePatchShouldMergeObjectsRecursivelyAndReplaceOtherValues() throws IOException {
+        // given
+        final JsonNode target = mapper.readTree("{\"a\":{\"b\":1,\"c\":2},\"d\":[1,2],\"e\":3}");
+        final JsonNode patch = mapper.readTree("{\"a\":{\"b\":5,\"x\":6},\"d\":[3],\"e\":null,\"f\":\"g\"}");
+
+        // when
+        final JsonNode result = StoredRequestProcessor.mergePatch(target, patch);
+
+        // then
+        assertThat(result).isEqualTo(mapper.readTree("{\"a\":{\"b\":5,\"c\":2,\"x\":6},\"d\":[3],\"f\":\"g\"}"));
+        assertThat(target).isEqualTo(mapper.readTree("{\"a\":{\"b\":1,\"c\":2},\"d\":[1,2],\"e\":3}"));
+    }
+
     @Test
     public void shouldReturnFailedFutureWhenStoredBidRequestJsonIsNotValid() {
         // given
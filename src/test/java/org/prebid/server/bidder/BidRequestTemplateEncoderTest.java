@@ -0,0 +1,109 @@
+package org.prebid.server.bidder;
+
+import com.iab.openrtb.request.Banner;
+import com.iab.openrtb.request.BidRequest;
+import com.iab.openrtb.request.Device;
+import com.iab.openrtb.request.Imp;
+import com.iab.openrtb.request.Site;
+import com.iab.openrtb.request.User;
+import io.vertx.core.json.Json;
+import org.junit.Before;
+import org.junit.Test;
+import org.prebid.server.VertxTest;
+
+import java.util.function.UnaryOperator;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.function.UnaryOperator.identity;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BidRequestTemplateEncoderTest extends VertxTest {
+
+    private BidRequest bidRequest;
+
+    private BidRequestTemplateEncoder encoder;
+
+    @Before
+    public void setUp() {
+        bidRequest = givenBidRequest(identity());
+
+        encoder = new BidRequestTemplateEncoder(bidRequest);
+    }
+
+    @Test
+    public void encodeShouldProduceSameOutputAsJsonEncodeForRequestsDifferingByImps() {
+        // given
+        final BidRequest bidRequest1 = bidRequest.toBuilder()
+                .imp(singletonList(givenImp("impId1")))
+                .build();
+        final BidRequest bidRequest2 = bidRequest.toBuilder()
+                .imp(asList(givenImp("impId2"), givenImp("impId3")))
+                .build();
+
+        // when and then
+        assertThat(encoder.encode(bidRequest1)).isEqualTo(Json.encode(bidRequest1));
+        assertThat(encoder.encode(bidRequest2)).isEqualTo(Json.encode(bidRequest2));
+    }
+
+    @Test
+    public void encodeShouldProduceSameOutputAsJsonEncodeIfRequestDiffersNotOnlyByImps() {
+        // given
+        final BidRequest bidRequest1 = bidRequest.toBuilder()
+                .imp(singletonList(givenImp("impId1")))
+                .site(Site.builder().id("anotherSiteId").build())
+                .build();
+        final BidRequest bidRequest2 = bidRequest.toBuilder()
+                .imp(singletonList(givenImp("impId2")))
+                .tmax(500L)
+                .build();
+
+        // when and then
+        assertThat(encoder.encode(bidRequest1)).isEqualTo(Json.encode(bidRequest1));
+        assertThat(encoder.encode(bidRequest2)).isEqualTo(Json.encode(bidRequest2));
+    }
+
+    @Test
+    public void encodeShouldProduceSameOutputAsJsonEncodeIfImpsAreAbsentOrEmpty() {
+        // given
+        final BidRequest bidRequest1 = bidRequest.toBuilder().imp(null).build();
+        final BidRequest bidRequest2 = bidRequest.toBuilder().imp(emptyList()).build();
+
+        // when and then
+        assertThat(encoder.encode(bidRequest1)).isEqualTo(Json.encode(bidRequest1));
+        assertThat(encoder.encode(bidRequest2)).isEqualTo(Json.encode(bidRequest2));
+    }
+
+    @Test
+    public void encodeShouldProduceSameOutputAsJsonEncodeIfIdContainsImpFieldLikeText() {
+        // given
+        final BidRequest templateRequest = givenBidRequest(builder -> builder.id("\"imp\":[]"));
+        encoder = new BidRequestTemplateEncoder(templateRequest);
+
+        final BidRequest bidRequest = templateRequest.toBuilder()
+                .imp(singletonList(givenImp("impId1")))
+                .build();
+
+        // when and then
+        assertThat(encoder.encode(bidRequest)).isEqualTo(Json.encode(bidRequest));
+    }
+
+    private static BidRequest givenBidRequest(UnaryOperator<BidRequest.BidRequestBuilder> bidRequestCustomizer) {
+        return bidRequestCustomizer.apply(BidRequest.builder()
+                .id("requestId")
+                .site(Site.builder().id("siteId").page("http://www.example.com").build())
+                .device(Device.builder().ua("ua").ip("192.168.0.1").build())
+                .user(User.builder().buyeruid("buyeruid").build())
+                .tmax(1000L))
+                .build();
+    }
+
+    private static Imp givenImp(String impId) {
+        return Imp.builder()
+                .id(impId)
+                .banner(Banner.builder().w(300).h(250).build())
+                .ext(mapper.createObjectNode().put("bidder", impId))
+                .build();
+    }
+}
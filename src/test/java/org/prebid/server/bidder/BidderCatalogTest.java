@@ -5,8 +5,12 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.prebid.server.bidder.model.TrafficShapingRule;
 import org.prebid.server.proto.response.BidderInfo;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
+import org.prebid.server.vertx.http.model.HttpPoolPolicy;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -149,6 +153,77 @@ public class BidderCatalogTest {
         assertThat(bidderCatalog.bidderInfoByName("unknown_bidder")).isNull();
     }
 
+    @Test
+    public void endpointByNameShouldReturnEndpointForKnownBidder() {
+        // given
+        bidderDeps = BidderDeps.builder()
+                .name(BIDDER)
+                .deprecatedNames(emptyList())
+                .aliases(emptyList())
+                .endpoint("http://bidder.com/auction")
+                .build();
+        bidderCatalog = new BidderCatalog(singletonList(bidderDeps));
+
+        // when and then
+        assertThat(bidderCatalog.endpointByName(BIDDER)).isEqualTo("http://bidder.com/auction");
+    }
+
+    @Test
+    public void endpointByNameShouldReturnNullForUnknownBidder() {
+        // given
+        bidderCatalog = new BidderCatalog(emptyList());
+
+        // when and then
+        assertThat(bidderCatalog.endpointByName("unknown_bidder")).isNull();
+    }
+
+    @Test
+    public void trafficShapingRuleByNameShouldReturnRuleForKnownBidder() {
+        // given
+        final TrafficShapingRule rule = TrafficShapingRule.of(0.01, 0.05, 100, 600);
+        bidderDeps = BidderDeps.builder()
+                .name(BIDDER)
+                .deprecatedNames(emptyList())
+                .aliases(emptyList())
+                .trafficShapingRule(rule)
+                .build();
+        bidderCatalog = new BidderCatalog(singletonList(bidderDeps));
+
+        // when and then
+        assertThat(bidderCatalog.trafficShapingRuleByName(BIDDER)).isEqualTo(rule);
+    }
+
+    @Test
+    public void trafficShapingRuleByNameShouldReturnNullForUnknownBidder() {
+        // given
+        bidderCatalog = new BidderCatalog(emptyList());
+
+        // when and then
+        assertThat(bidderCatalog.trafficShapingRuleByName("unknown_bidder")).isNull();
+    }
+
+    @Test
+    public void httpDestinationPoliciesShouldReturnPoliciesOfBiddersHavingThem() {
+        // given
+        final HttpDestinationPolicy policy = HttpDestinationPolicy.of(BIDDER, "http://bidder.com/auction",
+                HttpPoolPolicy.of(10, 10, 60, 100), null, null, null);
+        final BidderDeps bidderDepsWithPolicy = BidderDeps.builder()
+                .name(BIDDER)
+                .deprecatedNames(emptyList())
+                .aliases(emptyList())
+                .httpDestinationPolicy(policy)
+                .build();
+        final BidderDeps bidderDepsWithoutPolicy = BidderDeps.builder()
+                .name("anotherBidder")
+                .deprecatedNames(emptyList())
+                .aliases(emptyList())
+                .build();
+        bidderCatalog = new BidderCatalog(asList(bidderDepsWithPolicy, bidderDepsWithoutPolicy));
+
+        // when and then
+        assertThat(bidderCatalog.httpDestinationPolicies()).containsOnly(policy);
+    }
+
     @Test
     public void usersyncerByNameShouldReturnUsersyncerForKnownBidder() {
         // given
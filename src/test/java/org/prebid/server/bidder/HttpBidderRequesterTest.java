@@ -21,6 +21,7 @@ import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
 import org.prebid.server.proto.openrtb.ext.response.ExtHttpCall;
 import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.ResponseTooLargeException;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
 
 import java.time.Clock;
@@ -76,7 +77,7 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout).result();
 
         // then
         assertThat(bidderSeatBid.getBids()).isEmpty();
@@ -94,7 +95,7 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout).result();
 
         // then
         assertThat(bidderSeatBid.getBids()).isEmpty();
@@ -121,10 +122,11 @@ public class HttpBidderRequesterTest {
         headers.add("header2", "value2");
 
         // when
-        bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout);
+        bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout);
 
         // then
-        verify(httpClient).request(eq(HttpMethod.POST), eq("uri"), eq(headers), eq("requestBody"), eq(500L));
+        verify(httpClient).request(eq("bidder"), eq(HttpMethod.POST), eq("uri"), eq(headers), eq("requestBody"),
+                eq(500L));
     }
 
     @Test
@@ -140,10 +142,10 @@ public class HttpBidderRequesterTest {
                 emptyList()));
 
         // when
-        bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout);
+        bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout);
 
         // then
-        verify(httpClient).request(any(), anyString(), any(), isNull(), anyLong());
+        verify(httpClient).request(eq("bidder"), any(), anyString(), any(), isNull(), anyLong());
     }
 
     @Test
@@ -167,10 +169,10 @@ public class HttpBidderRequesterTest {
                 emptyList()));
 
         // when
-        bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout);
+        bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout);
 
         // then
-        verify(httpClient, times(2)).request(any(), anyString(), any(), any(), anyLong());
+        verify(httpClient, times(2)).request(eq("bidder"), any(), anyString(), any(), any(), anyLong());
     }
 
     @Test
@@ -192,7 +194,7 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout).result();
 
         // then
         assertThat(bidderSeatBid.getBids()).containsOnlyElementsOf(bids);
@@ -224,7 +226,8 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().test(1).build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().test(1).build(), timeout)
+                        .result();
 
         // then
         assertThat(bidderSeatBid.getHttpCalls()).hasSize(2).containsOnly(
@@ -248,7 +251,8 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().test(1).build(), expiredTimeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().test(1).build(), expiredTimeout)
+                        .result();
 
         // then
         assertThat(bidderSeatBid.getHttpCalls()).hasSize(1).containsOnly(
@@ -271,7 +275,8 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().test(1).build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().test(1).build(), timeout)
+                        .result();
 
         // then
         assertThat(bidderSeatBid.getHttpCalls()).hasSize(1).containsOnly(
@@ -294,7 +299,8 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().test(1).build(), timeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().test(1).build(), timeout)
+                        .result();
 
         // then
         assertThat(bidderSeatBid.getHttpCalls()).hasSize(1).containsOnly(
@@ -319,7 +325,8 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid =
-                bidderHttpConnector.requestBids(bidder, BidRequest.builder().build(), expiredTimeout).result();
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), expiredTimeout)
+                        .result();
 
         // then
         assertThat(bidderSeatBid.getErrors()).hasSize(1)
@@ -328,6 +335,30 @@ public class HttpBidderRequesterTest {
         verifyZeroInteractions(httpClient);
     }
 
+    @Test
+    public void shouldReturnResponseTooLargeErrorIfResponseSizeLimitExceeded() {
+        // given
+        given(httpClient.request(anyString(), any(), anyString(), any(), any(), anyLong()))
+                .willReturn(Future.failedFuture(new ResponseTooLargeException("Response too large")));
+
+        given(bidder.makeHttpRequests(any())).willReturn(Result.of(singletonList(
+                HttpRequest.<BidRequest>builder()
+                        .method(HttpMethod.POST)
+                        .uri(EMPTY)
+                        .body(EMPTY)
+                        .headers(new CaseInsensitiveHeaders())
+                        .build()),
+                emptyList()));
+
+        // when
+        final BidderSeatBid bidderSeatBid =
+                bidderHttpConnector.requestBids(bidder, "bidder", BidRequest.builder().build(), timeout).result();
+
+        // then
+        assertThat(bidderSeatBid.getErrors())
+                .containsOnly(BidderError.of("Response too large", BidderError.Type.response_too_large));
+    }
+
     @Test
     public void shouldTolerateMultipleErrors() {
         // given
@@ -377,7 +408,7 @@ public class HttpBidderRequesterTest {
                 singletonList(BidderError.badInput("makeHttpRequestsError"))));
 
 
-        given(httpClient.request(any(), anyString(), any(), any(), anyLong()))
+        given(httpClient.request(anyString(), any(), anyString(), any(), any(), anyLong()))
                 // simulate response error for the first request
                 .willReturn(Future.failedFuture(new RuntimeException("Response exception")))
                 // simulate timeout for the second request
@@ -397,7 +428,7 @@ public class HttpBidderRequesterTest {
 
         // when
         final BidderSeatBid bidderSeatBid = bidderHttpConnector
-                .requestBids(bidder, BidRequest.builder().test(1).build(), timeout)
+                .requestBids(bidder, "bidder", BidRequest.builder().test(1).build(), timeout)
                 .result();
 
         // then
@@ -414,18 +445,18 @@ public class HttpBidderRequesterTest {
     }
 
     private void givenHttpClientReturnsResponse(int statusCode, String response) {
-        given(httpClient.request(any(), anyString(), any(), any(), anyLong()))
+        given(httpClient.request(anyString(), any(), anyString(), any(), any(), anyLong()))
                 .willReturn(Future.succeededFuture(HttpClientResponse.of(statusCode, null, response)));
     }
 
     private void givenHttpClientProducesException(Throwable throwable) {
-        given(httpClient.request(any(), anyString(), any(), any(), anyLong()))
+        given(httpClient.request(anyString(), any(), anyString(), any(), any(), anyLong()))
                 .willReturn(Future.failedFuture(throwable));
     }
 
     private void givenHttpClientReturnsResponses(HttpClientResponse... httpClientResponses) {
         BDDMockito.BDDMyOngoingStubbing<Future<HttpClientResponse>> stubbing =
-                given(httpClient.request(any(), anyString(), any(), any(), anyLong()));
+                given(httpClient.request(anyString(), any(), anyString(), any(), any(), anyLong()));
 
         // setup multiple answers
         for (HttpClientResponse httpClientResponse : httpClientResponses) {
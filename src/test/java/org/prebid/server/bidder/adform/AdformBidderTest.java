@@ -184,7 +184,7 @@ public class AdformBidderTest extends VertxTest {
 
         // then
         assertThat(result.getErrors().get(0).getMessage()).startsWith(
-                "Unexpected end-of-input: expected close marker for Object");
+                "Failed to decode: Unexpected end-of-input: expected close marker for Object");
         assertThat(result.getValue()).isEmpty();
     }
 
@@ -593,7 +593,7 @@ public class AppnexusBidderTest extends VertxTest {
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(BidderError.badServerResponse(
                 "Failed to decode: Unrecognized token 'invalid': was expecting ('true', 'false' or 'null')\n at " +
-                        "[Source: (String)\"invalid\"; line: 1, column: 15]"));
+                        "[Source: (io.netty.buffer.ByteBufInputStream); line: 1, column: 15]"));
         assertThat(result.getValue()).isEmpty();
     }
 
@@ -419,7 +419,7 @@ public class FacebookBidderTest extends VertxTest {
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(BidderError.badServerResponse(
                 "Failed to decode: Unrecognized token 'invalid': was expecting ('true', 'false' or 'null')\n" +
-                        " at [Source: (String)\"invalid\"; line: 1, column: 15]"));
+                        " at [Source: (io.netty.buffer.ByteBufInputStream); line: 1, column: 15]"));
         assertThat(result.getValue()).isEmpty();
     }
 
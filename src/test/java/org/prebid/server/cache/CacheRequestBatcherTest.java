@@ -0,0 +1,215 @@
+package org.prebid.server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.VertxTest;
+import org.prebid.server.cache.proto.request.BidCacheRequest;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.cache.proto.response.BidCacheResponse;
+import org.prebid.server.cache.proto.response.CacheObject;
+import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.model.HttpClientResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@RunWith(VertxUnitRunner.class)
+public class CacheRequestBatcherTest extends VertxTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private HttpClient httpClient;
+    @Mock
+    private Metrics metrics;
+
+    private Vertx vertx;
+    private TimeoutFactory timeoutFactory;
+
+    private CacheRequestBatcher cacheRequestBatcher;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        timeoutFactory = new TimeoutFactory(Clock.systemDefaultZone());
+
+        cacheRequestBatcher = new CacheRequestBatcher(vertx, httpClient, "http://cache-service/cache", metrics,
+                Clock.systemDefaultZone(), 10L, 3);
+    }
+
+    @After
+    public void tearDown(TestContext context) {
+        vertx.close(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CacheRequestBatcher(vertx, httpClient,
+                "http://cache-service/cache", metrics, Clock.systemDefaultZone(), 0L, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new CacheRequestBatcher(vertx, httpClient,
+                "http://cache-service/cache", metrics, Clock.systemDefaultZone(), 1L, 0));
+    }
+
+    @Test
+    public void sendShouldSendRequestAsIsOutsideOfVertxContext() throws IOException {
+        // given
+        givenHttpClientReturnsResponse("uuid1");
+
+        // when
+        final Future<BidCacheResponse> future = cacheRequestBatcher.send(givenBidCacheRequest("adm1"),
+                timeoutFactory.create(500L));
+
+        // then
+        assertThat(captureBidCacheRequest()).isEqualTo(givenBidCacheRequest("adm1"));
+        assertThat(future.result()).isEqualTo(BidCacheResponse.of(singletonList(CacheObject.of("uuid1"))));
+    }
+
+    @Test
+    public void sendShouldCoalesceRequestsMadeOnTheSameContextAndSplitResponse(TestContext context)
+            throws IOException {
+        // given
+        givenHttpClientReturnsResponse("uuid1", "uuid2", "uuid3");
+
+        // when
+        final Async async = context.async();
+        final Future<CompositeFuture> future = Future.future();
+        vertx.runOnContext(ignored -> CompositeFuture.all(
+                cacheRequestBatcher.send(givenBidCacheRequest("adm1"), timeoutFactory.create(500L)),
+                cacheRequestBatcher.send(givenBidCacheRequest("adm2", "adm3"), timeoutFactory.create(500L)))
+                .setHandler(result -> {
+                    future.handle(result);
+                    async.complete();
+                }));
+        async.await();
+
+        // then
+        assertThat(captureBidCacheRequest()).isEqualTo(givenBidCacheRequest("adm1", "adm2", "adm3"));
+
+        final List<BidCacheResponse> responses = future.result().list();
+        assertThat(responses).containsExactly(
+                BidCacheResponse.of(singletonList(CacheObject.of("uuid1"))),
+                BidCacheResponse.of(asList(CacheObject.of("uuid2"), CacheObject.of("uuid3"))));
+
+        verify(metrics).updateCacheBatchSizeMetric(eq(3));
+    }
+
+    @Test
+    public void sendShouldSendBatchWithoutWaitingForWindowIfMaxSizeReached(TestContext context)
+            throws IOException {
+        // given
+        cacheRequestBatcher = new CacheRequestBatcher(vertx, httpClient, "http://cache-service/cache", metrics,
+                Clock.systemDefaultZone(), 10000L, 2);
+        givenHttpClientReturnsResponse("uuid1", "uuid2");
+
+        // when
+        final Async async = context.async();
+        vertx.runOnContext(ignored -> cacheRequestBatcher.send(givenBidCacheRequest("adm1", "adm2"),
+                timeoutFactory.create(500L))
+                .setHandler(context.asyncAssertSuccess(result -> async.complete())));
+        async.await(1000L);
+
+        // then
+        assertThat(captureBidCacheRequest()).isEqualTo(givenBidCacheRequest("adm1", "adm2"));
+    }
+
+    @Test
+    public void sendShouldFailAllBatchedRequestsIfCacheRequestFails(TestContext context) {
+        // given
+        given(httpClient.post(anyString(), any(), any(), anyLong()))
+                .willReturn(Future.failedFuture(new RuntimeException("error")));
+
+        // when
+        final Async async = context.async(2);
+        vertx.runOnContext(ignored -> {
+            cacheRequestBatcher.send(givenBidCacheRequest("adm1"), timeoutFactory.create(500L))
+                    .setHandler(context.asyncAssertFailure(cause -> {
+                        assertThat(cause).hasMessage("error");
+                        async.countDown();
+                    }));
+            cacheRequestBatcher.send(givenBidCacheRequest("adm2"), timeoutFactory.create(500L))
+                    .setHandler(context.asyncAssertFailure(cause -> {
+                        assertThat(cause).hasMessage("error");
+                        async.countDown();
+                    }));
+        });
+        async.await();
+    }
+
+    @Test
+    public void sendShouldFailRequestOnItsOwnTimeout(TestContext context) {
+        // given
+        given(httpClient.post(anyString(), any(), any(), anyLong())).willReturn(Future.future());
+
+        // when
+        final Async async = context.async();
+        vertx.runOnContext(ignored -> {
+            cacheRequestBatcher.send(givenBidCacheRequest("adm1"), timeoutFactory.create(5000L));
+            cacheRequestBatcher.send(givenBidCacheRequest("adm2"), timeoutFactory.create(50L))
+                    .setHandler(context.asyncAssertFailure(cause -> {
+                        assertThat(cause).isInstanceOf(TimeoutException.class);
+                        async.complete();
+                    }));
+        });
+        async.await();
+
+        // then
+        // batch is sent with the longest timeout among batched requests
+        verify(httpClient).post(anyString(), any(), any(), longThat(timeoutMs -> timeoutMs > 1000L));
+    }
+
+    private static BidCacheRequest givenBidCacheRequest(String... adms) {
+        final PutObject[] puts = new PutObject[adms.length];
+        for (int i = 0; i < adms.length; i++) {
+            puts[i] = PutObject.of("xml", new TextNode(adms[i]), null, null);
+        }
+        return BidCacheRequest.of(asList(puts));
+    }
+
+    private void givenHttpClientReturnsResponse(String... uuids) throws JsonProcessingException {
+        final CacheObject[] cacheObjects = new CacheObject[uuids.length];
+        for (int i = 0; i < uuids.length; i++) {
+            cacheObjects[i] = CacheObject.of(uuids[i]);
+        }
+        final String body = mapper.writeValueAsString(BidCacheResponse.of(asList(cacheObjects)));
+        given(httpClient.post(anyString(), any(), any(), anyLong()))
+                .willReturn(Future.succeededFuture(HttpClientResponse.of(200, null, body)));
+    }
+
+    private BidCacheRequest captureBidCacheRequest() throws IOException {
+        final ArgumentCaptor<String> bidCacheRequestCaptor = ArgumentCaptor.forClass(String.class);
+        verify(httpClient).post(anyString(), any(), bidCacheRequestCaptor.capture(), anyLong());
+        return mapper.readValue(bidCacheRequestCaptor.getValue(), BidCacheRequest.class);
+    }
+}
@@ -16,6 +16,7 @@ import org.prebid.server.VertxTest;
 import org.prebid.server.cache.model.CacheContext;
 import org.prebid.server.cache.model.CacheIdInfo;
 import org.prebid.server.cache.model.CacheTtl;
+import org.prebid.server.cache.model.CachedCreative;
 import org.prebid.server.cache.proto.BidCacheResult;
 import org.prebid.server.cache.proto.request.BannerValue;
 import org.prebid.server.cache.proto.request.BidCacheRequest;
@@ -25,6 +26,7 @@ import org.prebid.server.cache.proto.response.CacheObject;
 import org.prebid.server.exception.PreBidException;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.Metrics;
 import org.prebid.server.proto.response.Bid;
 import org.prebid.server.proto.response.MediaType;
 import org.prebid.server.settings.ApplicationSettings;
@@ -35,12 +37,14 @@ import org.prebid.server.vertx.http.model.HttpClientResponse;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static java.util.Arrays.asList;
@@ -53,8 +57,10 @@ import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -67,6 +73,12 @@ public class CacheServiceTest extends VertxTest {
     private ApplicationSettings applicationSettings;
     @Mock
     private HttpClient httpClient;
+    @Mock
+    private CacheRequestBatcher cacheRequestBatcher;
+    @Mock
+    private CacheWriteBehindQueue cacheWriteBehindQueue;
+    @Mock
+    private Metrics metrics;
 
     private final CacheTtl mediaTypeCacheTtl = CacheTtl.of(null, null);
     private CacheService cacheService;
@@ -82,7 +94,8 @@ public class CacheServiceTest extends VertxTest {
         expiredTimeout = timeoutFactory.create(clock.instant().minusMillis(1500L).toEpochMilli(), 1000L);
 
         cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
-                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%");
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                null, null, null);
     }
 
     @Test
@@ -222,7 +235,8 @@ public class CacheServiceTest extends VertxTest {
         givenHttpClientReturnsResponse(200, null);
 
         cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
-                new URL("https://cache-service-host:8888/cache"), "https://cache-service-host:8080/cache?uuid=%PBS_CACHE_UUID%");
+                new URL("https://cache-service-host:8888/cache"), "https://cache-service-host:8080/cache?uuid=%PBS_CACHE_UUID%",
+                null, null, null, null);
 
         // when
         cacheService.cacheBids(singleBidList(), timeout);
@@ -253,10 +267,10 @@ public class CacheServiceTest extends VertxTest {
         final BidCacheRequest bidCacheRequest = captureBidCacheRequest();
         assertThat(bidCacheRequest.getPuts()).hasSize(4)
                 .containsOnly(
-                        PutObject.of("json", mapper.valueToTree(BannerValue.of("adm1", "nurl1", 200, 100)), null),
-                        PutObject.of("json", mapper.valueToTree(BannerValue.of("adm2", "nurl2", 400, 300)), null),
-                        PutObject.of("xml", new TextNode(adm3), null),
-                        PutObject.of("xml", new TextNode(adm4), null)
+                        PutObject.of("json", mapper.valueToTree(BannerValue.of("adm1", "nurl1", 200, 100)), null, null),
+                        PutObject.of("json", mapper.valueToTree(BannerValue.of("adm2", "nurl2", 400, 300)), null, null),
+                        PutObject.of("xml", new TextNode(adm3), null, null),
+                        PutObject.of("xml", new TextNode(adm4), null, null)
                 );
     }
 
@@ -277,12 +291,12 @@ public class CacheServiceTest extends VertxTest {
         final BidCacheRequest bidCacheRequest = captureBidCacheRequest();
         assertThat(bidCacheRequest.getPuts()).hasSize(4)
                 .containsOnly(
-                        PutObject.of("json", mapper.valueToTree(bid1), null),
-                        PutObject.of("json", mapper.valueToTree(bid2), null),
-                        PutObject.of("xml", new TextNode("adm1"), null),
+                        PutObject.of("json", mapper.valueToTree(bid1), null, null),
+                        PutObject.of("json", mapper.valueToTree(bid2), null, null),
+                        PutObject.of("xml", new TextNode("adm1"), null, null),
                         PutObject.of("xml", new TextNode("<VAST version=\"3.0\"><Ad><Wrapper><AdSystem>" +
                                 "prebid.org wrapper</AdSystem><VASTAdTagURI><![CDATA[adm2]]></VASTAdTagURI><Impression>" +
-                                "</Impression><Creatives></Creatives></Wrapper></Ad></VAST>"), null)
+                                "</Impression><Creatives></Creatives></Wrapper></Ad></VAST>"), null, null)
                 );
     }
 
@@ -315,7 +329,7 @@ public class CacheServiceTest extends VertxTest {
         // then
         final BidCacheRequest bidCacheRequest = captureBidCacheRequest();
         assertThat(bidCacheRequest.getPuts()).hasSize(1)
-                .containsOnly(PutObject.of("xml", new TextNode("adm2"), null));
+                .containsOnly(PutObject.of("xml", new TextNode("adm2"), null, null));
     }
 
     @Test
@@ -361,9 +375,9 @@ public class CacheServiceTest extends VertxTest {
         final BidCacheRequest bidCacheRequest = captureBidCacheRequest();
         assertThat(bidCacheRequest.getPuts()).hasSize(3)
                 .containsOnly(
-                        PutObject.of("json", mapper.valueToTree(bid1), null),
-                        PutObject.of("json", mapper.valueToTree(bid2), null),
-                        PutObject.of("xml", new TextNode(bid2.getAdm()), null));
+                        PutObject.of("json", mapper.valueToTree(bid1), null, null),
+                        PutObject.of("json", mapper.valueToTree(bid2), null, null),
+                        PutObject.of("xml", new TextNode(bid2.getAdm()), null, null));
     }
 
     @Test
@@ -424,7 +438,8 @@ public class CacheServiceTest extends VertxTest {
     public void cacheBidsOpenrtbShouldSendCacheRequestWithExpectedTtlFromAccountBannerTtl() throws IOException {
         // given
         cacheService = new CacheService(applicationSettings, CacheTtl.of(20, null), httpClient,
-                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%");
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                null, null, null);
 
         givenHttpClientReturnsResponse(200, null);
 
@@ -447,7 +462,8 @@ public class CacheServiceTest extends VertxTest {
     public void cacheBidsOpenrtbShouldSendCacheRequestWithExpectedTtlFromMediaTypeTtl() throws IOException {
         // given
         cacheService = new CacheService(applicationSettings, CacheTtl.of(10, null), httpClient,
-                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%");
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                null, null, null);
 
         givenHttpClientReturnsResponse(200, null);
 
@@ -468,7 +484,8 @@ public class CacheServiceTest extends VertxTest {
             throws IOException {
         // given
         cacheService = new CacheService(applicationSettings, CacheTtl.of(10, null), httpClient,
-                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%");
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                null, null, null);
         given(applicationSettings.getAccountById(anyString(),any()))
                 .willReturn(Future.failedFuture(new PreBidException("Not Found")));
 
@@ -522,6 +539,193 @@ public class CacheServiceTest extends VertxTest {
                 .containsEntry(bid, CacheIdInfo.of("uuid1", null));
     }
 
+    @Test
+    public void cacheBidsOpenrtbShouldSendCacheRequestThroughBatcherIfConfigured() throws MalformedURLException {
+        // given
+        given(cacheRequestBatcher.send(any(), any())).willReturn(
+                Future.succeededFuture(BidCacheResponse.of(singletonList(CacheObject.of("uuid1")))));
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%",
+                cacheRequestBatcher, null, null, null);
+
+        // when
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(identity());
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        verify(cacheRequestBatcher).send(any(), same(timeout));
+        verifyZeroInteractions(httpClient);
+        assertThat(future.result()).containsOnly(entry(bid, CacheIdInfo.of("uuid1", null)));
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldReturnGeneratedUuidsAndQueueBidsIfWriteBehindConfigured()
+            throws MalformedURLException {
+        // given
+        given(cacheWriteBehindQueue.offer(any(), any())).willReturn(true);
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                cacheWriteBehindQueue, null, null);
+
+        // when
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(builder -> builder.adm("adm1"));
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        @SuppressWarnings("unchecked") final ArgumentCaptor<List<PutObject>> putObjectsCaptor =
+                ArgumentCaptor.forClass(List.class);
+        verify(cacheWriteBehindQueue).offer(putObjectsCaptor.capture(), any());
+        verifyZeroInteractions(httpClient);
+
+        final List<PutObject> putObjects = putObjectsCaptor.getValue();
+        assertThat(putObjects).hasSize(1);
+        assertThat(putObjects.get(0).getKey()).isNotBlank();
+        assertThat(future.result()).containsOnly(entry(bid, CacheIdInfo.of(putObjects.get(0).getKey(), null)));
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldSendCacheRequestIfWriteBehindQueueRejectsBids() throws IOException {
+        // given
+        given(cacheWriteBehindQueue.offer(any(), any())).willReturn(false);
+        givenHttpClientReturnsResponse(200, mapper.writeValueAsString(
+                BidCacheResponse.of(singletonList(CacheObject.of("uuid1")))));
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                cacheWriteBehindQueue, null, null);
+
+        // when
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(identity());
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        assertThat(captureBidCacheRequest().getPuts()).extracting(PutObject::getKey).containsExactly((String) null);
+        assertThat(future.result()).containsOnly(entry(bid, CacheIdInfo.of("uuid1", null)));
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldStoreBidsInEmbeddedCacheAndReplicateThemIfConfigured()
+            throws MalformedURLException {
+        // given
+        given(cacheWriteBehindQueue.offer(any())).willReturn(true);
+        final OffHeapCacheStore offHeapCacheStore = new OffHeapCacheStore(Clock.systemUTC(), 1024L, 1024, 300);
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                cacheWriteBehindQueue, offHeapCacheStore, null);
+
+        // when
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(builder -> builder.adm("adm1"));
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        verifyZeroInteractions(httpClient);
+
+        final String uuid = future.result().get(bid).getCacheId();
+        final CachedCreative creative = offHeapCacheStore.get(uuid);
+        assertThat(creative.getType()).isEqualTo("json");
+        assertThat(new String(creative.getValue(), StandardCharsets.UTF_8)).contains("\"adm\":\"adm1\"");
+
+        @SuppressWarnings("unchecked") final ArgumentCaptor<List<PutObject>> putObjectsCaptor =
+                ArgumentCaptor.forClass(List.class);
+        verify(cacheWriteBehindQueue).offer(putObjectsCaptor.capture());
+        assertThat(putObjectsCaptor.getValue()).extracting(PutObject::getKey).containsExactly(uuid);
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldReplicateBidsStoredInEmbeddedCacheRightAwayIfWriteBehindQueueRejectsThem()
+            throws IOException {
+        // given
+        given(cacheWriteBehindQueue.offer(any())).willReturn(false);
+        givenHttpClientReturnsResponse(200, mapper.writeValueAsString(
+                BidCacheResponse.of(singletonList(CacheObject.of("uuid1")))));
+        final OffHeapCacheStore offHeapCacheStore = new OffHeapCacheStore(Clock.systemUTC(), 1024L, 1024, 300);
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                cacheWriteBehindQueue, offHeapCacheStore, null);
+
+        // when
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(builder -> builder.adm("adm1"));
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        final String uuid = future.result().get(bid).getCacheId();
+        assertThat(offHeapCacheStore.contains(uuid)).isTrue();
+        assertThat(captureBidCacheRequest().getPuts()).extracting(PutObject::getKey).containsExactly(uuid);
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldNotSendCacheRequestForRepeatedBidsIfDeduplicationConfigured()
+            throws IOException {
+        // given
+        givenHttpClientReturnsResponse(200, mapper.writeValueAsString(
+                BidCacheResponse.of(singletonList(CacheObject.of("uuid1")))));
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                null, null, new CreativeDeduplicator(metrics, 100, 300, 60, null));
+
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(builder -> builder.adm("adm1"));
+        cacheService.cacheBidsOpenrtb(singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // when
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        verify(httpClient).post(anyString(), any(), any(), anyLong());
+        assertThat(future.result()).containsOnly(entry(bid, CacheIdInfo.of("uuid1", null)));
+    }
+
+    @Test
+    public void cacheBidsOpenrtbShouldReuseUuidsOfRepeatedBidsOnlyAfterTheyAreWrittenBehind()
+            throws MalformedURLException {
+        // given
+        given(cacheWriteBehindQueue.offer(any(), any())).willReturn(true);
+
+        cacheService = new CacheService(applicationSettings, mediaTypeCacheTtl, httpClient,
+                new URL("http://cache-service/cache"), "http://cache-service-host/cache?uuid=%PBS_CACHE_UUID%", null,
+                cacheWriteBehindQueue, null, new CreativeDeduplicator(metrics, 100, 300, 60, null));
+
+        final com.iab.openrtb.response.Bid bid = givenBidOpenrtb(builder -> builder.adm("adm1"));
+        cacheService.cacheBidsOpenrtb(singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+        cacheService.cacheBidsOpenrtb(singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        @SuppressWarnings("unchecked") final ArgumentCaptor<List<PutObject>> putObjectsCaptor =
+                ArgumentCaptor.forClass(List.class);
+        @SuppressWarnings("unchecked") final ArgumentCaptor<Consumer<PutObject>> listenerCaptor =
+                ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheWriteBehindQueue, times(2)).offer(putObjectsCaptor.capture(), listenerCaptor.capture());
+
+        // when
+        final PutObject storedPutObject = putObjectsCaptor.getValue().get(0);
+        listenerCaptor.getValue().accept(storedPutObject);
+        final Future<Map<com.iab.openrtb.response.Bid, CacheIdInfo>> future = cacheService.cacheBidsOpenrtb(
+                singletonList(bid), singletonList(givenImp(identity())),
+                CacheContext.of(true, null, false, null), null, timeout);
+
+        // then
+        verify(cacheWriteBehindQueue, times(2)).offer(any(), any());
+        assertThat(future.result()).containsOnly(entry(bid, CacheIdInfo.of(storedPutObject.getKey(), null)));
+    }
+
     @Test
     public void cacheBidsOpenrtbShouldReturnExpectedResultForVideoBids() throws JsonProcessingException {
         // given
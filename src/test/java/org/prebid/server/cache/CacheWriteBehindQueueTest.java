@@ -0,0 +1,213 @@
+package org.prebid.server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.node.TextNode;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.VertxTest;
+import org.prebid.server.cache.proto.request.BidCacheRequest;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.cache.proto.response.BidCacheResponse;
+import org.prebid.server.cache.proto.response.CacheObject;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.model.HttpClientResponse;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class CacheWriteBehindQueueTest extends VertxTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private HttpClient httpClient;
+    @Mock
+    private Metrics metrics;
+
+    private Clock clock;
+
+    private CacheWriteBehindQueue cacheWriteBehindQueue;
+
+    @Before
+    public void setUp() {
+        clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+
+        cacheWriteBehindQueue = givenQueue(3, 2, 1);
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> givenQueue(0, 1, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> givenQueue(1, 0, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> givenQueue(1, 1, -1));
+    }
+
+    @Test
+    public void initializeShouldSetPeriodicFlush() {
+        // when
+        cacheWriteBehindQueue.initialize();
+
+        // then
+        verify(vertx).setPeriodic(eq(10L), any());
+    }
+
+    @Test
+    public void offerShouldRejectAllObjectsIfThereIsNoRoomForThem() throws JsonProcessingException {
+        // given
+        givenHttpClientReturnsResponse(200, "uuid1", "uuid2");
+
+        // when
+        cacheWriteBehindQueue.offer(givenPutObjects("adm1", "adm2"));
+        final boolean result = cacheWriteBehindQueue.offer(givenPutObjects("adm3", "adm4"));
+        cacheWriteBehindQueue.flush();
+
+        // then
+        assertThat(result).isFalse();
+        verify(metrics).updateCacheWriteBehindRejectedMetric();
+        verify(httpClient).post(anyString(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void flushShouldSendQueuedObjectsInBatches() throws IOException {
+        // given
+        givenHttpClientReturnsResponse(200, "uuid");
+
+        // when
+        final boolean result = cacheWriteBehindQueue.offer(givenPutObjects("adm1", "adm2", "adm3"));
+        cacheWriteBehindQueue.flush();
+
+        // then
+        assertThat(result).isTrue();
+
+        final ArgumentCaptor<String> bodyCaptor = ArgumentCaptor.forClass(String.class);
+        verify(httpClient, times(2))
+                .post(eq("http://cache-service/cache"), any(), bodyCaptor.capture(), eq(1000L));
+        final List<String> bodies = bodyCaptor.getAllValues();
+        assertThat(mapper.readValue(bodies.get(0), BidCacheRequest.class))
+                .isEqualTo(BidCacheRequest.of(givenPutObjects("adm1", "adm2")));
+        assertThat(mapper.readValue(bodies.get(1), BidCacheRequest.class))
+                .isEqualTo(BidCacheRequest.of(givenPutObjects("adm3")));
+
+        verify(metrics).updateCacheWriteBehindQueueDepthMetric(eq(3));
+    }
+
+    @Test
+    public void flushShouldUpdateLagMetricForStoredObjects() throws JsonProcessingException {
+        // given
+        cacheWriteBehindQueue = givenQueue(3, 3, 1);
+        givenHttpClientReturnsResponse(200, "uuid1", "uuid2");
+
+        // when
+        cacheWriteBehindQueue.offer(givenPutObjects("adm1", "adm2"));
+        cacheWriteBehindQueue.flush();
+
+        // then
+        verify(metrics, times(2)).updateCacheWriteBehindLagMetric(eq(0L));
+        verify(metrics, times(0)).updateCacheWriteBehindDroppedMetric();
+    }
+
+    @Test
+    public void flushShouldNotifyListenerOnlyAboutStoredObjects() throws JsonProcessingException {
+        // given
+        givenHttpClientReturnsResponse(500);
+        final List<PutObject> storedPutObjects = new ArrayList<>();
+
+        // when
+        cacheWriteBehindQueue.offer(givenPutObjects("adm1"), storedPutObjects::add);
+        cacheWriteBehindQueue.flush();
+        givenHttpClientReturnsResponse(200, "uuid1");
+        cacheWriteBehindQueue.flush();
+
+        // then
+        assertThat(storedPutObjects).containsExactlyElementsOf(givenPutObjects("adm1"));
+    }
+
+    @Test
+    public void flushShouldSendFailedObjectsAgainOnNextFlush() throws JsonProcessingException {
+        // given
+        givenHttpClientReturnsResponse(500);
+
+        // when
+        cacheWriteBehindQueue.offer(givenPutObjects("adm1"));
+        cacheWriteBehindQueue.flush();
+        cacheWriteBehindQueue.flush();
+
+        // then
+        verify(httpClient, times(2)).post(anyString(), any(), any(), anyLong());
+    }
+
+    @Test
+    public void flushShouldDropFailedObjectsIfRetriesExhausted() throws JsonProcessingException {
+        // given
+        givenHttpClientReturnsResponse(500);
+
+        // when
+        cacheWriteBehindQueue.offer(givenPutObjects("adm1"));
+        cacheWriteBehindQueue.flush();
+        cacheWriteBehindQueue.flush();
+        cacheWriteBehindQueue.flush();
+
+        // then
+        verify(httpClient, times(2)).post(anyString(), any(), any(), anyLong());
+        verify(metrics).updateCacheWriteBehindDroppedMetric();
+    }
+
+    @Test
+    public void flushShouldDoNothingIfQueueIsEmpty() {
+        // when
+        cacheWriteBehindQueue.flush();
+
+        // then
+        verifyZeroInteractions(httpClient);
+    }
+
+    private CacheWriteBehindQueue givenQueue(int capacity, int batchSize, int maxRetries) {
+        return new CacheWriteBehindQueue(vertx, httpClient, "http://cache-service/cache", metrics, clock, capacity,
+                batchSize, 10L, 1000L, maxRetries);
+    }
+
+    private static List<PutObject> givenPutObjects(String... adms) {
+        final PutObject[] puts = new PutObject[adms.length];
+        for (int i = 0; i < adms.length; i++) {
+            puts[i] = PutObject.of("xml", new TextNode(adms[i]), null, "key-" + adms[i]);
+        }
+        return asList(puts);
+    }
+
+    private void givenHttpClientReturnsResponse(int statusCode, String... uuids) throws JsonProcessingException {
+        final CacheObject[] cacheObjects = new CacheObject[uuids.length];
+        for (int i = 0; i < uuids.length; i++) {
+            cacheObjects[i] = CacheObject.of(uuids[i]);
+        }
+        final String body = mapper.writeValueAsString(BidCacheResponse.of(asList(cacheObjects)));
+        given(httpClient.post(anyString(), any(), any(), anyLong()))
+                .willReturn(Future.succeededFuture(HttpClientResponse.of(statusCode, null, body)));
+    }
+}
@@ -0,0 +1,241 @@
+package org.prebid.server.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.iab.openrtb.response.Bid;
+import io.vertx.core.Future;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.VertxTest;
+import org.prebid.server.cache.proto.request.PutObject;
+import org.prebid.server.metric.Metrics;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class CreativeDeduplicatorTest extends VertxTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Metrics metrics;
+    @Mock
+    private OffHeapCacheStore offHeapCacheStore;
+
+    private List<List<PutObject>> storedBatches;
+
+    private CreativeDeduplicator creativeDeduplicator;
+
+    @Before
+    public void setUp() {
+        storedBatches = new ArrayList<>();
+
+        creativeDeduplicator = new CreativeDeduplicator(metrics, 100, 300, 60, null);
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new CreativeDeduplicator(metrics, 0, 300, 60, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new CreativeDeduplicator(metrics, 100, 0, 60, null));
+        assertThatIllegalArgumentException().isThrownBy(() -> new CreativeDeduplicator(metrics, 100, 300, -1, null));
+    }
+
+    @Test
+    public void storeShouldStoreAllObjectsFirstTime() {
+        // when
+        final Future<List<String>> future = creativeDeduplicator.store(
+                asList(givenPutObject("adm1", null), givenPutObject("adm2", null)), storer());
+
+        // then
+        assertThat(future.result()).containsExactly("uuid-adm1", "uuid-adm2");
+        assertThat(storedBatches).hasSize(1);
+        verify(metrics, times(2)).updateCacheDeduplicationMetric(eq(false));
+    }
+
+    @Test
+    public void storeShouldReuseUuidsOfObjectsWithTheSameContent() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)), storer());
+
+        // when
+        final Future<List<String>> future = creativeDeduplicator.store(
+                asList(givenPutObject("adm2", null), givenPutObject("adm1", null)), storer());
+
+        // then
+        assertThat(future.result()).containsExactly("uuid-adm2", "uuid-adm1");
+        assertThat(storedBatches.get(1)).containsExactly(givenPutObject("adm2", null));
+        verify(metrics).updateCacheDeduplicationMetric(eq(true));
+    }
+
+    @Test
+    public void storeShouldNotCallStorerIfAllObjectsAreKnown() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 120)), storer());
+
+        // when
+        final Future<List<String>> future = creativeDeduplicator.store(
+                singletonList(givenPutObject("adm1", 120)), storer());
+
+        // then
+        assertThat(future.result()).containsExactly("uuid-adm1");
+        assertThat(storedBatches).hasSize(1);
+    }
+
+    @Test
+    public void storeShouldDistinguishObjectsByTtl() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 120)), storer());
+
+        // when
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 600)), storer());
+
+        // then
+        assertThat(storedBatches).hasSize(2);
+    }
+
+    @Test
+    public void storeShouldReuseUuidsOfObjectsWithTtlOfTheSameBucket() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 120)), storer());
+
+        // when
+        final Future<List<String>> future = creativeDeduplicator.store(
+                singletonList(givenPutObject("adm1", 127)), storer());
+
+        // then
+        assertThat(future.result()).containsExactly("uuid-adm1");
+        assertThat(storedBatches).hasSize(1);
+    }
+
+    @Test
+    public void storeShouldReuseUuidsOfTheSameJsonBids() {
+        // given
+        creativeDeduplicator.store(singletonList(givenJsonPutObject("bidId1", 1.0, "adm1")), storer());
+
+        // when
+        final Future<List<String>> future = creativeDeduplicator.store(
+                singletonList(givenJsonPutObject("bidId1", 1.0, "adm1")), storer());
+
+        // then
+        assertThat(future.result()).containsExactly("uuid-bidId1");
+        assertThat(storedBatches).hasSize(1);
+    }
+
+    @Test
+    public void storeShouldNotReuseUuidsOfJsonBidsWithTheSameCreativeButDifferentPrice() {
+        // given
+        final Function<List<PutObject>, Future<List<String>>> priceStorer = putObjects -> {
+            final PutObject putObject = putObjects.get(0);
+            final String uuid = "uuid-" + putObject.getValue().get("price").asText();
+            creativeDeduplicator.remember(putObject, uuid);
+            return Future.succeededFuture(singletonList(uuid));
+        };
+        final Future<List<String>> firstFuture = creativeDeduplicator.store(
+                singletonList(givenJsonPutObject("bidId1", 1.0, "adm1")), priceStorer);
+
+        // when
+        final Future<List<String>> secondFuture = creativeDeduplicator.store(
+                singletonList(givenJsonPutObject("bidId1", 2.0, "adm1")), priceStorer);
+
+        // then
+        assertThat(firstFuture.result()).containsExactly("uuid-1.0");
+        assertThat(secondFuture.result()).containsExactly("uuid-2.0");
+        verify(metrics, times(2)).updateCacheDeduplicationMetric(eq(false));
+    }
+
+    @Test
+    public void storeShouldNotReuseUuidsOfObjectsWhichWereNotConfirmedToBeStored() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)),
+                putObjects -> Future.succeededFuture(singletonList("uuid")));
+
+        // when
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)), storer());
+
+        // then
+        assertThat(storedBatches).hasSize(1);
+        verify(metrics, times(2)).updateCacheDeduplicationMetric(eq(false));
+    }
+
+    @Test
+    public void storeShouldNotReuseUuidsOfObjectsEvictedFromEmbeddedCache() {
+        // given
+        given(offHeapCacheStore.contains(anyString())).willReturn(false);
+        creativeDeduplicator = new CreativeDeduplicator(metrics, 100, 300, 60, offHeapCacheStore);
+
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)), storer());
+
+        // when
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)), storer());
+
+        // then
+        assertThat(storedBatches).hasSize(2);
+        verify(offHeapCacheStore).contains(eq("uuid-adm1"));
+    }
+
+    @Test
+    public void storeShouldNotRememberObjectsWithTtlShorterThanMinRemainingTtl() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 60)), storer());
+
+        // when
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", 60)), storer());
+
+        // then
+        assertThat(storedBatches).hasSize(2);
+    }
+
+    @Test
+    public void storeShouldNotRememberObjectsIfStoringFailed() {
+        // given
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)),
+                putObjects -> Future.failedFuture("error"));
+
+        // when
+        creativeDeduplicator.store(singletonList(givenPutObject("adm1", null)), storer());
+
+        // then
+        assertThat(storedBatches).hasSize(1);
+    }
+
+    private Function<List<PutObject>, Future<List<String>>> storer() {
+        return putObjects -> {
+            storedBatches.add(putObjects);
+            final List<String> uuids = new ArrayList<>();
+            for (PutObject putObject : putObjects) {
+                final JsonNode value = putObject.getValue();
+                final String uuid = "uuid-" + (value.isTextual() ? value.asText() : value.get("id").asText());
+                creativeDeduplicator.remember(putObject, uuid);
+                uuids.add(uuid);
+            }
+            return Future.succeededFuture(uuids);
+        };
+    }
+
+    private static PutObject givenPutObject(String adm, Integer ttl) {
+        return PutObject.of("xml", new TextNode(adm), ttl, null);
+    }
+
+    private static PutObject givenJsonPutObject(String id, double price, String adm) {
+        return PutObject.of("json", mapper.valueToTree(
+                Bid.builder().id(id).impid("impId").price(BigDecimal.valueOf(price)).adm(adm).w(300).h(250).build()),
+                null, null);
+    }
+}
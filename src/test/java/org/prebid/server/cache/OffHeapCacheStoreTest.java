@@ -0,0 +1,129 @@
+package org.prebid.server.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.prebid.server.cache.model.CachedCreative;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class OffHeapCacheStoreTest {
+
+    private Clock clock;
+
+    private OffHeapCacheStore offHeapCacheStore;
+
+    @Before
+    public void setUp() {
+        clock = mock(Clock.class);
+        given(clock.millis()).willReturn(1000L);
+
+        offHeapCacheStore = new OffHeapCacheStore(clock, 20L, 10, 10);
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapCacheStore(clock, 10L, 0, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapCacheStore(clock, 5L, 10, 10));
+        assertThatIllegalArgumentException().isThrownBy(() -> new OffHeapCacheStore(clock, 10L, 10, 0));
+    }
+
+    @Test
+    public void getShouldReturnStoredCreative() {
+        // given
+        offHeapCacheStore.put("key1", "xml", bytes("adm1"), null);
+        offHeapCacheStore.put("key2", "json", bytes("{}"), 5);
+
+        // when and then
+        assertThat(offHeapCacheStore.get("key1")).isEqualTo(CachedCreative.of("xml", bytes("adm1")));
+        assertThat(offHeapCacheStore.get("key2")).isEqualTo(CachedCreative.of("json", bytes("{}")));
+        assertThat(offHeapCacheStore.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void getShouldReturnNullForMissingKey() {
+        assertThat(offHeapCacheStore.get("key")).isNull();
+    }
+
+    @Test
+    public void getShouldReturnNullForRemovedKey() {
+        // given
+        offHeapCacheStore.put("key", "xml", bytes("adm"), null);
+
+        // when
+        offHeapCacheStore.remove("key");
+
+        // then
+        assertThat(offHeapCacheStore.get("key")).isNull();
+        assertThat(offHeapCacheStore.size()).isZero();
+    }
+
+    @Test
+    public void getShouldReturnNullAndEvictCreativeIfTtlExpired() {
+        // given
+        offHeapCacheStore.put("key1", "xml", bytes("adm1"), 5);
+        offHeapCacheStore.put("key2", "xml", bytes("adm2"), null);
+
+        // when
+        given(clock.millis()).willReturn(6000L);
+
+        // then
+        assertThat(offHeapCacheStore.get("key1")).isNull();
+        assertThat(offHeapCacheStore.get("key2")).isNotNull();
+        assertThat(offHeapCacheStore.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void putShouldEvictCreativesOfReusedSlab() {
+        // given
+        offHeapCacheStore.put("key1", "xml", bytes("adm1-adm1"), null);
+        offHeapCacheStore.put("key2", "xml", bytes("adm2-adm2"), null);
+
+        // when
+        offHeapCacheStore.put("key3", "xml", bytes("adm3-adm3"), null);
+
+        // then
+        assertThat(offHeapCacheStore.get("key1")).isNull();
+        assertThat(offHeapCacheStore.get("key2")).isEqualTo(CachedCreative.of("xml", bytes("adm2-adm2")));
+        assertThat(offHeapCacheStore.get("key3")).isEqualTo(CachedCreative.of("xml", bytes("adm3-adm3")));
+        assertThat(offHeapCacheStore.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void containsShouldReturnFalseForExpiredOrEvictedCreatives() {
+        // given
+        offHeapCacheStore.put("key1", "xml", bytes("adm1-adm1"), 5);
+        offHeapCacheStore.put("key2", "xml", bytes("adm2-adm2"), null);
+        offHeapCacheStore.put("key3", "xml", bytes("adm3-adm3"), null);
+
+        // when
+        given(clock.millis()).willReturn(6000L);
+
+        // then
+        assertThat(offHeapCacheStore.contains("key1")).isFalse();
+        assertThat(offHeapCacheStore.contains("key2")).isTrue();
+        assertThat(offHeapCacheStore.contains("key3")).isTrue();
+        assertThat(offHeapCacheStore.contains("key4")).isFalse();
+    }
+
+    @Test
+    public void putShouldRejectCreativeLargerThanSlab() {
+        // when
+        final boolean result = offHeapCacheStore.put("key", "xml", bytes("too-large-adm"), null);
+
+        // then
+        assertThat(result).isFalse();
+        assertThat(offHeapCacheStore.get("key")).isNull();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
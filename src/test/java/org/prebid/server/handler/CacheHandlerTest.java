@@ -0,0 +1,116 @@
+package org.prebid.server.handler;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.cache.OffHeapCacheStore;
+import org.prebid.server.cache.model.CachedCreative;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+public class CacheHandlerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private OffHeapCacheStore offHeapCacheStore;
+
+    private CacheHandler cacheHandler;
+
+    @Mock
+    private RoutingContext routingContext;
+    @Mock
+    private HttpServerRequest httpRequest;
+    @Mock
+    private HttpServerResponse httpResponse;
+
+    @Before
+    public void setUp() {
+        given(routingContext.request()).willReturn(httpRequest);
+        given(routingContext.response()).willReturn(httpResponse);
+
+        given(httpResponse.setStatusCode(anyInt())).willReturn(httpResponse);
+        given(httpResponse.putHeader(any(CharSequence.class), any(CharSequence.class))).willReturn(httpResponse);
+
+        cacheHandler = new CacheHandler(offHeapCacheStore);
+    }
+
+    @Test
+    public void creationShouldFailOnNullArguments() {
+        assertThatNullPointerException().isThrownBy(() -> new CacheHandler(null));
+    }
+
+    @Test
+    public void shouldRespondWithBadRequestIfUuidIsMissing() {
+        // when
+        cacheHandler.handle(routingContext);
+
+        // then
+        verify(httpResponse).setStatusCode(eq(400));
+        verify(httpResponse).end(eq("Missing required parameter uuid"));
+        verifyZeroInteractions(offHeapCacheStore);
+    }
+
+    @Test
+    public void shouldRespondWithNotFoundIfCreativeIsMissing() {
+        // given
+        given(httpRequest.getParam(anyString())).willReturn("uuid");
+
+        // when
+        cacheHandler.handle(routingContext);
+
+        // then
+        verify(httpResponse).setStatusCode(eq(404));
+        verify(httpResponse).end(eq("No content stored for uuid=uuid"));
+    }
+
+    @Test
+    public void shouldRespondWithXmlCreative() {
+        // given
+        given(httpRequest.getParam(anyString())).willReturn("uuid");
+        final byte[] value = "<VAST/>".getBytes(StandardCharsets.UTF_8);
+        given(offHeapCacheStore.get(anyString())).willReturn(CachedCreative.of("xml", value));
+
+        // when
+        cacheHandler.handle(routingContext);
+
+        // then
+        verify(offHeapCacheStore).get(eq("uuid"));
+        verify(httpResponse).putHeader(eq(HttpHeaders.CONTENT_TYPE), eq("application/xml"));
+        verify(httpResponse).end(eq(Buffer.buffer(value)));
+    }
+
+    @Test
+    public void shouldRespondWithJsonCreative() {
+        // given
+        given(httpRequest.getParam(anyString())).willReturn("uuid");
+        final byte[] value = "{}".getBytes(StandardCharsets.UTF_8);
+        given(offHeapCacheStore.get(anyString())).willReturn(CachedCreative.of("json", value));
+
+        // when
+        cacheHandler.handle(routingContext);
+
+        // then
+        verify(httpResponse).putHeader(eq(HttpHeaders.CONTENT_TYPE), eq(HttpHeaderValues.APPLICATION_JSON));
+        verify(httpResponse).end(eq(Buffer.buffer(value)));
+    }
+}
@@ -7,7 +7,10 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
+import org.prebid.server.settings.service.JdbcPeriodicRefreshService;
 
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.only;
@@ -22,13 +25,15 @@ public class StatusHandlerTest {
     private RoutingContext routingContext;
     @Mock
     private HttpServerResponse httpResponse;
+    @Mock
+    private JdbcPeriodicRefreshService jdbcPeriodicRefreshService;
 
     private StatusHandler statusHandler;
 
     @Test
     public void shouldRespondHttp200OkWithMessage() {
         // given
-        statusHandler = new StatusHandler("Response message");
+        statusHandler = new StatusHandler("Response message", emptyList());
         given(routingContext.response()).willReturn(httpResponse);
 
         // when
@@ -40,7 +45,7 @@ public class StatusHandlerTest {
 
     @Test
     public void shouldRespondWithNoContentWhenMessageWasNotDefined() {
-        statusHandler = new StatusHandler(null);
+        statusHandler = new StatusHandler(null, emptyList());
         given(routingContext.response()).willReturn(httpResponse);
         given(httpResponse.setStatusCode(eq(204))).willReturn(httpResponse);
 
@@ -50,4 +55,34 @@ public class StatusHandlerTest {
         // then
         verify(httpResponse).setStatusCode(eq(204));
     }
+
+    @Test
+    public void shouldRespondWithServiceUnavailableWhileStoredDataIsLoading() {
+        // given
+        statusHandler = new StatusHandler("Response message", singletonList(jdbcPeriodicRefreshService));
+        given(jdbcPeriodicRefreshService.isWarmingUp()).willReturn(true);
+        given(routingContext.response()).willReturn(httpResponse);
+        given(httpResponse.setStatusCode(eq(503))).willReturn(httpResponse);
+
+        // when
+        statusHandler.handle(routingContext);
+
+        // then
+        verify(httpResponse).setStatusCode(eq(503));
+        verify(httpResponse).end(eq("warming"));
+    }
+
+    @Test
+    public void shouldRespondWithMessageWhenStoredDataIsLoaded() {
+        // given
+        statusHandler = new StatusHandler("Response message", singletonList(jdbcPeriodicRefreshService));
+        given(jdbcPeriodicRefreshService.isWarmingUp()).willReturn(false);
+        given(routingContext.response()).willReturn(httpResponse);
+
+        // when
+        statusHandler.handle(routingContext);
+
+        // then
+        verify(httpResponse, only()).end(eq("Response message"));
+    }
 }
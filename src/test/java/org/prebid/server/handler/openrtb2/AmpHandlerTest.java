@@ -10,6 +10,7 @@ import com.iab.openrtb.response.BidResponse;
 import com.iab.openrtb.response.SeatBid;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.CaseInsensitiveHeaders;
@@ -31,6 +32,7 @@ import org.prebid.server.auction.AmpRequestFactory;
 import org.prebid.server.auction.AmpResponsePostProcessor;
 import org.prebid.server.auction.ExchangeService;
 import org.prebid.server.auction.TimeoutResolver;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.Bidder;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.cookie.UidsCookie;
@@ -153,7 +155,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldRespondWithInternalServerErrorIfAuctionFails() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willThrow(new RuntimeException("Unexpected exception"));
@@ -172,7 +174,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldRespondWithInternalServerErrorIfCannotExtractBidTargeting() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         final ObjectNode ext = mapper.createObjectNode();
         ext.set("prebid", new TextNode("non-ExtBidRequest"));
@@ -207,7 +209,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldRespondWithExpectedResponse() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         final Map<String, String> targeting = new HashMap<>();
         targeting.put("key1", "value1");
@@ -223,14 +225,15 @@ public class AmpHandlerTest extends VertxTest {
         verify(httpResponse).putHeader("AMP-Access-Control-Allow-Source-Origin", "http://example.com");
         verify(httpResponse).putHeader("Access-Control-Expose-Headers", "AMP-Access-Control-Allow-Source-Origin");
         verify(httpResponse).putHeader(HttpUtil.CONTENT_TYPE_HEADER, HttpHeaderValues.APPLICATION_JSON);
-        verify(httpResponse).end(eq("{\"targeting\":{\"key1\":\"value1\",\"hb_cache_id_bidder1\":\"value2\"}}"));
+        verify(httpResponse).end(
+                eq(Buffer.buffer("{\"targeting\":{\"key1\":\"value1\",\"hb_cache_id_bidder1\":\"value2\"}}")));
     }
 
     @Test
     public void shouldRespondWithCustomTargetingIncluded() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         final Map<String, String> targeting = new HashMap<>();
         targeting.put("key1", "value1");
@@ -262,15 +265,15 @@ public class AmpHandlerTest extends VertxTest {
         verify(httpResponse).putHeader("AMP-Access-Control-Allow-Source-Origin", "http://example.com");
         verify(httpResponse).putHeader("Access-Control-Expose-Headers", "AMP-Access-Control-Allow-Source-Origin");
         verify(httpResponse).putHeader(HttpUtil.CONTENT_TYPE_HEADER, HttpHeaderValues.APPLICATION_JSON);
-        verify(httpResponse).end(eq("{\"targeting\":{\"key1\":\"value1\",\"rpfl_11078\":\"15_tier0030\"," +
-                "\"hb_cache_id_bidder1\":\"value2\"}}"));
+        verify(httpResponse).end(eq(Buffer.buffer("{\"targeting\":{\"key1\":\"value1\",\"rpfl_11078\":\"15_tier0030\","
+                + "\"hb_cache_id_bidder1\":\"value2\"}}")));
     }
 
     @Test
     public void shouldRespondWithDebugInfoIncluded() {
         // given
         final BidRequest bidRequest = givenBidRequest(builder -> builder.id("reqId1").test(1));
-        given(ampRequestFactory.fromRequest(any())).willReturn(Future.succeededFuture(bidRequest));
+        given(ampRequestFactory.fromRequest(any())).willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponseWithExt(mapper.valueToTree(
@@ -282,14 +285,15 @@ public class AmpHandlerTest extends VertxTest {
 
         // then
         verify(httpResponse).end(
-                eq("{\"targeting\":{},\"debug\":{\"resolvedrequest\":{\"id\":\"reqId1\",\"imp\":[],\"test\":1,\"tmax\":1000}}}"));
+                eq(Buffer.buffer("{\"targeting\":{},\"debug\":{\"resolvedrequest\":{\"id\":\"reqId1\","
+                        + "\"imp\":[],\"test\":1,\"tmax\":1000}}}")));
     }
 
     @Test
     public void shouldIncrementOkAmpRequestMetrics() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -306,7 +310,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldIncrementAppRequestMetrics() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(builder -> builder.app(App.builder().build()))));
+                .willReturn(Future.succeededFuture(givenAuctionContext(builder -> builder.app(App.builder().build()))));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -323,7 +327,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldIncrementNoCookieMetrics() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -346,7 +350,7 @@ public class AmpHandlerTest extends VertxTest {
         // given
         given(ampRequestFactory.fromRequest(any()))
                 .willReturn(Future.succeededFuture(
-                        givenBidRequest(builder -> builder.imp(singletonList(Imp.builder().build())))));
+                        givenAuctionContext(builder -> builder.imp(singletonList(Imp.builder().build())))));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -393,7 +397,7 @@ public class AmpHandlerTest extends VertxTest {
         given(clock.millis()).willReturn(5000L).willReturn(5500L);
 
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -429,7 +433,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldUpdateNetworkErrorMetric() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -452,7 +456,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldNotUpdateNetworkErrorMetricIfResponseSucceeded() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -469,7 +473,7 @@ public class AmpHandlerTest extends VertxTest {
     public void shouldUpdateNetworkErrorMetricIfClientClosedConnection() {
         // given
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -508,7 +512,7 @@ public class AmpHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willThrow(new RuntimeException("Unexpected exception"));
@@ -532,7 +536,7 @@ public class AmpHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(ampRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(givenBidResponse(mapper.valueToTree(
@@ -568,6 +572,15 @@ public class AmpHandlerTest extends VertxTest {
         return bidRequestBuilderCustomizer.apply(BidRequest.builder().imp(emptyList()).tmax(1000L)).build();
     }
 
+    private static AuctionContext givenAuctionContext(
+            Function<BidRequest.BidRequestBuilder, BidRequest.BidRequestBuilder> bidRequestBuilderCustomizer) {
+        return givenAuctionContext(givenBidRequest(bidRequestBuilderCustomizer));
+    }
+
+    private static AuctionContext givenAuctionContext(BidRequest bidRequest) {
+        return AuctionContext.builder().bidRequest(bidRequest).build();
+    }
+
     private static Future<BidResponse> givenBidResponse(ObjectNode extBid) {
         return Future.succeededFuture(BidResponse.builder()
                 .seatbid(singletonList(SeatBid.builder()
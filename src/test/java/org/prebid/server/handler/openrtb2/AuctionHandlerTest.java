@@ -6,6 +6,7 @@ import com.iab.openrtb.request.Imp;
 import com.iab.openrtb.response.BidResponse;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.Handler;
 import io.vertx.core.MultiMap;
 import io.vertx.core.http.CaseInsensitiveHeaders;
@@ -26,6 +27,7 @@ import org.prebid.server.analytics.model.HttpContext;
 import org.prebid.server.auction.AuctionRequestFactory;
 import org.prebid.server.auction.ExchangeService;
 import org.prebid.server.auction.TimeoutResolver;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.cookie.UidsCookie;
 import org.prebid.server.cookie.UidsCookieService;
 import org.prebid.server.exception.InvalidRequestException;
@@ -55,6 +57,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 public class AuctionHandlerTest extends VertxTest {
 
@@ -123,11 +126,47 @@ public class AuctionHandlerTest extends VertxTest {
         verify(httpResponse).end(eq("Invalid request format: Request is invalid"));
     }
 
+    @Test
+    public void handleFailureShouldRespondWithBadRequestIfBodyExceededMaxRequestSize() {
+        // given
+        given(routingContext.statusCode()).willReturn(413);
+        given(auctionRequestFactory.requestTooLarge())
+                .willReturn(new InvalidRequestException("Request size exceeded max size of 1 bytes."));
+
+        // when
+        auctionHandler.handleFailure(routingContext);
+
+        // then
+        verify(httpResponse).setStatusCode(eq(400));
+        verify(httpResponse).end(eq("Invalid request format: Request size exceeded max size of 1 bytes."));
+        verify(metrics).updateRequestTypeMetric(eq(MetricName.openrtb2web), eq(MetricName.badinput));
+
+        final AuctionEvent auctionEvent = captureAuctionEvent();
+        assertThat(auctionEvent).isEqualTo(AuctionEvent.builder()
+                .httpContext(givenHttpContext())
+                .status(400)
+                .errors(singletonList("Request size exceeded max size of 1 bytes."))
+                .build());
+    }
+
+    @Test
+    public void handleFailureShouldPassOtherFailuresToNextHandler() {
+        // given
+        given(routingContext.statusCode()).willReturn(500);
+
+        // when
+        auctionHandler.handleFailure(routingContext);
+
+        // then
+        verify(routingContext).next();
+        verifyZeroInteractions(httpResponse, metrics, analyticsReporter);
+    }
+
     @Test
     public void shouldRespondWithInternalServerErrorIfAuctionFails() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willThrow(new RuntimeException("Unexpected exception"));
@@ -158,7 +197,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldRespondWithBidResponse() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -169,14 +208,14 @@ public class AuctionHandlerTest extends VertxTest {
         // then
         verify(exchangeService).holdAuction(any(), any(), any(), any(), any());
         verify(httpResponse).putHeader(HttpUtil.CONTENT_TYPE_HEADER, HttpHeaderValues.APPLICATION_JSON);
-        verify(httpResponse).end(eq("{}"));
+        verify(httpResponse).end(eq(Buffer.buffer("{}")));
     }
 
     @Test
     public void shouldUseTimeoutFromTimeoutResolver() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -192,7 +231,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldComputeTimeoutBasedOnRequestProcessingStartTime() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -211,7 +250,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldIncrementOkOpenrtb2WebRequestMetrics() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -223,11 +262,27 @@ public class AuctionHandlerTest extends VertxTest {
         verify(metrics).updateRequestTypeMetric(eq(MetricName.openrtb2web), eq(MetricName.ok));
     }
 
+    @Test
+    public void shouldUpdateResponseSerializationMetrics() {
+        // given
+        given(auctionRequestFactory.fromRequest(any()))
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
+
+        given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
+                .willReturn(Future.succeededFuture(BidResponse.builder().id("id").build()));
+
+        // when
+        auctionHandler.handle(routingContext);
+
+        // then
+        verify(metrics).updateResponseSerializationMetrics(eq(MetricName.openrtb2web), eq(11), anyLong());
+    }
+
     @Test
     public void shouldIncrementOkOpenrtb2AppRequestMetrics() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(builder -> builder.app(App.builder().build()))));
+                .willReturn(Future.succeededFuture(givenAuctionContext(builder -> builder.app(App.builder().build()))));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -246,7 +301,7 @@ public class AuctionHandlerTest extends VertxTest {
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
 
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(builder -> builder.app(App.builder().build()))));
+                .willReturn(Future.succeededFuture(givenAuctionContext(builder -> builder.app(App.builder().build()))));
 
         // when
         auctionHandler.handle(routingContext);
@@ -259,7 +314,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldIncrementNoCookieMetrics() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -281,7 +336,7 @@ public class AuctionHandlerTest extends VertxTest {
         // given
         given(auctionRequestFactory.fromRequest(any()))
                 .willReturn(Future.succeededFuture(
-                        givenBidRequest(builder -> builder.imp(singletonList(Imp.builder().build())))));
+                        givenAuctionContext(builder -> builder.imp(singletonList(Imp.builder().build())))));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -327,7 +382,7 @@ public class AuctionHandlerTest extends VertxTest {
         given(clock.millis()).willReturn(5000L).willReturn(5500L);
 
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -363,7 +418,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldUpdateNetworkErrorMetric() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -385,7 +440,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldNotUpdateNetworkErrorMetricIfResponseSucceeded() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -401,7 +456,7 @@ public class AuctionHandlerTest extends VertxTest {
     public void shouldUpdateNetworkErrorMetricIfClientClosedConnection() {
         // given
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(givenBidRequest(identity())));
+                .willReturn(Future.succeededFuture(givenAuctionContext(identity())));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -438,7 +493,7 @@ public class AuctionHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willThrow(new RuntimeException("Unexpected exception"));
@@ -461,7 +516,7 @@ public class AuctionHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         given(exchangeService.holdAuction(any(), any(), any(), any(), any()))
                 .willReturn(Future.succeededFuture(BidResponse.builder().build()));
@@ -485,7 +540,7 @@ public class AuctionHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         final MultiMap params = MultiMap.caseInsensitiveMultiMap();
         params.add("param", "value1");
@@ -506,7 +561,7 @@ public class AuctionHandlerTest extends VertxTest {
         // given
         final BidRequest bidRequest = givenBidRequest(identity());
         given(auctionRequestFactory.fromRequest(any()))
-                .willReturn(Future.succeededFuture(bidRequest));
+                .willReturn(Future.succeededFuture(givenAuctionContext(bidRequest)));
 
         final CaseInsensitiveHeaders headers = new CaseInsensitiveHeaders();
         headers.add("header", "value1");
@@ -539,6 +594,15 @@ public class AuctionHandlerTest extends VertxTest {
         return bidRequestBuilderCustomizer.apply(BidRequest.builder().imp(emptyList()).tmax(1000L)).build();
     }
 
+    private static AuctionContext givenAuctionContext(
+            Function<BidRequest.BidRequestBuilder, BidRequest.BidRequestBuilder> bidRequestBuilderCustomizer) {
+        return givenAuctionContext(givenBidRequest(bidRequestBuilderCustomizer));
+    }
+
+    private static AuctionContext givenAuctionContext(BidRequest bidRequest) {
+        return AuctionContext.builder().bidRequest(bidRequest).build();
+    }
+
     private static HttpContext givenHttpContext() {
         return HttpContext.builder()
                 .queryParams(emptyMap())
@@ -0,0 +1,60 @@
+package org.prebid.server.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.iab.openrtb.response.BidResponse;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import org.junit.Test;
+import org.prebid.server.VertxTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonBufferDecoderTest extends VertxTest {
+
+    @Test
+    public void decodeShouldReadObjectFromUtf8Bytes() {
+        // given
+        final Buffer buffer = Buffer.buffer("{\"id\":\"é\",\"cur\":\"USD\"}");
+
+        // when
+        final BidResponse result = JsonBufferDecoder.decode(buffer, BidResponse.class);
+
+        // then
+        assertThat(result).isEqualTo(BidResponse.builder().id("é").cur("USD").build());
+    }
+
+    @Test
+    public void decodeShouldReadGenericTypeFromBytes() {
+        // given
+        final Buffer buffer = Buffer.buffer("[\"a\",\"b\"]");
+
+        // when
+        final List<String> result = JsonBufferDecoder.decode(buffer, new TypeReference<List<String>>() {
+        });
+
+        // then
+        assertThat(result).containsExactly("a", "b");
+    }
+
+    @Test
+    public void decodeShouldFailOnInvalidJson() {
+        assertThatThrownBy(() -> JsonBufferDecoder.decode(Buffer.buffer("invalid"), BidResponse.class))
+                .isInstanceOf(DecodeException.class)
+                .hasMessageStartingWith("Failed to decode: Unrecognized token 'invalid'");
+    }
+
+    @Test
+    public void decodeShouldNotConsumeBuffer() {
+        // given
+        final Buffer buffer = Buffer.buffer("{\"id\":\"id\"}");
+
+        // when
+        JsonBufferDecoder.decode(buffer, BidResponse.class);
+
+        // then
+        assertThat(buffer.toString()).isEqualTo("{\"id\":\"id\"}");
+    }
+}
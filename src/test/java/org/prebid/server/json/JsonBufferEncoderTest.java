@@ -0,0 +1,67 @@
+package org.prebid.server.json;
+
+import com.iab.openrtb.response.BidResponse;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.VertxTest;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+public class JsonBufferEncoderTest extends VertxTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Metrics metrics;
+
+    @Test
+    public void encodeShouldProduceSameJsonAsStringEncoding() {
+        // given
+        final BidResponse bidResponse = BidResponse.builder().id("id").cur("USD").nbr(1).build();
+
+        // when
+        final Buffer result = JsonBufferEncoder.encode(bidResponse);
+
+        // then
+        assertThat(result.toString()).isEqualTo(Json.encode(bidResponse));
+    }
+
+    @Test
+    public void encodeShouldWriteUtf8Bytes() {
+        // given
+        final BidResponse bidResponse = BidResponse.builder().id("é").build();
+
+        // when
+        final Buffer result = JsonBufferEncoder.encode(bidResponse);
+
+        // then
+        assertThat(result.getBytes()).isEqualTo("{\"id\":\"é\"}".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void encodeResponseShouldUpdateResponseSerializationMetrics() {
+        // given
+        final BidResponse bidResponse = BidResponse.builder().id("id").build();
+
+        // when
+        final Buffer result = JsonBufferEncoder.encodeResponse(bidResponse, MetricName.openrtb2web, metrics);
+
+        // then
+        assertThat(result.toString()).isEqualTo(Json.encode(bidResponse));
+        verify(metrics).updateResponseSerializationMetrics(eq(MetricName.openrtb2web), eq(result.length()),
+                anyLong());
+    }
+}
@@ -357,6 +357,98 @@ public class MetricsTest {
         assertThat(metricRegistry.counter("requests.networkerr.amp").getCount()).isEqualTo(1);
     }
 
+    @Test
+    public void updateResponseSerializationMetricsShouldUpdateMetrics() {
+        // when
+        metrics.updateResponseSerializationMetrics(MetricName.amp, 1024, 3000L);
+
+        // then
+        assertThat(metricRegistry.histogram("requests.response_size.amp").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("requests.response_serialization_time.amp").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("requests.response_serialization_time.amp").getSnapshot().getMax())
+                .isEqualTo(3000L);
+    }
+
+    @Test
+    public void updateBidderRequestsAllocationMetricShouldUpdateMetric() {
+        // when
+        metrics.updateBidderRequestsAllocationMetric(12);
+
+        // then
+        assertThat(metricRegistry.histogram("bidder_request_objects").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAdapterTimeoutCutMetricShouldUpdateMetric() {
+        // when
+        metrics.updateAdapterTimeoutCutMetric(RUBICON, 120L);
+
+        // then
+        assertThat(metricRegistry.histogram("adapter.rubicon.timeout_cut").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAdapterBidsForfeitedMetricShouldIncrementMetric() {
+        // when
+        metrics.updateAdapterBidsForfeitedMetric(RUBICON);
+
+        // then
+        assertThat(metricRegistry.counter("adapter.rubicon.bids_forfeited").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAdapterConnectionPoolMetricsShouldUpdateMetrics() {
+        // when
+        metrics.updateAdapterConnectionPoolMetrics(RUBICON, 10, 3);
+
+        // then
+        assertThat(metricRegistry.histogram("adapter.rubicon.pool_active_connections").getSnapshot().getValues())
+                .containsOnly(10);
+        assertThat(metricRegistry.histogram("adapter.rubicon.pool_wait_queue_size").getSnapshot().getValues())
+                .containsOnly(3);
+    }
+
+    @Test
+    public void updateAdapterConnectionWaitTimeMetricShouldUpdateMetric() {
+        // when
+        metrics.updateAdapterConnectionWaitTimeMetric(RUBICON, 15L);
+
+        // then
+        assertThat(metricRegistry.timer("adapter.rubicon.pool_wait_time").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAdapterConnectionPoolRejectedMetricShouldIncrementMetric() {
+        // when
+        metrics.updateAdapterConnectionPoolRejectedMetric(RUBICON);
+
+        // then
+        assertThat(metricRegistry.counter("adapter.rubicon.pool_rejected").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateAdapterRequestCompressionMetricsShouldUpdateMetrics() {
+        // when
+        metrics.updateAdapterRequestCompressionMetrics(RUBICON, 1000, 200, 50000L);
+
+        // then
+        assertThat(metricRegistry.histogram("adapter.rubicon.request_size").getSnapshot().getValues())
+                .containsOnly(1000);
+        assertThat(metricRegistry.histogram("adapter.rubicon.compressed_request_size").getSnapshot().getValues())
+                .containsOnly(200);
+        assertThat(metricRegistry.timer("adapter.rubicon.request_compression_time").getSnapshot().getValues())
+                .containsOnly(50000L);
+    }
+
+    @Test
+    public void updateAdapterRequestSuppressedMetricShouldIncrementMetric() {
+        // when
+        metrics.updateAdapterRequestSuppressedMetric(RUBICON);
+
+        // then
+        assertThat(metricRegistry.counter("adapter.rubicon.requests.suppressed").getCount()).isEqualTo(1);
+    }
+
     @Test
     public void updateAccountRequestMetricsShouldIncrementMetrics() {
         // when
@@ -576,6 +668,17 @@ public class MetricsTest {
         assertThat(metricRegistry.timer("db_query_time").getCount()).isEqualTo(1);
     }
 
+    @Test
+    public void updateDatabaseBatchMetricsShouldUpdateHistogramAndTimer() {
+        // when
+        metrics.updateDatabaseBatchSizeMetric(3);
+        metrics.updateDatabaseBatchWaitTimeMetric(5L);
+
+        // then
+        assertThat(metricRegistry.histogram("db_batch_size").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("db_batch_wait_time").getCount()).isEqualTo(1);
+    }
+
     @Test
     public void shouldIncrementDatabaseCircuitBreakerOpenMetric() {
         // when
@@ -597,19 +700,129 @@ public class MetricsTest {
     @Test
     public void shouldIncrementHttpClientCircuitBreakerOpenMetric() {
         // when
-        metrics.updateHttpClientCircuitBreakerMetric(true);
+        metrics.updateHttpClientCircuitBreakerMetric(RUBICON, true);
 
         // then
         assertThat(metricRegistry.counter("httpclient_circuitbreaker_opened").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("httpclient.rubicon.circuitbreaker_opened").getCount()).isEqualTo(1);
     }
 
     @Test
     public void shouldIncrementHttpClientCircuitBreakerCloseMetric() {
         // when
-        metrics.updateHttpClientCircuitBreakerMetric(false);
+        metrics.updateHttpClientCircuitBreakerMetric(RUBICON, false);
 
         // then
         assertThat(metricRegistry.counter("httpclient_circuitbreaker_closed").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("httpclient.rubicon.circuitbreaker_closed").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldIncrementHttpClientCircuitBreakerHalfOpenMetric() {
+        // when
+        metrics.updateHttpClientCircuitBreakerHalfOpenedMetric(RUBICON);
+
+        // then
+        assertThat(metricRegistry.counter("httpclient.rubicon.circuitbreaker_half_opened").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateHttpClientCircuitBreakerWindowMetricsShouldUpdateHistograms() {
+        // when
+        metrics.updateHttpClientCircuitBreakerWindowMetrics(RUBICON, 50, 1);
+
+        // then
+        assertThat(metricRegistry.histogram("httpclient.rubicon.circuitbreaker_failure_rate").getSnapshot()
+                .getValues()).containsOnly(50);
+        assertThat(metricRegistry.histogram("httpclient.rubicon.circuitbreaker_slow_call_rate").getSnapshot()
+                .getValues()).containsOnly(1);
+    }
+
+    @Test
+    public void shouldUpdateCacheBatchMetrics() {
+        // when
+        metrics.updateCacheBatchSizeMetric(12);
+        metrics.updateCacheBatchWaitTimeMetric(3L);
+        metrics.updateCacheBatchRequestTimeMetric(45L);
+
+        // then
+        assertThat(metricRegistry.histogram("cache_batch_size").getSnapshot().getValues()).containsOnly(12);
+        assertThat(metricRegistry.timer("cache_batch_wait_time").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("cache_batch_request_time").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldUpdateCacheWriteBehindMetrics() {
+        // when
+        metrics.updateCacheWriteBehindQueueDepthMetric(12);
+        metrics.updateCacheWriteBehindRejectedMetric();
+        metrics.updateCacheWriteBehindDroppedMetric();
+        metrics.updateCacheWriteBehindLagMetric(45L);
+
+        // then
+        assertThat(metricRegistry.histogram("cache_write_behind_queue_depth").getSnapshot().getValues())
+                .containsOnly(12);
+        assertThat(metricRegistry.counter("cache_write_behind_rejected").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("cache_write_behind_dropped").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.timer("cache_write_behind_lag").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldUpdateCacheDeduplicationMetrics() {
+        // when
+        metrics.updateCacheDeduplicationMetric(true);
+        metrics.updateCacheDeduplicationMetric(true);
+        metrics.updateCacheDeduplicationMetric(false);
+
+        // then
+        assertThat(metricRegistry.counter("cache_dedup_hit").getCount()).isEqualTo(2);
+        assertThat(metricRegistry.counter("cache_dedup_miss").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldUpdateSettingsLookupMetrics() {
+        // when
+        metrics.updateSettingsLookupMetric(false);
+        metrics.updateSettingsLookupMetric(true);
+        metrics.updateSettingsLookupMetric(true);
+
+        // then
+        assertThat(metricRegistry.counter("settings_lookup_issued").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("settings_lookup_coalesced").getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldUpdateSettingsCacheMetrics() {
+        // when
+        metrics.updateSettingsCacheMetric("account", MetricName.hit);
+        metrics.updateSettingsCacheMetric("account", MetricName.negative_hit);
+        metrics.updateSettingsCacheMetric("stored_request", MetricName.refresh);
+
+        // then
+        assertThat(metricRegistry.counter("settings.cache.account.hit").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("settings.cache.account.negative_hit").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("settings.cache.stored_request.refresh").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateSettingsFileReloadMetricsShouldUpdateMetrics() {
+        // when
+        metrics.updateSettingsFileReloadMetrics(15L, 3);
+        metrics.updateSettingsFileReloadFailedMetric();
+
+        // then
+        assertThat(metricRegistry.timer("settings_file_reload_time").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.histogram("settings_file_reloaded_files").getCount()).isEqualTo(1);
+        assertThat(metricRegistry.counter("settings_file_reload_failed").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void updateSettingsCacheResidentBytesMetricShouldUpdateHistogram() {
+        // when
+        metrics.updateSettingsCacheResidentBytesMetric("stored_imp", 1024L);
+
+        // then
+        assertThat(metricRegistry.histogram("settings.cache.stored_imp.resident_bytes").getCount()).isEqualTo(1);
     }
 
     @Test
@@ -7,6 +7,7 @@ import org.junit.Test;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -114,6 +115,18 @@ public class UpdatableMetricsTest {
         assertThat(metricRegistry.timer("request_time").getSnapshot().getValues()).containsOnly(1_000_000_000L);
     }
 
+    @Test
+    public void updateTimerShouldConvertFromGivenTimeUnitToNanos() {
+        // given
+        updatableMetrics = new UpdatableMetrics(metricRegistry, CounterType.counter, MetricName::toString);
+
+        // when
+        updatableMetrics.updateTimer(MetricName.request_time, 1000L, TimeUnit.MICROSECONDS);
+
+        // then
+        assertThat(metricRegistry.timer("request_time").getSnapshot().getValues()).containsOnly(1_000_000L);
+    }
+
     @Test
     public void updateHistogramShouldCreateMetricNameUsingProvidedCreator() {
         // given
@@ -1,9 +1,12 @@
 package org.prebid.server.settings;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -11,13 +14,23 @@ import org.prebid.server.exception.InvalidRequestException;
 import org.prebid.server.exception.PreBidException;
 import org.prebid.server.execution.Timeout;
 import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
 import org.prebid.server.settings.model.Account;
+import org.prebid.server.settings.model.CacheMemoryOptions;
 import org.prebid.server.settings.model.StoredDataResult;
+import org.prebid.server.vertx.http.HttpClient;
+import org.prebid.server.vertx.http.model.HttpClientResponse;
 
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.emptySet;
@@ -25,12 +38,15 @@ import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -41,23 +57,30 @@ public class CachingApplicationSettingsTest {
 
     @Mock
     private ApplicationSettings applicationSettings;
+    @Mock
+    private Metrics metrics;
+    @Mock
+    private HttpClient httpClient;
+    @Mock
+    private Vertx vertx;
 
     private CachingApplicationSettings cachingApplicationSettings;
 
+    private TimeoutFactory timeoutFactory;
     private Timeout timeout;
 
     @Before
     public void setUp() {
-        timeout = new TimeoutFactory(Clock.fixed(Instant.now(), ZoneId.systemDefault())).create(500L);
+        timeoutFactory = new TimeoutFactory(Clock.fixed(Instant.now(), ZoneId.systemDefault()));
+        timeout = timeoutFactory.create(500L);
 
-        cachingApplicationSettings = new CachingApplicationSettings(applicationSettings, new SettingsCache(360, 100),
-                new SettingsCache(360, 100), 360, 100);
+        cachingApplicationSettings = createCachingApplicationSettings(0);
     }
 
     @Test
     public void getAccountByIdShouldReturnResultFromCacheOnSuccessiveCalls() {
         // given
-        given(applicationSettings.getAccountById(eq("accountId"), same(timeout)))
+        given(applicationSettings.getAccountById(eq("accountId"), any()))
                 .willReturn(Future.succeededFuture(Account.of("accountId", "med", null, null, null)));
 
         // when
@@ -67,10 +90,31 @@ public class CachingApplicationSettingsTest {
         // then
         assertThat(future.succeeded()).isTrue();
         assertThat(future.result()).isEqualTo(Account.of("accountId", "med", null, null, null));
-        verify(applicationSettings).getAccountById(eq("accountId"), same(timeout));
+        verify(applicationSettings).getAccountById(eq("accountId"), any());
         verifyNoMoreInteractions(applicationSettings);
     }
 
+    @Test
+    public void getAccountByIdShouldReturnAccountKeptCompressedInCache() {
+        // given
+        cachingApplicationSettings = new CachingApplicationSettings(applicationSettings,
+                new SettingsCache("stored", metrics, 360, 0, 0, 100, CacheMemoryOptions.NONE),
+                new SettingsCache("amp_stored", metrics, 360, 0, 0, 100, CacheMemoryOptions.NONE),
+                vertx, timeoutFactory, 100L, metrics, 360, 0, 0, 100, CacheMemoryOptions.of(0L, 1, null));
+
+        given(applicationSettings.getAccountById(eq("accountId"), any()))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", 100, null, true)));
+
+        // when
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        final Future<Account> future = cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        assertThat(future.result()).isEqualTo(Account.of("accountId", "med", 100, null, true));
+        verify(applicationSettings).getAccountById(eq("accountId"), any());
+        verify(metrics).updateSettingsCacheMetric(eq("account"), eq(MetricName.hit));
+    }
+
     @Test
     public void getAccountByIdShouldPropagateFailure() {
         // given
@@ -88,10 +132,153 @@ public class CachingApplicationSettingsTest {
                 .hasMessage("error");
     }
 
+    @Test
+    public void getAccountByIdShouldShareDelegateLookupAmongConcurrentCalls() {
+        // given
+        final Future<Account> delegateFuture = Future.future();
+        given(applicationSettings.getAccountById(anyString(), any())).willReturn(delegateFuture);
+
+        // when
+        final Future<Account> future1 = cachingApplicationSettings.getAccountById("accountId", timeout);
+        final Future<Account> future2 = cachingApplicationSettings.getAccountById("accountId", timeout);
+        delegateFuture.complete(Account.of("accountId", "med", null, null, null));
+
+        // then
+        assertThat(future1.result()).isEqualTo(Account.of("accountId", "med", null, null, null));
+        assertThat(future2.result()).isEqualTo(Account.of("accountId", "med", null, null, null));
+        verify(applicationSettings).getAccountById(eq("accountId"), any());
+        verify(metrics).updateSettingsLookupMetric(eq(false));
+        verify(metrics).updateSettingsLookupMetric(eq(true));
+    }
+
+    @Test
+    public void getAccountByIdShouldLookUpWithLookupTimeoutRatherThanTimeoutOfCaller() {
+        // given
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", null, null, null)));
+
+        // when
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        final ArgumentCaptor<Timeout> timeoutCaptor = ArgumentCaptor.forClass(Timeout.class);
+        verify(applicationSettings).getAccountById(eq("accountId"), timeoutCaptor.capture());
+        assertThat(timeoutCaptor.getValue().remaining()).isEqualTo(100L);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getAccountByIdShouldFailOnlyConcurrentCallWhoseTimeoutExpired() {
+        // given
+        final Future<Account> delegateFuture = Future.future();
+        given(applicationSettings.getAccountById(anyString(), any())).willReturn(delegateFuture);
+
+        // when
+        final Future<Account> future1 =
+                cachingApplicationSettings.getAccountById("accountId", timeoutFactory.create(10L));
+        final Future<Account> future2 = cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        final ArgumentCaptor<Handler<Long>> timerHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(10L), timerHandlerCaptor.capture());
+        timerHandlerCaptor.getValue().handle(1L);
+
+        delegateFuture.complete(Account.of("accountId", "med", null, null, null));
+
+        // then
+        assertThat(future1.cause()).isInstanceOf(TimeoutException.class);
+        assertThat(future2.result()).isEqualTo(Account.of("accountId", "med", null, null, null));
+        assertThat(cachingApplicationSettings.getAccountById("accountId", timeout).result())
+                .isEqualTo(Account.of("accountId", "med", null, null, null));
+        verify(applicationSettings).getAccountById(eq("accountId"), any());
+    }
+
+    @Test
+    public void getAccountByIdShouldPropagateFailureToConcurrentCalls() {
+        // given
+        final Future<Account> delegateFuture = Future.future();
+        given(applicationSettings.getAccountById(anyString(), any())).willReturn(delegateFuture);
+
+        // when
+        final Future<Account> future1 = cachingApplicationSettings.getAccountById("accountId", timeout);
+        final Future<Account> future2 = cachingApplicationSettings.getAccountById("accountId", timeout);
+        delegateFuture.fail(new PreBidException("error"));
+
+        // then
+        assertThat(future1.cause()).isInstanceOf(PreBidException.class).hasMessage("error");
+        assertThat(future2.cause()).isInstanceOf(PreBidException.class).hasMessage("error");
+    }
+
+    @Test
+    public void getAccountByIdShouldCompleteLookupIfDelegateThrowsException() {
+        // given
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willThrow(new IllegalStateException("error"))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", null, null, null)));
+
+        // when
+        final Future<Account> future1 = cachingApplicationSettings.getAccountById("accountId", timeout);
+        final Future<Account> future2 = cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        assertThat(future1.cause()).isInstanceOf(IllegalStateException.class).hasMessage("error");
+        assertThat(future2.result()).isEqualTo(Account.of("accountId", "med", null, null, null));
+        verify(applicationSettings, times(2)).getAccountById(eq("accountId"), any());
+    }
+
+    @Test
+    public void getAccountByIdShouldReturnNotFoundFromCacheOnSuccessiveCallsIfNegativeCachingEnabled() {
+        // given
+        cachingApplicationSettings = createCachingApplicationSettings(60);
+
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willReturn(Future.failedFuture(new PreBidException("Not found")));
+
+        // when
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        final Future<Account> future = cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        assertThat(future.cause()).isInstanceOf(PreBidException.class).hasMessage("Not found");
+        verify(applicationSettings).getAccountById(eq("accountId"), any());
+        verify(metrics).updateSettingsCacheMetric(eq("account"), eq(MetricName.miss));
+        verify(metrics).updateSettingsCacheMetric(eq("account"), eq(MetricName.negative_hit));
+    }
+
+    @Test
+    public void getAccountByIdShouldNotCacheSystemFailureIfNegativeCachingEnabled() {
+        // given
+        cachingApplicationSettings = createCachingApplicationSettings(60);
+
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willReturn(Future.failedFuture(new TimeoutException("timeout")));
+
+        // when
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        verify(applicationSettings, times(2)).getAccountById(eq("accountId"), any());
+    }
+
+    @Test
+    public void getAccountByIdShouldUpdateHitAndMissMetrics() {
+        // given
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", null, null, null)));
+
+        // when
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+
+        // then
+        verify(metrics).updateSettingsCacheMetric(eq("account"), eq(MetricName.miss));
+        verify(metrics).updateSettingsCacheMetric(eq("account"), eq(MetricName.hit));
+    }
+
     @Test
     public void getAdUnitConfigByIdShouldReturnResultFromCacheOnSuccessiveCalls() {
         // given
-        given(applicationSettings.getAdUnitConfigById(eq("adUnitConfigId"), same(timeout)))
+        given(applicationSettings.getAdUnitConfigById(eq("adUnitConfigId"), any()))
                 .willReturn(Future.succeededFuture("config"));
 
         // when
@@ -101,7 +288,7 @@ public class CachingApplicationSettingsTest {
         // then
         assertThat(future.succeeded()).isTrue();
         assertThat(future.result()).isEqualTo("config");
-        verify(applicationSettings).getAdUnitConfigById(eq("adUnitConfigId"), same(timeout));
+        verify(applicationSettings).getAdUnitConfigById(eq("adUnitConfigId"), any());
         verifyNoMoreInteractions(applicationSettings);
     }
 
@@ -125,7 +312,7 @@ public class CachingApplicationSettingsTest {
     @Test
     public void getStoredDataShouldReturnResultOnSuccessiveCalls() {
         // given
-        given(applicationSettings.getStoredData(eq(singleton("reqid")), eq(singleton("impid")), same(timeout)))
+        given(applicationSettings.getStoredData(eq(singleton("reqid")), eq(singleton("impid")), any()))
                 .willReturn(Future.succeededFuture(StoredDataResult.of(
                         singletonMap("reqid", "json"), singletonMap("impid", "json2"), emptyList())));
 
@@ -138,7 +325,7 @@ public class CachingApplicationSettingsTest {
         assertThat(future.succeeded()).isTrue();
         assertThat(future.result()).isEqualTo(StoredDataResult.of(
                 singletonMap("reqid", "json"), singletonMap("impid", "json2"), emptyList()));
-        verify(applicationSettings).getStoredData(eq(singleton("reqid")), eq(singleton("impid")), same(timeout));
+        verify(applicationSettings).getStoredData(eq(singleton("reqid")), eq(singleton("impid")), any());
         verifyNoMoreInteractions(applicationSettings);
     }
 
@@ -159,6 +346,26 @@ public class CachingApplicationSettingsTest {
                 .hasMessage("error");
     }
 
+    @Test
+    public void getStoredDataShouldCompleteLookupIfDelegateThrowsException() {
+        // given
+        given(applicationSettings.getStoredData(anySet(), anySet(), any()))
+                .willThrow(new IllegalStateException("error"))
+                .willReturn(Future.succeededFuture(StoredDataResult.of(singletonMap("id", "json"), emptyMap(),
+                        emptyList())));
+
+        // when
+        final Future<StoredDataResult> future1 =
+                cachingApplicationSettings.getStoredData(singleton("id"), emptySet(), timeout);
+        final Future<StoredDataResult> future2 =
+                cachingApplicationSettings.getStoredData(singleton("id"), emptySet(), timeout);
+
+        // then
+        assertThat(future1.cause()).isInstanceOf(IllegalStateException.class).hasMessage("error");
+        assertThat(future2.result().getStoredIdToRequest()).containsOnly(entry("id", "json"));
+        verify(applicationSettings, times(2)).getStoredData(eq(singleton("id")), eq(emptySet()), any());
+    }
+
     @Test
     public void getStoredDataShouldReturnResultWithErrorsOnNotSuccessiveCallToCacheAndErrorInDelegateCall() {
         // given
@@ -175,4 +382,218 @@ public class CachingApplicationSettingsTest {
         assertThat(future.result())
                 .isEqualTo(StoredDataResult.of(emptyMap(), emptyMap(), singletonList("error")));
     }
+
+    @Test
+    public void getStoredDataShouldLookUpOnlyIdsWhichAreNotLookedUpByConcurrentCalls() {
+        // given
+        final Future<StoredDataResult> delegateFuture1 = Future.future();
+        given(applicationSettings.getStoredData(eq(singleton("id1")), eq(emptySet()), any()))
+                .willReturn(delegateFuture1);
+        given(applicationSettings.getStoredData(eq(singleton("id2")), eq(emptySet()), any()))
+                .willReturn(Future.succeededFuture(StoredDataResult.of(
+                        singletonMap("id2", "value2"), emptyMap(), emptyList())));
+
+        // when
+        final Future<StoredDataResult> future1 =
+                cachingApplicationSettings.getStoredData(singleton("id1"), emptySet(), timeout);
+        final Future<StoredDataResult> future2 =
+                cachingApplicationSettings.getStoredData(new HashSet<>(asList("id1", "id2")), emptySet(), timeout);
+        delegateFuture1.complete(StoredDataResult.of(singletonMap("id1", "value1"), emptyMap(), emptyList()));
+
+        // then
+        final Map<String, String> expectedStoredIdToRequest = new HashMap<>();
+        expectedStoredIdToRequest.put("id1", "value1");
+        expectedStoredIdToRequest.put("id2", "value2");
+
+        assertThat(future1.result())
+                .isEqualTo(StoredDataResult.of(singletonMap("id1", "value1"), emptyMap(), emptyList()));
+        assertThat(future2.result())
+                .isEqualTo(StoredDataResult.of(expectedStoredIdToRequest, emptyMap(), emptyList()));
+        verify(applicationSettings).getStoredData(eq(singleton("id1")), eq(emptySet()), any());
+        verify(applicationSettings).getStoredData(eq(singleton("id2")), eq(emptySet()), any());
+        verifyNoMoreInteractions(applicationSettings);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void getStoredDataShouldFailOnlyConcurrentCallWhoseTimeoutExpired() {
+        // given
+        final Future<StoredDataResult> delegateFuture = Future.future();
+        given(applicationSettings.getStoredData(anySet(), anySet(), any())).willReturn(delegateFuture);
+
+        // when
+        final Future<StoredDataResult> future1 =
+                cachingApplicationSettings.getStoredData(singleton("id1"), emptySet(), timeoutFactory.create(10L));
+        final Future<StoredDataResult> future2 =
+                cachingApplicationSettings.getStoredData(singleton("id1"), emptySet(), timeout);
+
+        final ArgumentCaptor<Handler<Long>> timerHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setTimer(eq(10L), timerHandlerCaptor.capture());
+        timerHandlerCaptor.getValue().handle(1L);
+
+        delegateFuture.complete(StoredDataResult.of(singletonMap("id1", "value1"), emptyMap(), emptyList()));
+
+        // then
+        assertThat(future1.cause()).isInstanceOf(TimeoutException.class);
+        assertThat(future2.result())
+                .isEqualTo(StoredDataResult.of(singletonMap("id1", "value1"), emptyMap(), emptyList()));
+
+        final ArgumentCaptor<Timeout> timeoutCaptor = ArgumentCaptor.forClass(Timeout.class);
+        verify(applicationSettings).getStoredData(eq(singleton("id1")), eq(emptySet()), timeoutCaptor.capture());
+        assertThat(timeoutCaptor.getValue().remaining()).isEqualTo(100L);
+    }
+
+    @Test
+    public void getStoredDataShouldReturnErrorForIdNotFoundByConcurrentCall() {
+        // given
+        final Future<StoredDataResult> delegateFuture = Future.future();
+        given(applicationSettings.getStoredData(anySet(), anySet(), any())).willReturn(delegateFuture);
+
+        // when
+        cachingApplicationSettings.getStoredData(emptySet(), singleton("id"), timeout);
+        final Future<StoredDataResult> future =
+                cachingApplicationSettings.getStoredData(emptySet(), singleton("id"), timeout);
+        delegateFuture.complete(StoredDataResult.of(emptyMap(), emptyMap(), singletonList("error")));
+
+        // then
+        assertThat(future.result()).isEqualTo(StoredDataResult.of(emptyMap(), emptyMap(),
+                singletonList("No stored imp found for id: id")));
+        verify(applicationSettings).getStoredData(anySet(), anySet(), any());
+    }
+
+    @Test
+    public void getStoredDataShouldReturnErrorForIdsNotFoundByPreviousCallIfNegativeCachingEnabled() {
+        // given
+        cachingApplicationSettings = createCachingApplicationSettings(60);
+
+        given(applicationSettings.getStoredData(anySet(), anySet(), any()))
+                .willReturn(Future.succeededFuture(StoredDataResult.of(singletonMap("reqid1", "value1"), emptyMap(),
+                        singletonList("No stored imp found for id: impid1"))));
+
+        // when
+        cachingApplicationSettings.getStoredData(singleton("reqid1"), singleton("impid1"), timeout);
+        final Future<StoredDataResult> future =
+                cachingApplicationSettings.getStoredData(singleton("reqid1"), singleton("impid1"), timeout);
+
+        // then
+        assertThat(future.result()).isEqualTo(StoredDataResult.of(singletonMap("reqid1", "value1"), emptyMap(),
+                singletonList("No stored imp found for id: impid1")));
+        verify(applicationSettings).getStoredData(eq(singleton("reqid1")), eq(singleton("impid1")), any());
+        verifyNoMoreInteractions(applicationSettings);
+        verify(metrics).updateSettingsCacheMetric(eq("stored_request"), eq(MetricName.hit));
+        verify(metrics).updateSettingsCacheMetric(eq("stored_imp"), eq(MetricName.negative_hit));
+    }
+
+    @Test
+    public void getStoredDataShouldNotRememberIdsAsNotFoundIfHttpDelegateTimedOut() {
+        // given
+        cachingApplicationSettings = new CachingApplicationSettings(
+                new HttpApplicationSettings(httpClient, "http://stored-requests", "http://amp-stored-requests"),
+                new SettingsCache("stored", metrics, 360, 0, 60, 100, CacheMemoryOptions.NONE),
+                new SettingsCache("amp_stored", metrics, 360, 0, 60, 100, CacheMemoryOptions.NONE),
+                vertx, timeoutFactory, 100L, metrics, 360, 0, 60, 100, CacheMemoryOptions.NONE);
+
+        given(httpClient.get(anyString(), any(), anyLong()))
+                .willReturn(Future.failedFuture(new TimeoutException("Timeout period of 500ms has been exceeded")))
+                .willReturn(Future.succeededFuture(HttpClientResponse.of(200, null,
+                        "{\"requests\": {\"reqid1\": {\"id\": \"value1\"}}}")));
+
+        // when
+        final Future<StoredDataResult> timedOutFuture =
+                cachingApplicationSettings.getStoredData(singleton("reqid1"), emptySet(), timeout);
+        final Future<StoredDataResult> future =
+                cachingApplicationSettings.getStoredData(singleton("reqid1"), emptySet(), timeout);
+
+        // then
+        assertThat(timedOutFuture.result().getStoredIdToRequest()).isEmpty();
+        assertThat(future.result().getStoredIdToRequest()).containsOnly(entry("reqid1", "{\"id\":\"value1\"}"));
+        assertThat(future.result().getErrors()).isEmpty();
+        verify(httpClient, times(2)).get(anyString(), any(), anyLong());
+        verify(metrics, never()).updateSettingsCacheMetric(eq("stored_request"), eq(MetricName.negative_hit));
+    }
+
+    @Test
+    public void invalidateAccountsShouldRemoveCachedAndNotFoundAccounts() {
+        // given
+        cachingApplicationSettings = createCachingApplicationSettings(60);
+
+        given(applicationSettings.getAccountById(eq("accountId"), any()))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", null, null, null)));
+        given(applicationSettings.getAccountById(eq("newAccountId"), any()))
+                .willReturn(Future.failedFuture(new PreBidException("Not found")))
+                .willReturn(Future.succeededFuture(Account.of("newAccountId", "med", null, null, null)));
+
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        cachingApplicationSettings.getAccountById("newAccountId", timeout);
+
+        // when
+        cachingApplicationSettings.invalidateAccounts(asList("accountId", "newAccountId"));
+
+        // then
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        assertThat(cachingApplicationSettings.getAccountById("newAccountId", timeout).result())
+                .isEqualTo(Account.of("newAccountId", "med", null, null, null));
+        verify(applicationSettings, times(2)).getAccountById(eq("accountId"), any());
+        verify(applicationSettings, times(2)).getAccountById(eq("newAccountId"), any());
+    }
+
+    @Test
+    public void invalidateAdUnitConfigsShouldRemoveCachedAdUnitConfigs() {
+        // given
+        given(applicationSettings.getAdUnitConfigById(anyString(), any()))
+                .willReturn(Future.succeededFuture("config"))
+                .willReturn(Future.succeededFuture("updated"));
+
+        cachingApplicationSettings.getAdUnitConfigById("adUnitConfigId", timeout);
+
+        // when
+        cachingApplicationSettings.invalidateAdUnitConfigs(singletonList("adUnitConfigId"));
+
+        // then
+        assertThat(cachingApplicationSettings.getAdUnitConfigById("adUnitConfigId", timeout).result())
+                .isEqualTo("updated");
+        verify(applicationSettings, times(2)).getAdUnitConfigById(eq("adUnitConfigId"), any());
+    }
+
+    @Test
+    public void restoreShouldMakeSnapshottedAccountsAndAdUnitConfigsAvailableWithoutDelegateCalls() {
+        // given
+        given(applicationSettings.getAccountById(anyString(), any()))
+                .willReturn(Future.succeededFuture(Account.of("accountId", "med", 100, null, true)));
+        given(applicationSettings.getAdUnitConfigById(anyString(), any()))
+                .willReturn(Future.succeededFuture("config"));
+
+        cachingApplicationSettings.getAccountById("accountId", timeout);
+        cachingApplicationSettings.getAdUnitConfigById("adUnitConfigId", timeout);
+        final Map<String, Map<String, String>> snapshot = cachingApplicationSettings.snapshot();
+
+        final CachingApplicationSettings restoredApplicationSettings = createCachingApplicationSettings(0);
+
+        // when
+        restoredApplicationSettings.restore(snapshot);
+
+        // then
+        assertThat(restoredApplicationSettings.getAccountById("accountId", timeout).result())
+                .isEqualTo(Account.of("accountId", "med", 100, null, true));
+        assertThat(restoredApplicationSettings.getAdUnitConfigById("adUnitConfigId", timeout).result())
+                .isEqualTo("config");
+        verify(applicationSettings).getAccountById(anyString(), any());
+        verify(applicationSettings).getAdUnitConfigById(anyString(), any());
+    }
+
+    @Test
+    public void restoreShouldSkipAccountsWhichCannotBeParsed() {
+        // when
+        cachingApplicationSettings.restore(singletonMap("account", singletonMap("accountId", "invalid")));
+
+        // then
+        assertThat(cachingApplicationSettings.snapshot().get("account")).isEmpty();
+    }
+
+    private CachingApplicationSettings createCachingApplicationSettings(int negativeTtl) {
+        return new CachingApplicationSettings(applicationSettings,
+                new SettingsCache("stored", metrics, 360, 0, negativeTtl, 100, CacheMemoryOptions.NONE),
+                new SettingsCache("amp_stored", metrics, 360, 0, negativeTtl, 100, CacheMemoryOptions.NONE),
+                vertx, timeoutFactory, 100L, metrics, 360, 0, negativeTtl, 100, CacheMemoryOptions.NONE);
+    }
 }
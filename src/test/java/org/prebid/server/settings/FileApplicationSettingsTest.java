@@ -9,8 +9,13 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.prebid.server.settings.model.Account;
+import org.prebid.server.settings.model.SettingsFilesReloadResult;
 import org.prebid.server.settings.model.StoredDataResult;
 
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
@@ -241,6 +246,72 @@ public class FileApplicationSettingsTest {
         assertThat(storedRequestResult.result().getStoredIdToImp()).isEmpty();
     }
 
+    @Test
+    public void reloadShouldReplaceChangedStoredDataAndRemoveDeletedOnes() {
+        // given
+        given(fileSystem.readDirBlocking(anyString()))
+                .willReturn(asList("/home/user/requests/1.json", "/home/user/requests/2.json"))
+                .willReturn(emptyList());
+        given(fileSystem.readFileBlocking(anyString()))
+                .willReturn(Buffer.buffer("accounts:")) // settings file
+                .willReturn(Buffer.buffer("value1")) // stored request
+                .willReturn(Buffer.buffer("value2")); // stored request
+        final FileApplicationSettings applicationSettings =
+                FileApplicationSettings.create(fileSystem, "ignore", "/home/user/requests", "/home/user/imps");
+
+        given(fileSystem.existsBlocking(eq("/home/user/requests/1.json"))).willReturn(true);
+        given(fileSystem.readFileBlocking(eq("/home/user/requests/1.json"))).willReturn(Buffer.buffer("updated1"));
+        given(fileSystem.existsBlocking(eq("/home/user/requests/2.json"))).willReturn(false);
+
+        // when
+        final SettingsFilesReloadResult reloadResult = applicationSettings.reload(false,
+                new HashSet<>(asList("1.json", "2.json")), emptySet());
+
+        // then
+        assertThat(reloadResult.getFilesCount()).isEqualTo(2);
+        assertThat(reloadResult.getChangedAccountIds()).isEmpty();
+        assertThat(reloadResult.getChangedRequestIds()).containsOnly("1", "2");
+        assertThat(reloadResult.getChangedImpIds()).isEmpty();
+        assertThat(applicationSettings.getStoredData(singleton("1"), emptySet(), null).result().getStoredIdToRequest())
+                .isEqualTo(singletonMap("1", "updated1"));
+    }
+
+    @Test
+    public void reloadShouldReplaceAccountsIfSettingsFileIsReloaded() {
+        // given
+        given(fileSystem.readFileBlocking(anyString()))
+                .willReturn(Buffer.buffer("accounts: [ {id: '123'} ]"))
+                .willReturn(Buffer.buffer("accounts: [ {id: '456'} ]"));
+        final FileApplicationSettings applicationSettings =
+                FileApplicationSettings.create(fileSystem, "ignore", "ignore", "ignore");
+
+        // when
+        final SettingsFilesReloadResult reloadResult = applicationSettings.reload(true, emptySet(), emptySet());
+
+        // then
+        assertThat(reloadResult.getFilesCount()).isEqualTo(1);
+        assertThat(reloadResult.getChangedAccountIds()).containsOnly("123", "456");
+        assertThat(reloadResult.getChangedAdUnitConfigIds()).isEmpty();
+        assertThat(reloadResult.getChangedRequestIds()).isEmpty();
+        assertThat(applicationSettings.getAccountById("123", null).failed()).isTrue();
+        assertThat(applicationSettings.getAccountById("456", null).succeeded()).isTrue();
+    }
+
+    @Test
+    public void reloadShouldKeepSettingsIfSettingsFileCouldNotBeParsed() {
+        // given
+        given(fileSystem.readFileBlocking(anyString()))
+                .willReturn(Buffer.buffer("accounts: [ {id: '123'} ]"))
+                .willReturn(Buffer.buffer("invalid"));
+        final FileApplicationSettings applicationSettings =
+                FileApplicationSettings.create(fileSystem, "ignore", "ignore", "ignore");
+
+        // when and then
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> applicationSettings.reload(true, emptySet(), emptySet()));
+        assertThat(applicationSettings.getAccountById("123", null).succeeded()).isTrue();
+    }
+
     @Test
     public void storedDataInitializationShouldNotReadFromNonJsonFiles() {
         // given
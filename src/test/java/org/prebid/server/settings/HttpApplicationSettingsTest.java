@@ -124,6 +124,7 @@ public class HttpApplicationSettingsTest extends VertxTest {
         assertThat(future.result().getStoredIdToImp()).isEmpty();
         assertThat(future.result().getErrors())
                 .containsOnly("Error fetching stored requests for ids [id1] via HTTP: Timeout has been exceeded");
+        assertThat(future.result().isIncomplete()).isTrue();
         verifyZeroInteractions(httpClient);
     }
 
@@ -169,6 +170,7 @@ public class HttpApplicationSettingsTest extends VertxTest {
         assertThat(future.result().getStoredIdToImp()).isEmpty();
         assertThat(future.result().getErrors())
                 .containsOnly("Error fetching stored requests for ids [id1] via HTTP: Request exception");
+        assertThat(future.result().isIncomplete()).isTrue();
     }
 
     @Test
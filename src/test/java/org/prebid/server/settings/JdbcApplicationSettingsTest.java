@@ -1,5 +1,6 @@
 package org.prebid.server.settings;
 
+import io.vertx.core.CompositeFuture;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -125,7 +126,7 @@ public class JdbcApplicationSettingsTest {
         vertx = Vertx.vertx();
         clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
         timeout = new TimeoutFactory(clock).create(5000L);
-        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectQuery, selectQuery);
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectQuery, selectQuery, null);
     }
 
     @After
@@ -227,7 +228,7 @@ public class JdbcApplicationSettingsTest {
     @Test
     public void getStoredDataUnionSelectByIdShouldReturnStoredRequests(TestContext context) {
         // given
-        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectUnionQuery, selectUnionQuery);
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectUnionQuery, selectUnionQuery, null);
 
         // when
         final Future<StoredDataResult> storedRequestResultFuture =
@@ -254,7 +255,7 @@ public class JdbcApplicationSettingsTest {
     @Test
     public void getAmpStoredDataUnionSelectByIdShouldReturnStoredRequests(TestContext context) {
         // given
-        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectUnionQuery, selectUnionQuery);
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectUnionQuery, selectUnionQuery, null);
 
         // when
         final Future<StoredDataResult> storedRequestResultFuture =
@@ -323,7 +324,7 @@ public class JdbcApplicationSettingsTest {
     public void getStoredDataShouldReturnErrorIfResultContainsLessColumnsThanExpected(TestContext context) {
         // given
         jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectFromOneColumnTableQuery,
-                selectFromOneColumnTableQuery);
+                selectFromOneColumnTableQuery, null);
 
         // when
         final Future<StoredDataResult> storedRequestResultFuture =
@@ -332,7 +333,7 @@ public class JdbcApplicationSettingsTest {
         // then
         final Async async = context.async();
         storedRequestResultFuture.setHandler(context.asyncAssertSuccess(storedRequestResult -> {
-            assertThat(storedRequestResult).isEqualTo(StoredDataResult.of(emptyMap(), emptyMap(),
+            assertThat(storedRequestResult).isEqualTo(StoredDataResult.incomplete(
                     singletonList("Result set column number is less than expected")));
             async.complete();
         }));
@@ -342,7 +343,7 @@ public class JdbcApplicationSettingsTest {
     public void getAmpStoredDataShouldReturnErrorIfResultContainsLessColumnsThanExpected(TestContext context) {
         // given
         jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient(), selectFromOneColumnTableQuery,
-                selectFromOneColumnTableQuery);
+                selectFromOneColumnTableQuery, null);
 
         // when
         final Future<StoredDataResult> storedRequestResultFuture =
@@ -351,7 +352,7 @@ public class JdbcApplicationSettingsTest {
         // then
         final Async async = context.async();
         storedRequestResultFuture.setHandler(context.asyncAssertSuccess(storedRequestResult -> {
-            assertThat(storedRequestResult).isEqualTo(StoredDataResult.of(emptyMap(), emptyMap(),
+            assertThat(storedRequestResult).isEqualTo(StoredDataResult.incomplete(
                     singletonList("Result set column number is less than expected")));
             async.complete();
         }));
@@ -403,6 +404,78 @@ public class JdbcApplicationSettingsTest {
         }));
     }
 
+    @Test
+    public void getAccountByIdShouldReturnAccountsOfBatchedLookups(TestContext context) {
+        // given
+        final JdbcClient jdbcClient = jdbcClient();
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient, selectQuery, selectQuery,
+                new JdbcLookupBatcher(vertx, jdbcClient, metrics, clock, 10L, 8));
+
+        // when
+        final Future<Account> future1 = Future.future();
+        final Future<Account> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcApplicationSettings.getAccountById("accountId", timeout).setHandler(future1);
+            jdbcApplicationSettings.getAccountById("non-existing", timeout).setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.join(future1, future2).setHandler(ignored -> {
+            assertThat(future1.result()).isEqualTo(Account.of("accountId", "med", 100, 100, true));
+            assertThat(future2.cause()).isInstanceOf(PreBidException.class).hasMessage("Not found");
+            async.complete();
+        });
+    }
+
+    @Test
+    public void getStoredDataShouldReturnOnlyRequestedStoredDataOfBatchedLookups(TestContext context) {
+        // given
+        final JdbcClient jdbcClient = jdbcClient();
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient, selectQuery, selectQuery,
+                new JdbcLookupBatcher(vertx, jdbcClient, metrics, clock, 10L, 8));
+
+        // when
+        final Future<StoredDataResult> future1 = Future.future();
+        final Future<StoredDataResult> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcApplicationSettings.getStoredData(singleton("1"), singleton("4"), timeout).setHandler(future1);
+            jdbcApplicationSettings.getStoredData(new HashSet<>(asList("2", "3")), emptySet(), timeout)
+                    .setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.all(future1, future2).setHandler(context.asyncAssertSuccess(ignored -> {
+            assertThat(future1.result()).isEqualTo(StoredDataResult.of(singletonMap("1", "value1"),
+                    singletonMap("4", "value4"), emptyList()));
+            assertThat(future2.result()).isEqualTo(StoredDataResult.of(singletonMap("2", "value2"), emptyMap(),
+                    singletonList("No stored request found for id: 3")));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void getStoredDataShouldKeepResultOfBatchedLookupIncomplete(TestContext context) {
+        // given
+        final JdbcClient jdbcClient = jdbcClient();
+        jdbcApplicationSettings = new JdbcApplicationSettings(jdbcClient, selectFromOneColumnTableQuery,
+                selectFromOneColumnTableQuery, new JdbcLookupBatcher(vertx, jdbcClient, metrics, clock, 10L, 8));
+
+        // when
+        final Future<StoredDataResult> future = Future.future();
+        vertx.runOnContext(ignored ->
+                jdbcApplicationSettings.getStoredData(singleton("1"), emptySet(), timeout).setHandler(future));
+
+        // then
+        final Async async = context.async();
+        future.setHandler(context.asyncAssertSuccess(storedRequestResult -> {
+            assertThat(storedRequestResult).isEqualTo(StoredDataResult.incomplete(
+                    singletonList("Result set column number is less than expected")));
+            async.complete();
+        }));
+    }
+
     private JdbcClient jdbcClient() {
         return new BasicJdbcClient(vertx, JDBCClient.createShared(vertx,
                 new JsonObject()
@@ -0,0 +1,212 @@
+package org.prebid.server.settings;
+
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
+import io.vertx.ext.sql.ResultSet;
+import io.vertx.ext.unit.Async;
+import io.vertx.ext.unit.TestContext;
+import io.vertx.ext.unit.junit.VertxUnitRunner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.exception.PreBidException;
+import org.prebid.server.execution.TimeoutFactory;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.jdbc.JdbcClient;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@RunWith(VertxUnitRunner.class)
+public class JdbcLookupBatcherTest {
+
+    private static final String QUERY = "SELECT id FROM requests WHERE id IN (%REQUEST_ID_LIST%) "
+            + "UNION ALL SELECT id FROM imps WHERE id IN (%IMP_ID_LIST%) "
+            + "UNION ALL SELECT id FROM requests2 WHERE id IN (%REQUEST_ID_LIST%)";
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private JdbcClient jdbcClient;
+    @Mock
+    private Metrics metrics;
+
+    private Vertx vertx;
+    private TimeoutFactory timeoutFactory;
+
+    private JdbcLookupBatcher jdbcLookupBatcher;
+
+    @Before
+    public void setUp() {
+        vertx = Vertx.vertx();
+        timeoutFactory = new TimeoutFactory(Clock.systemDefaultZone());
+
+        given(jdbcClient.executeQuery(anyString(), anyList(), any(), any())).willAnswer(invocation -> {
+            final Function<ResultSet, ?> mapper = invocation.getArgument(2);
+            return Future.succeededFuture(mapper.apply(new ResultSet().setResults(
+                    singletonList(new JsonArray().add("id1")))));
+        });
+
+        jdbcLookupBatcher = new JdbcLookupBatcher(vertx, jdbcClient, metrics, Clock.systemDefaultZone(), 10L, 4);
+    }
+
+    @After
+    public void tearDown(TestContext context) {
+        vertx.close(context.asyncAssertSuccess());
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new JdbcLookupBatcher(vertx, jdbcClient, metrics,
+                Clock.systemDefaultZone(), 0L, 1));
+        assertThatIllegalArgumentException().isThrownBy(() -> new JdbcLookupBatcher(vertx, jdbcClient, metrics,
+                Clock.systemDefaultZone(), 1L, 0));
+    }
+
+    @Test
+    public void executeQueryShouldPadIdsToBucketOutsideOfVertxContext() {
+        // when
+        final Future<Integer> future = jdbcLookupBatcher.executeQuery(QUERY,
+                givenPlaceholderToIds(new HashSet<>(asList("id1", "id2", "id3")), emptySet()),
+                ResultSet::getNumRows, timeoutFactory.create(500L));
+
+        // then
+        assertThat(future.result()).isEqualTo(1);
+        verify(jdbcClient).executeQuery(
+                eq("SELECT id FROM requests WHERE id IN (?,?,?,?) "
+                        + "UNION ALL SELECT id FROM imps WHERE id IN (NULL) "
+                        + "UNION ALL SELECT id FROM requests2 WHERE id IN (?,?,?,?)"),
+                eq(asList("id1", "id2", "id3", "id3", "id1", "id2", "id3", "id3")), any(), any());
+    }
+
+    @Test
+    public void executeQueryShouldCoalesceLookupsMadeOnTheSameContext(TestContext context) {
+        // when
+        final Future<Integer> future1 = Future.future();
+        final Future<Integer> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcLookupBatcher.executeQuery(QUERY, givenPlaceholderToIds(singleton("id1"), singleton("id2")),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future1);
+            jdbcLookupBatcher.executeQuery(QUERY, givenPlaceholderToIds(singleton("id3"), emptySet()),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.all(future1, future2).setHandler(context.asyncAssertSuccess(ignored -> {
+            verify(jdbcClient).executeQuery(
+                    eq("SELECT id FROM requests WHERE id IN (?,?) "
+                            + "UNION ALL SELECT id FROM imps WHERE id IN (?) "
+                            + "UNION ALL SELECT id FROM requests2 WHERE id IN (?,?)"),
+                    eq(asList("id1", "id3", "id2", "id1", "id3")), any(), any());
+            verify(metrics).updateDatabaseBatchSizeMetric(eq(2));
+            verify(metrics, times(2)).updateDatabaseBatchWaitTimeMetric(any(Long.class));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void executeQueryShouldSendBatchOnceMaxBatchSizeIsReached(TestContext context) {
+        // when
+        final Future<Integer> future1 = Future.future();
+        final Future<Integer> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcLookupBatcher.executeQuery(QUERY,
+                    givenPlaceholderToIds(new HashSet<>(asList("id1", "id2", "id3")), emptySet()),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future1);
+            jdbcLookupBatcher.executeQuery(QUERY,
+                    givenPlaceholderToIds(new HashSet<>(asList("id4", "id5")), emptySet()),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.all(future1, future2).setHandler(context.asyncAssertSuccess(ignored -> {
+            verify(jdbcClient, times(2)).executeQuery(anyString(), anyList(), any(), any());
+            verify(metrics, times(2)).updateDatabaseBatchSizeMetric(eq(1));
+            async.complete();
+        }));
+    }
+
+    @Test
+    public void executeQueryShouldPropagateFailureToAllBatchedLookups(TestContext context) {
+        // given
+        given(jdbcClient.executeQuery(anyString(), anyList(), any(), any()))
+                .willReturn(Future.failedFuture(new PreBidException("error")));
+
+        // when
+        final Future<Integer> future1 = Future.future();
+        final Future<Integer> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcLookupBatcher.executeQuery(QUERY, singletonMap("%REQUEST_ID_LIST%", singleton("id1")),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future1);
+            jdbcLookupBatcher.executeQuery(QUERY, singletonMap("%REQUEST_ID_LIST%", singleton("id2")),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.join(future1, future2).setHandler(ignored -> {
+            assertThat(future1.cause()).isInstanceOf(PreBidException.class).hasMessage("error");
+            assertThat(future2.cause()).isInstanceOf(PreBidException.class).hasMessage("error");
+            async.complete();
+        });
+    }
+
+    @Test
+    public void executeQueryShouldFailOnlyBatchedLookupWhichMapperThrowsException(TestContext context) {
+        // when
+        final Future<Integer> future1 = Future.future();
+        final Future<Integer> future2 = Future.future();
+        vertx.runOnContext(ignored -> {
+            jdbcLookupBatcher.executeQuery(QUERY, singletonMap("%REQUEST_ID_LIST%", singleton("id1")),
+                    resultSet -> {
+                        throw new IllegalStateException("error");
+                    }, timeoutFactory.create(500L)).setHandler(future1);
+            jdbcLookupBatcher.executeQuery(QUERY, singletonMap("%REQUEST_ID_LIST%", singleton("id2")),
+                    ResultSet::getNumRows, timeoutFactory.create(500L)).setHandler(future2);
+        });
+
+        // then
+        final Async async = context.async();
+        CompositeFuture.join(future1, future2).setHandler(ignored -> {
+            assertThat(future1.cause()).isInstanceOf(IllegalStateException.class).hasMessage("error");
+            assertThat(future2.result()).isEqualTo(1);
+            async.complete();
+        });
+    }
+
+    private static Map<String, Set<String>> givenPlaceholderToIds(Set<String> requestIds, Set<String> impIds) {
+        final Map<String, Set<String>> placeholderToIds = new HashMap<>();
+        placeholderToIds.put("%REQUEST_ID_LIST%", requestIds);
+        placeholderToIds.put("%IMP_ID_LIST%", impIds);
+        return placeholderToIds;
+    }
+}
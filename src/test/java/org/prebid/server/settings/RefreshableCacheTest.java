@@ -0,0 +1,275 @@
+package org.prebid.server.settings;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.cache.OffHeapCacheStore;
+import org.prebid.server.metric.MetricName;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.model.CacheMemoryOptions;
+
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+
+public class RefreshableCacheTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Metrics metrics;
+
+    private AtomicLong nanos;
+
+    private RefreshableCache<String> cache;
+
+    @Before
+    public void setUp() {
+        nanos = new AtomicLong();
+
+        cache = createCache(5, 3, CacheMemoryOptions.NONE);
+    }
+
+    @Test
+    public void creationShouldFailOnNegativeStaleTtl() {
+        assertThatIllegalArgumentException().isThrownBy(() -> createCache(-1, 0, CacheMemoryOptions.NONE));
+    }
+
+    @Test
+    public void creationShouldFailOnNegativeMaxSizeBytes() {
+        assertThatIllegalArgumentException().isThrownBy(() -> createCache(0, 0, CacheMemoryOptions.of(-1L, 0, null)));
+    }
+
+    @Test
+    public void getShouldReturnFreshEntry() {
+        // given
+        cache.put("id", "value");
+
+        // when
+        advanceSeconds(9);
+
+        // then
+        assertThat(cache.get("id")).isEqualTo("value");
+        assertThat(cache.isStale("id")).isFalse();
+    }
+
+    @Test
+    public void getShouldReturnStaleEntryDuringStaleTtl() {
+        // given
+        cache.put("id", "value");
+
+        // when
+        advanceSeconds(12);
+
+        // then
+        assertThat(cache.get("id")).isEqualTo("value");
+        assertThat(cache.isStale("id")).isTrue();
+    }
+
+    @Test
+    public void getShouldReturnNullAfterStaleTtl() {
+        // given
+        cache.put("id", "value");
+
+        // when
+        advanceSeconds(15);
+
+        // then
+        assertThat(cache.get("id")).isNull();
+    }
+
+    @Test
+    public void isStaleShouldReturnFalseIfStaleTtlIsZero() {
+        // given
+        cache = createCache(0, 0, CacheMemoryOptions.NONE);
+        cache.put("id", "value");
+
+        // when
+        advanceSeconds(9);
+
+        // then
+        assertThat(cache.isStale("id")).isFalse();
+    }
+
+    @Test
+    public void isNotFoundShouldReturnTrueDuringNegativeTtl() {
+        // given
+        cache.put("id", "value");
+        cache.putNotFound("id");
+
+        // when
+        advanceSeconds(2);
+
+        // then
+        assertThat(cache.get("id")).isNull();
+        assertThat(cache.isNotFound("id")).isTrue();
+    }
+
+    @Test
+    public void isNotFoundShouldReturnFalseAfterNegativeTtl() {
+        // given
+        cache.putNotFound("id");
+
+        // when
+        advanceSeconds(3);
+
+        // then
+        assertThat(cache.isNotFound("id")).isFalse();
+    }
+
+    @Test
+    public void isNotFoundShouldReturnFalseIfNegativeTtlIsZero() {
+        // given
+        cache = createCache(0, 0, CacheMemoryOptions.NONE);
+
+        // when
+        cache.putNotFound("id");
+
+        // then
+        assertThat(cache.isNotFound("id")).isFalse();
+    }
+
+    @Test
+    public void putAllShouldForgetNotFoundIds() {
+        // given
+        cache.putNotFound("id");
+
+        // when
+        cache.putAll(singletonMap("id", "value"));
+
+        // then
+        assertThat(cache.isNotFound("id")).isFalse();
+        assertThat(cache.get("id")).isEqualTo("value");
+    }
+
+    @Test
+    public void invalidateAllShouldRemoveEntriesAndNotFoundIds() {
+        // given
+        cache.put("id1", "value");
+        cache.putNotFound("id2");
+
+        // when
+        cache.invalidateAll(singleton("id1"));
+        cache.invalidateAll(singleton("id2"));
+
+        // then
+        assertThat(cache.get("id1")).isNull();
+        assertThat(cache.isNotFound("id2")).isFalse();
+    }
+
+    @Test
+    public void putAllShouldEvictEntriesExceedingMaxSizeBytes() {
+        // given
+        cache = createCache(5, 0, CacheMemoryOptions.of(300L, 0, null));
+
+        // when
+        cache.putAll(givenEntries());
+
+        // then
+        assertThat(cache.asMap()).hasSize(2);
+        verify(metrics).updateSettingsCacheMetric(eq("stored_request"), eq(MetricName.eviction));
+        verify(metrics).updateSettingsCacheResidentBytesMetric(eq("stored_request"), anyLong());
+    }
+
+    @Test
+    public void getShouldReturnValueKeptCompressed() {
+        // given
+        cache = createCache(5, 0, CacheMemoryOptions.of(0L, 10, null));
+        final String value = StringUtils.repeat("value", 100);
+
+        // when
+        cache.put("id", value);
+
+        // then
+        assertThat(cache.get("id")).isEqualTo(value);
+        assertThat(cache.asMap()).containsOnly(entry("id", value));
+    }
+
+    @Test
+    public void getShouldMoveEvictedEntriesBackFromOffHeapStore() {
+        // given
+        cache = createCache(5, 0, CacheMemoryOptions.of(300L, 0, givenOffHeapStore()));
+        cache.putAll(givenEntries());
+
+        // when
+        advanceSeconds(12);
+
+        // then
+        assertThat(cache.get("id1")).isEqualTo("value1");
+        assertThat(cache.get("id2")).isEqualTo("value2");
+        assertThat(cache.get("id3")).isEqualTo("value3");
+        verify(metrics, atLeastOnce()).updateSettingsCacheMetric(eq("stored_request"), eq(MetricName.off_heap_hit));
+    }
+
+    @Test
+    public void getShouldReturnNullForEntryMovedOffHeapAfterStaleTtl() {
+        // given
+        cache = createCache(5, 0, CacheMemoryOptions.of(300L, 0, givenOffHeapStore()));
+        cache.putAll(givenEntries());
+
+        // when
+        advanceSeconds(15);
+
+        // then
+        assertThat(cache.get("id1")).isNull();
+        assertThat(cache.get("id2")).isNull();
+        assertThat(cache.get("id3")).isNull();
+    }
+
+    @Test
+    public void invalidateAllShouldRemoveEntriesMovedOffHeap() {
+        // given
+        cache = createCache(5, 0, CacheMemoryOptions.of(300L, 0, givenOffHeapStore()));
+        cache.putAll(givenEntries());
+
+        // when
+        cache.invalidateAll(asList("id1", "id2", "id3"));
+
+        // then
+        assertThat(cache.get("id1")).isNull();
+        assertThat(cache.get("id2")).isNull();
+        assertThat(cache.get("id3")).isNull();
+    }
+
+    private RefreshableCache<String> createCache(int staleTtl, int negativeTtl, CacheMemoryOptions memoryOptions) {
+        return new RefreshableCache<>("stored_request", metrics, ValueCodec.STRING, 10, staleTtl, negativeTtl, 100,
+                memoryOptions, nanos::get);
+    }
+
+    /**
+     * Each entry weighs 138 bytes, so only two of them fit into 300 bytes.
+     */
+    private static Map<String, String> givenEntries() {
+        final Map<String, String> entries = new HashMap<>();
+        entries.put("id1", "value1");
+        entries.put("id2", "value2");
+        entries.put("id3", "value3");
+        return entries;
+    }
+
+    private static OffHeapCacheStore givenOffHeapStore() {
+        return new OffHeapCacheStore(Clock.systemUTC(), 1024L, 1024, 60);
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
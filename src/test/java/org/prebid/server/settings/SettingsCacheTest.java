@@ -1,29 +1,45 @@
 package org.prebid.server.settings;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.model.CacheMemoryOptions;
+
+import java.util.HashMap;
+import java.util.Map;
 
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 public class SettingsCacheTest {
 
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Metrics metrics;
+
     private SettingsCache settingsCache;
 
     @Before
     public void setUp() {
-        settingsCache = new SettingsCache(10, 10);
+        settingsCache = new SettingsCache("stored", metrics, 10, 0, 0, 10, CacheMemoryOptions.NONE);
     }
 
     @Test
     public void getRequestCacheShouldReturnEmptyMap() {
-        assertThat(settingsCache.getRequestCache()).isEmpty();
+        assertThat(settingsCache.getRequestCache().asMap()).isEmpty();
     }
 
     @Test
     public void getImpCacheShouldReturnEmptyMap() {
-        assertThat(settingsCache.getImpCache()).isEmpty();
+        assertThat(settingsCache.getImpCache().asMap()).isEmpty();
     }
 
     @Test
@@ -32,9 +48,9 @@ public class SettingsCacheTest {
         settingsCache.save(singletonMap("reqId1", "reqValue1"), singletonMap("impId1", "impValue1"));
 
         // then
-        assertThat(settingsCache.getRequestCache()).hasSize(1)
+        assertThat(settingsCache.getRequestCache().asMap()).hasSize(1)
                 .containsEntry("reqId1", "reqValue1");
-        assertThat(settingsCache.getImpCache()).hasSize(1)
+        assertThat(settingsCache.getImpCache().asMap()).hasSize(1)
                 .containsEntry("impId1", "impValue1");
     }
 
@@ -48,9 +64,40 @@ public class SettingsCacheTest {
         settingsCache.invalidate(singletonList("reqId1"), singletonList("impId1"));
 
         // then
-        assertThat(settingsCache.getRequestCache()).hasSize(1)
+        assertThat(settingsCache.getRequestCache().asMap()).hasSize(1)
                 .containsEntry("reqId2", "reqValue2");
-        assertThat(settingsCache.getImpCache()).hasSize(1)
+        assertThat(settingsCache.getImpCache().asMap()).hasSize(1)
                 .containsEntry("impId2", "impValue2");
     }
+
+    @Test
+    public void restoreShouldPutEntriesFromSnapshot() {
+        // given
+        settingsCache.save(singletonMap("reqId1", "reqValue1"), singletonMap("impId1", "impValue1"));
+        final Map<String, Map<String, String>> snapshot = settingsCache.snapshot();
+
+        final SettingsCache restoredCache = new SettingsCache("stored", metrics, 10, 0, 0, 10, CacheMemoryOptions.NONE);
+
+        // when
+        restoredCache.restore(snapshot);
+
+        // then
+        assertThat(restoredCache.getRequestCache().asMap()).containsOnly(entry("reqId1", "reqValue1"));
+        assertThat(restoredCache.getImpCache().asMap()).containsOnly(entry("impId1", "impValue1"));
+    }
+
+    @Test
+    public void restoreShouldIgnoreUnknownSections() {
+        // given
+        final Map<String, Map<String, String>> snapshot = new HashMap<>();
+        snapshot.put("request", singletonMap("reqId1", "reqValue1"));
+        snapshot.put("unknown", singletonMap("id", "value"));
+
+        // when
+        settingsCache.restore(snapshot);
+
+        // then
+        assertThat(settingsCache.getRequestCache().asMap()).containsOnly(entry("reqId1", "reqValue1"));
+        assertThat(settingsCache.getImpCache().asMap()).isEmpty();
+    }
 }
@@ -0,0 +1,243 @@
+package org.prebid.server.settings.service;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.CacheNotificationListener;
+import org.prebid.server.settings.CachingApplicationSettings;
+import org.prebid.server.settings.FileApplicationSettings;
+import org.prebid.server.settings.model.SettingsFilesReloadResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class FileSettingsReloadServiceTest {
+
+    private static final long AWAIT_PERIOD_MS = 50L;
+    private static final int AWAIT_ATTEMPTS = 200;
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private FileApplicationSettings fileApplicationSettings;
+    @Mock
+    private CachingApplicationSettings cachingApplicationSettings;
+    @Mock
+    private CacheNotificationListener cacheNotificationListener;
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Context context;
+    @Mock
+    private Metrics metrics;
+
+    private Path settingsFile;
+    private Path storedRequestsDir;
+    private Path storedImpsDir;
+
+    private FileSettingsReloadService fileSettingsReloadService;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        settingsFile = temporaryFolder.newFile("settings.yaml").toPath();
+        storedRequestsDir = temporaryFolder.newFolder("requests").toPath();
+        storedImpsDir = temporaryFolder.newFolder("imps").toPath();
+
+        // invoking blocking code right away
+        given(vertx.executeBlocking(any(), anyBoolean(), any())).willAnswer(invocation -> {
+            final Future<Object> future = Future.future();
+            try {
+                ((Handler<Future<Object>>) invocation.getArgument(0)).handle(future);
+            } catch (RuntimeException e) {
+                future.tryFail(e);
+            }
+            ((Handler<AsyncResult<Object>>) invocation.getArgument(2)).handle(future);
+            return null;
+        });
+        given(vertx.getOrCreateContext()).willReturn(context);
+        given(vertx.setPeriodic(anyLong(), any())).willReturn(1L);
+        given(fileApplicationSettings.reload(anyBoolean(), anySet(), anySet()))
+                .willReturn(SettingsFilesReloadResult.of(1, emptyList(), emptyList(), emptyList(), emptyList()));
+
+        fileSettingsReloadService = new FileSettingsReloadService(fileApplicationSettings,
+                cachingApplicationSettings, singletonList(cacheNotificationListener), settingsFile.toString(),
+                storedRequestsDir.toString(), storedImpsDir.toString(), 1000L, vertx, metrics,
+                Clock.systemDefaultZone());
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositiveCheckPeriod() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new FileSettingsReloadService(fileApplicationSettings,
+                cachingApplicationSettings, singletonList(cacheNotificationListener), settingsFile.toString(),
+                storedRequestsDir.toString(), storedImpsDir.toString(), 0L, vertx, metrics, Clock.systemDefaultZone()));
+    }
+
+    @Test
+    public void shouldReloadChangedStoredRequestFileOnly() throws IOException {
+        // given
+        final Handler<Long> checkHandler = initialize();
+
+        // when
+        write(storedRequestsDir.resolve("1.json"), "{}");
+        write(storedRequestsDir.resolve("1.txt"), "ignored");
+        awaitReload(checkHandler);
+
+        // then
+        verify(fileApplicationSettings).reload(eq(false), eq(singleton("1.json")), eq(emptySet()));
+        verify(metrics).updateSettingsFileReloadMetrics(anyLong(), eq(1));
+        verify(cacheNotificationListener, never()).invalidate(anyList(), anyList());
+        verify(cachingApplicationSettings, never()).invalidateAccounts(anyList());
+        verify(cachingApplicationSettings, never()).invalidateAdUnitConfigs(anyList());
+    }
+
+    @Test
+    public void shouldInvalidateChangedStoredDataInCaches() throws IOException {
+        // given
+        given(fileApplicationSettings.reload(anyBoolean(), anySet(), anySet()))
+                .willReturn(SettingsFilesReloadResult.of(1, emptyList(), emptyList(), singletonList("1"),
+                        emptyList()));
+        final Handler<Long> checkHandler = initialize();
+
+        // when
+        write(storedRequestsDir.resolve("1.json"), "{}");
+        awaitReload(checkHandler);
+
+        // then
+        verify(cacheNotificationListener).invalidate(eq(singletonList("1")), eq(emptyList()));
+    }
+
+    @Test
+    public void shouldInvalidateChangedAccountsAndAdUnitConfigsInCache() throws IOException {
+        // given
+        given(fileApplicationSettings.reload(anyBoolean(), anySet(), anySet()))
+                .willReturn(SettingsFilesReloadResult.of(1, singletonList("accountId"), singletonList("configId"),
+                        emptyList(), emptyList()));
+        final Handler<Long> checkHandler = initialize();
+
+        // when
+        write(settingsFile, "accounts:");
+        awaitReload(checkHandler);
+
+        // then
+        verify(cachingApplicationSettings).invalidateAccounts(eq(singletonList("accountId")));
+        verify(cachingApplicationSettings).invalidateAdUnitConfigs(eq(singletonList("configId")));
+        verify(cacheNotificationListener, never()).invalidate(anyList(), anyList());
+    }
+
+    @Test
+    public void shouldReloadChangedSettingsFile() throws IOException {
+        // given
+        final Handler<Long> checkHandler = initialize();
+
+        // when
+        write(settingsFile, "accounts:");
+        awaitReload(checkHandler);
+
+        // then
+        verify(fileApplicationSettings).reload(eq(true), eq(emptySet()), eq(emptySet()));
+    }
+
+    @Test
+    public void shouldRetryStoredDataFilesOfFailedReload() throws IOException {
+        // given
+        given(fileApplicationSettings.reload(anyBoolean(), anySet(), anySet()))
+                .willThrow(new IllegalArgumentException("error"))
+                .willReturn(SettingsFilesReloadResult.of(1, emptyList(), emptyList(), emptyList(), emptyList()));
+        final Handler<Long> checkHandler = initialize();
+
+        // when
+        write(storedImpsDir.resolve("1.json"), "{}");
+        awaitReload(checkHandler);
+        checkHandler.handle(1L);
+
+        // then
+        verify(metrics).updateSettingsFileReloadFailedMetric();
+        verify(fileApplicationSettings, times(2))
+                .reload(eq(false), eq(emptySet()), eq(singleton("1.json")));
+        verify(metrics).updateSettingsFileReloadMetrics(anyLong(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldStopWatchingOnVertxClose() {
+        // given
+        initialize();
+        final ArgumentCaptor<Closeable> closeHookCaptor = ArgumentCaptor.forClass(Closeable.class);
+        verify(context).addCloseHook(closeHookCaptor.capture());
+
+        // when
+        final Handler<AsyncResult<Void>> completionHandler = mock(Handler.class);
+        closeHookCaptor.getValue().close(completionHandler);
+
+        // then
+        verify(vertx).cancelTimer(1L);
+        verify(completionHandler).handle(argThat(AsyncResult::succeeded));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Handler<Long> initialize() {
+        fileSettingsReloadService.initialize();
+
+        final ArgumentCaptor<Handler<Long>> handlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(vertx).setPeriodic(eq(1000L), handlerCaptor.capture());
+        return handlerCaptor.getValue();
+    }
+
+    /**
+     * Checks for changes until file system reports them.
+     */
+    private void awaitReload(Handler<Long> checkHandler) {
+        for (int i = 0; i < AWAIT_ATTEMPTS && mockingDetails(metrics).getInvocations().isEmpty(); i++) {
+            checkHandler.handle(1L);
+            try {
+                Thread.sleep(AWAIT_PERIOD_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -17,12 +17,14 @@ import org.prebid.server.settings.proto.response.HttpRefreshResponse;
 import org.prebid.server.vertx.http.HttpClient;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
 
+import java.time.Instant;
 import java.util.Map;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -170,6 +172,22 @@ public class HttpPeriodicRefreshServiceTest extends VertxTest {
         verify(httpClient).get(startsWith("http://stored-requests.prebid.com?amp=true&last-modified="), anyLong());
     }
 
+    @Test
+    public void initializeShouldRequestOnlyUpdatesSinceGivenLastUpdateTime() {
+        // given
+        final HttpPeriodicRefreshService httpPeriodicRefreshService = new HttpPeriodicRefreshService(
+                cacheNotificationListener, ENDPOINT_URL, -1, 2000, vertx, httpClient);
+
+        // when
+        httpPeriodicRefreshService.initialize(Instant.parse("2019-01-01T10:00:00Z"));
+
+        // then
+        verify(httpClient).get(eq("http://stored-requests.prebid.com?last-modified=2019-01-01T10:00:00Z"),
+                anyLong());
+        verify(httpClient, never()).get(eq("http://stored-requests.prebid.com"), anyLong());
+        assertThat(httpPeriodicRefreshService.getLastUpdateTime()).isAfter(Instant.parse("2019-01-01T10:00:00Z"));
+    }
+
     private static void createAndInitService(CacheNotificationListener notificationListener,
                                              String url, long refreshPeriod, long timeout,
                                              Vertx vertx, HttpClient httpClient) {
@@ -3,6 +3,7 @@ package org.prebid.server.settings.service;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonArray;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -18,14 +19,21 @@ import org.prebid.server.vertx.jdbc.JdbcClient;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -56,13 +64,12 @@ public class JdbcPeriodicRefreshServiceTest {
 
     @Before
     public void setUp() {
-        final StoredDataResult initialResult = StoredDataResult.of(singletonMap("id1", "value1"),
-                singletonMap("id2", "value2"), emptyList());
         final StoredDataResult updateResult = StoredDataResult.of(singletonMap("id1", "null"),
                 singletonMap("id2", "changed_value"), emptyList());
 
-        given(jdbcClient.executeQuery(eq("init_query"), anyList(), any(), any()))
-                .willReturn(Future.succeededFuture(initialResult));
+        givenInitialLoadReturning(singletonList(asList(
+                new JsonArray().add("id1").add("value1").add("request"),
+                new JsonArray().add("id2").add("value2").add("imp"))));
         given(jdbcClient.executeQuery(eq("update_query"), anyList(), any(), any()))
                 .willReturn(Future.succeededFuture(updateResult));
     }
@@ -70,28 +77,34 @@ public class JdbcPeriodicRefreshServiceTest {
     @Test
     public void creationShouldFailOnNullArgumentsAndBlankQuery() {
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                null, null, null, 0, null, null, null, 0));
+                null, null, null, 0, null, null, null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, null, null, 0, null, null, null, 0));
+                cacheNotificationListener, null, null, 0, null, null, null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, null, 0, null, null, null, 0));
+                cacheNotificationListener, vertx, null, 0, null, null, null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, jdbcClient, 0, null, null, null, 0));
+                cacheNotificationListener, vertx, jdbcClient, 0, null, null, null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", null, null, 0));
+                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", null, null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", "update_query", null, 0));
+                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", "update_query", null, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, jdbcClient, 0, "  ", null, timeoutFactory, 0));
+                cacheNotificationListener, vertx, jdbcClient, 0, "  ", null, timeoutFactory, 0, 1));
         assertThatNullPointerException().isThrownBy(() -> createAndInitService(
-                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", " ", timeoutFactory, 0));
+                cacheNotificationListener, vertx, jdbcClient, 0, "init_query", " ", timeoutFactory, 0, 1));
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositiveInitChunkSize() {
+        assertThatIllegalArgumentException().isThrownBy(() -> createAndInitService(cacheNotificationListener,
+                vertx, jdbcClient, 0, "init_query", "update_query", timeoutFactory, 0, 0));
     }
 
     @Test
     public void shouldCallSaveWithExpectedParameters() {
         // when
         createAndInitService(cacheNotificationListener, vertx, jdbcClient, 1000,
-                "init_query", "update_query", timeoutFactory, 2000);
+                "init_query", "update_query", timeoutFactory, 2000, 1000);
 
         // then
         verify(cacheNotificationListener).save(expectedRequests, expectedImps);
@@ -105,7 +118,7 @@ public class JdbcPeriodicRefreshServiceTest {
 
         // when
         createAndInitService(cacheNotificationListener, vertx, jdbcClient, 1000,
-                "init_query", "update_query", timeoutFactory, 2000);
+                "init_query", "update_query", timeoutFactory, 2000, 1000);
 
         // then
         verify(cacheNotificationListener).save(expectedRequests, expectedImps);
@@ -121,10 +134,10 @@ public class JdbcPeriodicRefreshServiceTest {
 
         // when
         createAndInitService(cacheNotificationListener, vertx, jdbcClient, 1000,
-                "init_query", "update_query", timeoutFactory, 2000);
+                "init_query", "update_query", timeoutFactory, 2000, 1000);
 
         // then
-        verify(jdbcClient).executeQuery(eq("init_query"), eq(emptyList()), any(), any());
+        verify(jdbcClient).executeStreamQuery(eq("init_query"), eq(emptyList()), eq(1000), any(), any());
         verify(jdbcClient, times(2)).executeQuery(eq("update_query"), anyList(), any(), any());
     }
 
@@ -132,23 +145,123 @@ public class JdbcPeriodicRefreshServiceTest {
     public void initializeShouldMakeOnlyOneInitialRequestIfRefreshPeriodIsNegative() {
         // when
         createAndInitService(cacheNotificationListener, vertx, jdbcClient, -1,
-                "init_query", "update_query", timeoutFactory, 2000);
+                "init_query", "update_query", timeoutFactory, 2000, 1000);
 
         // then
         verify(vertx, never()).setPeriodic(anyLong(), any());
-        verify(jdbcClient).executeQuery(anyString(), anyList(), any(), any());
+        verify(jdbcClient).executeStreamQuery(anyString(), anyList(), anyInt(), any(), any());
+        verify(jdbcClient, never()).executeQuery(anyString(), anyList(), any(), any());
+    }
+
+    @Test
+    public void initializeShouldSaveInitialLoadByChunks() {
+        // given
+        givenInitialLoadReturning(asList(
+                singletonList(new JsonArray().add("id1").add("value1").add("request")),
+                singletonList(new JsonArray().add("id2").add("value2").add("imp"))));
+
+        // when
+        createAndInitService(cacheNotificationListener, vertx, jdbcClient, -1,
+                "init_query", "update_query", timeoutFactory, 2000, 1);
+
+        // then
+        verify(cacheNotificationListener).save(singletonMap("id1", "value1"), emptyMap());
+        verify(cacheNotificationListener).save(emptyMap(), singletonMap("id2", "value2"));
+    }
+
+    @Test
+    public void isWarmingUpShouldReturnTrueUntilInitialLoadIsFinished() {
+        // given
+        final Future<Void> initialLoadFuture = Future.future();
+        given(jdbcClient.executeStreamQuery(eq("init_query"), anyList(), anyInt(), any(), any()))
+                .willReturn(initialLoadFuture);
+
+        final JdbcPeriodicRefreshService jdbcPeriodicRefreshService = new JdbcPeriodicRefreshService(
+                cacheNotificationListener, vertx, jdbcClient, -1, "init_query", "update_query", timeoutFactory,
+                2000, 1000);
+
+        // when
+        jdbcPeriodicRefreshService.initialize();
+
+        // then
+        assertThat(jdbcPeriodicRefreshService.isWarmingUp()).isTrue();
+        initialLoadFuture.complete();
+        assertThat(jdbcPeriodicRefreshService.isWarmingUp()).isFalse();
+    }
+
+    @Test
+    public void isWarmingUpShouldReturnFalseIfInitialLoadFailed() {
+        // given
+        given(jdbcClient.executeStreamQuery(eq("init_query"), anyList(), anyInt(), any(), any()))
+                .willReturn(Future.failedFuture(new RuntimeException("Failed to execute query")));
+
+        final JdbcPeriodicRefreshService jdbcPeriodicRefreshService = new JdbcPeriodicRefreshService(
+                cacheNotificationListener, vertx, jdbcClient, -1, "init_query", "update_query", timeoutFactory,
+                2000, 1000);
+
+        // when
+        jdbcPeriodicRefreshService.initialize();
+
+        // then
+        assertThat(jdbcPeriodicRefreshService.isWarmingUp()).isFalse();
+    }
+
+    @Test
+    public void refreshShouldRetryFailedInitialLoad() {
+        // given
+        given(jdbcClient.executeStreamQuery(eq("init_query"), anyList(), anyInt(), any(), any()))
+                .willReturn(Future.failedFuture(new RuntimeException("Failed to execute query")))
+                .willReturn(Future.succeededFuture());
+        given(vertx.setPeriodic(anyLong(), any()))
+                .willAnswer(withSelfAndPassObjectToHandler(1L, 2L));
+
+        // when
+        createAndInitService(cacheNotificationListener, vertx, jdbcClient, 1000,
+                "init_query", "update_query", timeoutFactory, 2000, 1000);
+
+        // then
+        verify(jdbcClient, times(2)).executeStreamQuery(eq("init_query"), anyList(), anyInt(), any(), any());
+        verify(jdbcClient).executeQuery(eq("update_query"), anyList(), any(), any());
+    }
+
+    @Test
+    public void initializeShouldFetchOnlyUpdatesSinceGivenLastUpdate() {
+        // given
+        final JdbcPeriodicRefreshService jdbcPeriodicRefreshService = new JdbcPeriodicRefreshService(
+                cacheNotificationListener, vertx, jdbcClient, -1, "init_query", "update_query", timeoutFactory,
+                2000, 1000);
+        final Instant lastUpdate = Instant.parse("2019-01-01T10:00:00Z");
+
+        // when
+        jdbcPeriodicRefreshService.initialize(lastUpdate);
+
+        // then
+        verify(jdbcClient, never()).executeStreamQuery(anyString(), anyList(), anyInt(), any(), any());
+        verify(jdbcClient).executeQuery(eq("update_query"), eq(singletonList(Date.from(lastUpdate))), any(), any());
+        verify(cacheNotificationListener).invalidate(singletonList("id1"), emptyList());
+        assertThat(jdbcPeriodicRefreshService.isWarmingUp()).isFalse();
+        assertThat(jdbcPeriodicRefreshService.getLastUpdate()).isAfter(lastUpdate);
     }
 
     private static void createAndInitService(CacheNotificationListener cacheNotificationListener,
                                              Vertx vertx, JdbcClient jdbcClient, long refresh,
                                              String query, String updateQuery,
-                                             TimeoutFactory timeoutFactory, long timeout) {
+                                             TimeoutFactory timeoutFactory, long timeout, int initChunkSize) {
         final JdbcPeriodicRefreshService jdbcPeriodicRefreshService =
                 new JdbcPeriodicRefreshService(cacheNotificationListener, vertx, jdbcClient, refresh,
-                        query, updateQuery, timeoutFactory, timeout);
+                        query, updateQuery, timeoutFactory, timeout, initChunkSize);
         jdbcPeriodicRefreshService.initialize();
     }
 
+    private void givenInitialLoadReturning(List<List<JsonArray>> chunks) {
+        given(jdbcClient.executeStreamQuery(eq("init_query"), anyList(), anyInt(), any(), any()))
+                .willAnswer(invocation -> {
+                    final Function<List<JsonArray>, Future<Void>> chunkHandler = invocation.getArgument(3);
+                    chunks.forEach(chunkHandler::apply);
+                    return Future.succeededFuture();
+                });
+    }
+
     @SuppressWarnings("unchecked")
     private static <T> Answer<Object> withSelfAndPassObjectToHandler(T... objects) {
         return inv -> {
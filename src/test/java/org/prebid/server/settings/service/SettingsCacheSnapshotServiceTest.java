@@ -0,0 +1,210 @@
+package org.prebid.server.settings.service;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.settings.SettingsCache;
+import org.prebid.server.settings.SnapshottableCache;
+import org.prebid.server.settings.model.CacheMemoryOptions;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.singletonMap;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class SettingsCacheSnapshotServiceTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private Vertx vertx;
+    @Mock
+    private Metrics metrics;
+
+    private Clock clock;
+    private Path path;
+    private SettingsCache settingsCache;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        clock = Clock.fixed(Instant.now(), ZoneId.systemDefault());
+        path = temporaryFolder.getRoot().toPath().resolve("snapshot/settings.bin");
+
+        settingsCache = new SettingsCache("stored", metrics, 360, 0, 0, 100, CacheMemoryOptions.NONE);
+        settingsCache.save(singletonMap("reqId", "reqValue"), singletonMap("impId", "impValue"));
+
+        // invoking handlers right away
+        given(vertx.setPeriodic(anyLong(), any())).willAnswer(invocation -> {
+            ((Handler<Long>) invocation.getArgument(1)).handle(1L);
+            return 1L;
+        });
+        given(vertx.executeBlocking(any(), anyBoolean(), any())).willAnswer(invocation -> {
+            final Future<Object> future = Future.future();
+            ((Handler<Future<Object>>) invocation.getArgument(0)).handle(future);
+            ((Handler<AsyncResult<Object>>) invocation.getArgument(2)).handle(future);
+            return null;
+        });
+    }
+
+    @Test
+    public void creationShouldFailOnNonPositivePeriodOrMaxAge() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new SettingsCacheSnapshotService(vertx,
+                path.toString(), 0, 1, clock, singletonMap("settings", settingsCache), emptyList()));
+        assertThatIllegalArgumentException().isThrownBy(() -> new SettingsCacheSnapshotService(vertx,
+                path.toString(), 1, 0, clock, singletonMap("settings", settingsCache), emptyList()));
+    }
+
+    @Test
+    public void restoreShouldReturnFalseIfSnapshotDoesNotExist() {
+        // given
+        final SettingsCacheSnapshotService snapshotService = createService(clock, settingsCache, emptyList());
+
+        // when and then
+        assertThat(snapshotService.restore()).isFalse();
+        assertThat(snapshotService.getRestoredUpdateTime()).isNull();
+    }
+
+    @Test
+    public void restoreShouldPutSavedEntriesToCachesAndReturnUpdateTime() {
+        // given
+        final Instant updateTime = clock.instant().minusSeconds(10);
+        createService(clock, settingsCache, singletonList(() -> updateTime)).initialize();
+
+        final SettingsCache restoredCache =
+                new SettingsCache("stored", metrics, 360, 0, 0, 100, CacheMemoryOptions.NONE);
+        final SettingsCacheSnapshotService snapshotService =
+                createService(clock, restoredCache, singletonList(() -> updateTime));
+
+        // when
+        final boolean restored = snapshotService.restore();
+
+        // then
+        assertThat(restored).isTrue();
+        assertThat(snapshotService.getRestoredUpdateTime())
+                .isEqualTo(Instant.ofEpochMilli(updateTime.toEpochMilli()));
+        assertThat(restoredCache.snapshot().get("request")).containsOnly(entry("reqId", "reqValue"));
+        assertThat(restoredCache.snapshot().get("imp")).containsOnly(entry("impId", "impValue"));
+    }
+
+    @Test
+    public void restoreShouldReturnNullUpdateTimeIfThereAreNoRefreshServices() {
+        // given
+        createService(clock, settingsCache, emptyList()).initialize();
+
+        final SettingsCacheSnapshotService snapshotService = createService(clock, settingsCache, emptyList());
+
+        // when
+        final boolean restored = snapshotService.restore();
+
+        // then
+        assertThat(restored).isTrue();
+        assertThat(snapshotService.getRestoredUpdateTime()).isNull();
+    }
+
+    @Test
+    public void restoreShouldIgnoreSnapshotOlderThanMaxAge() {
+        // given
+        createService(clock, settingsCache, emptyList()).initialize();
+
+        final SettingsCache restoredCache =
+                new SettingsCache("stored", metrics, 360, 0, 0, 100, CacheMemoryOptions.NONE);
+        final SettingsCacheSnapshotService snapshotService = createService(
+                Clock.offset(clock, Duration.ofMillis(1001)), restoredCache, emptyList());
+
+        // when
+        final boolean restored = snapshotService.restore();
+
+        // then
+        assertThat(restored).isFalse();
+        assertThat(restoredCache.snapshot().get("request")).isEmpty();
+    }
+
+    @Test
+    public void restoreShouldIgnoreCorruptedSnapshot() throws IOException {
+        // given
+        createService(clock, settingsCache, emptyList()).initialize();
+
+        // truncate snapshot in the middle of entries
+        final byte[] content = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(content, content.length - 5));
+
+        final SnapshottableCache restoredCache = mock(SnapshottableCache.class);
+        final SettingsCacheSnapshotService snapshotService = createService(clock, restoredCache, emptyList());
+
+        // when
+        final boolean restored = snapshotService.restore();
+
+        // then
+        assertThat(restored).isFalse();
+        verify(restoredCache, never()).restore(any());
+    }
+
+    @Test
+    public void restoreShouldIgnoreSnapshotOfUnknownFormat() throws IOException {
+        // given
+        temporaryFolder.newFolder("snapshot");
+        Files.write(path, "not a snapshot".getBytes(StandardCharsets.UTF_8));
+
+        final SnapshottableCache restoredCache = mock(SnapshottableCache.class);
+        final SettingsCacheSnapshotService snapshotService = createService(clock, restoredCache, emptyList());
+
+        // when
+        final boolean restored = snapshotService.restore();
+
+        // then
+        assertThat(restored).isFalse();
+        verify(restoredCache, never()).restore(any());
+    }
+
+    @Test
+    public void initializeShouldNotSaveSnapshotUntilStoredDataIsLoaded() {
+        // when
+        createService(clock, settingsCache, singletonList(() -> null)).initialize();
+
+        // then
+        verify(vertx, never()).executeBlocking(any(), anyBoolean(), any());
+        assertThat(path).doesNotExist();
+    }
+
+    private SettingsCacheSnapshotService createService(Clock clock, SnapshottableCache cache,
+                                                       List<Supplier<Instant>> updateTimeSuppliers) {
+        final Map<String, SnapshottableCache> caches = singletonMap("settings", cache);
+        return new SettingsCacheSnapshotService(vertx, path.toString(), 1000, 1000, clock, caches,
+                updateTimeSuppliers);
+    }
+}
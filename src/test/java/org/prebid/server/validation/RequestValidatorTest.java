@@ -36,6 +36,7 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.prebid.server.VertxTest;
+import org.prebid.server.auction.model.AuctionContext;
 import org.prebid.server.bidder.BidderCatalog;
 import org.prebid.server.proto.openrtb.ext.request.ExtBidRequest;
 import org.prebid.server.proto.openrtb.ext.request.ExtDevice;
@@ -96,7 +97,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = BidRequest.builder().build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result).isNotNull();
@@ -109,7 +110,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().id("").build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request missing required field: \"id\"");
@@ -121,7 +122,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().id(null).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request missing required field: \"id\"");
@@ -133,7 +134,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().id("1").tmax(-100L).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.tmax must be nonnegative. Got -100");
@@ -145,7 +146,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().tmax(null).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -157,34 +158,20 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().cur(null).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("currency was not defined either in request.cur or in"
                 + " configuration field adServerCurrency");
     }
 
-    @Test
-    public void validateShouldReturnValidationMessageWhenExtIsInvalid() {
-        // given
-        final ObjectNode ext = mapper.createObjectNode();
-        ext.set("prebid", new TextNode("invalid-prebid"));
-        final BidRequest bidRequest = validBidRequestBuilder().ext(ext).build();
-
-        // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
-
-        // then
-        assertThat(result.getErrors()).hasSize(1).element(0).asString().startsWith("request.ext is invalid");
-    }
-
     @Test
     public void validateShouldReturnValidationMessageWhenNumberOfImpsIsZero() {
         // given
         final BidRequest bidRequest = validBidRequestBuilder().imp(null).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.imp must contain at least one element");
@@ -198,7 +185,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.imp[0] missing required field: \"id\"");
@@ -212,7 +199,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.imp[0] missing required field: \"id\"");
@@ -231,7 +218,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -250,7 +237,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -268,7 +255,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -289,7 +276,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -313,7 +300,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.hasErrors()).isFalse();
@@ -333,7 +320,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -356,7 +343,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -379,7 +366,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -403,7 +390,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -427,7 +414,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -450,7 +437,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -474,7 +461,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -497,7 +484,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -521,7 +508,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -544,7 +531,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -568,7 +555,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -582,7 +569,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).w(2).wmin(3).wratio(4).hratio(5));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -597,7 +584,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).w(2).hratio(5));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -612,7 +599,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).wmin(3).wratio(4).hratio(5));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -627,7 +614,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).w(2));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -640,7 +627,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(3).wratio(4).hratio(5));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -653,7 +640,7 @@ public class RequestValidatorTest extends VertxTest {
                 Function.identity());
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -668,7 +655,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(null).w(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -682,7 +669,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(0).w(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -696,7 +683,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).w(null));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -710,7 +697,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(1).w(0));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -724,7 +711,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(-1).w(2));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -738,7 +725,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().h(2).w(-1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -752,7 +739,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(null).wratio(2).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -767,7 +754,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(0).wratio(2).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("Request imp[0].banner.format[0] must define "
@@ -781,7 +768,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(-1).wratio(2).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("Request imp[0].banner.format[0] must define "
@@ -795,7 +782,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(null).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -810,7 +797,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(0).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -825,7 +812,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(-1).hratio(1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -840,7 +827,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(5).hratio(null));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -855,7 +842,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(5).hratio(0));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -870,7 +857,7 @@ public class RequestValidatorTest extends VertxTest {
                 formatBuilder -> Format.builder().wmin(1).wratio(5).hratio(-1));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -885,7 +872,7 @@ public class RequestValidatorTest extends VertxTest {
                 dealBuilder -> Deal.builder().id(null));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -899,7 +886,7 @@ public class RequestValidatorTest extends VertxTest {
                 dealBuilder -> Deal.builder().id(""));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -913,7 +900,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id(null)).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -927,7 +914,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("")).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -941,7 +928,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("1").page(null)).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.hasErrors()).isFalse();
@@ -954,7 +941,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("1").page("")).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.hasErrors()).isFalse();
@@ -967,7 +954,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("").page("")).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -981,7 +968,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("id").page("page").ext(mapper.valueToTree(ExtSite.of(-1)))).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -995,7 +982,7 @@ public class RequestValidatorTest extends VertxTest {
                 siteBuilder -> Site.builder().id("id").page("page").ext(mapper.valueToTree(ExtSite.of(2)))).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1013,7 +1000,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1);
@@ -1036,7 +1023,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).element(0).asString()
@@ -1052,7 +1039,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = overwriteApp(bidRequestBuilder, Function.identity()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1068,7 +1055,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = overwriteApp(bidRequestBuilder, appBuilder -> App.builder().id("3")).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1082,7 +1069,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(null, null))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1096,7 +1083,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(-1, null))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1110,7 +1097,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(101, null))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1124,7 +1111,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(50, null))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1138,7 +1125,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(50, -1))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1152,7 +1139,7 @@ public class RequestValidatorTest extends VertxTest {
                 .ext(mapper.valueToTree(ExtDevice.of(ExtDevicePrebid.of(ExtDeviceInt.of(50, 101))))).build()).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1165,7 +1152,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1179,7 +1166,7 @@ public class RequestValidatorTest extends VertxTest {
                         .ext(null).build())).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.imp[0].ext must contain at least one bidder");
@@ -1192,7 +1179,7 @@ public class RequestValidatorTest extends VertxTest {
         given(bidderCatalog.isValidName(eq(RUBICON))).willReturn(false);
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.imp[0].ext contains unknown bidder: rubicon");
@@ -1206,7 +1193,7 @@ public class RequestValidatorTest extends VertxTest {
                         .ext(mapper.valueToTree(singletonMap("prebid", "test"))).build())).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1220,7 +1207,7 @@ public class RequestValidatorTest extends VertxTest {
                 .willReturn(new LinkedHashSet<>(asList("errorMessage1", "errorMessage2")));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1235,7 +1222,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(0);
@@ -1248,7 +1235,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(0);
@@ -1263,7 +1250,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.user.ext.prebid requires a "
@@ -1279,7 +1266,7 @@ public class RequestValidatorTest extends VertxTest {
                         ExtRequestTargeting.of(new TextNode("pricegranularity"), null, null, null), null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1295,7 +1282,7 @@ public class RequestValidatorTest extends VertxTest {
                                 null, null, null), null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1312,7 +1299,7 @@ public class RequestValidatorTest extends VertxTest {
                                         BigDecimal.valueOf(0))))), null, null, null), null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1330,7 +1317,7 @@ public class RequestValidatorTest extends VertxTest {
                         null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1349,7 +1336,7 @@ public class RequestValidatorTest extends VertxTest {
                         null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1368,7 +1355,7 @@ public class RequestValidatorTest extends VertxTest {
                         null, null))))
                 .build();
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1387,7 +1374,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1407,7 +1394,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1426,7 +1413,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1444,7 +1431,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.user.ext.unknown-bidder "
@@ -1465,7 +1452,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1483,7 +1470,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1501,29 +1488,13 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
                 .containsOnly("request.user contains a digitrust object that is not valid");
     }
 
-    @Test
-    public void validateShouldReturnValidationMessageWhenUserExtFailedToBeParsed() {
-        // given
-        final ObjectNode ext = mapper.createObjectNode();
-        ext.put("digitrust", "invalid");
-        final BidRequest bidRequest = validBidRequestBuilder().user(User.builder().ext(ext).build())
-                .build();
-
-        // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
-
-        // then
-        assertThat(result.getErrors()).hasSize(1).element(0).asString()
-                .contains("request.user.ext object is not valid:");
-    }
-
     @Test
     public void validateShouldReturnValidationMessageWhenTpidIsEmpty() {
         // given
@@ -1536,7 +1507,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1556,7 +1527,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1576,7 +1547,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1596,7 +1567,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1616,7 +1587,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1636,7 +1607,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1656,7 +1627,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1671,7 +1642,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().ext(ext).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1687,7 +1658,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().ext(ext).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -1702,7 +1673,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().ext(ext).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1715,32 +1686,19 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = validBidRequestBuilder().regs(Regs.of(null, ext)).build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly("request.regs.ext.gdpr must be either 0 or 1");
     }
 
-    @Test
-    public void validateShouldReturnValidationResultWithErrorsWhenRegsExtIsNotValidJson() {
-        // given
-        final ObjectNode ext = mapper.createObjectNode().put("gdpr", "String");
-        final BidRequest bidRequest = validBidRequestBuilder().regs(Regs.of(null, ext)).build();
-
-        // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
-
-        // then
-        assertThat(result.getErrors()).hasSize(1).element(0).asString().contains("request.regs.ext is invalid:");
-    }
-
     @Test
     public void validateShouldThrowExceptionWhenNativeRequestEmpty() {
         // given
         final BidRequest bidRequest = givenBidRequest(Function.identity());
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1753,7 +1711,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequest(nativeCustomizer -> nativeCustomizer.request("broken-request"));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1768,7 +1726,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.context(100));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1783,7 +1741,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(2).contextsubtype(100));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1799,7 +1757,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(2).contextsubtype(11));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1815,7 +1773,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(3).contextsubtype(21));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1831,7 +1789,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(2).contextsubtype(31));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1847,7 +1805,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(1).contextsubtype(12).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1860,7 +1818,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(null).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1873,7 +1831,7 @@ public class RequestValidatorTest extends VertxTest {
         final BidRequest bidRequest = givenBidRequestWithNativeRequest(nativeReqCustomizer ->
                 nativeReqCustomizer.context(1).contextsubtype(null).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1887,7 +1845,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.context(1).contextsubtype(12).eventtrackers(singletonList(EventTracker.builder()
                         .event(5).build())).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1904,7 +1862,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.context(1).contextsubtype(12).eventtrackers(singletonList(EventTracker.builder()
                         .event(1).build())).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1921,7 +1879,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.context(1).contextsubtype(12).eventtrackers(singletonList(EventTracker.builder()
                         .event(1).methods(singletonList(3)).build())).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1938,7 +1896,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.context(1).contextsubtype(12).eventtrackers(singletonList(EventTracker.builder()
                         .event(1).methods(singletonList(2)).build())).assets(singletonList(Asset.builder().build())));
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -1953,7 +1911,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.plcmttype(100));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1969,7 +1927,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.assets(emptyList()));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -1984,7 +1942,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.assets(singletonList(Asset.builder().id(1).build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2003,7 +1961,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2022,7 +1980,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2043,7 +2001,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2062,7 +2020,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2081,7 +2039,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2098,7 +2056,7 @@ public class RequestValidatorTest extends VertxTest {
                         .title(TitleObject.builder().len(0).build()).build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2113,7 +2071,7 @@ public class RequestValidatorTest extends VertxTest {
                         .title(TitleObject.builder().len(null).build()).build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2132,7 +2090,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result0 = requestValidator.validate(bidRequest0);
+        final ValidationResult result0 = requestValidator.validate(givenAuctionContext(bidRequest0));
 
         // then
         assertThat(result0.getErrors()).hasSize(1).containsOnly(
@@ -2151,7 +2109,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result1 = requestValidator.validate(bidRequest1);
+        final ValidationResult result1 = requestValidator.validate(givenAuctionContext(bidRequest1));
 
         // then
         assertThat(result1.getErrors()).hasSize(1).containsOnly(
@@ -2172,7 +2130,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result2 = requestValidator.validate(bidRequest2);
+        final ValidationResult result2 = requestValidator.validate(givenAuctionContext(bidRequest2));
 
         // then
         assertThat(result2.getErrors()).hasSize(1).containsOnly(
@@ -2193,7 +2151,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result2 = requestValidator.validate(bidRequest2);
+        final ValidationResult result2 = requestValidator.validate(givenAuctionContext(bidRequest2));
 
         // then
         assertThat(result2.getErrors()).hasSize(1).containsOnly(
@@ -2212,7 +2170,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result0 = requestValidator.validate(bidRequest0);
+        final ValidationResult result0 = requestValidator.validate(givenAuctionContext(bidRequest0));
 
         // then
         assertThat(result0.getErrors()).hasSize(1).containsOnly(
@@ -2231,7 +2189,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2251,7 +2209,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2271,7 +2229,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2287,7 +2245,7 @@ public class RequestValidatorTest extends VertxTest {
                         .data(DataObject.builder().type(100).build()).build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2303,7 +2261,7 @@ public class RequestValidatorTest extends VertxTest {
                         .video(VideoObject.builder().mimes(emptyList()).build()).build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2324,7 +2282,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2344,7 +2302,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2365,7 +2323,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2386,7 +2344,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2408,7 +2366,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2430,7 +2388,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2452,7 +2410,7 @@ public class RequestValidatorTest extends VertxTest {
                         .build())));
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1)
@@ -2467,7 +2425,7 @@ public class RequestValidatorTest extends VertxTest {
                 nativeReqCustomizer.assets(asList(Asset.builder().build(), Asset.builder().build())));
 
         // when
-        requestValidator.validate(bidRequest);
+        requestValidator.validate(givenAuctionContext(bidRequest));
 
         assertThat(bidRequest.getImp()).hasSize(1)
                 .extracting(Imp::getXNative).doesNotContainNull()
@@ -2507,7 +2465,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).element(0).isEqualTo("Missing request.imp[0].metric[0].type");
@@ -2522,7 +2480,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).element(0)
@@ -2540,7 +2498,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2559,7 +2517,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
@@ -2575,7 +2533,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -2591,7 +2549,7 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).isEmpty();
@@ -2610,13 +2568,33 @@ public class RequestValidatorTest extends VertxTest {
                 .build();
 
         // when
-        final ValidationResult result = requestValidator.validate(bidRequest);
+        final ValidationResult result = requestValidator.validate(givenAuctionContext(bidRequest));
 
         // then
         assertThat(result.getErrors()).hasSize(1).containsOnly(
                 "request.imp[0].id and request.imp[1].id are both \"11\". Imp IDs must be unique.");
     }
 
+    /**
+     * Decodes extensions of the given {@link BidRequest} the same way auction request factories do.
+     */
+    private static AuctionContext givenAuctionContext(BidRequest bidRequest) {
+        final User user = bidRequest.getUser();
+        final Regs regs = bidRequest.getRegs();
+        return AuctionContext.builder()
+                .bidRequest(bidRequest)
+                .extBidRequest(bidRequest.getExt() != null
+                        ? mapper.convertValue(bidRequest.getExt(), ExtBidRequest.class)
+                        : null)
+                .extUser(user != null && user.getExt() != null
+                        ? mapper.convertValue(user.getExt(), ExtUser.class)
+                        : null)
+                .extRegs(regs != null && regs.getExt() != null
+                        ? mapper.convertValue(regs.getExt(), ExtRegs.class)
+                        : null)
+                .build();
+    }
+
     private static BidRequest.BidRequestBuilder validBidRequestBuilder() {
         return BidRequest.builder().id("1").tmax(300L)
                 .cur(singletonList("USD"))
@@ -0,0 +1,223 @@
+package org.prebid.server.vertx;
+
+import io.vertx.core.Future;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+import static org.mockito.BDDMockito.given;
+
+public class SlidingWindowCircuitBreakerTest {
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private Clock clock;
+
+    private SlidingWindowCircuitBreaker circuitBreaker;
+
+    private List<String> transitions;
+
+    @Before
+    public void setUp() {
+        given(clock.millis()).willReturn(0L);
+
+        transitions = new ArrayList<>();
+        // window of 4 calls, opens on 50% of failures or 50% of calls taking 100ms or longer
+        circuitBreaker = givenCircuitBreaker(4, 2, 0.5, 0.5, 2);
+    }
+
+    @Test
+    public void creationShouldFailOnNullArguments() {
+        assertThatNullPointerException().isThrownBy(
+                () -> new SlidingWindowCircuitBreaker(null, 1, 1, 1, 1L, 1, 1L, 1));
+    }
+
+    @Test
+    public void creationShouldFailOnInvalidArguments() {
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new SlidingWindowCircuitBreaker(clock, 1, 2, 1, 1L, 1, 1L, 1));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new SlidingWindowCircuitBreaker(clock, 1, 1, 0, 1L, 1, 1L, 1));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new SlidingWindowCircuitBreaker(clock, 1, 1, 1, 1L, 1.5, 1L, 1));
+        assertThatIllegalArgumentException().isThrownBy(
+                () -> new SlidingWindowCircuitBreaker(clock, 1, 1, 1, 1L, 1, 1L, 0));
+    }
+
+    @Test
+    public void executeShouldSucceedIfOperationSucceeds() {
+        // when
+        final Future<String> future = executeWithSuccess(0L);
+
+        // then
+        assertThat(future.succeeded()).isTrue();
+        assertThat(future.result()).isEqualTo("value");
+    }
+
+    @Test
+    public void executeShouldFailWithOperationExceptionIfOperationThrowsIt() {
+        // when
+        final Future<String> future = circuitBreaker.execute(ignored -> {
+            throw new RuntimeException("exception");
+        });
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).hasMessage("exception");
+    }
+
+    @Test
+    public void executeShouldNotOpenCircuitUntilMinimumCallsRecorded() {
+        // when
+        executeWithFail();
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.failureRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void executeShouldOpenCircuitIfFailureRateReachesThreshold() {
+        // when
+        executeWithSuccess(0L);
+        executeWithFail();
+        final Future<String> future = executeWithSuccess(0L);
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).hasMessage("open circuit");
+        assertThat(transitions).containsExactly("open");
+    }
+
+    @Test
+    public void executeShouldOpenCircuitIfSlowCallRateReachesThreshold() {
+        // when
+        executeWithSuccess(0L);
+        executeWithSuccess(100L);
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    @Test
+    public void executeShouldForgetOutcomesLeavingWindow() {
+        // given
+        circuitBreaker = givenCircuitBreaker(2, 2, 1, 1, 1);
+
+        // when
+        executeWithFail();
+        executeWithSuccess(0L);
+        executeWithSuccess(0L);
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.failureRate()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void executeShouldPermitLimitedNumberOfTrialCallsWhenCircuitIsHalfOpen() {
+        // given
+        givenOpenCircuit();
+        given(clock.millis()).willReturn(1000L);
+
+        // when
+        final List<Future<String>> operationFutures = new ArrayList<>();
+        final List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(circuitBreaker.execute(operationFutures::add));
+        }
+
+        // then
+        assertThat(operationFutures).hasSize(2);
+        assertThat(futures.get(2).failed()).isTrue();
+        assertThat(futures.get(2).cause()).hasMessage("open circuit");
+        assertThat(transitions).containsExactly("open", "half-open");
+    }
+
+    @Test
+    public void executeShouldCloseCircuitIfAllTrialCallsSucceed() {
+        // given
+        givenOpenCircuit();
+        given(clock.millis()).willReturn(1000L);
+
+        // when
+        executeWithSuccess(0L);
+        executeWithSuccess(0L);
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isFalse();
+        assertThat(circuitBreaker.failureRate()).isEqualTo(0.0);
+        assertThat(transitions).containsExactly("open", "half-open", "close");
+    }
+
+    @Test
+    public void executeShouldReopenCircuitIfTrialCallFails() {
+        // given
+        givenOpenCircuit();
+        given(clock.millis()).willReturn(1000L);
+
+        // when
+        executeWithSuccess(0L);
+        executeWithFail();
+
+        // then
+        assertThat(circuitBreaker.isOpen()).isTrue();
+        assertThat(transitions).containsExactly("open", "half-open", "open");
+    }
+
+    @Test
+    public void executeShouldNotPermitCallsUntilOpeningIntervalPassed() {
+        // given
+        givenOpenCircuit();
+        given(clock.millis()).willReturn(999L);
+
+        // when
+        final Future<String> future = executeWithSuccess(0L);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(transitions).containsExactly("open");
+    }
+
+    private SlidingWindowCircuitBreaker givenCircuitBreaker(int windowSize, int minimumCalls,
+                                                            double failureRateThreshold,
+                                                            double slowCallRateThreshold, int halfOpenMaxCalls) {
+        return new SlidingWindowCircuitBreaker(clock, windowSize, minimumCalls, failureRateThreshold, 100L,
+                slowCallRateThreshold, 1000L, halfOpenMaxCalls)
+                .openHandler(ignored -> transitions.add("open"))
+                .halfOpenHandler(ignored -> transitions.add("half-open"))
+                .closeHandler(ignored -> transitions.add("close"));
+    }
+
+    private void givenOpenCircuit() {
+        executeWithFail();
+        executeWithFail();
+        assertThat(circuitBreaker.isOpen()).isTrue();
+    }
+
+    private Future<String> executeWithSuccess(long duration) {
+        final long startTime = clock.millis();
+        return circuitBreaker.execute(future -> {
+            given(clock.millis()).willReturn(startTime + duration);
+            future.complete("value");
+            given(clock.millis()).willReturn(startTime);
+        });
+    }
+
+    private void executeWithFail() {
+        circuitBreaker.execute(future -> future.fail(new RuntimeException("exception")));
+    }
+}
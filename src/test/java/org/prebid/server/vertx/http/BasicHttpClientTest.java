@@ -6,9 +6,14 @@ import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.ConnectionPoolTooBusyException;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpConnection;
+import io.vertx.core.http.HttpHeaders;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.ext.unit.Async;
 import io.vertx.ext.unit.TestContext;
 import io.vertx.ext.unit.junit.VertxUnitRunner;
@@ -20,23 +25,39 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 import org.mockito.stubbing.Answer;
+import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.http.model.Http2Policy;
+import org.prebid.server.vertx.http.model.HttpCompressionPolicy;
+import org.prebid.server.vertx.http.model.HttpDestinationPolicy;
+import org.prebid.server.vertx.http.model.HttpPoolPolicy;
+import org.prebid.server.vertx.http.model.HttpResponseLimitPolicy;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 
 @RunWith(VertxUnitRunner.class)
 public class BasicHttpClientTest {
@@ -48,6 +69,10 @@ public class BasicHttpClientTest {
     private Vertx vertx;
     @Mock
     private io.vertx.core.http.HttpClient wrappedHttpClient;
+    @Mock
+    private io.vertx.core.http.HttpClient destinationHttpClient;
+    @Mock
+    private Metrics metrics;
 
     private BasicHttpClient httpClient;
 
@@ -142,6 +167,230 @@ public class BasicHttpClientTest {
         assertThat(future.cause()).hasMessage("Response exception");
     }
 
+    @Test
+    public void requestShouldUseDestinationHttpClientIfUrlMatchesDestinationPolicy() {
+        // given
+        httpClient = givenHttpClientWithDestination(10);
+
+        // when
+        httpClient.request(HttpMethod.POST, "http://Bidder.com:8080/auction?param=value", null, "body", 500L);
+
+        // then
+        verify(destinationHttpClient).requestAbs(eq(HttpMethod.POST),
+                eq("http://Bidder.com:8080/auction?param=value"));
+        verifyZeroInteractions(wrappedHttpClient);
+        verify(httpClientRequest).putHeader(eq(HttpHeaders.CONTENT_LENGTH), eq("4"));
+        verify(httpClientRequest).sendHead(any());
+        verify(httpClientRequest).end(eq(Buffer.buffer("body")));
+        verify(metrics).updateAdapterConnectionPoolMetrics(eq("bidder"), eq(0), eq(0));
+    }
+
+    @Test
+    public void requestShouldUseCommonHttpClientIfUrlDoesNotMatchDestinationPolicy() {
+        // given
+        httpClient = givenHttpClientWithDestination(10);
+
+        // when
+        httpClient.request(HttpMethod.POST, "http://bidder.com/auction", null, "body", 500L);
+
+        // then
+        verify(wrappedHttpClient).requestAbs(eq(HttpMethod.POST), eq("http://bidder.com/auction"));
+        verifyZeroInteractions(destinationHttpClient);
+        verifyZeroInteractions(metrics);
+    }
+
+    @Test
+    public void requestShouldUpdateConnectionWaitTimeMetricWhenDestinationConnectionObtained() {
+        // given
+        httpClient = givenHttpClientWithDestination(10);
+
+        given(httpClientRequest.sendHead(any()))
+                .willAnswer(withSelfAndPassObjectToHandler(HttpVersion.HTTP_1_1));
+
+        // when
+        httpClient.request(HttpMethod.GET, "http://bidder.com:8080/auction", null, null, 500L);
+
+        // then
+        verify(metrics).updateAdapterConnectionWaitTimeMetric(eq("bidder"), anyLong());
+    }
+
+    @Test
+    public void requestShouldFailFastIfDestinationInFlightRequestsLimitReached() {
+        // given
+        httpClient = givenHttpClientWithDestination(1);
+
+        // when
+        final Future<?> firstFuture = httpClient.request(HttpMethod.GET, "http://bidder.com:8080", null, null, 500L);
+        final Future<?> secondFuture = httpClient.request(HttpMethod.GET, "http://bidder.com:8080", null, null, 500L);
+
+        // then
+        assertThat(firstFuture.isComplete()).isFalse();
+        assertThat(secondFuture.failed()).isTrue();
+        assertThat(secondFuture.cause()).isInstanceOf(ConnectionPoolTooBusyException.class)
+                .hasMessage("Number of in-flight requests to bidder exceeded 1");
+        verify(destinationHttpClient).requestAbs(any(), any());
+        verify(metrics).updateAdapterConnectionPoolMetrics(eq("bidder"), eq(0), eq(1));
+        verify(metrics).updateAdapterConnectionPoolRejectedMetric(eq("bidder"));
+    }
+
+    @Test
+    public void requestShouldReleaseDestinationInFlightRequestWhenRequestCompleted() {
+        // given
+        httpClient = givenHttpClientWithDestination(1);
+
+        given(httpClientRequest.exceptionHandler(any()))
+                .willAnswer(withSelfAndPassObjectToHandler(new ConnectionPoolTooBusyException("Queue is full")));
+
+        // when
+        final Future<?> firstFuture = httpClient.request(HttpMethod.GET, "http://bidder.com:8080", null, null, 500L);
+        final Future<?> secondFuture = httpClient.request(HttpMethod.GET, "http://bidder.com:8080", null, null, 500L);
+
+        // then
+        assertThat(firstFuture.cause()).hasMessage("Queue is full");
+        assertThat(secondFuture.cause()).hasMessage("Queue is full");
+        verify(destinationHttpClient, times(2)).requestAbs(any(), any());
+        verify(metrics, times(2)).updateAdapterConnectionPoolMetrics(eq("bidder"), eq(0), eq(0));
+        verify(metrics, times(2)).updateAdapterConnectionPoolRejectedMetric(eq("bidder"));
+    }
+
+    @Test
+    public void requestShouldSendGzippedBodyIfDestinationRequiresCompressionAndBodyIsBigEnough() {
+        // given
+        httpClient = givenHttpClientWithCompressedDestination(4);
+
+        // when
+        httpClient.request(HttpMethod.POST, "http://bidder.com/auction", null, "body", 500L);
+
+        // then
+        verify(httpClientRequest).putHeader(eq(HttpHeaders.CONTENT_ENCODING), eq("gzip"));
+        verify(httpClientRequest).end(eq(GzipCompressor.compress("body")));
+        verify(metrics).updateAdapterRequestCompressionMetrics(eq("bidder"), eq(4), anyInt(), anyLong());
+    }
+
+    @Test
+    public void requestShouldSendPlainBodyIfBodyIsSmallerThanCompressionThreshold() {
+        // given
+        httpClient = givenHttpClientWithCompressedDestination(5);
+
+        // when
+        httpClient.request(HttpMethod.POST, "http://bidder.com/auction", null, "body", 500L);
+
+        // then
+        verify(httpClientRequest, never()).putHeader(eq(HttpHeaders.CONTENT_ENCODING), any(CharSequence.class));
+        verify(httpClientRequest).end(eq("body"));
+        verifyZeroInteractions(metrics);
+    }
+
+    @Test
+    public void requestShouldAbortResponseIfContentLengthExceedsDestinationLimit() {
+        // given
+        httpClient = givenHttpClientWithResponseLimitedDestination(5);
+
+        given(httpClientRequest.handler(any()))
+                .willAnswer(withSelfAndPassObjectToHandler(httpClientResponse));
+        given(httpClientResponse.getHeader(eq(HttpHeaders.CONTENT_LENGTH))).willReturn("6");
+
+        // when
+        final Future<?> future = httpClient.request(HttpMethod.GET, "http://bidder.com/auction", null, null, 500L);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(ResponseTooLargeException.class)
+                .hasMessage("Response size from bidder exceeded 5 bytes");
+        verify(httpClientRequest).reset();
+        verify(httpClientResponse, never()).handler(any());
+    }
+
+    @Test
+    public void requestShouldAbortResponseAsSoonAsReceivedBodyExceedsDestinationLimit() {
+        // given
+        httpClient = givenHttpClientWithResponseLimitedDestination(5);
+
+        given(httpClientRequest.handler(any()))
+                .willAnswer(withSelfAndPassObjectToHandler(httpClientResponse));
+        given(httpClientResponse.handler(any())).willAnswer(inv -> {
+            final Handler<Buffer> handler = inv.getArgument(0);
+            handler.handle(Buffer.buffer("abc"));
+            handler.handle(Buffer.buffer("def"));
+            handler.handle(Buffer.buffer("ghi"));
+            return inv.getMock();
+        });
+
+        // when
+        final Future<?> future = httpClient.request(HttpMethod.GET, "http://bidder.com/auction", null, null, 500L);
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(ResponseTooLargeException.class);
+        verify(httpClientRequest).reset();
+    }
+
+    @Test
+    public void requestShouldSucceedIfReceivedBodyDoesNotExceedDestinationLimit() {
+        // given
+        httpClient = givenHttpClientWithResponseLimitedDestination(6);
+
+        given(httpClientRequest.handler(any()))
+                .willAnswer(withSelfAndPassObjectToHandler(httpClientResponse));
+        given(httpClientResponse.handler(any())).willAnswer(inv -> {
+            final Handler<Buffer> handler = inv.getArgument(0);
+            handler.handle(Buffer.buffer("abc"));
+            handler.handle(Buffer.buffer("def"));
+            return inv.getMock();
+        });
+        given(httpClientResponse.endHandler(any())).willAnswer(withSelfAndPassObjectToHandler(null));
+        given(httpClientResponse.statusCode()).willReturn(200);
+
+        // when
+        final Future<?> future = httpClient.request(HttpMethod.GET, "http://bidder.com/auction", null, null, 500L);
+
+        // then
+        assertThat(future.succeeded()).isTrue();
+        assertThat(((org.prebid.server.vertx.http.model.HttpClientResponse) future.result()).getBody())
+                .isEqualTo("abcdef");
+        verify(httpClientRequest, never()).reset();
+    }
+
+    @Test
+    public void requestShouldMultiplexRequestsOverSingleHttp2Connection(TestContext context) {
+        // given
+        final Vertx vertx = Vertx.vertx();
+        final Set<HttpConnection> serverConnections = ConcurrentHashMap.newKeySet();
+        startHttpServer(vertx, context, 9191, serverConnections);
+
+        final HttpClient httpClient = givenHttpClientWithHttp2Destination(vertx, "http://localhost:9191");
+
+        // when
+        final List<String> responseBodies = new ArrayList<>();
+        responseBodies.add(requestBody(context, httpClient, "http://localhost:9191/first"));
+        final List<Future<?>> concurrentFutures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            concurrentFutures.add(httpClient.get("http://localhost:9191/concurrent", 1000L));
+        }
+        for (Future<?> future : concurrentFutures) {
+            responseBodies.add(awaitBody(context, future));
+        }
+
+        // then
+        assertThat(responseBodies).hasSize(4).containsOnly("HTTP_2");
+        assertThat(serverConnections).hasSize(1);
+    }
+
+    @Test
+    public void requestShouldFallBackToHttp11IfServerDoesNotSupportHttp2(TestContext context) {
+        // given
+        final Vertx vertx = Vertx.vertx();
+        startHttp11Server(9292, "HTTP_1_1");
+
+        final HttpClient httpClient = givenHttpClientWithHttp2Destination(vertx, "http://localhost:9292");
+
+        // when
+        final String body = requestBody(context, httpClient, "http://localhost:9292/first");
+
+        // then
+        assertThat(body).isEqualTo("HTTP_1_1");
+    }
+
     @Test
     public void requestShouldFailIfHttpRequestTimedOut(TestContext context) {
         // given
@@ -186,6 +435,117 @@ public class BasicHttpClientTest {
                 .hasMessage("Timeout period of 1000ms has been exceeded");
     }
 
+    private BasicHttpClient givenHttpClientWithDestination(int maxInFlightRequests) {
+        given(destinationHttpClient.requestAbs(any(), any())).willReturn(httpClientRequest);
+        given(httpClientRequest.putHeader(any(CharSequence.class), any(CharSequence.class)))
+                .willReturn(httpClientRequest);
+        given(httpClientRequest.sendHead(any())).willReturn(httpClientRequest);
+
+        final HttpDestinationPolicy policy = HttpDestinationPolicy.of("bidder", "http://bidder.com:8080/auction",
+                HttpPoolPolicy.of(10, 10, 60, maxInFlightRequests), null, null, null);
+        return new BasicHttpClient(vertx, wrappedHttpClient, singletonList(policy), ignored -> destinationHttpClient,
+                metrics);
+    }
+
+    private BasicHttpClient givenHttpClientWithCompressedDestination(int minSizeBytes) {
+        given(destinationHttpClient.requestAbs(any(), any())).willReturn(httpClientRequest);
+        given(httpClientRequest.putHeader(any(CharSequence.class), any(CharSequence.class)))
+                .willReturn(httpClientRequest);
+
+        final HttpDestinationPolicy policy = HttpDestinationPolicy.of("bidder", "http://bidder.com/auction",
+                null, null, HttpCompressionPolicy.of(minSizeBytes), null);
+        return new BasicHttpClient(vertx, wrappedHttpClient, singletonList(policy), ignored -> destinationHttpClient,
+                metrics);
+    }
+
+    private BasicHttpClient givenHttpClientWithResponseLimitedDestination(int maxSizeBytes) {
+        given(destinationHttpClient.requestAbs(any(), any())).willReturn(httpClientRequest);
+        given(httpClientResponse.handler(any())).willReturn(httpClientResponse);
+        given(httpClientResponse.endHandler(any())).willReturn(httpClientResponse);
+
+        final HttpDestinationPolicy policy = HttpDestinationPolicy.of("bidder", "http://bidder.com/auction",
+                null, null, null, HttpResponseLimitPolicy.of(maxSizeBytes));
+        return new BasicHttpClient(vertx, wrappedHttpClient, singletonList(policy), ignored -> destinationHttpClient,
+                metrics);
+    }
+
+    private static HttpClient givenHttpClientWithHttp2Destination(Vertx vertx, String endpoint) {
+        final HttpDestinationPolicy policy = HttpDestinationPolicy.of("bidder", endpoint, null,
+                Http2Policy.of(10, 1, 50L, 1000L), null, null);
+        return new BasicHttpClient(vertx, vertx.createHttpClient(), singletonList(policy),
+                destinationPolicy -> vertx.createHttpClient(
+                        BasicHttpClient.destinationOptions(new HttpClientOptions(), destinationPolicy)),
+                mock(Metrics.class));
+    }
+
+    /**
+     * The server responds with HTTP version of request and remembers connections it was requested with.
+     */
+    private static void startHttpServer(Vertx vertx, TestContext context, int port,
+                                        Set<HttpConnection> connections) {
+        final Async async = context.async();
+        vertx.createHttpServer()
+                .requestHandler(request -> {
+                    connections.add(request.connection());
+                    request.response().end(request.version().name());
+                })
+                .listen(port, context.asyncAssertSuccess(ignored -> async.complete()));
+        async.await();
+    }
+
+    private static String requestBody(TestContext context, HttpClient httpClient, String url) {
+        return awaitBody(context, httpClient.get(url, 1000L));
+    }
+
+    private static String awaitBody(TestContext context, Future<?> future) {
+        final Async async = context.async();
+        future.setHandler(ignored -> async.complete());
+        async.await();
+
+        assertThat(future.succeeded()).isTrue();
+        return ((org.prebid.server.vertx.http.model.HttpClientResponse) future.result()).getBody();
+    }
+
+    /**
+     * The server supports HTTP/1.1 only, so ignores upgrade to HTTP/2 and returns given body.
+     */
+    private static void startHttp11Server(int port, String body) {
+        final CountDownLatch completionLatch = new CountDownLatch(1);
+
+        new Thread(() -> {
+            try (ServerSocket serverSocket = new ServerSocket(port)) {
+                completionLatch.countDown();
+
+                try (Socket clientSocket = serverSocket.accept()) {
+                    try (BufferedWriter out = new BufferedWriter(
+                            new OutputStreamWriter(clientSocket.getOutputStream()))) {
+
+                        out.write("HTTP/1.1 200 OK");
+                        out.newLine();
+
+                        out.write("Content-Length: " + body.length());
+                        out.newLine();
+
+                        out.newLine();
+                        out.write(body);
+                        out.flush();
+
+                        // keep connection open until client reads the response
+                        sleep(500L);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }).start();
+
+        try {
+            completionLatch.await(10L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     /**
      * The server returns entire response or body with delay.
      */
@@ -1,28 +1,29 @@
 package org.prebid.server.vertx.http;
 
 import io.vertx.core.Future;
-import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpMethod;
-import io.vertx.ext.unit.Async;
-import io.vertx.ext.unit.TestContext;
-import io.vertx.ext.unit.junit.VertxUnitRunner;
-import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
-import org.junit.runner.RunWith;
 import org.mockito.BDDMockito;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
-import org.prebid.server.exception.PreBidException;
 import org.prebid.server.metric.Metrics;
+import org.prebid.server.vertx.SlidingWindowCircuitBreaker;
 import org.prebid.server.vertx.http.model.HttpClientResponse;
 
+import java.time.Clock;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
-import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
@@ -30,56 +31,68 @@ import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
-@RunWith(VertxUnitRunner.class)
 public class CircuitBreakerSecuredHttpClientTest {
 
     @Rule
     public final MockitoRule mockitoRule = MockitoJUnit.rule();
 
-    private Vertx vertx;
     @Mock
     private HttpClient wrappedHttpClient;
     @Mock
     private Metrics metrics;
+    @Mock
+    private Clock clock;
+
+    private Supplier<SlidingWindowCircuitBreaker> circuitBreakerCreator;
 
     private CircuitBreakerSecuredHttpClient httpClient;
 
     @Before
     public void setUp() {
-        vertx = Vertx.vertx();
-        httpClient = new CircuitBreakerSecuredHttpClient(vertx, wrappedHttpClient, metrics, 0, 100L, 200L);
-    }
+        given(clock.millis()).willReturn(0L);
+
+        // opens on the first failure and permits single trial call after 200ms
+        circuitBreakerCreator = () -> new SlidingWindowCircuitBreaker(clock, 1, 1, 1, 1000L, 1, 200L, 1);
 
-    @After
-    public void tearDown(TestContext context) {
-        vertx.close(context.asyncAssertSuccess());
+        httpClient = new CircuitBreakerSecuredHttpClient(wrappedHttpClient, metrics,
+                singletonMap("bidder", "http://bidder.com/auction"), circuitBreakerCreator);
     }
 
     @Test
     public void creationShouldFailOnNullArguments() {
         assertThatNullPointerException().isThrownBy(
-                () -> new CircuitBreakerSecuredHttpClient(null, null, null, 0, 0L, 0L));
+                () -> new CircuitBreakerSecuredHttpClient(null, null, null, null));
         assertThatNullPointerException().isThrownBy(
-                () -> new CircuitBreakerSecuredHttpClient(vertx, null, null, 0, 0L, 0L));
+                () -> new CircuitBreakerSecuredHttpClient(wrappedHttpClient, null, null, null));
         assertThatNullPointerException().isThrownBy(
-                () -> new CircuitBreakerSecuredHttpClient(vertx, httpClient, null, 0, 0L, 0L));
+                () -> new CircuitBreakerSecuredHttpClient(wrappedHttpClient, metrics, null, null));
+        assertThatNullPointerException().isThrownBy(
+                () -> new CircuitBreakerSecuredHttpClient(wrappedHttpClient, metrics, emptyMap(), null));
     }
 
     @Test
-    public void requestShouldFailsOnInvalidUrl() {
-        // when and then
-        assertThatThrownBy(() -> httpClient.request(HttpMethod.GET, "invalid_url", null, null, 0L))
-                .isInstanceOf(PreBidException.class)
-                .hasMessage("Invalid url: invalid_url");
+    public void requestShouldUseSharedFallbackCircuitBreakerForUnknownEndpoints() {
+        // given
+        givenHttpClientReturning(new RuntimeException("exception"));
+
+        // when
+        final Future<?> future1 = httpClient.request(HttpMethod.GET, "http://other.com/path", null, null, 0L);
+        final Future<?> future2 = httpClient.request(HttpMethod.GET, "invalid_url", null, null, 0L);
+
+        // then
+        verify(wrappedHttpClient).request(any(), anyString(), any(), any(), anyLong());
+        assertThat(future1.cause()).hasMessage("exception");
+        assertThat(future2.cause()).hasMessage("open circuit");
+        verify(metrics).updateHttpClientCircuitBreakerMetric(eq("unknown"), eq(true));
     }
 
     @Test
-    public void requestShouldSucceedsIfCircuitIsClosedAndWrappedHttpClientSucceeds(TestContext context) {
+    public void requestShouldSucceedsIfCircuitIsClosedAndWrappedHttpClientSucceeds() {
         // given
-        givenHttpClientReturning(HttpClientResponse.of(200, null, null));
+        givenHttpClientReturning(HttpClientResponse.of(200, null, ""));
 
         // when
-        final Future<?> future = doRequest(context);
+        final Future<?> future = doRequest();
 
         // then
         verify(wrappedHttpClient).request(any(), anyString(), any(), any(), anyLong());
@@ -88,12 +101,12 @@ public class CircuitBreakerSecuredHttpClientTest {
     }
 
     @Test
-    public void requestShouldFailsIfCircuitIsClosedButWrappedHttpClientFails(TestContext context) {
+    public void requestShouldFailsIfCircuitIsClosedButWrappedHttpClientFails() {
         // given
         givenHttpClientReturning(new RuntimeException("exception"));
 
         // when
-        final Future<?> future = doRequest(context);
+        final Future<?> future = doRequest();
 
         // then
         verify(wrappedHttpClient).request(any(), anyString(), any(), any(), anyLong());
@@ -103,14 +116,13 @@ public class CircuitBreakerSecuredHttpClientTest {
     }
 
     @Test
-    public void requestShouldFailsIfCircuitIsHalfOpenedButWrappedHttpClientFailsAndClosingTimeIsNotPassedBy(
-            TestContext context) {
+    public void requestShouldFailsIfCircuitIsOpenedAndClosingTimeIsNotPassedBy() {
         // given
         givenHttpClientReturning(new RuntimeException("exception"));
 
         // when
-        final Future<?> future1 = doRequest(context); // 1 call
-        final Future<?> future2 = doRequest(context); // 2 call
+        final Future<?> future1 = doRequest(); // 1 call
+        final Future<?> future2 = doRequest(); // 2 call
 
         // then
         verify(wrappedHttpClient).request(any(), anyString(), any(), any(), anyLong()); // invoked only on 1 call
@@ -123,102 +135,134 @@ public class CircuitBreakerSecuredHttpClientTest {
     }
 
     @Test
-    public void requestShouldFailsIfCircuitIsHalfOpenedButWrappedHttpClientFails(TestContext context) {
+    public void requestShouldSucceedsIfCircuitIsHalfOpenedAndWrappedHttpClientSucceeds() {
         // given
-        givenHttpClientReturning(new RuntimeException("exception"));
+        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, ""));
 
         // when
-        final Future<?> future1 = doRequest(context); // 1 call
-        final Future<?> future2 = doRequest(context); // 2 call
-        doWaitForClosingInterval(context);
-        final Future<?> future3 = doRequest(context); // 3 call
+        final Future<?> future1 = doRequest(); // 1 call
+        final Future<?> future2 = doRequest(); // 2 call
+        given(clock.millis()).willReturn(200L);
+        final Future<?> future3 = doRequest(); // 3 call
 
         // then
         verify(wrappedHttpClient, times(2))
                 .request(any(), anyString(), any(), any(), anyLong()); // invoked only on 1 & 3 calls
 
-        assertThat(future1.failed()).isTrue();
-        assertThat(future1.cause()).isInstanceOf(RuntimeException.class).hasMessage("exception");
+        assertThat(future1.cause()).hasMessage("exception");
+        assertThat(future2.cause()).hasMessage("open circuit");
+        assertThat(future3.succeeded()).isTrue();
+    }
 
-        assertThat(future2.failed()).isTrue();
-        assertThat(future2.cause()).isInstanceOf(RuntimeException.class).hasMessage("open circuit");
+    @Test
+    public void requestShouldUseSeparateCircuitBreakersForDifferentEndpoints() {
+        // given
+        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, ""));
 
-        assertThat(future3.failed()).isTrue();
-        assertThat(future3.cause()).isInstanceOf(RuntimeException.class).hasMessage("exception");
+        // when
+        doRequest();
+        final Future<?> future = httpClient.request(HttpMethod.GET, "http://other.com/path", null, null, 0L);
+
+        // then
+        assertThat(future.succeeded()).isTrue();
     }
 
     @Test
-    public void requestShouldSucceedsIfCircuitIsHalfOpenedAndWrappedHttpClientSucceeds(TestContext context) {
+    public void requestShouldUseSeparateCircuitBreakersForDifferentPathsOfHost() {
         // given
-        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, null));
+        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, ""));
 
         // when
-        final Future<?> future1 = doRequest(context); // 1 call
-        final Future<?> future2 = doRequest(context); // 2 call
-        doWaitForClosingInterval(context);
-        final Future<?> future3 = doRequest(context); // 3 call
+        doRequest();
+        final Future<?> future = httpClient.request(HttpMethod.GET, "http://bidder.com/other", null, null, 0L);
 
         // then
-        verify(wrappedHttpClient, times(2))
-                .request(any(), anyString(), any(), any(), anyLong()); // invoked only on 1 & 3 calls
+        assertThat(future.succeeded()).isTrue();
+    }
 
-        assertThat(future1.failed()).isTrue();
-        assertThat(future1.cause()).isInstanceOf(RuntimeException.class).hasMessage("exception");
+    @Test
+    public void requestShouldResolveCircuitBreakerByEndpointNameRegardlessOfUrl() {
+        // given
+        givenHttpClientReturning(new RuntimeException("exception"));
 
-        assertThat(future2.failed()).isTrue();
-        assertThat(future2.cause()).isInstanceOf(RuntimeException.class).hasMessage("open circuit");
+        // when
+        doRequest();
+        final Future<?> future = httpClient.request("bidder", HttpMethod.GET, "http://bidder.com/auction/1?id=1",
+                null, null, 0L);
 
-        assertThat(future3.succeeded()).isTrue();
+        // then
+        assertThat(future.cause()).hasMessage("open circuit");
     }
 
     @Test
-    public void requestShouldFailsWithOriginalExceptionIfOpeningIntervalExceeds(TestContext context) {
+    public void requestShouldResolveCircuitBreakerByUrlIfEndpointNameIsUnknown() {
         // given
-        httpClient = new CircuitBreakerSecuredHttpClient(vertx, wrappedHttpClient, metrics, 2, 100L, 200L);
+        givenHttpClientReturning(new RuntimeException("exception"));
 
-        givenHttpClientReturning(new RuntimeException("exception1"), new RuntimeException("exception2"));
+        // when
+        doRequest();
+        final Future<?> future = httpClient.request("other", HttpMethod.GET, "http://bidder.com/auction", null, null,
+                0L);
+
+        // then
+        assertThat(future.cause()).hasMessage("open circuit");
+    }
+
+    @Test
+    public void requestShouldReportMetricsOnCircuitOpened() {
+        // given
+        givenHttpClientReturning(new RuntimeException("exception"));
 
         // when
-        final Future<?> future1 = doRequest(context); // 1 call
-        doWaitForOpeningInterval(context);
-        final Future<?> future2 = doRequest(context); // 2 call
+        doRequest();
 
         // then
-        verify(wrappedHttpClient, times(2))
-                .request(any(), anyString(), any(), any(), anyLong()); // invoked on 1 & 2 calls
+        verify(metrics).updateHttpClientCircuitBreakerMetric(eq("bidder"), eq(true));
+    }
 
-        assertThat(future1.failed()).isTrue();
-        assertThat(future1.cause()).isInstanceOf(RuntimeException.class).hasMessage("exception1");
+    @Test
+    public void requestShouldReportMetricsOnCircuitHalfOpenedAndClosed() {
+        // given
+        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, ""));
 
-        assertThat(future2.failed()).isTrue();
-        assertThat(future2.cause()).isInstanceOf(RuntimeException.class).hasMessage("exception2");
+        // when
+        doRequest(); // 1 call
+        given(clock.millis()).willReturn(200L);
+        doRequest(); // 2 call
+
+        // then
+        verify(metrics).updateHttpClientCircuitBreakerHalfOpenedMetric(eq("bidder"));
+        verify(metrics).updateHttpClientCircuitBreakerMetric(eq("bidder"), eq(false));
     }
 
     @Test
-    public void requestShouldReportMetricsOnCircuitOpened(TestContext context) {
+    public void requestShouldReportWindowMetricsOfEndpointSharedByNames() {
         // given
+        final Map<String, String> endpoints = new HashMap<>();
+        endpoints.put("bidder", "http://bidder.com/auction");
+        endpoints.put("alias", "http://bidder.com/auction");
+        endpoints.put("other", "http://bidder.com/other");
+        httpClient = new CircuitBreakerSecuredHttpClient(wrappedHttpClient, metrics, endpoints,
+                () -> new SlidingWindowCircuitBreaker(clock, 2, 2, 1, 1000L, 1, 200L, 1));
         givenHttpClientReturning(new RuntimeException("exception"));
 
         // when
-        doRequest(context);
+        doRequest();
 
         // then
-        verify(metrics).updateHttpClientCircuitBreakerMetric(eq(true));
+        verify(metrics).updateHttpClientCircuitBreakerWindowMetrics(eq("alias,bidder"), eq(100), eq(0));
     }
 
     @Test
-    public void requestShouldReportMetricsOnCircuitClosed(TestContext context) {
+    public void requestShouldNotReportWindowMetricsOfOpenedCircuit() {
         // given
-        givenHttpClientReturning(new RuntimeException("exception"), HttpClientResponse.of(200, null, null));
+        givenHttpClientReturning(new RuntimeException("exception"));
 
         // when
-        doRequest(context); // 1 call
-        doRequest(context); // 2 call
-        doWaitForClosingInterval(context);
-        doRequest(context); // 3 call
+        doRequest();
 
         // then
-        verify(metrics).updateHttpClientCircuitBreakerMetric(eq(false));
+        verify(metrics, times(0)).updateHttpClientCircuitBreakerWindowMetrics(any(), anyInt(), anyInt());
     }
 
     @SuppressWarnings("unchecked")
@@ -234,27 +278,7 @@ public class CircuitBreakerSecuredHttpClientTest {
         }
     }
 
-    private Future<HttpClientResponse> doRequest(TestContext context) {
-        final Future<HttpClientResponse> future = httpClient.request(HttpMethod.GET, "http://url", null, null, 0L);
-
-        final Async async = context.async();
-        future.setHandler(ar -> async.complete());
-        async.await();
-
-        return future;
-    }
-
-    private void doWaitForOpeningInterval(TestContext context) {
-        doWait(context, 101L);
-    }
-
-    private void doWaitForClosingInterval(TestContext context) {
-        doWait(context, 201L);
-    }
-
-    private void doWait(TestContext context, long timeout) {
-        final Async async = context.async();
-        vertx.setTimer(timeout, id -> async.complete());
-        async.await();
+    private Future<HttpClientResponse> doRequest() {
+        return httpClient.request(HttpMethod.GET, "http://bidder.com/auction", null, null, 0L);
     }
 }
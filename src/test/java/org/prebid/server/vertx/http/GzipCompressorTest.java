@@ -0,0 +1,53 @@
+package org.prebid.server.vertx.http;
+
+import io.vertx.core.buffer.Buffer;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GzipCompressorTest {
+
+    @Test
+    public void compressShouldReturnGzippedUtf8Bytes() throws IOException {
+        // given
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            value.append("{\"id\":\"").append(i).append("\",\"name\":\"\u00fcn\u00efc\u00f6d\u00e9\"}");
+        }
+
+        // when
+        final Buffer result = GzipCompressor.compress(value.toString());
+
+        // then
+        assertThat(result.length()).isLessThan(value.length());
+        assertThat(decompress(result.getBytes())).isEqualTo(value.toString());
+    }
+
+    @Test
+    public void compressShouldReturnGzippedEmptyString() throws IOException {
+        // when
+        final Buffer result = GzipCompressor.compress("");
+
+        // then
+        assertThat(decompress(result.getBytes())).isEmpty();
+    }
+
+    private static String decompress(byte[] bytes) throws IOException {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[1024];
+            int read;
+            while ((read = gzip.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
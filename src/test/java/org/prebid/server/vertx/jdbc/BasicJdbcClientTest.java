@@ -8,6 +8,7 @@ import io.vertx.core.json.JsonArray;
 import io.vertx.ext.jdbc.JDBCClient;
 import io.vertx.ext.sql.ResultSet;
 import io.vertx.ext.sql.SQLConnection;
+import io.vertx.ext.sql.SQLRowStream;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -22,8 +23,11 @@ import org.prebid.server.metric.Metrics;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeoutException;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static java.util.function.Function.identity;
@@ -35,6 +39,7 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -229,6 +234,117 @@ public class BasicJdbcClientTest {
         verify(metrics).updateDatabaseQueryTimeMetric(anyLong());
     }
 
+    @Test
+    public void executeStreamQueryShouldReturnFailedFutureIfGlobalTimeoutAlreadyExpired() {
+        // when
+        final Future<Void> future = jdbcClient.executeStreamQuery("query", emptyList(), 2,
+                rows -> Future.succeededFuture(), expiredTimeout());
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(TimeoutException.class)
+                .hasMessage("Timed out while executing SQL query");
+        verifyNoMoreInteractions(vertx, vertxJdbcClient);
+    }
+
+    @Test
+    public void executeStreamQueryShouldReturnFailedFutureAndCloseConnectionIfQueryFails() {
+        // given
+        given(vertx.setTimer(anyLong(), any())).willReturn(123L);
+
+        final SQLConnection connection = mock(SQLConnection.class);
+        givenGetConnectionReturning(Future.succeededFuture(connection));
+
+        givenStreamQueryReturning(connection, Future.failedFuture(new RuntimeException("Failed to execute query")));
+
+        // when
+        final Future<Void> future = jdbcClient.executeStreamQuery("query", emptyList(), 2,
+                rows -> Future.succeededFuture(), timeout);
+
+        // then
+        verify(vertx).cancelTimer(eq(123L));
+        verify(connection).close();
+
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(RuntimeException.class).hasMessage("Failed to execute query");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void executeStreamQueryShouldPassRowsByChunksAndPauseStreamWhileChunkIsHandled() {
+        // given
+        given(vertx.setTimer(anyLong(), any())).willReturn(123L);
+
+        final SQLConnection connection = mock(SQLConnection.class);
+        givenGetConnectionReturning(Future.succeededFuture(connection));
+
+        final SQLRowStream stream = givenRowStream();
+        givenStreamQueryReturning(connection, Future.succeededFuture(stream));
+
+        final List<List<JsonArray>> chunks = new ArrayList<>();
+        final Future<Void> chunkFuture = Future.future();
+
+        // when
+        final Future<Void> future = jdbcClient.executeStreamQuery("query", emptyList(), 2,
+                rows -> {
+                    chunks.add(rows);
+                    return chunks.size() == 1 ? chunkFuture : Future.succeededFuture();
+                }, timeout);
+
+        final ArgumentCaptor<Handler<JsonArray>> rowHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(stream).handler(rowHandlerCaptor.capture());
+        final ArgumentCaptor<Handler<Void>> endHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(stream).endHandler(endHandlerCaptor.capture());
+
+        final JsonArray row1 = new JsonArray().add("value1");
+        final JsonArray row2 = new JsonArray().add("value2");
+        final JsonArray row3 = new JsonArray().add("value3");
+        rowHandlerCaptor.getValue().handle(row1);
+        rowHandlerCaptor.getValue().handle(row2);
+
+        // then
+        verify(stream).pause();
+        verify(stream, never()).resume();
+
+        chunkFuture.complete();
+        verify(stream).resume();
+
+        rowHandlerCaptor.getValue().handle(row3);
+        endHandlerCaptor.getValue().handle(null);
+
+        assertThat(future.succeeded()).isTrue();
+        assertThat(chunks).containsExactly(asList(row1, row2), singletonList(row3));
+        verify(stream).close(any());
+        verify(metrics).updateDatabaseQueryTimeMetric(anyLong());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void executeStreamQueryShouldReturnFailedFutureAndCloseStreamIfChunkHandlingFails() {
+        // given
+        given(vertx.setTimer(anyLong(), any())).willReturn(123L);
+
+        final SQLConnection connection = mock(SQLConnection.class);
+        givenGetConnectionReturning(Future.succeededFuture(connection));
+
+        final SQLRowStream stream = givenRowStream();
+        givenStreamQueryReturning(connection, Future.succeededFuture(stream));
+
+        // when
+        final Future<Void> future = jdbcClient.executeStreamQuery("query", emptyList(), 1,
+                rows -> Future.failedFuture(new RuntimeException("Failed to handle chunk")), timeout);
+
+        final ArgumentCaptor<Handler<JsonArray>> rowHandlerCaptor = ArgumentCaptor.forClass(Handler.class);
+        verify(stream).handler(rowHandlerCaptor.capture());
+        rowHandlerCaptor.getValue().handle(new JsonArray().add("value"));
+
+        // then
+        assertThat(future.failed()).isTrue();
+        assertThat(future.cause()).isInstanceOf(RuntimeException.class).hasMessage("Failed to handle chunk");
+        verify(stream).close(any());
+        verify(stream, never()).resume();
+    }
+
     @SuppressWarnings("unchecked")
     private void givenGetConnectionReturning(AsyncResult<SQLConnection> result) {
         given(vertxJdbcClient.getConnection(any())).willAnswer(invocation -> {
@@ -245,6 +361,22 @@ public class BasicJdbcClientTest {
         });
     }
 
+    @SuppressWarnings("unchecked")
+    private static void givenStreamQueryReturning(SQLConnection connection, AsyncResult<SQLRowStream> result) {
+        given(connection.queryStreamWithParams(anyString(), any(), any())).willAnswer(invocation -> {
+            ((Handler<AsyncResult<SQLRowStream>>) invocation.getArgument(2)).handle(result);
+            return null;
+        });
+    }
+
+    private static SQLRowStream givenRowStream() {
+        final SQLRowStream stream = mock(SQLRowStream.class);
+        given(stream.exceptionHandler(any())).willReturn(stream);
+        given(stream.endHandler(any())).willReturn(stream);
+        given(stream.handler(any())).willReturn(stream);
+        return stream;
+    }
+
     private Timeout expiredTimeout() {
         return new TimeoutFactory(clock).create(clock.instant().minusMillis(1500L).toEpochMilli(), 1000L);
     }
@@ -30,6 +30,9 @@ import static java.util.function.Function.identity;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatNullPointerException;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.times;
@@ -237,6 +240,22 @@ public class CircuitBreakerSecuredJdbcClientTest {
                 verify(metrics).updateDatabaseCircuitBreakerMetric(eq(false))));
     }
 
+    @Test
+    public void executeStreamQueryShouldDelegateToWrappedClient(TestContext context) {
+        // given
+        given(wrappedJdbcClient.executeStreamQuery(anyString(), anyList(), anyInt(), any(), any()))
+                .willReturn(Future.succeededFuture());
+
+        // when
+        final Future<Void> future = jdbcClient.executeStreamQuery("query", emptyList(), 10,
+                rows -> Future.succeededFuture(), timeout);
+
+        // then
+        future.setHandler(context.asyncAssertSuccess(result ->
+                verify(wrappedJdbcClient).executeStreamQuery(eq("query"), eq(emptyList()), eq(10), any(),
+                        eq(timeout))));
+    }
+
     @SuppressWarnings("unchecked")
     private <T> void givenExecuteQueryReturning(List<Future<T>> results) {
         BDDMockito.BDDMyOngoingStubbing<Future<Object>> given =